@@ -0,0 +1,116 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the Queue storage with many distinct match values, as seen by the
+ * Combine and Assemble objects when they check whether a match is available.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+	private static final int NUM_VALUES = 1 << 16;
+
+	@Param({"100", "10000"})
+	public int matchValues;
+
+	@Param({"100000"})
+	public int size;
+
+	private QueueEntryList list;
+	private int[] matches;
+	private int idx;
+	private long entNum;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random rand = new Random(42);
+		matches = new int[NUM_VALUES];
+		for (int i = 0; i < NUM_VALUES; i++) {
+			matches[i] = rand.nextInt(matchValues);
+		}
+
+		list = new QueueEntryList();
+		for (int i = 0; i < size; i++) {
+			add();
+		}
+	}
+
+	private void add() {
+		entNum++;
+		list.add(null, entNum, 0, true, matches[idx], 0.0d);
+		idx = (idx + 1) & (NUM_VALUES - 1);
+	}
+
+	/**
+	 * Removes the first entity for a random match value and adds a new one,
+	 * keeping the number of entities constant.
+	 */
+	@Benchmark
+	public int removeForMatchAndAdd() {
+		QueueEntryList.MatchList ml = list.getMatchList(matches[idx]);
+		if (ml != null)
+			list.remove(ml.head);
+		add();
+		return list.getMaxMatchCount();
+	}
+
+	/**
+	 * Removes the first entity for a random match value and adds a new one,
+	 * then finds the largest count by scanning every match value.
+	 */
+	@Benchmark
+	public int removeForMatchAndAddRescan() {
+		QueueEntryList.MatchList ml = list.getMatchList(matches[idx]);
+		if (ml != null)
+			list.remove(ml.head);
+		add();
+		int max = 0;
+		for (int i = 0; i < list.getMatchValueCount(); i++) {
+			max = Math.max(max, list.getMatchListAt(i).count);
+		}
+		return max;
+	}
+
+	/**
+	 * Looks up the number of entities for a random match value.
+	 */
+	@Benchmark
+	public int getMatchCount() {
+		int m = matches[idx];
+		idx = (idx + 1) & (NUM_VALUES - 1);
+		return list.getMatchCount(m);
+	}
+}
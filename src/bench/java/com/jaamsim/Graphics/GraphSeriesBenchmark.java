@@ -0,0 +1,122 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.Graphics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaamsim.Graphics.GraphBasics.PointBuffer;
+import com.jaamsim.Graphics.GraphBasics.SeriesInfo;
+
+/**
+ * Measures the cost of adding one sample to every series of a graph, as done
+ * by Graph.processGraph, and of reading every point of every series, as done
+ * by the renderer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphSeriesBenchmark {
+
+	@Param({"50"})
+	public int numSeries;
+
+	@Param({"10000"})
+	public int numPoints;
+
+	private SeriesInfo[] series;
+	private double[][] xShift;  // arrays shifted on each sample, as before
+	private double[][] yShift;
+	private double t;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		series = new SeriesInfo[numSeries];
+		xShift = new double[numSeries][numPoints];
+		yShift = new double[numSeries][numPoints];
+		for (int i = 0; i < numSeries; i++) {
+			series[i] = new SeriesInfo();
+			series[i].init(numPoints);
+			for (int j = 0; j < numPoints; j++)
+				series[i].add(j, j * 0.5d);
+		}
+		t = numPoints;
+	}
+
+	/**
+	 * Adds a sample to each series using the ring buffer.
+	 */
+	@Benchmark
+	public long addSample() {
+		t += 1.0d;
+		for (SeriesInfo each : series)
+			each.add(t, t * 0.5d);
+		return series[0].getPoints().getCount();
+	}
+
+	/**
+	 * Adds a sample to each series by shifting the arrays.
+	 */
+	@Benchmark
+	public double addSampleShift() {
+		t += 1.0d;
+		for (int i = 0; i < numSeries; i++) {
+			double[] x = xShift[i];
+			double[] y = yShift[i];
+			System.arraycopy(x, 1, x, 0, x.length - 1);
+			System.arraycopy(y, 1, y, 0, y.length - 1);
+			x[x.length - 1] = t;
+			y[y.length - 1] = t * 0.5d;
+		}
+		return xShift[0][0];
+	}
+
+	/**
+	 * Reads every point of every series in order.
+	 */
+	@Benchmark
+	public double readAll() {
+		double sum = 0.0d;
+		for (SeriesInfo each : series) {
+			PointBuffer buf = each.getPoints();
+			int cap = buf.getCapacity();
+			long end = buf.getCount();
+			long first = Math.max(0, end - cap);
+			int n = (int) (end - first);
+			int index = buf.getIndex(first);
+			for (int i = 0; i < n; i++) {
+				sum += buf.getXAt(index) + buf.getYAt(index);
+				if (++index == cap)
+					index = 0;
+			}
+		}
+		return sum;
+	}
+}
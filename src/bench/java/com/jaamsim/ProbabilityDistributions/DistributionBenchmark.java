@@ -0,0 +1,97 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.ProbabilityDistributions;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Measures the cost of drawing one sample from each of the probability
+ * distributions. The samplers are called directly, so the figures exclude the
+ * min/max rejection and the sample statistics kept by getNextSample(double).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistributionBenchmark {
+
+	@Param({"Uniform", "Exponential", "Normal", "LogNormal", "Triangular",
+	        "Gamma", "Erlang", "Beta", "Weibull", "LogLogistic", "Discrete",
+	        "Continuous"})
+	public String distribution;
+
+	private Distribution dist;
+
+	@Setup(Level.Trial)
+	public void setup() throws ClassNotFoundException {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "BenchType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		String className = Distribution.class.getPackage().getName() + "." + distribution + "Distribution";
+		Class<? extends Distribution> klass = Class.forName(className).asSubclass(Distribution.class);
+		dist = InputAgent.defineEntityWithUniqueName(klass, "BenchDist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "RandomSeed", "0");
+
+		if (distribution.equals("Gamma") || distribution.equals("Erlang") || distribution.equals("Weibull"))
+			InputAgent.applyArgs(dist, "Shape", "3");
+
+		if (distribution.equals("Beta")) {
+			InputAgent.applyArgs(dist, "AlphaParam", "2.0");
+			InputAgent.applyArgs(dist, "BetaParam", "3.0");
+		}
+
+		if (distribution.equals("Uniform") || distribution.equals("Triangular")) {
+			InputAgent.applyArgs(dist, "MinValue", "0.0");
+			InputAgent.applyArgs(dist, "MaxValue", "3.0");
+		}
+
+		if (distribution.equals("Discrete")) {
+			InputAgent.applyArgs(dist, "ValueList", "1.0", "3.0", "10.0", "12.0", "15.0");
+			InputAgent.applyArgs(dist, "ProbabilityList", "0.3", "0.3", "0.2", "0.1", "0.1");
+		}
+
+		if (distribution.equals("Continuous")) {
+			InputAgent.applyArgs(dist, "ValueList", "1.0", "3.0", "10.0", "12.0", "15.0");
+			InputAgent.applyArgs(dist, "CumulativeProbabilityList", "0.0", "0.3", "0.6", "0.8", "1.0");
+		}
+
+		dist.validate();
+		dist.earlyInit();
+	}
+
+	@Benchmark
+	public double sample() {
+		return dist.getNextSample();
+	}
+}
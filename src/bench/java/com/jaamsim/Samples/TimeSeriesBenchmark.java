@@ -0,0 +1,117 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.Samples;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.basicsim.Simulation;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Measures the TimeSeries lookups made by TimeSeriesThreshold as the
+ * simulation time advances, with and without a cursor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeSeriesBenchmark {
+
+	@Param({"100", "100000"})
+	public int size;
+
+	private TimeSeries ts;
+	private TimeSeriesCursor cursor;
+	private long step;
+	private long ticks;
+	private long end;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		if (Simulation.getInstance() == null)
+			InputAgent.defineEntityWithUniqueName(Simulation.class, "Simulation", "-", true);
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "BenchType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		ArrayList<String> args = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			args.add("{");
+			args.add(getDateTime(i));
+			args.add(Double.toString(i % 17));
+			args.add("}");
+		}
+
+		ts = InputAgent.defineEntityWithUniqueName(TimeSeries.class, "TS", "-", true);
+		InputAgent.applyArgs(ts, "UnitType", t.getName());
+		InputAgent.applyArgs(ts, "Value", args.toArray(new String[args.size()]));
+		cursor = new TimeSeriesCursor();
+
+		// Advance about one point in every three lookups
+		end = ts.getMaxTicksValue();
+		step = end / size / 3;
+	}
+
+	private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+	/**
+	 * Returns the date and time for the given number of hours from the start
+	 * of the year 2000, using 365 day years.
+	 */
+	private static String getDateTime(int hours) {
+		int day = hours / 24 % 365;
+		int month = 0;
+		while (day >= DAYS_IN_MONTH[month]) {
+			day -= DAYS_IN_MONTH[month];
+			month++;
+		}
+		return String.format("%04d-%02d-%02d %02d:00:00", 2000 + hours / 8760, month + 1, day + 1, hours % 24);
+	}
+
+	private long nextTicks() {
+		ticks += step;
+		if (ticks >= end)
+			ticks = 0;
+		return ticks;
+	}
+
+	@Benchmark
+	public long nextChangeSearch() {
+		long t = nextTicks();
+		return ts.getNextChangeAfterTicks(t) + (long)ts.getValueForTicks(t);
+	}
+
+	@Benchmark
+	public long nextChangeCursor() {
+		long t = nextTicks();
+		return ts.getNextChangeAfterTicks(t, cursor) + (long)ts.getValueForTicks(t, cursor);
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.events;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of events per second the EventManager can schedule and
+ * dispatch for each of the future event set implementations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventManagerBenchmark {
+	private static final int NUM_EVENTS = 10000;
+	private static final int HOLD_SIZE = 1000;
+
+	@Param({"REDBLACK", "CALENDAR", "LADDER"})
+	public EventQueueType queueType;
+
+	private EventManager evt;
+	private long[] delays;
+	private final ProcessTarget target = new EmptyTarget();
+	private HoldTarget[] holdTargets;
+	private int remaining;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		evt = new EventManager("Benchmark");
+		evt.setEventQueue(queueType);
+
+		Random rand = new Random(42);
+		delays = new long[NUM_EVENTS];
+		for (int i = 0; i < NUM_EVENTS; i++)
+			delays[i] = rand.nextInt(100000);
+
+		holdTargets = new HoldTarget[HOLD_SIZE];
+		for (int i = 0; i < HOLD_SIZE; i++)
+			holdTargets[i] = new HoldTarget(this, i);
+	}
+
+	/**
+	 * Schedules a batch of events at random times from outside the model and
+	 * then runs them all.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NUM_EVENTS)
+	public void scheduleAndDispatch() {
+		for (int i = 0; i < NUM_EVENTS; i++)
+			evt.scheduleProcessExternal(delays[i], 0, false, target, null);
+
+		runToEnd(evt);
+	}
+
+	/**
+	 * The classic 'hold' model: a constant number of pending events where each
+	 * event executed schedules one more at a random time in the future.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NUM_EVENTS)
+	public void hold() {
+		remaining = NUM_EVENTS - HOLD_SIZE;
+		for (int i = 0; i < HOLD_SIZE; i++)
+			evt.scheduleProcessExternal(delays[i], 0, false, holdTargets[i], null);
+
+		runToEnd(evt);
+	}
+
+	static void runToEnd(EventManager evt) {
+		StopListener l = new StopListener();
+		evt.setTimeListener(l);
+		evt.resume(Long.MAX_VALUE);
+		try {
+			l.stopped.await();
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		evt.setTimeListener(null);
+	}
+
+	private static class StopListener implements EventTimeListener {
+		final CountDownLatch stopped = new CountDownLatch(1);
+
+		@Override
+		public void tickUpdate(long tick) {}
+
+		@Override
+		public void timeRunning(boolean running) {
+			if (!running)
+				stopped.countDown();
+		}
+	}
+
+	private static class EmptyTarget extends ProcessTarget {
+		@Override
+		public String getDescription() {
+			return "EmptyTarget";
+		}
+
+		@Override
+		public void process() {}
+	}
+
+	private static class HoldTarget extends ProcessTarget {
+		final EventManagerBenchmark bench;
+		int next;
+
+		HoldTarget(EventManagerBenchmark bench, int i) {
+			this.bench = bench;
+			this.next = i;
+		}
+
+		@Override
+		public String getDescription() {
+			return "HoldTarget";
+		}
+
+		@Override
+		public void process() {
+			if (bench.remaining <= 0)
+				return;
+
+			bench.remaining--;
+			next = (next + HOLD_SIZE) % NUM_EVENTS;
+			EventManager.scheduleTicks(bench.delays[next], 0, false, this, null);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.events;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of the EventTree operations used by the EventManager, without
+ * any of the thread handoffs involved in executing events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventTreeBenchmark {
+	private static final int NUM_DELAYS = 1 << 16;
+
+	@Param({"REDBLACK", "CALENDAR", "LADDER"})
+	public EventQueueType queueType;
+
+	@Param({"100", "10000", "1000000"})
+	public int size;
+
+	private EventTree tree;
+	private long[] delays;
+	private int[] priorities;
+	private int idx;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random rand = new Random(42);
+		delays = new long[NUM_DELAYS];
+		priorities = new int[NUM_DELAYS];
+		for (int i = 0; i < NUM_DELAYS; i++) {
+			delays[i] = (long)(-Math.log(1.0d - rand.nextDouble()) * 1000.0d * size);
+			priorities[i] = rand.nextInt(10);
+		}
+
+		tree = queueType.newEventTree();
+		for (int i = 0; i < size; i++) {
+			tree.createOrFindNode(i + delays[idx], priorities[idx]);
+			idx = (idx + 1) & (NUM_DELAYS - 1);
+		}
+	}
+
+	/**
+	 * The 'hold' operation: remove the earliest node and insert a new one at a
+	 * random time after it, keeping the number of nodes constant.
+	 */
+	@Benchmark
+	public EventNode hold() {
+		EventNode next = tree.getNextNode();
+		long tick = next.schedTick;
+		tree.removeNode(tick, next.priority);
+		EventNode ret = tree.createOrFindNode(tick + delays[idx], priorities[idx]);
+		idx = (idx + 1) & (NUM_DELAYS - 1);
+		return ret;
+	}
+
+	/**
+	 * Looks up a node at the same time and priority as the earliest node, the case
+	 * when several events are scheduled for the same instant.
+	 */
+	@Benchmark
+	public EventNode findNext() {
+		EventNode next = tree.getNextNode();
+		return tree.createOrFindNode(next.schedTick, next.priority);
+	}
+}
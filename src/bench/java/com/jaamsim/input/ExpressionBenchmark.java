@@ -0,0 +1,115 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaamsim.ProbabilityDistributions.NormalDistribution;
+import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.Unit;
+
+/**
+ * Measures the cost of evaluating parsed expressions, both against a trivial
+ * EvalContext and against the outputs of real entities through ExpEvaluator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+
+	private static class PC implements ExpParser.ParseContext {
+		@Override
+		public ExpParser.UnitData getUnitByName(String name) {
+			return null;
+		}
+		@Override
+		public Class<? extends Unit> multUnitTypes(Class<? extends Unit> a, Class<? extends Unit> b) {
+			return DimensionlessUnit.class;
+		}
+		@Override
+		public Class<? extends Unit> divUnitTypes(Class<? extends Unit> num, Class<? extends Unit> denom) {
+			return DimensionlessUnit.class;
+		}
+	}
+
+	private static class EC implements ExpParser.EvalContext {
+		final ExpResult foo = new ExpResult(4, DimensionlessUnit.class);
+		final ExpResult bar = new ExpResult(3, DimensionlessUnit.class);
+
+		@Override
+		public ExpResult getVariableValue(String[] name) {
+			if (name[0] == "foo") return foo;
+			return bar;
+		}
+		@Override
+		public boolean eagerEval() { return false; }
+	}
+
+	private final EC ec = new EC();
+	private ExpParser.Expression arithmetic;
+	private ExpParser.Expression functions;
+	private ExpParser.Expression outputs;
+	private NormalDistribution dist;
+
+	@Setup(Level.Trial)
+	public void setup() throws ExpError {
+		PC pc = new PC();
+		arithmetic = ExpParser.parseExpression(pc, "([foo] + 2) * [bar] - [foo] / 4 + 3 % [bar]");
+		functions = ExpParser.parseExpression(pc, "[foo] > [bar] ? max([foo], [bar], 1) + abs(-[bar]) : sin([foo])");
+
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "BenchType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		dist = InputAgent.defineEntityWithUniqueName(NormalDistribution.class, "BenchDist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "RandomSeed", "0");
+		dist.validate();
+		dist.earlyInit();
+
+		String exp = String.format("[%s].CalculatedMean * 2 + [%s].CalculatedStandardDeviation", dist.getName(), dist.getName());
+		outputs = ExpParser.parseExpression(ExpEvaluator.getParseContext(), exp);
+	}
+
+	@Benchmark
+	public double evaluateArithmetic() throws ExpError {
+		return arithmetic.evaluate(ec).value;
+	}
+
+	@Benchmark
+	public double evaluateFunctions() throws ExpError {
+		return functions.evaluate(ec).value;
+	}
+
+	@Benchmark
+	public double evaluateEntityOutputs() throws ExpError {
+		return ExpEvaluator.evaluateExpression(outputs, 0.0d, dist).value;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaamsim.ProbabilityDistributions.NormalDistribution;
+import com.jaamsim.basicsim.ObjectType;
+
+/**
+ * Measures the cost of reading entity outputs, as done by expressions, graphs
+ * and the output reports.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputHandleBenchmark {
+	private NormalDistribution dist;
+	private OutputHandle doubleOutput;
+	private OutputHandle intOutput;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "BenchType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		dist = InputAgent.defineEntityWithUniqueName(NormalDistribution.class, "BenchDist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "RandomSeed", "0");
+		dist.validate();
+		dist.earlyInit();
+
+		doubleOutput = dist.getOutputHandle("CalculatedMean");
+		intOutput = dist.getOutputHandle("NumberOfSamples");
+	}
+
+	@Benchmark
+	public double getDoubleOutput() {
+		return doubleOutput.getValueAsDouble(0.0d, 0.0d);
+	}
+
+	@Benchmark
+	public double getIntegerOutput() {
+		return intOutput.getValueAsDouble(0.0d, 0.0d);
+	}
+
+	/**
+	 * Includes the lookup of the output by name, as ExpEvaluator does for each
+	 * variable in an expression.
+	 */
+	@Benchmark
+	public double lookupAndGetOutput() {
+		return dist.getOutputHandleInterned("CalculatedMean").getValueAsDouble(0.0d, 0.0d);
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.rng;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares selecting one of n outcomes with an alias table against a binary
+ * search of the cumulative probabilities. Both consume one uniform random
+ * number per selection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AliasTableBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	public int numOutcomes;
+
+	private final MRG1999a rng = new MRG1999a(0, 0);
+	private double[] cumProbList;
+	private AliasTable table;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		MRG1999a weightRng = new MRG1999a(1, 0);
+		double[] weights = new double[numOutcomes];
+		double total = 0.0d;
+		for (int i = 0; i < numOutcomes; i++) {
+			weights[i] = weightRng.nextUniform();
+			total += weights[i];
+		}
+
+		cumProbList = new double[numOutcomes];
+		double sum = 0.0d;
+		for (int i = 0; i < numOutcomes; i++) {
+			sum += weights[i] / total;
+			cumProbList[i] = sum;
+		}
+		cumProbList[numOutcomes - 1] = 1.0d;
+
+		table = new AliasTable(weights);
+	}
+
+	@Benchmark
+	public int binarySearch() {
+		int k = Arrays.binarySearch(cumProbList, rng.nextUniform());
+		return (k >= 0) ? k : -k - 1;
+	}
+
+	@Benchmark
+	public int aliasTable() {
+		return table.sample(rng.nextUniform());
+	}
+}
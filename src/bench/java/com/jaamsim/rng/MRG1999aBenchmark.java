@@ -0,0 +1,62 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.rng;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of drawing uniform samples from the MRG1999a generator,
+ * one at a time and in blocks of BLOCK_SIZE values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MRG1999aBenchmark {
+	private static final int BLOCK_SIZE = 1024;
+
+	private final MRG1999a rng = new MRG1999a(0, 0);
+	private final double[] block = new double[BLOCK_SIZE];
+
+	@Benchmark
+	public double nextUniform() {
+		return rng.nextUniform();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BLOCK_SIZE)
+	public double[] fill() {
+		rng.fill(block, 0, BLOCK_SIZE);
+		return block;
+	}
+
+	@Benchmark
+	public MRG1999a newStream() {
+		return new MRG1999a(1000, 0);
+	}
+}
@@ -146,7 +146,7 @@ public class Assemble extends LinkedService {
 					error("An entity with the specified match value %s was not found in %s.",
 							getMatchValue(), que);
 				this.registerEntity(ent);
-				ent.kill();
+				ent.recycle();
 			}
 		}
 
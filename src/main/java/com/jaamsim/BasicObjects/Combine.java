@@ -100,7 +100,7 @@ public class Combine extends LinkedService {
 			if (i == 0)
 				processedEntity = ent;
 			else
-				ent.kill();
+				ent.recycle();
 		}
 
 		// Position the processed entity relative to the Assemble object
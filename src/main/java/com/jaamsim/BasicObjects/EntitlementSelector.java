@@ -42,7 +42,6 @@ public class EntitlementSelector extends DisplayEntity implements SampleProvider
 	private int lastSample;  // the index that was selected most recently
 	private int totalCount;  // the total number of samples that have been selected
 	private int[] sampleCount;  // number of times each index has been selected
-	private double[] sampleDifference;  // (actual number of samples) - (expected number)
 
 	{
 		proportionList = new ValueListInput("ProportionList", "Key Inputs", null);
@@ -68,7 +67,6 @@ public class EntitlementSelector extends DisplayEntity implements SampleProvider
 		lastSample = -1;
 		totalCount = 0;
 		sampleCount = new int[proportionList.getValue().size()];
-		sampleDifference = new double[proportionList.getValue().size()];
 	}
 
 	/**
@@ -101,9 +99,6 @@ public class EntitlementSelector extends DisplayEntity implements SampleProvider
 
 		// Collect statistics on the sampled values
 		sampleCount[index]++;
-		for(int i=0; i<sampleCount.length; i++) {
-			sampleDifference[i] = sampleCount[i] - totalCount*proportionList.getValue().get(i);
-		}
 
 		return lastSample;
 	}
@@ -147,9 +142,9 @@ public class EntitlementSelector extends DisplayEntity implements SampleProvider
 	@Output( name="SampleDifference",
 			 description="The difference between the actual number samples for each entity and the expected number.")
 	public DoubleVector getSampleDifference(double simTime) {
-		DoubleVector ret = new DoubleVector(sampleDifference.length);
-		for (int i=0; i<sampleDifference.length; i++) {
-			ret.add(sampleDifference[i]);
+		DoubleVector ret = new DoubleVector(sampleCount.length);
+		for (int i=0; i<sampleCount.length; i++) {
+			ret.add(sampleCount[i] - totalCount*proportionList.getValue().get(i));
 		}
 		return ret;
 	}
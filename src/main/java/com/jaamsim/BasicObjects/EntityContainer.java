@@ -69,10 +69,12 @@ public class EntityContainer extends SimEntity {
 
 	public void addEntity(DisplayEntity ent) {
 		entityList.add(ent);
+		this.notifyChanged();
 	}
 
 	public DisplayEntity removeEntity() {
 		DisplayEntity ent = entityList.remove(entityList.size()-1);
+		this.notifyChanged();
 		return ent;
 	}
 
@@ -18,6 +18,8 @@ import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleExpInput;
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.EntityPool;
+import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.EntityInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.IntegerInput;
@@ -55,7 +57,15 @@ public class EntityGenerator extends LinkedService {
 	         exampleList = {"3"})
 	private final IntegerInput maxNumber;
 
+	@Keyword(description = "If TRUE, the generated entities that are destroyed by an EntitySink, Assemble, "
+	                     + "or Combine object are kept and reused for later arrivals instead of being "
+	                     + "created again from the prototype. A reused entity receives a new name and "
+	                     + "has its attributes and state reset.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput recycleEntities;
+
 	private int numberGenerated = 0;  // Number of entities generated so far
+	private EntityPool<DisplayEntity> pool;  // Recycled entities when RecycleEntities is TRUE
 
 	{
 		testEntity.setHidden(true);
@@ -90,6 +100,9 @@ public class EntityGenerator extends LinkedService {
 		maxNumber.setValidRange(1, Integer.MAX_VALUE);
 		maxNumber.setDefaultText(Input.POSITIVE_INFINITY);
 		this.addInput(maxNumber);
+
+		recycleEntities = new BooleanInput("RecycleEntities", "Key Inputs", false);
+		this.addInput(recycleEntities);
 	}
 
 	public EntityGenerator() {}
@@ -98,6 +111,12 @@ public class EntityGenerator extends LinkedService {
 	public void earlyInit() {
 		super.earlyInit();
 		numberGenerated = 0;
+
+		if (pool != null)
+			pool.clear();
+		pool = null;
+		if (recycleEntities.getValue())
+			pool = new EntityPool<>(prototypeEntity.getValue());
 	}
 
 	@Override
@@ -151,7 +170,11 @@ public class EntityGenerator extends LinkedService {
 			DisplayEntity proto = prototypeEntity.getValue();
 			StringBuilder sb = new StringBuilder();
 			sb.append(this.getName()).append("_").append(numberGenerated);
-			DisplayEntity ent = Entity.fastCopy(proto, sb.toString());
+			DisplayEntity ent;
+			if (pool != null)
+				ent = pool.get(sb.toString());
+			else
+				ent = Entity.fastCopy(proto, sb.toString());
 			ent.earlyInit();
 
 			// Send the entity to the next element in the chain
@@ -169,4 +192,14 @@ public class EntityGenerator extends LinkedService {
 		return (double)numberGenerated;
 	}
 
+	@Output(name = "NumberReused",
+	        description = "The number of generated entities that were recycled entities rather than new copies "
+	                    + "of the prototype.",
+	        unitType = DimensionlessUnit.class)
+	public Double getNumberReused(double simTime) {
+		if (pool == null)
+			return 0.0d;
+		return (double)pool.getNumberReused();
+	}
+
 }
@@ -15,18 +15,32 @@
 package com.jaamsim.BasicObjects;
 
 import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.basicsim.ColumnarLogFile;
 import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.input.EnumInput;
 import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.units.TimeUnit;
 
 public class EntityLogger extends LinkedComponent {
+
+	@Keyword(description = "The format of the log file. TEXT writes one line for each output of each "
+			+ "logged entity to a '.log' file. COLUMNAR writes the outputs to a binary '.col' file "
+			+ "in which the values for each class of entity are stored by column.",
+	         exampleList = {"COLUMNAR"})
+	private final EnumInput<LogFormat> logFormat;
+
 	private FileEntity file;
+	private ColumnarLogFile colFile;
 	private double logTime;
 
 	{
 		stateAssignment.setHidden(true);
 		testEntity.setHidden(true);
+
+		logFormat = new EnumInput<>(LogFormat.class, "LogFormat", "Key Inputs", LogFormat.TEXT);
+		this.addInput(logFormat);
 	}
 
 	public EntityLogger() {}
@@ -42,12 +56,30 @@ public class EntityLogger extends LinkedComponent {
 			file.close();
 			file = null;
 		}
+		if (colFile != null) {
+			colFile.close();
+			colFile = null;
+		}
 
 		// Create the report file
 		StringBuilder tmp = new StringBuilder(InputAgent.getReportFileName(InputAgent.getRunName()));
 		tmp.append("-").append(this.getName());
+		if (logFormat.getValue() == LogFormat.COLUMNAR) {
+			tmp.append(".col");
+			colFile = new ColumnarLogFile(tmp.toString());
+			return;
+		}
 		tmp.append(".log");
-		file = new FileEntity(tmp.toString());
+		file = new FileEntity(tmp.toString(), false, true);
+	}
+
+	@Override
+	public void doEnd() {
+		super.doEnd();
+
+		// Write the rows that are still held in memory
+		if (colFile != null)
+			colFile.flush();
 	}
 
 	@Override
@@ -55,12 +87,14 @@ public class EntityLogger extends LinkedComponent {
 		super.addEntity(ent);
 
 		// Log the entity's outputs
-		file.format("%n");
 		logTime = this.getSimTime();
-		ent.printReport(file, logTime);
-
-		// Empty the output buffer
-		file.flush();
+		if (colFile != null) {
+			colFile.log(ent, logTime);
+		}
+		else {
+			file.newLine();
+			ent.printReport(file, logTime);
+		}
 
 		// Send the entity to the next element in the chain
 		this.sendToNextComponent(ent);
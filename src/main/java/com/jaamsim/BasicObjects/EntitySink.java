@@ -34,8 +34,8 @@ public class EntitySink extends LinkedComponent {
 		// Only increments the number process when there is no next entity
 		this.sendToNextComponent(ent);
 
-		// Kill the added entity
-		ent.kill();
+		// Kill the added entity, returning it to its generator if recycled
+		ent.recycle();
 	}
 
 }
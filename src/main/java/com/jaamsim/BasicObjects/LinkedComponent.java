@@ -49,6 +49,7 @@ public abstract class LinkedComponent extends StateEntity {
 	private int numberAdded;     // Number of entities added to this component from upstream
 	private int numberProcessed; // Number of entities processed by this component
 	private DisplayEntity receivedEntity; // Entity most recently received by this component
+	private long receivedNumber;          // entity number of receivedEntity when it was received
 	private double releaseTime = Double.NaN;
 
 	{
@@ -70,7 +71,7 @@ public abstract class LinkedComponent extends StateEntity {
 		super.updateForInput(in);
 
 		if (in == testEntity) {
-			receivedEntity = testEntity.getValue();
+			this.setReceivedEntity(testEntity.getValue());
 			return;
 		}
 	}
@@ -92,7 +93,7 @@ public abstract class LinkedComponent extends StateEntity {
 		super.earlyInit();
 		numberAdded = 0;
 		numberProcessed = 0;
-		receivedEntity = testEntity.getValue();
+		this.setReceivedEntity(testEntity.getValue());
 		releaseTime = Double.NaN;
 	}
 
@@ -116,8 +117,9 @@ public abstract class LinkedComponent extends StateEntity {
 
 	protected void registerEntity(DisplayEntity ent) {
 
-		receivedEntity = ent;
+		this.setReceivedEntity(ent);
 		numberAdded++;
+		this.notifyChanged();
 
 		// Assign a new state to the received entity
 		if (!stateAssignment.getValue().isEmpty() && ent instanceof StateEntity)
@@ -126,6 +128,7 @@ public abstract class LinkedComponent extends StateEntity {
 
 	protected void setReceivedEntity(DisplayEntity ent) {
 		receivedEntity = ent;
+		receivedNumber = (ent == null) ? 0 : ent.getEntityNumber();
 	}
 
 	/**
@@ -135,6 +138,7 @@ public abstract class LinkedComponent extends StateEntity {
 	public void sendToNextComponent(DisplayEntity ent) {
 		numberProcessed++;
 		releaseTime = this.getSimTime();
+		this.notifyChanged();
 		if( nextComponent.getValue() != null )
 			nextComponent.getValue().addEntity(ent);
 	}
@@ -145,6 +149,7 @@ public abstract class LinkedComponent extends StateEntity {
 
 	public void incrementNumberProcessed() {
 		numberProcessed++;
+		this.notifyChanged();
 	}
 
 	// ******************************************************************************************************
@@ -154,6 +159,10 @@ public abstract class LinkedComponent extends StateEntity {
 	@Output(name = "obj",
 	 description = "The entity that was received most recently.")
 	public DisplayEntity getReceivedEntity(double simTime) {
+		// A recycled entity that has been reused is no longer the entity that
+		// was received
+		if (receivedEntity == null || receivedEntity.getEntityNumber() != receivedNumber)
+			return null;
 		return receivedEntity;
 	}
 
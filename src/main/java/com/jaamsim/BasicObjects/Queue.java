@@ -15,9 +15,6 @@
 package com.jaamsim.BasicObjects;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.TreeSet;
 
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Samples.SampleConstant;
@@ -67,13 +64,10 @@ public class Queue extends LinkedComponent {
 			exampleList = {"4"})
 	protected final IntegerInput maxPerLine; // maximum items per sub line-up of queue
 
-	private final TreeSet<QueueEntry> itemSet;  // contains all the entities in queue order
-	private final HashMap<Integer, TreeSet<QueueEntry>> matchMap; // each TreeSet contains the queued entities for a given match value
-
-	private Integer matchForMaxCount;  // match value with the largest number of entities
-	private int maxCount;     // largest number of entities for a given match value
+	private final QueueEntryList itemSet;  // contains all the entities in queue order
 
 	private final ArrayList<QueueUser> userList;  // other objects that use this queue
+	private final ArrayList<Seize> seizeList;  // Seize objects that take entities from this queue
 
 	//	Statistics
 	protected double timeOfLastUpdate; // time at which the statistics were last updated
@@ -113,10 +107,10 @@ public class Queue extends LinkedComponent {
 	}
 
 	public Queue() {
-		itemSet = new TreeSet<>();
+		itemSet = new QueueEntryList();
 		queueLengthDist = new DoubleVector(10,10);
 		userList = new ArrayList<>();
-		matchMap = new HashMap<>();
+		seizeList = new ArrayList<>();
 	}
 
 	@Override
@@ -125,52 +119,21 @@ public class Queue extends LinkedComponent {
 
 		// Clear the entries in the queue
 		itemSet.clear();
-		matchMap.clear();
-
-		matchForMaxCount = null;
-		maxCount = -1;
 
 		// Clear statistics
 		this.clearStatistics();
 
 		// Identify the objects that use this queue
 		userList.clear();
+		seizeList.clear();
 		for (Entity each : Entity.getAll()) {
 			if (each instanceof QueueUser) {
 				QueueUser u = (QueueUser)each;
-				if (u.getQueues().contains(this))
+				if (u.getQueues().contains(this)) {
 					userList.add(u);
-			}
-		}
-	}
-
-	private static class QueueEntry implements Comparable<QueueEntry> {
-		final DisplayEntity entity;
-		final long entNum;
-		final int priority;
-		final Integer match;
-		final double timeAdded;
-
-		public QueueEntry(DisplayEntity ent, long n, int pri, Integer m, double t) {
-			entity = ent;
-			entNum = n;
-			priority = pri;
-			match = m;
-			timeAdded = t;
-		}
-
-		@Override
-		public int compareTo(QueueEntry entry) {
-			if (this.priority > entry.priority)
-				return 1;
-			else if (this.priority < entry.priority)
-				return -1;
-			else {
-				if (this.entNum > entry.entNum)
-					return 1;
-				else if (this.entNum < entry.entNum)
-					return -1;
-				return 0;
+					if (u instanceof Seize)
+						seizeList.add((Seize)u);
+				}
 			}
 		}
 	}
@@ -209,45 +172,19 @@ public class Queue extends LinkedComponent {
 		this.updateStatistics(queueSize, queueSize+1);
 
 		// Build the entry for the entity
-		// Note that the match value logic relies on all Integer objects with
-		// the same int value having the same object reference
 		long n = this.getNumberAdded();
 		if (!fifo.getValue())
 			n *= -1;
 		int pri = (int) priority.getValue().getNextSample(getSimTime());
-		Integer m = null;
-		if (match.getValue() != null)
-			m = Integer.valueOf((int) match.getValue().getNextSample(getSimTime()));
-		QueueEntry entry = new QueueEntry(ent, n, pri, m, getSimTime());
-
-		// Add the entity to the TreeSet of all the entities in the queue
-		itemSet.add(entry);
-
-		// Does the entry have a match value?
-		if (entry.match != null) {
-
-			// Add the entity to the TreeSet of all the entities with this match value
-			TreeSet<QueueEntry> matchSet = matchMap.get(entry.match);
-			if (matchSet == null) {
-				matchSet = new TreeSet<>();
-				matchSet.add(entry);
-				matchMap.put(entry.match, matchSet);
-			}
-			else {
-				matchSet.add(entry);
-			}
+		boolean hasMatch = (match.getValue() != null);
+		int m = 0;
+		if (hasMatch)
+			m = (int) match.getValue().getNextSample(getSimTime());
 
-			// Update the maximum count
-			if (entry.match == matchForMaxCount) {
-				maxCount++;
-			}
-			else {
-				if (matchSet.size() > maxCount) {
-					matchForMaxCount = entry.match;
-					maxCount = matchSet.size();
-				}
-			}
-		}
+		// Add the entity to the list of all the entities in the queue
+		QueueEntryList.Entry entry = itemSet.add(ent, n, pri, hasMatch, m, getSimTime());
+		if (entry == itemSet.first())
+			this.headChanged();
 
 		// Notify the users of this queue
 		if (!userUpdateHandle.isScheduled())
@@ -257,40 +194,19 @@ public class Queue extends LinkedComponent {
 	/**
 	 * Removes a specified entity from the queue
 	 */
-	public DisplayEntity remove(QueueEntry entry) {
+	private DisplayEntity remove(QueueEntryList.Entry entry) {
 
 		int queueSize = itemSet.size();  // present number of entities in the queue
 		this.updateStatistics(queueSize, queueSize-1);
 
-		// Remove the entity from the TreeSet of all entities in the queue
-		boolean found = itemSet.remove(entry);
-		if (!found)
-			error("Cannot find the entry in itemSet.");
-
-		// Does the entry have a match value?
-		if (entry.match != null) {
-
-			// Remove the entity from the TreeSet for that match value
-			TreeSet<QueueEntry> matchSet = matchMap.get(entry.match);
-			if (matchSet == null)
-				error("Cannot find an entry in matchMap for match value: %s", entry.match);
-			found = matchSet.remove(entry);
-			if (!found)
-				error("Cannot find the entry in matchMap.");
-
-			// If there are no more entities for this match value, remove it from the HashMap of match values
-			if (matchSet.isEmpty())
-				matchMap.remove(entry.match);
-
-			// Update the maximum count
-			if (entry.match == matchForMaxCount) {
-				matchForMaxCount = null;
-				maxCount = -1;
-			}
-		}
+		// Remove the entity from the list of all entities in the queue
+		boolean wasFirst = (entry == itemSet.first());
+		DisplayEntity ent = itemSet.remove(entry);
+		if (wasFirst)
+			this.headChanged();
 
 		this.incrementNumberProcessed();
-		return entry.entity;
+		return ent;
 	}
 
 	/**
@@ -315,6 +231,22 @@ public class Queue extends LinkedComponent {
 		return itemSet.size();
 	}
 
+	/**
+	 * Notifies the Seize objects that use this queue that the first entity
+	 * has changed.
+	 */
+	private void headChanged() {
+		for (int i = 0; i < seizeList.size(); i++)
+			seizeList.get(i).queueHeadChanged();
+	}
+
+	/**
+	 * Returns the time at which the first entity in the queue was added.
+	 */
+	double getFirstTimeAdded() {
+		return itemSet.first().timeAdded;
+	}
+
 	/**
 	 * Returns the number of seconds spent by the first object in the queue
 	 */
@@ -331,10 +263,7 @@ public class Queue extends LinkedComponent {
 	public int getMatchCount(Integer m) {
 		if (m == null)
 			return itemSet.size();
-		TreeSet<QueueEntry> matchSet = matchMap.get(m);
-		if (matchSet == null)
-			return 0;
-		return matchSet.size();
+		return itemSet.getMatchCount(m);
 	}
 
 	/**
@@ -349,29 +278,35 @@ public class Queue extends LinkedComponent {
 		if (m == null)
 			return this.removeFirst();
 
-		TreeSet<QueueEntry> matchSet = matchMap.get(m);
-		if (matchSet == null)
+		QueueEntryList.MatchList ml = itemSet.getMatchList(m);
+		if (ml == null)
 			return null;
-		return this.remove(matchSet.first());
+		return this.remove(ml.head);
 	}
 
+	/**
+	 * Returns the match values present in the queue in increasing order.
+	 */
 	public ArrayList<Integer> getUniqueMatchValues() {
-		ArrayList<Integer> ret = new ArrayList<>(matchMap.size());
-		Iterator<Integer> itr = matchMap.keySet().iterator();
-		while (itr.hasNext()) {
-			ret.add(itr.next());
+		int n = itemSet.getMatchValueCount();
+		ArrayList<Integer> ret = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			ret.add(itemSet.getMatchListAt(i).value);
 		}
 		return ret;
 	}
 
 	/**
 	 * Returns the match value that has the largest number of entities in the queue.
+	 * If several match values have the same number, the first one to reach that
+	 * number is returned.
 	 * @return match value with the most entities.
 	 */
 	public int getMatchForMax() {
-		if (matchForMaxCount == null)
-			this.setMaxCount();
-		return matchForMaxCount;
+		QueueEntryList.MatchList ml = itemSet.getMaxMatchList();
+		if (ml == null)
+			error("There are no entities with a match value in the queue.");
+		return ml.value;
 	}
 
 	/**
@@ -379,25 +314,7 @@ public class Queue extends LinkedComponent {
 	 * @return number of entities in the longest match value queue.
 	 */
 	public int getMaxCount() {
-		if (matchForMaxCount == null)
-			this.setMaxCount();
-		return maxCount;
-	}
-
-	/**
-	 * Determines the longest queue for a give match value.
-	 */
-	private void setMaxCount() {
-		maxCount = -1;
-		Iterator<Integer> itr = matchMap.keySet().iterator();
-		while (itr.hasNext()) {
-			Integer m = itr.next();
-			int count = matchMap.get(m).size();
-			if (count > maxCount) {
-				maxCount = count;
-				matchForMaxCount = m;
-			}
-		}
+		return itemSet.getMaxMatchCount();
 	}
 
 	/**
@@ -424,19 +341,31 @@ public class Queue extends LinkedComponent {
 				return null;
 		}
 
-		// Find the queue with the fewest match values
+		// Find the queue with the fewest match values. Any match value that
+		// satisfies the criterion must be present in each queue that requires
+		// at least one entity, so the search can be restricted to this queue.
 		Queue shortest = null;
-		int count = -1;
-		for (Queue que : queueList) {
-			int n = (int) que.getMatchValueCount(0.0);
-			if (n > count) {
+		int count = Integer.MAX_VALUE;
+		for (int i=0; i<queueList.size(); i++) {
+			if (numberList != null) {
+				int ind = Math.min(i, numberList.size()-1);
+				if (numberList.get(ind) <= 0)
+					continue;
+			}
+			Queue que = queueList.get(i);
+			int n = que.itemSet.getMatchValueCount();
+			if (n < count) {
 				count = n;
 				shortest = que;
 			}
 		}
+		if (shortest == null)
+			return null;
 
 		// Return the first match value that has sufficient entities in each queue
-		for (int m : shortest.getUniqueMatchValues()) {
+		QueueEntryList list = shortest.itemSet;
+		for (int i = 0; i < list.getMatchValueCount(); i++) {
+			int m = list.getMatchListAt(i).value;
 			if (Queue.sufficientEntities(queueList, numberList, m))
 				return m;
 		}
@@ -487,17 +416,15 @@ public class Queue extends LinkedComponent {
 
 		// find widest vessel
 		if (itemSet.size() >  maxPerLine.getValue()){
-			Iterator<QueueEntry> itr = itemSet.iterator();
-			while (itr.hasNext()) {
-				 maxWidth = Math.max(maxWidth, itr.next().entity.getSize().y);
+			for (QueueEntryList.Entry entry = itemSet.first(); entry != null; entry = entry.next) {
+				 maxWidth = Math.max(maxWidth, entry.entity.getSize().y);
 			 }
 		}
 
 		// update item locations
 		int i = 0;
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			DisplayEntity item = itr.next().entity;
+		for (QueueEntryList.Entry entry = itemSet.first(); entry != null; entry = entry.next) {
+			DisplayEntity item = entry.entity;
 
 			// if new row is required, set reset distanceX and move distanceY up one row
 			i++;
@@ -577,9 +504,8 @@ public class Queue extends LinkedComponent {
 	    unitType = TimeUnit.class)
 	public ArrayList<Double> getQueueTimes(double simTime) {
 		ArrayList<Double> ret = new ArrayList<>(itemSet.size());
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			ret.add(simTime - itr.next().timeAdded);
+		for (QueueEntryList.Entry entry = itemSet.first(); entry != null; entry = entry.next) {
+			ret.add(simTime - entry.timeAdded);
 		}
 		return ret;
 	}
@@ -588,10 +514,9 @@ public class Queue extends LinkedComponent {
 	 description = "The Priority expression value for each entity in the queue.",
 	    unitType = DimensionlessUnit.class)
 	public ArrayList<Integer> getPriorityValues(double simTime) {
-		ArrayList<Integer> ret = new ArrayList<>();
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			ret.add(itr.next().priority);
+		ArrayList<Integer> ret = new ArrayList<>(itemSet.size());
+		for (QueueEntryList.Entry entry = itemSet.first(); entry != null; entry = entry.next) {
+			ret.add(entry.priority);
 		}
 		return ret;
 	}
@@ -600,10 +525,9 @@ public class Queue extends LinkedComponent {
 	 description = "The Match expression value for each entity in the queue.",
 	    unitType = DimensionlessUnit.class)
 	public ArrayList<Integer> getMatchValues(double simTime) {
-		ArrayList<Integer> ret = new ArrayList<>();
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			ret.add(itr.next().match);
+		ArrayList<Integer> ret = new ArrayList<>(itemSet.size());
+		for (QueueEntryList.Entry entry = itemSet.first(); entry != null; entry = entry.next) {
+			ret.add(entry.getMatch());
 		}
 		return ret;
 	}
@@ -699,7 +623,7 @@ public class Queue extends LinkedComponent {
 	 description = "The present number of unique match values in the queue.",
 	    unitType = DimensionlessUnit.class)
 	public double getMatchValueCount(double simTime) {
-		return matchMap.size();
+		return itemSet.getMatchValueCount();
 	}
 
 }
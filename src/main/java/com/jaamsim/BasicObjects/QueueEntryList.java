@@ -0,0 +1,465 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.util.Arrays;
+
+import com.jaamsim.Graphics.DisplayEntity;
+
+/**
+ * Holds the entities waiting in a Queue, ordered by priority and then by
+ * arrival (FIFO) or reverse arrival (LIFO).
+ * <p>
+ * All the entries form one doubly-linked list in queue order. Each priority
+ * value occupies a contiguous section of the list, found through an array of
+ * buckets sorted by priority, so that an entity is added by linking it at the
+ * end (FIFO) or start (LIFO) of its section. Entries with a match value are
+ * also linked into a list for that value, found through an array sorted by
+ * match value. The match lists themselves are linked into lists by their
+ * number of entries, so that the largest count is maintained in constant
+ * time as entities are added and removed. The entries, buckets, and match
+ * lists are reused to avoid allocation when entities pass through the queue.
+ */
+final class QueueEntryList {
+
+	static final class Entry {
+		DisplayEntity entity;
+		long entNum;  // arrival number, negated for LIFO
+		int priority;
+		boolean hasMatch;
+		int match;
+		double timeAdded;
+
+		Entry prev, next;            // neighbours in queue order
+		Entry prevMatch, nextMatch;  // neighbours with the same match value
+		MatchList matchList;
+
+		Integer getMatch() {
+			if (!hasMatch)
+				return null;
+			return match;
+		}
+	}
+
+	private static final class Bucket {
+		int priority;
+		Entry head, tail;  // first and last entries with this priority
+		Bucket nextFree;
+	}
+
+	static final class MatchList {
+		int value;
+		Entry head, tail;
+		int count;
+		MatchList prevByCount, nextByCount;  // neighbours with the same count
+		MatchList nextFree;
+	}
+
+	private Entry head, tail;
+	private int size;
+
+	private Bucket[] buckets = new Bucket[4];  // non-empty buckets in increasing priority
+	private int numBuckets;
+
+	private int[] matchValues = new int[4];  // match values present, in increasing order
+	private MatchList[] matchLists = new MatchList[4];
+	private int numMatches;
+	private MatchList lastMatchList;  // result of the last lookup
+
+	private MatchList[] countHeads = new MatchList[8];  // match lists for each count, in order of reaching it
+	private MatchList[] countTails = new MatchList[8];
+	private int maxCount;  // largest number of entries for a match value
+
+	private Entry freeEntries;
+	private Bucket freeBuckets;
+	private MatchList freeMatchLists;
+
+	/**
+	 * Orders entries by priority and then by arrival number.
+	 */
+	private static int compare(Entry e1, Entry e2) {
+		if (e1.priority != e2.priority)
+			return (e1.priority < e2.priority) ? -1 : 1;
+		return Long.compare(e1.entNum, e2.entNum);
+	}
+
+	int size() {
+		return size;
+	}
+
+	Entry first() {
+		return head;
+	}
+
+	/**
+	 * Adds an entity to the queue.
+	 * @param ent - entity to be added.
+	 * @param n - arrival number, positive for FIFO and negative for LIFO order.
+	 * @param pri - priority, lower values are placed first.
+	 * @param hasMatch - true if the entity has a match value.
+	 * @param m - match value.
+	 * @param t - time at which the entity was added.
+	 * @return new entry.
+	 */
+	Entry add(DisplayEntity ent, long n, int pri, boolean hasMatch, int m, double t) {
+		Entry entry = freeEntries;
+		if (entry != null)
+			freeEntries = entry.next;
+		else
+			entry = new Entry();
+
+		entry.entity = ent;
+		entry.entNum = n;
+		entry.priority = pri;
+		entry.hasMatch = hasMatch;
+		entry.match = m;
+		entry.timeAdded = t;
+
+		// Link the entry after the last entry with the same priority for FIFO,
+		// or before the first one for LIFO
+		int ind = findBucket(pri);
+		if (ind >= 0) {
+			Bucket b = buckets[ind];
+			if (n >= 0) {
+				linkAfter(entry, b.tail);
+				b.tail = entry;
+			}
+			else {
+				linkBefore(entry, b.head);
+				b.head = entry;
+			}
+		}
+		else {
+			ind = -ind - 1;
+			Bucket b = insertBucket(ind, pri);
+			if (ind + 1 < numBuckets)
+				linkBefore(entry, buckets[ind + 1].head);
+			else
+				linkAfter(entry, tail);
+			b.head = entry;
+			b.tail = entry;
+		}
+		size++;
+
+		if (hasMatch)
+			addToMatchList(entry);
+		return entry;
+	}
+
+	/**
+	 * Removes the given entry and returns its entity. The entry is reused for
+	 * a later entity so it must not be referenced after this call.
+	 */
+	DisplayEntity remove(Entry entry) {
+
+		// Update the bucket for the entry's priority
+		int ind = findBucket(entry.priority);
+		Bucket b = buckets[ind];
+		if (b.head == entry && b.tail == entry) {
+			removeBucket(ind);
+		}
+		else if (b.head == entry) {
+			b.head = entry.next;
+		}
+		else if (b.tail == entry) {
+			b.tail = entry.prev;
+		}
+
+		// Unlink the entry from the queue
+		if (entry.prev == null)
+			head = entry.next;
+		else
+			entry.prev.next = entry.next;
+		if (entry.next == null)
+			tail = entry.prev;
+		else
+			entry.next.prev = entry.prev;
+		size--;
+
+		if (entry.hasMatch)
+			removeFromMatchList(entry);
+
+		// Return the entry to the free list
+		DisplayEntity ret = entry.entity;
+		entry.entity = null;
+		entry.prev = null;
+		entry.next = freeEntries;
+		freeEntries = entry;
+		return ret;
+	}
+
+	void clear() {
+		while (head != null) {
+			remove(head);
+		}
+	}
+
+	/**
+	 * Returns the list of entries with the given match value, or null if
+	 * there are none.
+	 */
+	MatchList getMatchList(int m) {
+		MatchList ml = lastMatchList;
+		if (ml != null && ml.value == m && ml.count > 0)
+			return ml;
+
+		int ind = Arrays.binarySearch(matchValues, 0, numMatches, m);
+		if (ind < 0)
+			return null;
+		lastMatchList = matchLists[ind];
+		return lastMatchList;
+	}
+
+	/**
+	 * Returns the number of entries with the given match value.
+	 */
+	int getMatchCount(int m) {
+		MatchList ml = getMatchList(m);
+		if (ml == null)
+			return 0;
+		return ml.count;
+	}
+
+	/**
+	 * Returns the number of distinct match values in the queue.
+	 */
+	int getMatchValueCount() {
+		return numMatches;
+	}
+
+	/**
+	 * Returns the largest number of entries for any one match value, or zero
+	 * if there are no entries with a match value.
+	 */
+	int getMaxMatchCount() {
+		return maxCount;
+	}
+
+	/**
+	 * Returns the first match value to reach the largest count, or null if
+	 * there are no entries with a match value.
+	 */
+	MatchList getMaxMatchList() {
+		return countHeads[maxCount];
+	}
+
+	/**
+	 * Returns the list for the i-th match value in increasing order of value.
+	 */
+	MatchList getMatchListAt(int i) {
+		return matchLists[i];
+	}
+
+	private void linkAfter(Entry entry, Entry pos) {
+		entry.prev = pos;
+		if (pos == null) {
+			entry.next = head;
+			head = entry;
+		}
+		else {
+			entry.next = pos.next;
+			pos.next = entry;
+		}
+		if (entry.next == null)
+			tail = entry;
+		else
+			entry.next.prev = entry;
+	}
+
+	private void linkBefore(Entry entry, Entry pos) {
+		if (pos == null) {
+			linkAfter(entry, tail);
+			return;
+		}
+		linkAfter(entry, pos.prev);
+	}
+
+	private int findBucket(int pri) {
+		int low = 0;
+		int high = numBuckets - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int midPri = buckets[mid].priority;
+			if (midPri < pri)
+				low = mid + 1;
+			else if (midPri > pri)
+				high = mid - 1;
+			else
+				return mid;
+		}
+		return -(low + 1);
+	}
+
+	private Bucket insertBucket(int ind, int pri) {
+		if (numBuckets == buckets.length)
+			buckets = Arrays.copyOf(buckets, numBuckets * 2);
+		System.arraycopy(buckets, ind, buckets, ind + 1, numBuckets - ind);
+
+		Bucket b = freeBuckets;
+		if (b != null)
+			freeBuckets = b.nextFree;
+		else
+			b = new Bucket();
+		b.priority = pri;
+		buckets[ind] = b;
+		numBuckets++;
+		return b;
+	}
+
+	private void removeBucket(int ind) {
+		Bucket b = buckets[ind];
+		numBuckets--;
+		System.arraycopy(buckets, ind + 1, buckets, ind, numBuckets - ind);
+		buckets[numBuckets] = null;
+
+		b.head = null;
+		b.tail = null;
+		b.nextFree = freeBuckets;
+		freeBuckets = b;
+	}
+
+	private void addToMatchList(Entry entry) {
+		MatchList ml = getMatchList(entry.match);
+		if (ml == null) {
+			int ind = -Arrays.binarySearch(matchValues, 0, numMatches, entry.match) - 1;
+			if (numMatches == matchValues.length) {
+				matchValues = Arrays.copyOf(matchValues, numMatches * 2);
+				matchLists = Arrays.copyOf(matchLists, numMatches * 2);
+			}
+			System.arraycopy(matchValues, ind, matchValues, ind + 1, numMatches - ind);
+			System.arraycopy(matchLists, ind, matchLists, ind + 1, numMatches - ind);
+
+			ml = freeMatchLists;
+			if (ml != null)
+				freeMatchLists = ml.nextFree;
+			else
+				ml = new MatchList();
+			ml.value = entry.match;
+			matchValues[ind] = entry.match;
+			matchLists[ind] = ml;
+			numMatches++;
+			lastMatchList = ml;
+		}
+		entry.matchList = ml;
+
+		// Find the position in queue order, searching from the end of the
+		// list at which a FIFO or LIFO entry is normally placed
+		Entry pos;
+		if (entry.entNum >= 0) {
+			pos = ml.tail;
+			while (pos != null && compare(pos, entry) > 0)
+				pos = pos.prevMatch;
+		}
+		else {
+			Entry nxt = ml.head;
+			while (nxt != null && compare(nxt, entry) < 0)
+				nxt = nxt.nextMatch;
+			pos = (nxt == null) ? ml.tail : nxt.prevMatch;
+		}
+
+		// Link the entry after pos
+		entry.prevMatch = pos;
+		if (pos == null) {
+			entry.nextMatch = ml.head;
+			ml.head = entry;
+		}
+		else {
+			entry.nextMatch = pos.nextMatch;
+			pos.nextMatch = entry;
+		}
+		if (entry.nextMatch == null)
+			ml.tail = entry;
+		else
+			entry.nextMatch.prevMatch = entry;
+
+		// Move the list to the next count
+		if (ml.count > 0)
+			unlinkCount(ml);
+		ml.count++;
+		linkCount(ml);
+		if (ml.count > maxCount)
+			maxCount = ml.count;
+	}
+
+	private void removeFromMatchList(Entry entry) {
+		MatchList ml = entry.matchList;
+		if (entry.prevMatch == null)
+			ml.head = entry.nextMatch;
+		else
+			entry.prevMatch.nextMatch = entry.nextMatch;
+		if (entry.nextMatch == null)
+			ml.tail = entry.prevMatch;
+		else
+			entry.nextMatch.prevMatch = entry.prevMatch;
+
+		// Move the list to the previous count. The largest count can fall by
+		// at most one, since this list now has that value if it was the last
+		// one with the largest count.
+		unlinkCount(ml);
+		ml.count--;
+		if (ml.count > 0)
+			linkCount(ml);
+		if (countHeads[maxCount] == null)
+			maxCount--;
+
+		entry.prevMatch = null;
+		entry.nextMatch = null;
+		entry.matchList = null;
+
+		// Discard the list when its last entry is removed
+		if (ml.count == 0) {
+			int ind = Arrays.binarySearch(matchValues, 0, numMatches, ml.value);
+			numMatches--;
+			System.arraycopy(matchValues, ind + 1, matchValues, ind, numMatches - ind);
+			System.arraycopy(matchLists, ind + 1, matchLists, ind, numMatches - ind);
+			matchLists[numMatches] = null;
+			if (lastMatchList == ml)
+				lastMatchList = null;
+
+			ml.nextFree = freeMatchLists;
+			freeMatchLists = ml;
+		}
+	}
+
+	private void linkCount(MatchList ml) {
+		int c = ml.count;
+		if (c == countHeads.length) {
+			countHeads = Arrays.copyOf(countHeads, c * 2);
+			countTails = Arrays.copyOf(countTails, c * 2);
+		}
+		MatchList last = countTails[c];
+		ml.prevByCount = last;
+		ml.nextByCount = null;
+		if (last == null)
+			countHeads[c] = ml;
+		else
+			last.nextByCount = ml;
+		countTails[c] = ml;
+	}
+
+	private void unlinkCount(MatchList ml) {
+		int c = ml.count;
+		if (ml.prevByCount == null)
+			countHeads[c] = ml.nextByCount;
+		else
+			ml.prevByCount.nextByCount = ml.nextByCount;
+		if (ml.nextByCount == null)
+			countTails[c] = ml.prevByCount;
+		else
+			ml.nextByCount.prevByCount = ml.prevByCount;
+		ml.prevByCount = null;
+		ml.nextByCount = null;
+	}
+}
@@ -14,8 +14,6 @@
  */
 package com.jaamsim.BasicObjects;
 
-import java.util.ArrayList;
-
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.ProbabilityDistributions.Distribution;
 import com.jaamsim.Samples.SampleConstant;
@@ -35,7 +33,7 @@ public class Resource extends DisplayEntity {
 	private final SampleExpInput capacity;
 
 	private int unitsInUse;  // number of resource units that are being used at present
-	private ArrayList<Seize> seizeList;  // Seize objects that require this resource
+	private final ResourceWaitList waitList;  // Seize objects waiting for this resource
 
 	//	Statistics
 	protected double timeOfLastUpdate; // time at which the statistics were last updated
@@ -60,7 +58,7 @@ public class Resource extends DisplayEntity {
 
 	public Resource() {
 		unitsInUseDist = new DoubleVector();
-		seizeList = new ArrayList<>();
+		waitList = new ResourceWaitList();
 	}
 
 	@Override
@@ -87,12 +85,12 @@ public class Resource extends DisplayEntity {
 		// Clear statistics
 		this.clearStatistics();
 
-		// Prepare a list of the Seize objects that use this resource
-		seizeList.clear();
-		for (Seize ent : Entity.getClonesOfIterator(Seize.class)) {
-			if( ent.requiresResource(this) )
-				seizeList.add(ent);
-		}
+		// Seize objects join the list when an entity arrives in their queue
+		waitList.clear();
+	}
+
+	ResourceWaitList getWaitList() {
+		return waitList;
 	}
 
 	/**
@@ -111,6 +109,7 @@ public class Resource extends DisplayEntity {
 		this.updateStatistics(unitsInUse, unitsInUse+n);
 		unitsInUse += n;
 		unitsSeized += n;
+		this.notifyChanged();
 	}
 
 	/**
@@ -122,6 +121,7 @@ public class Resource extends DisplayEntity {
 		this.updateStatistics(unitsInUse, unitsInUse-n);
 		unitsInUse -= n;
 		unitsReleased += n;
+		this.notifyChanged();
 	}
 
 	/**
@@ -134,17 +134,7 @@ public class Resource extends DisplayEntity {
 		while( cap > unitsInUse ) {
 
 			// Pick the Seize object that has waited the longest
-			Seize selection = null;
-			double maxTime = 0;
-			for(Seize s : seizeList) {
-				Queue que = s.getQueue();
-				if( que.getCount() > 0 ) {
-					if( selection == null || que.getQueueTime() > maxTime ) {
-						selection = s;
-						maxTime = que.getQueueTime();
-					}
-				}
-			}
+			Seize selection = waitList.first();
 
 			// Ensure that the number of units needed by selected Seize object can be provided
 			if( selection == null || !selection.checkResources() )
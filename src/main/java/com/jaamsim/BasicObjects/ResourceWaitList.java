@@ -0,0 +1,154 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.util.Arrays;
+
+/**
+ * Holds the Seize objects that are waiting for a Resource, ordered by the
+ * time at which the first entity in each Seize object's queue arrived. Ties
+ * are broken by entity number so that the selection matches the order in
+ * which the Seize objects were defined.
+ * <p>
+ * The list is a binary heap. Each Seize object holds one node for each of its
+ * Resources and moves it whenever the first entity in its queue changes, so
+ * that the Seize object that has waited the longest is found without visiting
+ * the others.
+ */
+final class ResourceWaitList {
+
+	static final class Node {
+		final Seize seize;
+		final ResourceWaitList list;
+		double time;   // time at which the first entity in the queue arrived
+		int pos = -1;  // position in the heap, or -1 if not waiting
+
+		Node(Seize s, ResourceWaitList l) {
+			seize = s;
+			list = l;
+		}
+	}
+
+	private Node[] heap = new Node[4];
+	private int size;
+
+	/**
+	 * Returns the Seize object that has waited the longest, or null if no
+	 * Seize object is waiting.
+	 */
+	Seize first() {
+		if (size == 0)
+			return null;
+		return heap[0].seize;
+	}
+
+	int size() {
+		return size;
+	}
+
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			heap[i].pos = -1;
+			heap[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Sets the arrival time for the given node, adding it to the list if it
+	 * is not waiting already.
+	 */
+	void update(Node n, double time) {
+		if (n.pos < 0) {
+			if (size == heap.length)
+				heap = Arrays.copyOf(heap, size * 2);
+			n.time = time;
+			n.pos = size;
+			heap[size++] = n;
+			siftUp(n.pos);
+			return;
+		}
+
+		double old = n.time;
+		n.time = time;
+		if (time < old)
+			siftUp(n.pos);
+		else if (time > old)
+			siftDown(n.pos);
+	}
+
+	/**
+	 * Removes the given node from the list if it is waiting.
+	 */
+	void remove(Node n) {
+		int i = n.pos;
+		if (i < 0)
+			return;
+
+		n.pos = -1;
+		size--;
+		Node last = heap[size];
+		heap[size] = null;
+		if (i == size)
+			return;
+
+		heap[i] = last;
+		last.pos = i;
+		siftUp(i);
+		siftDown(last.pos);
+	}
+
+	private static boolean before(Node a, Node b) {
+		if (a.time != b.time)
+			return a.time < b.time;
+		return a.seize.getEntityNumber() < b.seize.getEntityNumber();
+	}
+
+	private void siftUp(int i) {
+		Node n = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			Node p = heap[parent];
+			if (!before(n, p))
+				break;
+			heap[i] = p;
+			p.pos = i;
+			i = parent;
+		}
+		heap[i] = n;
+		n.pos = i;
+	}
+
+	private void siftDown(int i) {
+		Node n = heap[i];
+		int half = size >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			Node c = heap[child];
+			int right = child + 1;
+			if (right < size && before(heap[right], c)) {
+				child = right;
+				c = heap[child];
+			}
+			if (!before(c, n))
+				break;
+			heap[i] = c;
+			c.pos = i;
+			i = child;
+		}
+		heap[i] = n;
+		n.pos = i;
+	}
+}
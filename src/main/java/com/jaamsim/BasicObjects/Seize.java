@@ -48,6 +48,26 @@ public class Seize extends LinkedService {
 		this.addInput(numberOfUnitsList);
 	}
 
+	private final ArrayList<ResourceWaitList.Node> waitNodes = new ArrayList<>();
+
+	@Override
+	public void earlyInit() {
+		super.earlyInit();
+
+		// Prepare a node for the wait list of each Resource
+		waitNodes.clear();
+		for (Resource res : resourceList.getValue()) {
+			ResourceWaitList list = res.getWaitList();
+			boolean found = false;
+			for (ResourceWaitList.Node each : waitNodes) {
+				if (each.list == list)
+					found = true;
+			}
+			if (!found)
+				waitNodes.add(new ResourceWaitList.Node(this, list));
+		}
+	}
+
 	@Override
 	public void queueChanged() {
 		this.startAction();
@@ -114,6 +134,23 @@ public class Seize extends LinkedService {
 		return waitQueue.getValue();
 	}
 
+	/**
+	 * Called by the queue when its first entity has changed, so that this
+	 * Seize object can be found by its Resources in order of waiting time.
+	 */
+	void queueHeadChanged() {
+		Queue que = waitQueue.getValue();
+		if (que.getCount() == 0) {
+			for (ResourceWaitList.Node each : waitNodes)
+				each.list.remove(each);
+			return;
+		}
+
+		double time = que.getFirstTimeAdded();
+		for (ResourceWaitList.Node each : waitNodes)
+			each.list.update(each, time);
+	}
+
 	/**
 	 * Is the specified Resource required by this Seize object?
 	 * @param res = the specified Resource.
@@ -23,7 +23,7 @@ import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.UnitTypeInput;
-import com.jaamsim.ui.FrameBox;
+import com.jaamsim.ui.GUIUpdates;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
 
@@ -146,7 +146,7 @@ implements SampleProvider {
 
 	protected void setUnitType(Class<? extends Unit> ut) {
 		inputValue.setUnitType(ut);
-		FrameBox.reSelectEntity();  // Update the units in the Output Viewer
+		GUIUpdates.reSelectEntity();  // Update the units in the Output Viewer
 	}
 
 	@Override
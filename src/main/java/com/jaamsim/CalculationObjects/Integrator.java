@@ -19,7 +19,7 @@ import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleExpInput;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
-import com.jaamsim.ui.FrameBox;
+import com.jaamsim.ui.GUIUpdates;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -66,7 +66,7 @@ public class Integrator extends DoubleCalculation {
 	protected void setUnitType(Class<? extends Unit> ut) {
 		super.setUnitType(ut);
 		initialValue.setUnitType(ut);
-		FrameBox.reSelectEntity();  // Update the units in the Output Viewer
+		GUIUpdates.reSelectEntity();  // Update the units in the Output Viewer
 	}
 
 	@Override
@@ -22,7 +22,7 @@ import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.UnitTypeInput;
 import com.jaamsim.input.ValueInput;
-import com.jaamsim.ui.FrameBox;
+import com.jaamsim.ui.GUIUpdates;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
@@ -160,13 +160,13 @@ public class PIDController extends DoubleCalculation {
 		super.setUnitType(ut);
 		outputLow.setUnitType(ut);
 		outputHigh.setUnitType(ut);
-		FrameBox.reSelectEntity();  // Update the units in the Output Viewer
+		GUIUpdates.reSelectEntity();  // Update the units in the Output Viewer
 	}
 
 	private void setSPUnitType(Class<? extends Unit> ut) {
 		setPoint.setUnitType(ut);
 		processVariable.setUnitType(ut);
-		FrameBox.reSelectEntity();  // Update the units in the Output Viewer
+		GUIUpdates.reSelectEntity();  // Update the units in the Output Viewer
 	}
 
 	@Override
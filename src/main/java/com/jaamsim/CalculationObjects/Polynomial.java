@@ -20,7 +20,7 @@ import com.jaamsim.Samples.SampleExpInput;
 import com.jaamsim.datatypes.DoubleVector;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueListInput;
-import com.jaamsim.ui.FrameBox;
+import com.jaamsim.ui.GUIUpdates;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -65,7 +65,7 @@ public class Polynomial extends DoubleCalculation {
 	protected void setUnitType(Class<? extends Unit> ut) {
 		super.setUnitType(ut);
 		scale.setUnitType(ut);
-		FrameBox.reSelectEntity();  // Update the units in the Output Viewer
+		GUIUpdates.reSelectEntity();  // Update the units in the Output Viewer
 	}
 
 	@Override
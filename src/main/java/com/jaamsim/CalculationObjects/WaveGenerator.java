@@ -16,7 +16,7 @@ package com.jaamsim.CalculationObjects;
 
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
-import com.jaamsim.ui.FrameBox;
+import com.jaamsim.ui.GUIUpdates;
 import com.jaamsim.units.AngleUnit;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
@@ -73,7 +73,7 @@ public abstract class WaveGenerator extends DoubleCalculation {
 		super.setUnitType(ut);
 		amplitude.setUnitType(ut);
 		offset.setUnitType(ut);
-		FrameBox.reSelectEntity();  // Update the units in the Output Viewer
+		GUIUpdates.reSelectEntity();  // Update the units in the Output Viewer
 	}
 
 	@Override
@@ -19,7 +19,7 @@ import com.jaamsim.datatypes.DoubleVector;
 import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueListInput;
-import com.jaamsim.ui.FrameBox;
+import com.jaamsim.ui.GUIUpdates;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -58,7 +58,7 @@ public class WeightedSum extends DoubleCalculation {
 	protected void setUnitType(Class<? extends Unit> ut) {
 		super.setUnitType(ut);
 		inputValueList.setUnitType(ut);
-		FrameBox.reSelectEntity();  // Update the units in the Output Viewer
+		GUIUpdates.reSelectEntity();  // Update the units in the Output Viewer
 	}
 
 	@Override
@@ -18,7 +18,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.JFileChooser;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -61,7 +61,7 @@ public class ColladaModel extends DisplayModel implements MenuItemEntity {
 	         example = "Ship3DModel Actions { { ContentAction Contents } { BoomAngleAction BoomAngle } }")
 	private final ActionListInput actions;
 
-	private static HashMap<URI, MeshProtoKey> _cachedKeys = new HashMap<>();
+	private static final ConcurrentHashMap<URI, MeshProtoKey> _cachedKeys = new ConcurrentHashMap<>();
 
 	private static final String[] validFileExtensions;
 	private static final String[] validFileDescriptions;
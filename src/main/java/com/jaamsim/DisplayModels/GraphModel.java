@@ -393,32 +393,44 @@ public class GraphModel extends DisplayModel {
 
 		private void drawSeries(Graph.SeriesInfo series, double yMinimum, double yMaximum, double simTime, ArrayList<RenderProxy> out) {
 
-			if (series.numPoints < 2)
+			// Read the points that are present now; points added while
+			// they are read can replace only the oldest ones
+			Graph.PointBuffer buf = series.getPoints();
+			int cap = buf.getCapacity();
+			long end = buf.getCount();
+			long first = Math.max(0, end - cap);
+			if (end - first < 2)
 				return; // Nothing to display yet
 
 			double yRange = yMaximum - yMinimum;  // yRange can be either the primary or secondary range
 
-			double[] yVals = new double[series.numPoints];
-			double[] xVals = new double[series.numPoints];
-
-			for (int i = 0; i < series.numPoints; i++) {
-				if( timeTrace )
-					xVals[i] = MathUtils.bound((series.xValues[i] - simTime - xMin) / xRange, 0, 1) - 0.5;
-				else
-					xVals[i] = MathUtils.bound((series.xValues[i] - xMin) / xRange, 0, 1) - 0.5;
-
-				yVals[i] = MathUtils.bound((series.yValues[i] - yMinimum) / yRange, 0, 1) - 0.5;
+			int n = (int) (end - first);
+			int index = buf.getIndex(first);
+			double xOffset = timeTrace ? simTime + xMin : xMin;
+			Vec4d[] points = new Vec4d[n];
+			for (int i = 0; i < n; i++) {
+				double x = MathUtils.bound((buf.getXAt(index) - xOffset) / xRange, 0, 1) - 0.5;
+				double y = MathUtils.bound((buf.getYAt(index) - yMinimum) / yRange, 0, 1) - 0.5;
+				points[i] = new Vec4d(x, y, zBump, 1.0d);
+				if (++index == cap)
+					index = 0;
 			}
 
-			ArrayList<Vec4d> seriesPoints = new ArrayList<>((series.numPoints-1)*2);
-			for (int i = 0; i < series.numPoints - 1; i++) {
-				seriesPoints.add(new Vec4d(xVals[i  ], yVals[i  ], zBump, 1.0d));
-				seriesPoints.add(new Vec4d(xVals[i+1], yVals[i+1], zBump, 1.0d));
-			}
+			// Discard any points that were replaced while they were read
+			int skip = (int) Math.max(0, buf.getCount() - cap - first);
+			if (n - skip < 2)
+				return;
 
 			// Transform from graph area to world space
-			for (int i = 0; i < seriesPoints.size(); ++i) {
-				seriesPoints.get(i).mult4(graphToWorldTrans, seriesPoints.get(i));
+			for (int i = skip; i < n; i++) {
+				points[i].mult4(graphToWorldTrans, points[i]);
+			}
+
+			// Each interior point is shared by two line segments
+			ArrayList<Vec4d> seriesPoints = new ArrayList<>((n - skip - 1)*2);
+			for (int i = skip; i < n - 1; i++) {
+				seriesPoints.add(points[i]);
+				seriesPoints.add(points[i+1]);
 			}
 
 			out.add(new LineProxy(seriesPoints, series.lineColour, series.lineWidth, getVisibilityInfo(), pickingID));
@@ -246,8 +246,7 @@ public class Graph extends GraphBasics  {
 		for (int i = 0; i < sampList.size(); ++i) {
 			SeriesInfo info = new SeriesInfo();
 			info.samp = sampList.get(i);
-			info.yValues = new double[numberOfPoints.getValue()];
-			info.xValues = new double[numberOfPoints.getValue()];
+			info.init(numberOfPoints.getValue());
 
 			infos.add(info);
 		}
@@ -305,13 +304,11 @@ public class Graph extends GraphBasics  {
 	 */
 	private void setupSeriesData(SeriesInfo info, double xLength, double xInterval) {
 
-		info.numPoints = 0;
+		info.clear();
 
 		for( int i = 0; i * xInterval < xAxisEnd.getValue(); i++ ) {
 			double t = i * xInterval;
-			info.numPoints++;
-			info.xValues[info.numPoints] = t;
-			info.yValues[info.numPoints] = this.getCurrentValue(t, info);
+			info.add(t, this.getCurrentValue(t, info));
 		}
 	}
 
@@ -379,17 +376,7 @@ public class Graph extends GraphBasics  {
 
 		double t = getSimTime() + xAxisEnd.getValue();
 		double presentValue = this.getCurrentValue(t, info);
-		if (info.numPoints < info.yValues.length) {
-			info.xValues[info.numPoints] = t;
-			info.yValues[info.numPoints] = presentValue;
-			info.numPoints++;
-		}
-		else {
-			System.arraycopy(info.xValues, 1, info.xValues, 0, info.xValues.length - 1);
-			System.arraycopy(info.yValues, 1, info.yValues, 0, info.yValues.length - 1);
-			info.xValues[info.xValues.length - 1] = t;
-			info.yValues[info.yValues.length - 1] = presentValue;
-		}
+		info.add(t, presentValue);
 	}
 
 	/**
@@ -27,7 +27,7 @@ import com.jaamsim.input.StringInput;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.input.ValueListInput;
 import com.jaamsim.math.Color4d;
-import com.jaamsim.ui.FrameBox;
+import com.jaamsim.ui.GUIUpdates;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
 
@@ -35,14 +35,109 @@ public abstract class GraphBasics extends DisplayEntity {
 
 	/**
 	 * A struct containing all the information pertaining to a specific series
+	 * <p>
+	 * The points are held in a ring buffer, so that adding a point replaces
+	 * the oldest one once the buffer is full. Points are numbered by the order
+	 * in which they were added. The series is written by the simulation thread
+	 * and read by the renderer: a reader takes getCount() before reading the
+	 * points and again afterwards, and discards any point numbered below
+	 * the second count less the capacity, since it may have been replaced
+	 * while it was being read.
 	 */
 	public static class SeriesInfo {
-		public double[] yValues;
-		public double[] xValues;
-		public int numPoints; // number of points to be graphed
+		private volatile PointBuffer points = new PointBuffer(0);
 		public SampleProvider samp; // The source of the data for the series
 		public double lineWidth;
 		public Color4d lineColour;
+
+		/**
+		 * Allocates space for the given number of points and removes any
+		 * existing points.
+		 */
+		public void init(int capacity) {
+			points = new PointBuffer(capacity);
+		}
+
+		/**
+		 * Removes the existing points. A new buffer is used, so that a reader
+		 * of the old buffer does not see the new points.
+		 */
+		public void clear() {
+			points = new PointBuffer(points.getCapacity());
+		}
+
+		/**
+		 * Adds a point, replacing the oldest point if the series is full.
+		 */
+		public void add(double x, double y) {
+			points.add(x, y);
+		}
+
+		/**
+		 * Returns the points of the series. The arrays and the count of a
+		 * buffer always belong together, so a reader should take the buffer
+		 * once and use it for all of its reads.
+		 */
+		public PointBuffer getPoints() {
+			return points;
+		}
+	}
+
+	/**
+	 * A ring buffer of points for a series. The arrays are never replaced;
+	 * the series publishes a new buffer instead.
+	 */
+	public static final class PointBuffer {
+		private final double[] xValues;
+		private final double[] yValues;
+		private volatile long count; // number of points added since the buffer was created
+
+		PointBuffer(int capacity) {
+			xValues = new double[capacity];
+			yValues = new double[capacity];
+		}
+
+		void add(double x, double y) {
+			long n = count;
+			int i = (int) (n % xValues.length);
+			xValues[i] = x;
+			yValues[i] = y;
+			count = n + 1;
+		}
+
+		public int getCapacity() {
+			return xValues.length;
+		}
+
+		/**
+		 * Returns the number of points added since the buffer was created.
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns the position in the buffer of the given point number.
+		 * The following points are at the next positions, wrapping around to
+		 * zero after getCapacity() - 1.
+		 */
+		public int getIndex(long k) {
+			return (int) (k % xValues.length);
+		}
+
+		/**
+		 * Returns the x-value at the given position in the buffer.
+		 */
+		public double getXAt(int i) {
+			return xValues[i];
+		}
+
+		/**
+		 * Returns the y-value at the given position in the buffer.
+		 */
+		public double getYAt(int i) {
+			return yValues[i];
+		}
 	}
 
 	protected final ArrayList<SeriesInfo> primarySeries;
@@ -284,7 +379,7 @@ public abstract class GraphBasics extends DisplayEntity {
 		xAxisEnd.setUnitType(unitType);
 		xAxisInterval.setUnitType(unitType);
 		xLines.setUnitType(unitType);
-		FrameBox.valueUpdate();  // show the new units in the Input Editor
+		GUIUpdates.valueUpdate();  // show the new units in the Input Editor
 	}
 
 	protected void setYAxisUnit(Class<? extends Unit> unitType) {
@@ -293,7 +388,7 @@ public abstract class GraphBasics extends DisplayEntity {
 		yAxisEnd.setUnitType(unitType);
 		yAxisInterval.setUnitType(unitType);
 		yLines.setUnitType(unitType);
-		FrameBox.valueUpdate();  // show the new units in the Input Editor
+		GUIUpdates.valueUpdate();  // show the new units in the Input Editor
 	}
 
 	protected void setSecondaryYAxisUnit(Class<? extends Unit> unitType) {
@@ -301,7 +396,7 @@ public abstract class GraphBasics extends DisplayEntity {
 		secondaryYAxisStart.setUnitType(unitType);
 		secondaryYAxisEnd.setUnitType(unitType);
 		secondaryYAxisInterval.setUnitType(unitType);
-		FrameBox.valueUpdate();  // show the new units in the Input Editor
+		GUIUpdates.valueUpdate();  // show the new units in the Input Editor
 	}
 
 	public String getTitle() {
@@ -21,7 +21,8 @@ import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
 
-public class BetaDistribution extends Distribution {
+public class BetaDistribution extends Distribution
+implements InverseTransformSampler {
 	@Keyword(description = "The alpha tuning parameter.",
 	         exampleList = {"5.0"})
 	private final ValueInput alphaInput;
@@ -70,12 +71,67 @@ public class BetaDistribution extends Distribution {
 
 	@Override
 	protected double getNextSample() {
-		// Effectively calculate the inverse CDF
-		double val = rng.nextUniform();
+		return getInverseCDF(rng.nextUniform());
+	}
+
+	@Override
+	protected void getNextSamples(double[] out) {
+		rng.fill(out, 0, out.length);
+		for (int i = 0; i < out.length; i++)
+			out[i] = getInverseCDF(out[i]);
+	}
+
+	@Override
+	protected MRG1999a getBlockRNG() {
+		return rng;
+	}
+
+	@Override
+	public MRG1999a getInverseTransformRNG() {
+		return rng;
+	}
+
+	@Override
+	public double getCDF(double x) {
+		double scale = scaleInput.getValue();
+		if (x <= 0.0d)
+			return 0.0d;
+		if (x >= scale)
+			return 1.0d;
+		return regularizedBeta(x / scale, alphaInput.getValue(), betaInput.getValue(), 1E-14,
+				Integer.MAX_VALUE);
+	}
+
+	@Override
+	public double getInverseCDF(double val) {
+		double a = alphaInput.getValue();
+		double b = betaInput.getValue();
+		return inverseRegularizedBeta(val, a, b) * scaleInput.getValue();
+	}
 
+	@Override
+	public double getComplementaryCDF(double x) {
+		double scale = scaleInput.getValue();
+		if (x <= 0.0d)
+			return 1.0d;
+		if (x >= scale)
+			return 0.0d;
+		return regularizedBeta(1.0d - x / scale, betaInput.getValue(), alphaInput.getValue(), 1E-14,
+				Integer.MAX_VALUE);
+	}
+
+	@Override
+	public double getInverseComplementaryCDF(double val) {
 		double a = alphaInput.getValue();
 		double b = betaInput.getValue();
+		return (1.0d - inverseRegularizedBeta(val, b, a)) * scaleInput.getValue();
+	}
 
+	/**
+	 * Returns the value x between 0 and 1 for which the regularized beta
+	 * function I(x; a, b) is equal to val.
+	 */
+	private static double inverseRegularizedBeta(double val, double a, double b) {
 		double low = 0;
 		double high = 1;
 		double guess = 0.5;
@@ -88,7 +144,7 @@ public class BetaDistribution extends Distribution {
 					Integer.MAX_VALUE);
 
 			if (near(val, attempt, 1E-9)) {
-				return guess * scaleInput.getValue();
+				return guess;
 			}
 
 			if (val < attempt) {
@@ -14,13 +14,12 @@
  */
 package com.jaamsim.ProbabilityDistributions;
 
-import java.util.Arrays;
-
 import com.jaamsim.datatypes.DoubleVector;
 import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.ValueListInput;
+import com.jaamsim.rng.AliasTable;
 import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
@@ -47,7 +46,7 @@ public class DiscreteDistribution extends Distribution {
 	private final MRG1999a rng = new MRG1999a();
 	private int[] sampleCount;  // number of times each index has been selected
 	private double[] valueList;
-	private double[] cumProbList;
+	private AliasTable aliasTable;  // selects the index of the next value
 
 	{
 		valueListInput = new ValueListInput( "ValueList", "Key Inputs", null);
@@ -81,16 +80,14 @@ public class DiscreteDistribution extends Distribution {
 		int n = probabilityListInput.getValue().size();
 		sampleCount = new int[n];
 
-		// Store the values and cumulative probabilities for binary searching
+		// Store the values and build the alias table for the probabilities
 		valueList = new double[n];
-		cumProbList = new double[n];
-		double total = 0.0d;
+		double[] probList = new double[n];
 		for (int i=0; i<n; i++) {
 			valueList[i] = valueListInput.getValue().get(i);
-			total += probabilityListInput.getValue().get(i);
-			cumProbList[i] = total;
+			probList[i] = probabilityListInput.getValue().get(i);
 		}
-		cumProbList[n-1] = 1.0d;
+		aliasTable = new AliasTable(probList);
 	}
 
 	@Override
@@ -102,18 +99,8 @@ public class DiscreteDistribution extends Distribution {
 	@Override
 	protected double getNextSample() {
 
-		double rand = rng.nextUniform();
-		int index = -1;
-
-		// Binary search the cumulative probabilities
-		int k = Arrays.binarySearch(cumProbList, rand);
-		if (k >= 0)
-			index = k;
-		else
-			index = -k - 1;
-
-		if (index < 0 || index >= valueList.length)
-			error("Bad index returned from binary search.");
+		// Select the index in constant time using one random number
+		int index = aliasTable.sample(rng.nextUniform());
 
 		sampleCount[index]++;
 		return valueList[index];
@@ -15,6 +15,7 @@
 package com.jaamsim.ProbabilityDistributions;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Samples.SampleProvider;
@@ -30,8 +31,9 @@ import com.jaamsim.input.KeywordIndex;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.UnitTypeInput;
 import com.jaamsim.input.ValueInput;
+import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.ui.EditBox;
-import com.jaamsim.ui.FrameBox;
+import com.jaamsim.ui.GUIUpdates;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -55,11 +57,15 @@ implements SampleProvider {
 			 exampleList = {"547"})
 	private final IntegerInput randomSeedInput;
 
-	@Keyword(description = "Minimum value that can be returned.  Smaller values are rejected and resampled.",
+	@Keyword(description = "Minimum value that can be returned.  Smaller values are rejected and resampled, " +
+			"unless the distribution can sample the truncated range directly by its inverse cumulative " +
+			"distribution function.",
 	         exampleList = {"0.0"})
 	protected final ValueInput minValueInput;
 
-	@Keyword(description = "Maximum value that can be returned.  Larger values are rejected and resampled.",
+	@Keyword(description = "Maximum value that can be returned.  Larger values are rejected and resampled, " +
+			"unless the distribution can sample the truncated range directly by its inverse cumulative " +
+			"distribution function.",
 	         exampleList = {"200.0"})
 	protected final ValueInput maxValueInput;
 
@@ -71,6 +77,14 @@ implements SampleProvider {
 
 	private double lastSample = 0;
 
+	private long drawCount;           // number of values drawn, including rejected values
+	private boolean truncationValid;  // true if the truncation probabilities are up to date
+	private boolean inverseTransform; // true if a truncated range is sampled by the inverse CDF
+	private boolean upperTail;        // true if the complementary CDF is used instead of the CDF
+	private double minProb;           // (complementary) cumulative probability at MinValue
+	private double maxProb;           // (complementary) cumulative probability at MaxValue
+	private final MRG1999a blockStart = new MRG1999a();  // generator state before a block of samples
+
 	{
 		unitType = new UnitTypeInput("UnitType", "Key Inputs", UserSpecifiedUnit.class);
 		unitType.setRequired(true);
@@ -113,6 +127,8 @@ implements SampleProvider {
 		sampleSquaredSum = 0.0;
 		sampleMin = Double.POSITIVE_INFINITY;
 		sampleMax = Double.NEGATIVE_INFINITY;
+		drawCount = 0;
+		updateTruncation();
 
 		lastSample = getMeanValue(0);
 	}
@@ -120,10 +136,11 @@ implements SampleProvider {
 	@Override
 	public void updateForInput(Input<?> in) {
 		super.updateForInput(in);
+		truncationValid = false;
 
 		if (in == unitType) {
 			setUnitType(getUnitType());
-			FrameBox.reSelectEntity();  // Update the units in the Output Viewer
+			GUIUpdates.reSelectEntity();  // Update the units in the Output Viewer
 			return;
 		}
 	}
@@ -155,6 +172,51 @@ implements SampleProvider {
 	 */
 	protected abstract double getNextSample();
 
+	/**
+	 * Determines whether MinValue and MaxValue truncate the distribution and,
+	 * if so, whether the truncated range can be sampled by the inverse CDF.
+	 * A range whose lower end lies in the upper half of the distribution is
+	 * sampled by the complementary CDF, which keeps its full precision in the
+	 * upper tail.
+	 */
+	private void updateTruncation() {
+		truncationValid = true;
+		inverseTransform = false;
+		if (!(this instanceof InverseTransformSampler))
+			return;
+
+		InverseTransformSampler sampler = (InverseTransformSampler) this;
+		double min = minValueInput.getValue();
+		double max = maxValueInput.getValue();
+		minProb = (min == Double.NEGATIVE_INFINITY) ? 0.0d : sampler.getCDF(min);
+		upperTail = (minProb > 0.5d);
+		if (upperTail) {
+			minProb = sampler.getComplementaryCDF(min);
+			maxProb = (max == Double.POSITIVE_INFINITY) ? 0.0d : sampler.getComplementaryCDF(max);
+			if (minProb <= maxProb)
+				error("The range between MinValue and MaxValue has zero probability");
+			inverseTransform = true;
+			return;
+		}
+
+		maxProb = (max == Double.POSITIVE_INFINITY) ? 1.0d : sampler.getCDF(max);
+		if (maxProb <= minProb)
+			error("The range between MinValue and MaxValue has zero probability");
+		inverseTransform = (minProb > 0.0d || maxProb < 1.0d);
+	}
+
+	/**
+	 * Returns the value in the truncated range that corresponds to the given
+	 * uniform random number.
+	 */
+	private double getInverseTransformSample(double u) {
+		InverseTransformSampler sampler = (InverseTransformSampler) this;
+		double p = minProb + u * (maxProb - minProb);
+		double ret = upperTail ? sampler.getInverseComplementaryCDF(p) : sampler.getInverseCDF(p);
+		ret = Math.max(ret, this.minValueInput.getValue());
+		return Math.min(ret, this.maxValueInput.getValue());
+	}
+
 	@Override
 	public Class<? extends Unit> getUnitType() {
 		return unitType.getUnitType();
@@ -187,14 +249,122 @@ implements SampleProvider {
 			return lastSample;
 		}
 
-		// Loop until the select sample falls within the desired min and max values
+		if (!truncationValid)
+			updateTruncation();
+
 		double nextSample;
-		do {
-			nextSample = this.getNextSample();
+		if (inverseTransform) {
+			// Sample the truncated range with a single random number
+			MRG1999a rng = ((InverseTransformSampler) this).getInverseTransformRNG();
+			nextSample = this.getInverseTransformSample(rng.nextUniform());
+			drawCount++;
+		}
+		else {
+			// Loop until the select sample falls within the desired min and max values
+			do {
+				nextSample = this.getNextSample();
+				drawCount++;
+			}
+			while (nextSample < this.minValueInput.getValue() ||
+			       nextSample > this.maxValueInput.getValue());
 		}
-		while (nextSample < this.minValueInput.getValue() ||
-		       nextSample > this.maxValueInput.getValue());
 
+		recordSample(nextSample);
+		return nextSample;
+	}
+
+	/**
+	 * Fills the array with the next samples from the distribution. The values
+	 * and the sample statistics are identical to those given by the same number
+	 * of calls to getNextSample(double), but a truncated range sampled by the
+	 * inverse CDF, or a distribution that provides getBlockRNG, draws all the
+	 * random numbers for the block at once. If a block from getNextSamples
+	 * contains a value outside MinValue and MaxValue, the block is drawn again
+	 * one value at a time so that the rejected value is replaced by the same
+	 * draw as in getNextSample(double).
+	 * @param out - array to receive the samples
+	 */
+	public final void sample(double[] out) {
+		// If we are not in a model context, do not perturb the distribution by sampling,
+		// instead simply return the last sampled value
+		if (!EventManager.hasCurrent()) {
+			Arrays.fill(out, lastSample);
+			return;
+		}
+
+		if (!truncationValid)
+			updateTruncation();
+
+		double min = this.minValueInput.getValue();
+		double max = this.maxValueInput.getValue();
+		if (inverseTransform) {
+			// Map each random number onto the truncated range
+			((InverseTransformSampler) this).getInverseTransformRNG().fill(out, 0, out.length);
+			for (int i = 0; i < out.length; i++)
+				out[i] = this.getInverseTransformSample(out[i]);
+			drawCount += out.length;
+		}
+		else if (!this.getNextSamplesInRange(out, min, max)) {
+			for (int i = 0; i < out.length; i++) {
+				double nextSample;
+				do {
+					nextSample = this.getNextSample();
+					drawCount++;
+				}
+				while (nextSample < min || nextSample > max);
+				out[i] = nextSample;
+			}
+		}
+
+		for (int i = 0; i < out.length; i++)
+			recordSample(out[i]);
+	}
+
+	/**
+	 * Fills the array with a block of samples from getNextSamples, provided
+	 * that all of them lie between the given limits. Otherwise, the random
+	 * number generator is returned to its state at the start of the block and
+	 * false is returned.
+	 */
+	private boolean getNextSamplesInRange(double[] out, double min, double max) {
+		MRG1999a rng = this.getBlockRNG();
+		if (rng == null)
+			return false;
+
+		// The range is not truncated, so a sample rarely falls outside it
+		blockStart.setState(rng);
+		this.getNextSamples(out);
+
+		for (int i = 0; i < out.length; i++) {
+			if (out[i] < min || out[i] > max) {
+				rng.setState(blockStart);
+				return false;
+			}
+		}
+		drawCount += out.length;
+		return true;
+	}
+
+	/**
+	 * Returns the random number generator used by getNextSamples, or null if
+	 * the distribution does not sample a block of values at once.
+	 */
+	protected MRG1999a getBlockRNG() {
+		return null;
+	}
+
+	/**
+	 * Select the next samples from the probability distribution, ignoring the
+	 * MinValue and MaxValue inputs. The values must be identical to those
+	 * returned by the same number of calls to getNextSample(), and must be
+	 * drawn from getBlockRNG alone. Only called if getBlockRNG is not null.
+	 */
+	protected void getNextSamples(double[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = this.getNextSample();
+	}
+
+	private void recordSample(double nextSample) {
 		lastSample = nextSample;
 
 		// Collect statistics on the sampled values
@@ -203,7 +373,6 @@ implements SampleProvider {
 		sampleSquaredSum += nextSample * nextSample;
 		sampleMin = Math.min(sampleMin, nextSample);
 		sampleMax = Math.max(sampleMax, nextSample);
-		return nextSample;
 	}
 
 	@Override
@@ -250,6 +419,17 @@ implements SampleProvider {
 		return sampleCount;
 	}
 
+	@Output( name="DrawsPerSample",
+			 description="The average number of values drawn from the probability distribution for each sample. " +
+					"Values outside MinValue and MaxValue are rejected and drawn again, unless the distribution " +
+					"samples the truncated range directly by its inverse cumulative distribution function.",
+			 unitType=DimensionlessUnit.class)
+	public double getDrawsPerSample( double simTime ) {
+		if (sampleCount == 0)
+			return 0.0d;
+		return (double) drawCount / sampleCount;
+	}
+
 	@Output( name="SampleMean",
 			 description="The mean of the values sampled from the probability distribution.",
 			 unitType=UserSpecifiedUnit.class)
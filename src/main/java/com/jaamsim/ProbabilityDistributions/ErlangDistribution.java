@@ -17,6 +17,7 @@ package com.jaamsim.ProbabilityDistributions;
 import com.jaamsim.input.IntegerInput;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
+import com.jaamsim.math.Gamma;
 import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -25,7 +26,8 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * Erlang Distribution.
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 449.
  */
-public class ErlangDistribution extends Distribution {
+public class ErlangDistribution extends Distribution
+implements InverseTransformSampler {
 
 	@Keyword(description = "The scale parameter for the Erlang distribution.",
 	         exampleList = {"5.0"})
@@ -80,6 +82,39 @@ public class ErlangDistribution extends Distribution {
 		return (- meanInput.getValue() / shapeInput.getValue() * Math.log( u ));
 	}
 
+	@Override
+	public MRG1999a getInverseTransformRNG() {
+		return rng;
+	}
+
+	@Override
+	public double getCDF(double x) {
+		if (x <= 0.0d)
+			return 0.0d;
+		double shape = shapeInput.getValue();
+		return Gamma.regularizedGammaP(shape, x * shape / meanInput.getValue(), 1.0e-15, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public double getInverseCDF(double p) {
+		double shape = shapeInput.getValue();
+		return Gamma.inverseRegularizedGammaP(shape, p) * meanInput.getValue() / shape;
+	}
+
+	@Override
+	public double getComplementaryCDF(double x) {
+		if (x <= 0.0d)
+			return 1.0d;
+		double shape = shapeInput.getValue();
+		return Gamma.regularizedGammaQ(shape, x * shape / meanInput.getValue(), 1.0e-15, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public double getInverseComplementaryCDF(double q) {
+		double shape = shapeInput.getValue();
+		return Gamma.inverseRegularizedGammaQ(shape, q) * meanInput.getValue() / shape;
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return meanInput.getValue();
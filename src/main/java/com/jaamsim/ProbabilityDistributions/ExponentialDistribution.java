@@ -24,7 +24,8 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * Exponential Distribution.
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 448.
  */
-public class ExponentialDistribution extends Distribution {
+public class ExponentialDistribution extends Distribution
+implements InverseTransformSampler {
 
 	@Keyword(description = "The mean of the exponential distribution.",
 	         exampleList = {"5.0"})
@@ -62,6 +63,48 @@ public class ExponentialDistribution extends Distribution {
 		return (-meanInput.getValue() * Math.log(rng.nextUniform()));
 	}
 
+	@Override
+	public MRG1999a getInverseTransformRNG() {
+		return rng;
+	}
+
+	@Override
+	public double getCDF(double x) {
+		if (x <= 0.0d)
+			return 0.0d;
+		return -Math.expm1(-x / meanInput.getValue());
+	}
+
+	@Override
+	public double getInverseCDF(double p) {
+		return -meanInput.getValue() * Math.log1p(-p);
+	}
+
+	@Override
+	public double getComplementaryCDF(double x) {
+		if (x <= 0.0d)
+			return 1.0d;
+		return Math.exp(-x / meanInput.getValue());
+	}
+
+	@Override
+	public double getInverseComplementaryCDF(double q) {
+		return -meanInput.getValue() * Math.log(q);
+	}
+
+	@Override
+	protected void getNextSamples(double[] out) {
+		rng.fill(out, 0, out.length);
+		double mean = meanInput.getValue();
+		for (int i = 0; i < out.length; i++)
+			out[i] = (-mean * Math.log(out[i]));
+	}
+
+	@Override
+	protected MRG1999a getBlockRNG() {
+		return rng;
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return meanInput.getValue();
@@ -16,6 +16,7 @@ package com.jaamsim.ProbabilityDistributions;
 
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
+import com.jaamsim.math.Gamma;
 import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
@@ -27,7 +28,8 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * Ahrens and Dieter (1974) for shape parameter < 1
  * Cheng (1977) for shape parameter >= 1
  */
-public class GammaDistribution extends Distribution {
+public class GammaDistribution extends Distribution
+implements InverseTransformSampler {
 
 	@Keyword(description = "The mean of the Gamma distribution.",
 	         exampleList = {"5.0"})
@@ -115,6 +117,39 @@ public class GammaDistribution extends Distribution {
 		return sample * meanInput.getValue() / shapeInput.getValue();
 	}
 
+	@Override
+	public MRG1999a getInverseTransformRNG() {
+		return rng1;
+	}
+
+	@Override
+	public double getCDF(double x) {
+		if (x <= 0.0d)
+			return 0.0d;
+		double shape = shapeInput.getValue();
+		return Gamma.regularizedGammaP(shape, x * shape / meanInput.getValue(), 1.0e-15, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public double getInverseCDF(double p) {
+		double shape = shapeInput.getValue();
+		return Gamma.inverseRegularizedGammaP(shape, p) * meanInput.getValue() / shape;
+	}
+
+	@Override
+	public double getComplementaryCDF(double x) {
+		if (x <= 0.0d)
+			return 1.0d;
+		double shape = shapeInput.getValue();
+		return Gamma.regularizedGammaQ(shape, x * shape / meanInput.getValue(), 1.0e-15, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public double getInverseComplementaryCDF(double q) {
+		double shape = shapeInput.getValue();
+		return Gamma.inverseRegularizedGammaQ(shape, q) * meanInput.getValue() / shape;
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return meanInput.getValue();
@@ -0,0 +1,58 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.ProbabilityDistributions;
+
+import com.jaamsim.rng.MRG1999a;
+
+/**
+ * Implemented by distributions that can evaluate their cumulative distribution
+ * function and its inverse. A range truncated by MinValue and MaxValue is then
+ * sampled with a single random number rather than by rejecting the values that
+ * fall outside it. The complementary functions are used for a range in the
+ * upper tail, where the cumulative distribution function is too close to 1 to
+ * be resolved.
+ * <p>
+ * Each function ignores the MinValue and MaxValue inputs.
+ */
+public interface InverseTransformSampler {
+
+	/**
+	 * Returns the random number generator used to sample a truncated range.
+	 */
+	public MRG1999a getInverseTransformRNG();
+
+	/**
+	 * Returns the probability of a value less than or equal to x.
+	 */
+	public double getCDF(double x);
+
+	/**
+	 * Returns the value at which the cumulative distribution function is
+	 * equal to p.
+	 */
+	public double getInverseCDF(double p);
+
+	/**
+	 * Returns the probability of a value greater than x, i.e. 1 - getCDF(x)
+	 * evaluated without the loss of precision in the upper tail.
+	 */
+	public double getComplementaryCDF(double x);
+
+	/**
+	 * Returns the value at which the complementary cumulative distribution
+	 * function is equal to q.
+	 */
+	public double getInverseComplementaryCDF(double q);
+}
@@ -25,7 +25,8 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * Log-Logistic Distribution.
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 456.
  */
-public class LogLogisticDistribution extends Distribution {
+public class LogLogisticDistribution extends Distribution
+implements InverseTransformSampler {
 
 	@Keyword(description = "The scale parameter for the Log-Logistic distribution.",
 	         exampleList = {"3.0"})
@@ -73,6 +74,51 @@ public class LogLogisticDistribution extends Distribution {
 		return scaleInput.getValue() * Math.pow( u / (1 - u), 1.0 / shapeInput.getValue() );
 	}
 
+	@Override
+	public MRG1999a getInverseTransformRNG() {
+		return rng;
+	}
+
+	@Override
+	public double getCDF(double x) {
+		if (x <= 0.0d)
+			return 0.0d;
+		return 1.0 / (1.0 + Math.pow(x / scaleInput.getValue(), -shapeInput.getValue()));
+	}
+
+	@Override
+	public double getInverseCDF(double p) {
+		return scaleInput.getValue() * Math.pow( p / (1 - p), 1.0 / shapeInput.getValue() );
+	}
+
+	@Override
+	public double getComplementaryCDF(double x) {
+		if (x <= 0.0d)
+			return 1.0d;
+		return 1.0 / (1.0 + Math.pow(x / scaleInput.getValue(), shapeInput.getValue()));
+	}
+
+	@Override
+	public double getInverseComplementaryCDF(double q) {
+		return scaleInput.getValue() * Math.pow( (1 - q) / q, 1.0 / shapeInput.getValue() );
+	}
+
+	@Override
+	protected void getNextSamples(double[] out) {
+		rng.fill(out, 0, out.length);
+		double scale = scaleInput.getValue();
+		double exp = 1.0 / shapeInput.getValue();
+		for (int i = 0; i < out.length; i++) {
+			double u = out[i];
+			out[i] = scale * Math.pow( u / (1 - u), exp );
+		}
+	}
+
+	@Override
+	protected MRG1999a getBlockRNG() {
+		return rng;
+	}
+
 	@Override
 	protected double getMeanValue() {
 		double theta = Math.PI / shapeInput.getValue();
@@ -26,7 +26,8 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 454.
  * Polar Method, Marsaglia and Bray (1964) is used to calculate the normal distribution
  */
-public class LogNormalDistribution extends Distribution {
+public class LogNormalDistribution extends Distribution
+implements InverseTransformSampler {
 
 	@Keyword(description = "The scale parameter for the Log-Normal distribution.",
 	         exampleList = {"3.0 h"})
@@ -99,6 +100,41 @@ public class LogNormalDistribution extends Distribution {
 		return scaleInput.getValue() * Math.exp( sample );
 	}
 
+	@Override
+	public MRG1999a getInverseTransformRNG() {
+		return rng1;
+	}
+
+	@Override
+	public double getCDF(double x) {
+		if (x <= 0.0d)
+			return 0.0d;
+		double z = (Math.log(x / scaleInput.getValue()) - normalMeanInput.getValue()) / normalStandardDeviationInput.getValue();
+		return NormalDistribution.standardNormalCDF(z);
+	}
+
+	@Override
+	public double getInverseCDF(double p) {
+		double sample = NormalDistribution.standardNormalInverseCDF(p);
+		sample = normalMeanInput.getValue() + ( sample * normalStandardDeviationInput.getValue() );
+		return scaleInput.getValue() * Math.exp( sample );
+	}
+
+	@Override
+	public double getComplementaryCDF(double x) {
+		if (x <= 0.0d)
+			return 1.0d;
+		double z = (Math.log(x / scaleInput.getValue()) - normalMeanInput.getValue()) / normalStandardDeviationInput.getValue();
+		return NormalDistribution.standardNormalCDF(-z);
+	}
+
+	@Override
+	public double getInverseComplementaryCDF(double q) {
+		double sample = -NormalDistribution.standardNormalInverseCDF(q);
+		sample = normalMeanInput.getValue() + ( sample * normalStandardDeviationInput.getValue() );
+		return scaleInput.getValue() * Math.exp( sample );
+	}
+
 	@Override
 	protected double getMeanValue() {
 		double sd = normalStandardDeviationInput.getValue();
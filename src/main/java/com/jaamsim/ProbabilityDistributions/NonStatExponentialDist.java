@@ -14,10 +14,11 @@
  */
 package com.jaamsim.ProbabilityDistributions;
 
+import com.jaamsim.Samples.TimeSeriesCursor;
+import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.TimeSeriesInput;
 import com.jaamsim.rng.MRG1999a;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.TimeUnit;
 
@@ -32,6 +33,8 @@ public class NonStatExponentialDist extends Distribution {
 	private final TimeSeriesInput expectedArrivals;
 
 	private final MRG1999a rng = new MRG1999a();
+	private final TimeSeriesCursor ticksCursor = new TimeSeriesCursor();
+	private final TimeSeriesCursor valueCursor = new TimeSeriesCursor();
 
 	{
 		minValueInput.setDefaultValue(0.0);
@@ -52,15 +55,17 @@ public class NonStatExponentialDist extends Distribution {
 	public void earlyInit() {
 		super.earlyInit();
 		rng.setSeedStream(getStreamNumber(), getSubstreamNumber());
+		ticksCursor.reset();
+		valueCursor.reset();
 	}
 
 	@Override
 	protected double getNextSample() {
 
 		long ticksNow = getSimTicks();
-		double valueNow = expectedArrivals.getValue().getInterpolatedCumulativeValueForTicks(ticksNow);
+		double valueNow = expectedArrivals.getValue().getInterpolatedCumulativeValueForTicks(ticksNow, ticksCursor);
 		double valueNext = valueNow - Math.log(rng.nextUniform());
-		long ticksNext = expectedArrivals.getValue().getInterpolatedTicksForValue(valueNext);
+		long ticksNext = expectedArrivals.getValue().getInterpolatedTicksForValue(valueNext, valueCursor);
 
 		if (ticksNext == Long.MAX_VALUE)
 			return Double.POSITIVE_INFINITY;
@@ -68,13 +73,13 @@ public class NonStatExponentialDist extends Distribution {
 		if (ticksNext < ticksNow)
 			error("Negative time advance");
 
-		return FrameBox.ticksToSeconds(ticksNext - ticksNow);
+		return Simulation.ticksToSeconds(ticksNext - ticksNow);
 	}
 
 	@Override
 	protected double getMeanValue() {
 		double arrivals = expectedArrivals.getValue().getMaxValue();
-		double dt = FrameBox.ticksToSeconds( expectedArrivals.getValue().getMaxTicksValue() );
+		double dt = Simulation.ticksToSeconds( expectedArrivals.getValue().getMaxTicksValue() );
 		return dt/arrivals;
 	}
 
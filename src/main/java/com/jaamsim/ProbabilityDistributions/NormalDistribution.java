@@ -16,6 +16,7 @@ package com.jaamsim.ProbabilityDistributions;
 
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
+import com.jaamsim.math.Gamma;
 import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -25,7 +26,8 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 453.
  * Polar Method, Marsaglia and Bray (1964)
  */
-public class NormalDistribution extends Distribution {
+public class NormalDistribution extends Distribution
+implements InverseTransformSampler {
 
 	@Keyword(description = "The mean of the normal distribution (ignoring the MinValue and MaxValue keywords).",
 	         exampleList = {"5.0"})
@@ -85,6 +87,33 @@ public class NormalDistribution extends Distribution {
 		return meanInput.getValue() + ( sample * standardDeviationInput.getValue() );
 	}
 
+	@Override
+	public MRG1999a getInverseTransformRNG() {
+		return rng1;
+	}
+
+	@Override
+	public double getCDF(double x) {
+		double sd = standardDeviationInput.getValue();
+		return standardNormalCDF((x - meanInput.getValue()) / sd);
+	}
+
+	@Override
+	public double getInverseCDF(double p) {
+		return meanInput.getValue() + standardNormalInverseCDF(p) * standardDeviationInput.getValue();
+	}
+
+	@Override
+	public double getComplementaryCDF(double x) {
+		double sd = standardDeviationInput.getValue();
+		return standardNormalCDF((meanInput.getValue() - x) / sd);
+	}
+
+	@Override
+	public double getInverseComplementaryCDF(double q) {
+		return meanInput.getValue() - standardNormalInverseCDF(q) * standardDeviationInput.getValue();
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return meanInput.getValue();
@@ -94,4 +123,74 @@ public class NormalDistribution extends Distribution {
 	protected double getStandardDeviation() {
 		return  standardDeviationInput.getValue();
 	}
+
+	/**
+	 * Returns the cumulative distribution function for the standard normal
+	 * distribution, evaluated from the complementary error function
+	 * erfc(t) = Q(1/2, t^2).
+	 */
+	public static double standardNormalCDF(double z) {
+		if (Double.isNaN(z))
+			return Double.NaN;
+		if (z == Double.NEGATIVE_INFINITY)
+			return 0.0d;
+		if (z == Double.POSITIVE_INFINITY)
+			return 1.0d;
+
+		double q = 0.5d * Gamma.regularizedGammaQ(0.5d, 0.5d * z * z, 1.0e-15, Integer.MAX_VALUE);
+		return (z < 0.0d) ? q : 1.0d - q;
+	}
+
+	// Coefficients for the rational approximations to the inverse normal CDF
+	// given by P. J. Acklam
+	private static final double[] ICDF_A = {
+		-3.969683028665376e+01,  2.209460984245205e+02, -2.759285104469687e+02,
+		 1.383577518672690e+02, -3.066479806614716e+01,  2.506628277459239e+00 };
+	private static final double[] ICDF_B = {
+		-5.447609879822406e+01,  1.615858368580409e+02, -1.556989798598866e+02,
+		 6.680131188771972e+01, -1.328068155288572e+01 };
+	private static final double[] ICDF_C = {
+		-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+		-2.549732539343734e+00,  4.374664141464968e+00,  2.938163982698783e+00 };
+	private static final double[] ICDF_D = {
+		 7.784695709041462e-03,  3.224671290700398e-01,  2.445134137142996e+00,
+		 3.754408661907416e+00 };
+	private static final double ICDF_P_LOW = 0.02425;
+
+	/**
+	 * Returns the inverse of the cumulative distribution function for the
+	 * standard normal distribution. Acklam's rational approximation, with a
+	 * relative error of 1.15e-9, is refined by one step of Halley's method.
+	 */
+	public static double standardNormalInverseCDF(double p) {
+		if (Double.isNaN(p) || p < 0.0d || p > 1.0d)
+			return Double.NaN;
+		if (p == 0.0d)
+			return Double.NEGATIVE_INFINITY;
+		if (p == 1.0d)
+			return Double.POSITIVE_INFINITY;
+
+		double x;
+		if (p < ICDF_P_LOW) {
+			double q = Math.sqrt(-2.0d * Math.log(p));
+			x = (((((ICDF_C[0]*q + ICDF_C[1])*q + ICDF_C[2])*q + ICDF_C[3])*q + ICDF_C[4])*q + ICDF_C[5]) /
+			    ((((ICDF_D[0]*q + ICDF_D[1])*q + ICDF_D[2])*q + ICDF_D[3])*q + 1.0d);
+		}
+		else if (p <= 1.0d - ICDF_P_LOW) {
+			double q = p - 0.5d;
+			double r = q*q;
+			x = (((((ICDF_A[0]*r + ICDF_A[1])*r + ICDF_A[2])*r + ICDF_A[3])*r + ICDF_A[4])*r + ICDF_A[5])*q /
+			    (((((ICDF_B[0]*r + ICDF_B[1])*r + ICDF_B[2])*r + ICDF_B[3])*r + ICDF_B[4])*r + 1.0d);
+		}
+		else {
+			double q = Math.sqrt(-2.0d * Math.log1p(-p));
+			x = -(((((ICDF_C[0]*q + ICDF_C[1])*q + ICDF_C[2])*q + ICDF_C[3])*q + ICDF_C[4])*q + ICDF_C[5]) /
+			     ((((ICDF_D[0]*q + ICDF_D[1])*q + ICDF_D[2])*q + ICDF_D[3])*q + 1.0d);
+		}
+
+		// Refine the estimate using the error in the cumulative probability
+		double e = standardNormalCDF(x) - p;
+		double u = e * Math.sqrt(2.0d * Math.PI) * Math.exp(0.5d * x * x);
+		return x - u / (1.0d + 0.5d * x * u);
+	}
 }
@@ -45,6 +45,20 @@ public class UniformDistribution extends Distribution {
 		return min + rng.nextUniform() * (max - min);
 	}
 
+	@Override
+	protected void getNextSamples(double[] out) {
+		rng.fill(out, 0, out.length);
+		double min = this.getMinValue();
+		double max = this.getMaxValue();
+		for (int i = 0; i < out.length; i++)
+			out[i] = min + out[i] * (max - min);
+	}
+
+	@Override
+	protected MRG1999a getBlockRNG() {
+		return rng;
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return ( 0.5 * ( this.getMinValue() + this.getMaxValue() ) );
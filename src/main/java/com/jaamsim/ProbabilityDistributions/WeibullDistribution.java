@@ -26,7 +26,8 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * Weibull Distribution.
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 452.
  */
-public class WeibullDistribution extends Distribution {
+public class WeibullDistribution extends Distribution
+implements InverseTransformSampler {
 
 	@Keyword(description = "The scale parameter for the Weibull distribution.",
 	         exampleList = {"3.0 h"})
@@ -82,6 +83,52 @@ public class WeibullDistribution extends Distribution {
 		return  scaleInput.getValue() * Math.pow( - Math.log( rng.nextUniform() ), 1.0/shapeInput.getValue() ) + locationInput.getValue();
 	}
 
+	@Override
+	public MRG1999a getInverseTransformRNG() {
+		return rng;
+	}
+
+	@Override
+	public double getCDF(double x) {
+		double loc = locationInput.getValue();
+		if (x <= loc)
+			return 0.0d;
+		return -Math.expm1(-Math.pow((x - loc)/scaleInput.getValue(), shapeInput.getValue()));
+	}
+
+	@Override
+	public double getInverseCDF(double p) {
+		return scaleInput.getValue() * Math.pow(-Math.log1p(-p), 1.0/shapeInput.getValue()) + locationInput.getValue();
+	}
+
+	@Override
+	public double getComplementaryCDF(double x) {
+		double loc = locationInput.getValue();
+		if (x <= loc)
+			return 1.0d;
+		return Math.exp(-Math.pow((x - loc)/scaleInput.getValue(), shapeInput.getValue()));
+	}
+
+	@Override
+	public double getInverseComplementaryCDF(double q) {
+		return scaleInput.getValue() * Math.pow(-Math.log(q), 1.0/shapeInput.getValue()) + locationInput.getValue();
+	}
+
+	@Override
+	protected void getNextSamples(double[] out) {
+		rng.fill(out, 0, out.length);
+		double scale = scaleInput.getValue();
+		double exp = 1.0/shapeInput.getValue();
+		double loc = locationInput.getValue();
+		for (int i = 0; i < out.length; i++)
+			out[i] = scale * Math.pow( - Math.log( out[i] ), exp ) + loc;
+	}
+
+	@Override
+	protected MRG1999a getBlockRNG() {
+		return rng;
+	}
+
 	@Override
 	protected double getMeanValue() {
 		double shape = shapeInput.getValue();
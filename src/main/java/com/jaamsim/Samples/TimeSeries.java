@@ -14,8 +14,6 @@
  */
 package com.jaamsim.Samples;
 
-import java.util.Arrays;
-
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.input.Input;
@@ -23,9 +21,9 @@ import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.TimeSeriesDataInput;
+import com.jaamsim.input.TimeSeriesFileInput;
 import com.jaamsim.input.UnitTypeInput;
 import com.jaamsim.input.ValueInput;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -46,8 +44,16 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 							"{ '2010-01-01 00:00:00' 0.5 m } { '2010-01-01 03:00:00' 1.5 m } { '2010-01-01 06:00:00' 1.2 m }"})
 	private final TimeSeriesDataInput value;
 
+	@Keyword(description = "A text or binary file containing the time series records, as an alternative " +
+					"to the Value keyword for long time series. Each line of a text file holds one record " +
+					"with the same format as the Value keyword, with the fields separated by commas or spaces.\n" +
+					"A text file is parsed only once. The result is saved next to it in a binary file " +
+					"with the extension .tsb, which is memory-mapped when the model is loaded again.",
+	         exampleList = {"'demand.csv'"})
+	private final TimeSeriesFileInput dataFile;
+
 	@Keyword(description = "The unit type for the time series (e.g. DistanceUnit, TimeUnit, MassUnit).  " +
-			"If the UnitType keyword is specified, it must be specified before the Value keyword.",
+			"If the UnitType keyword is specified, it must be specified before the Value or DataFile keyword.",
 	         exampleList = {"DistanceUnit"})
 	private final UnitTypeInput unitType;
 
@@ -55,6 +61,9 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	         exampleList = {"8760.0 h"})
 	private final ValueInput cycleTime;
 
+	// Number of points that a lookup steps through before using a binary search
+	private static final int MAX_STEPS = 8;
+
 	{
 		unitType = new UnitTypeInput( "UnitType", "Key Inputs", UserSpecifiedUnit.class );
 		unitType.setRequired(true);
@@ -62,9 +71,12 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 
 		value = new TimeSeriesDataInput("Value", "Key Inputs", null);
 		value.setUnitType(UserSpecifiedUnit.class);
-		value.setRequired(true);
 		this.addInput(value);
 
+		dataFile = new TimeSeriesFileInput("DataFile", "Key Inputs", null);
+		dataFile.setUnitType(UserSpecifiedUnit.class);
+		this.addInput(dataFile);
+
 		cycleTime = new ValueInput( "CycleTime", "Key Inputs", Double.POSITIVE_INFINITY );
 		cycleTime.setUnitType(TimeUnit.class);
 		this.addInput( cycleTime );
@@ -76,13 +88,19 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	public void validate() {
 		super.validate();
 
-		if (value.getTickLength() != Simulation.getTickLength())
+		if (value.getValue() == null && dataFile.getValue() == null)
+			throw new InputErrorException("Either the Value or the DataFile keyword must be specified.");
+
+		if (value.getValue() != null && dataFile.getValue() != null)
+			throw new InputErrorException("The Value and DataFile keywords cannot both be specified.");
+
+		double tickLength = (dataFile.getValue() != null) ? dataFile.getTickLength() : value.getTickLength();
+		if (tickLength != Simulation.getTickLength())
 			throw new InputErrorException("A new value was entered for the Simulation keyword TickLength " +
 					"after the TimeSeries data had been loaded.%n" +
 					"The configuration file must be saved and reloaded before the simulation can be executed.");
 
-		long[] ticksList = value.getValue().ticksList;
-		if (getTicks(cycleTime.getValue()) < ticksList[ticksList.length - 1])
+		if (getTicks(cycleTime.getValue()) < getData().getLastTicks())
 			throw new InputErrorException( "CycleTime must be larger than the last time in the series" );
 	}
 
@@ -92,6 +110,7 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 
 		if (in == unitType) {
 			value.setUnitType( unitType.getUnitType() );
+			dataFile.setUnitType( unitType.getUnitType() );
 			this.getOutputHandle("PresentValue").setUnitType( unitType.getUnitType() );
 			return;
 		}
@@ -102,14 +121,24 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		return unitType.getUnitType();
 	}
 
+	/**
+	 * Returns the time series data from either the Value or the DataFile input.
+	 */
+	private TimeSeriesData getData() {
+		TimeSeriesData ret = dataFile.getValue();
+		if (ret != null)
+			return ret;
+		return value.getValue();
+	}
+
 	private long getTicks(double simTime) {
-		return FrameBox.secondsToTicks(simTime);
+		return Simulation.secondsToTicks(simTime);
 	}
 
 	private double getSimTime(long ticks) {
 		if (ticks == Long.MAX_VALUE)
 			return Double.POSITIVE_INFINITY;
-		return FrameBox.ticksToSeconds(ticks);
+		return Simulation.ticksToSeconds(ticks);
 	}
 
 	/**
@@ -118,7 +147,13 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	 */
 	@Override
 	public double getValueForTicks(long ticks) {
-		return getValue(getTSPointForTicks(ticks));
+		return getValueForTicks(ticks, new TimeSeriesCursor());
+	}
+
+	@Override
+	public double getValueForTicks(long ticks, TimeSeriesCursor cur) {
+		seekTicks(ticks, cur);
+		return getValue(cur.index);
 	}
 
 	/**
@@ -129,7 +164,13 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	 */
 	@Override
 	public long getNextChangeAfterTicks(long ticks) {
-		return getTicks(getTSPointAfter(getTSPointForTicks(ticks)));
+		return getNextChangeAfterTicks(ticks, new TimeSeriesCursor());
+	}
+
+	@Override
+	public long getNextChangeAfterTicks(long ticks, TimeSeriesCursor cur) {
+		seekTicks(ticks, cur);
+		return getTicks(getIndexAfter(cur.index), getCyclesAfter(cur.index, cur.numberOfCycles));
 	}
 
 	@Override
@@ -142,8 +183,7 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		if (cycleTime.getValue() < Double.POSITIVE_INFINITY)
 			return getTicks(cycleTime.getValue());
 
-		long[] ticksList = value.getValue().ticksList;
-		return ticksList[ ticksList.length-1 ];
+		return getData().getLastTicks();
 	}
 
 	@Override
@@ -153,12 +193,12 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 
 	@Override
 	public double getMaxValue() {
-		return value.getValue().getMaxValue();
+		return getData().getMaxValue();
 	}
 
 	@Override
 	public double getMinValue() {
-		return value.getValue().getMinValue();
+		return getData().getMinValue();
 	}
 
 	@Override
@@ -167,21 +207,22 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	}
 
 	/**
-	 * Returns the position in the time series that corresponds to the specified
-	 * time in simulation clock ticks.
+	 * Sets the cursor to the position in the time series that corresponds to
+	 * the specified time in simulation clock ticks.
 	 * <p>
-	 * The position returned is the largest one whose ticks value is less than
-	 * or equal to the specified ticks.
+	 * The position is the largest one whose ticks value is less than or equal
+	 * to the specified ticks.
 	 * @param ticks - simulation time in clock ticks.
-	 * @return position in the TimeSeries.
+	 * @param cur - cursor that receives the position in the TimeSeries.
 	 */
-	private TSPoint getTSPointForTicks(long ticks) {
+	private void seekTicks(long ticks, TimeSeriesCursor cur) {
 
-		long[] ticksList = value.getValue().ticksList;
+		TimeSeriesData data = getData();
+		int last = data.getNumPoints() - 1;
 		if (ticks == Long.MAX_VALUE) {
-			if (cycleTime.getValue() == Double.POSITIVE_INFINITY)
-				return new TSPoint(ticksList.length - 1, 0);
-			return new TSPoint(ticksList.length - 1, Long.MAX_VALUE);
+			cur.index = last;
+			cur.numberOfCycles = (cycleTime.getValue() == Double.POSITIVE_INFINITY) ? 0 : Long.MAX_VALUE;
+			return;
 		}
 
 		// Find the time within the present cycle
@@ -190,89 +231,150 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		long ticksInCycle = ticks % cycleTicks;
 
 		// If the time in the cycle is greater than the last time, return the last value
-		if (ticksInCycle >= ticksList[ticksList.length - 1]) {
-			return new TSPoint(ticksList.length - 1, numberOfCycles);
+		int k = last;
+		if (ticksInCycle < data.getTicks(last)) {
+			k = findIndexForTicks(data, ticksInCycle, cur.index);
+			if (k == -1)
+				error("No value found at time: %f", getSimTime(ticks));
 		}
 
-		// Find the index by binary search
-		int k = Arrays.binarySearch(ticksList, ticksInCycle);
-
-		// If the returned index is greater or equal to zero,
-		// then an exact match was found
-		if (k >= 0)
-			return new TSPoint(k, numberOfCycles);
-
-		if (k == -1)
-			error("No value found at time: %f", getSimTime(ticks));
-
-		// If the returned index is negative, then (insertion index) = -k-1
-		// Return the index before the insertion index
-		return new TSPoint(-k - 2, numberOfCycles);
+		cur.index = k;
+		cur.numberOfCycles = numberOfCycles;
 	}
 
 	/**
-	 * Returns the position in the time series that corresponds to the specified value.
+	 * Sets the cursor to the position in the time series that corresponds to
+	 * the specified value.
 	 * <p>
-	 * The TimeSeries values must increase monotonically. The position returned
-	 * is the largest one whose value is less than or equal to the specified value.
+	 * The TimeSeries values must increase monotonically. The position is the
+	 * largest one whose value is less than or equal to the specified value.
 	 * @param val - specified value.
-	 * @return position in the TimeSeries.
+	 * @param cur - cursor that receives the position in the TimeSeries.
 	 */
-	private TSPoint getTSPointForValue(double val) {
+	private void seekValue(double val, TimeSeriesCursor cur) {
 
-		double[] valueList = value.getValue().valueList;
-		if (val > getMaxValue() && cycleTime.getValue() == Double.POSITIVE_INFINITY)
-			return new TSPoint(valueList.length - 1, 0);
+		TimeSeriesData data = getData();
+		int last = data.getNumPoints() - 1;
+		if (val > getMaxValue() && cycleTime.getValue() == Double.POSITIVE_INFINITY) {
+			cur.index = last;
+			cur.numberOfCycles = 0;
+			return;
+		}
 
 		// Find the value within the present cycle
 		double valInCycle = val % getMaxValue();
 		long numberOfCycles = Math.round((val - valInCycle) / getMaxValue());
 
 		// If the value in the cycle is greater than or equal to the last value, return the last index
-		if (valInCycle >= valueList[valueList.length - 1])
-			return new TSPoint(valueList.length - 1, numberOfCycles);
+		int k = last;
+		if (valInCycle < data.getValue(last)) {
+			k = findIndexForValue(data, valInCycle, cur.index);
+			if (k == -1)
+				error("No entry found for value: %f", val);
+		}
 
-		// Find the index by binary search
-		int k = Arrays.binarySearch(valueList, valInCycle);
+		cur.index = k;
+		cur.numberOfCycles = numberOfCycles;
+	}
+
+	/**
+	 * Returns the largest index whose ticks value is less than or equal to the
+	 * specified ticks, or -1 if there is none.
+	 * <p>
+	 * The search steps forward from the index found by the previous lookup,
+	 * and falls back to a binary search if the time has jumped backwards or
+	 * by more than a few points.
+	 */
+	private static int findIndexForTicks(TimeSeriesData data, long ticks, int hint) {
+		int n = data.getNumPoints();
+		int k;
+		if (hint < 0 || hint >= n) {
+			k = data.findTicks(ticks);
+		}
+		else if (data.getTicks(hint) <= ticks) {
+			int end = Math.min(hint + MAX_STEPS, n - 1);
+			int i = hint;
+			while (i < end && data.getTicks(i + 1) <= ticks)
+				i++;
+			if (i < end || i == n - 1)
+				return i;
+			k = data.findTicks(ticks, i + 1, n);
+		}
+		else {
+			k = data.findTicks(ticks, 0, hint);
+		}
 
 		// If the returned index is greater or equal to zero,
 		// then an exact match was found
 		if (k >= 0)
-			return new TSPoint(k, numberOfCycles);
-
-		if (k == -1)
-			error("No entry found for value: %f", val);
+			return k;
 
 		// If the returned index is negative, then (insertion index) = -k-1
 		// Return the index before the insertion index
-		return new TSPoint(-k - 2, numberOfCycles);
+		return -k - 2;
+	}
+
+	/**
+	 * Returns the largest index whose value is less than or equal to the
+	 * specified value, or -1 if there is none, in the same way as
+	 * findIndexForTicks.
+	 * <p>
+	 * The values can repeat, so an exact match is resolved by a binary search
+	 * of the whole series to keep the result independent of the cursor.
+	 */
+	private static int findIndexForValue(TimeSeriesData data, double val, int hint) {
+		int n = data.getNumPoints();
+		int k;
+		if (hint < 0 || hint >= n) {
+			k = data.findValue(val);
+		}
+		else if (data.getValue(hint) <= val) {
+			int end = Math.min(hint + MAX_STEPS, n - 1);
+			int i = hint;
+			while (i < end && data.getValue(i + 1) <= val)
+				i++;
+			if (data.getValue(i) == val)
+				k = i;
+			else if (i < end || i == n - 1)
+				return i;
+			else
+				k = data.findValue(val, i + 1, n);
+		}
+		else {
+			k = data.findValue(val, 0, hint);
+		}
+
+		if (k >= 0)
+			return data.findValue(val);
+
+		return -k - 2;
 	}
 
 	/**
 	 * Returns the simulation time in clock ticks for the specified position in
 	 * the time series.
-	 * @param pt - position in the time series.
+	 * @param index - index of the point in the time series, or -1 for none.
+	 * @param numberOfCycles - number of passes through the time series data.
 	 * @return simulation time in clock ticks.
 	 */
-	private long getTicks(TSPoint pt) {
-		if (pt.index == -1)
+	private long getTicks(int index, long numberOfCycles) {
+		if (index == -1)
 			return Long.MAX_VALUE;
 		if (cycleTime.getValue() == Double.POSITIVE_INFINITY)
-			return value.getValue().ticksList[pt.index];
-		return value.getValue().ticksList[pt.index] + pt.numberOfCycles*getTicks(cycleTime.getValue());
+			return getData().getTicks(index);
+		return getData().getTicks(index) + numberOfCycles*getTicks(cycleTime.getValue());
 	}
 
 	/**
 	 * Returns the time series value for the specified position in the time
 	 * series.
-	 * @param pt - position in the time series.
+	 * @param index - index of the point in the time series, or -1 for none.
 	 * @return value for the time series.
 	 */
-	private double getValue(TSPoint pt) {
-		double valueList[] = value.getValue().valueList;
-		if (pt.index == -1)
-			return valueList[ valueList.length - 1 ];
-		return valueList[pt.index];
+	private double getValue(int index) {
+		if (index == -1)
+			return getData().getLastValue();
+		return getData().getValue(index);
 	}
 
 	/**
@@ -280,56 +382,78 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	 * <p>
 	 * If a cycle time has been specified, then the total time increases
 	 * with each pass through the time series.
-	 * @param pt - position in the time series.
+	 * @param index - index of the point in the time series, or -1 for none.
+	 * @param numberOfCycles - number of passes through the time series data.
 	 * @return total value for the time series.
 	 */
-	private double getCumulativeValue(TSPoint pt) {
+	private double getCumulativeValue(int index, long numberOfCycles) {
 		if (cycleTime.getValue() == Double.POSITIVE_INFINITY)
-			return getValue(pt);
-		return getValue(pt) + pt.numberOfCycles*getMaxValue();
+			return getValue(index);
+		return getValue(index) + numberOfCycles*getMaxValue();
 	}
 
 	/**
-	 * Returns the position in the time series that follows the specified
-	 * position.
+	 * Returns the index of the position in the time series that follows the
+	 * specified position.
 	 * <p>
 	 * An index of -1 is returned if the specified position is a the end
 	 * of the time series data and a cycle time is not specified.
-	 * @param pt - specified position in the time series.
-	 * @return next position in the time series.
+	 * @param index - index of the specified position in the time series.
+	 * @return index of the next position in the time series.
 	 */
-	private TSPoint getTSPointAfter(TSPoint pt) {
-		if (pt.index == -1)
-			return new TSPoint(pt.index, pt.numberOfCycles);
+	private int getIndexAfter(int index) {
+		if (index == -1)
+			return -1;
 
-		if (pt.index == value.getValue().ticksList.length - 1) {
+		if (index == getData().getNumPoints() - 1) {
 			if (cycleTime.getValue() == Double.POSITIVE_INFINITY)
-				return new TSPoint(-1, pt.numberOfCycles);
-
-			return new TSPoint(0, pt.numberOfCycles + 1);
+				return -1;
+			return 0;
 		}
 
-		return new TSPoint(pt.index + 1, pt.numberOfCycles);
+		return index + 1;
+	}
+
+	/**
+	 * Returns the number of cycles for the position in the time series that
+	 * follows the specified position.
+	 * @param index - index of the specified position in the time series.
+	 * @param numberOfCycles - number of cycles for the specified position.
+	 * @return number of cycles for the next position in the time series.
+	 */
+	private long getCyclesAfter(int index, long numberOfCycles) {
+		if (index == getData().getNumPoints() - 1 && cycleTime.getValue() != Double.POSITIVE_INFINITY)
+			return numberOfCycles + 1;
+		return numberOfCycles;
 	}
 
 	@Override
 	public long getInterpolatedTicksForValue(double val) {
+		return getInterpolatedTicksForValue(val, new TimeSeriesCursor());
+	}
 
-		TSPoint low = getTSPointForValue(val);
-		TSPoint high = getTSPointAfter(low);
-		if (high.index == -1)
+	@Override
+	public long getInterpolatedTicksForValue(double val, TimeSeriesCursor cur) {
+
+		seekValue(val, cur);
+		int lowIndex = cur.index;
+		long lowCycles = cur.numberOfCycles;
+		int highIndex = getIndexAfter(lowIndex);
+		long highCycles = getCyclesAfter(lowIndex, lowCycles);
+		if (highIndex == -1)
 			return Long.MAX_VALUE;
 
-		long ticksLow = getTicks(low);
-		long ticksHigh = getTicks(high);
-		double valueLow = getCumulativeValue(low);
-		double valueHigh = getCumulativeValue(high);
+		long ticksLow = getTicks(lowIndex, lowCycles);
+		long ticksHigh = getTicks(highIndex, highCycles);
+		double valueLow = getCumulativeValue(lowIndex, lowCycles);
+		double valueHigh = getCumulativeValue(highIndex, highCycles);
 
 		// The value at the end of the cycle is equal to the value at the start of the next cycle
 		if (valueHigh == valueLow) {
-			high = getTSPointAfter(high);
-			ticksHigh = getTicks(high);
-			valueHigh = getCumulativeValue(high);
+			highCycles = getCyclesAfter(highIndex, highCycles);
+			highIndex = getIndexAfter(highIndex);
+			ticksHigh = getTicks(highIndex, highCycles);
+			valueHigh = getCumulativeValue(highIndex, highCycles);
 		}
 
 		return ticksLow + Math.round((val - valueLow)*(ticksHigh - ticksLow)/(valueHigh - valueLow));
@@ -337,42 +461,36 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 
 	@Override
 	public double getInterpolatedCumulativeValueForTicks(long ticks) {
+		return getInterpolatedCumulativeValueForTicks(ticks, new TimeSeriesCursor());
+	}
 
-		TSPoint low = getTSPointForTicks(ticks);
-		TSPoint high = getTSPointAfter(low);
-		if (high.index == -1) {
-			double valueList[] = value.getValue().valueList;
-			return valueList[ valueList.length - 1 ];
-		}
+	@Override
+	public double getInterpolatedCumulativeValueForTicks(long ticks, TimeSeriesCursor cur) {
+
+		seekTicks(ticks, cur);
+		int lowIndex = cur.index;
+		long lowCycles = cur.numberOfCycles;
+		int highIndex = getIndexAfter(lowIndex);
+		long highCycles = getCyclesAfter(lowIndex, lowCycles);
+		if (highIndex == -1)
+			return getData().getLastValue();
 
-		long ticksLow = getTicks(low);
-		long ticksHigh = getTicks(high);
-		double valueLow = getCumulativeValue(low);
-		double valueHigh = getCumulativeValue(high);
+		long ticksLow = getTicks(lowIndex, lowCycles);
+		long ticksHigh = getTicks(highIndex, highCycles);
+		double valueLow = getCumulativeValue(lowIndex, lowCycles);
+		double valueHigh = getCumulativeValue(highIndex, highCycles);
 
 		// The value at the end of the cycle is equal to the value at the start of the next cycle
 		if (valueHigh == valueLow) {
-			high = getTSPointAfter(high);
-			ticksHigh = getTicks(high);
-			valueHigh = getCumulativeValue(high);
+			highCycles = getCyclesAfter(highIndex, highCycles);
+			highIndex = getIndexAfter(highIndex);
+			ticksHigh = getTicks(highIndex, highCycles);
+			valueHigh = getCumulativeValue(highIndex, highCycles);
 		}
 
 		return valueLow + (ticks - ticksLow)*(valueHigh - valueLow)/(ticksHigh - ticksLow);
 	}
 
-	// ******************************************************************************************************
-	// TIME SERIES POINT
-	// ******************************************************************************************************
-	private class TSPoint {
-		private int index;            // index number for the time series point
-		private long numberOfCycles;  // number of passes through the time series data
-
-		private TSPoint(int ind, long n) {
-			index = ind;
-			numberOfCycles = n;
-		}
-	}
-
 	// ******************************************************************************************************
 	// OUTPUTS
 	// ******************************************************************************************************
@@ -382,7 +500,7 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	        unitType = UserSpecifiedUnit.class)
 	@Override
 	public final double getNextSample(double simTime) {
-		return getValue(getTSPointForTicks(getTicks(simTime)));
+		return getValueForTicks(getTicks(simTime));
 	}
 
 }
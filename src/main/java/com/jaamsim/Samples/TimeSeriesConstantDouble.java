@@ -49,6 +49,11 @@ public class TimeSeriesConstantDouble implements TimeSeriesProvider {
 		return val;
 	}
 
+	@Override
+	public double getValueForTicks(long ticks, TimeSeriesCursor cur) {
+		return val;
+	}
+
 	@Override
 	public double getNextTimeAfter(double simTime) {
 		return Double.POSITIVE_INFINITY;
@@ -59,6 +64,11 @@ public class TimeSeriesConstantDouble implements TimeSeriesProvider {
 		return Long.MAX_VALUE;
 	}
 
+	@Override
+	public long getNextChangeAfterTicks(long ticks, TimeSeriesCursor cur) {
+		return Long.MAX_VALUE;
+	}
+
 	@Override
 	public double getMaxValue() {
 		return val;
@@ -93,8 +103,18 @@ public class TimeSeriesConstantDouble implements TimeSeriesProvider {
 		return 0;
 	}
 
+	@Override
+	public long getInterpolatedTicksForValue(double val, TimeSeriesCursor cur) {
+		return 0;
+	}
+
 	@Override
 	public double getInterpolatedCumulativeValueForTicks(long ticks) {
 		return val;
 	}
+
+	@Override
+	public double getInterpolatedCumulativeValueForTicks(long ticks, TimeSeriesCursor cur) {
+		return val;
+	}
 }
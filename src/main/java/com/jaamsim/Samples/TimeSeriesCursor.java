@@ -0,0 +1,44 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.Samples;
+
+/**
+ * Remembers a position in a time series for one consumer of its values.
+ * <p>
+ * Each lookup that is passed a cursor stores the position it found in the
+ * cursor, and starts the next lookup from that position. Since simulation
+ * time advances almost monotonically, the next position is usually found by
+ * stepping forward a few points instead of searching the whole series. The
+ * result of a lookup does not depend on the previous position.
+ * <p>
+ * A cursor is not thread-safe. Each consumer should hold its own cursor for
+ * each kind of lookup, i.e. one for times and one for values.
+ */
+public final class TimeSeriesCursor {
+	int index;            // index number for the time series point
+	long numberOfCycles;  // number of passes through the time series data
+
+	public TimeSeriesCursor() {
+		index = -1;
+	}
+
+	/**
+	 * Clears the remembered position.
+	 */
+	public void reset() {
+		index = -1;
+		numberOfCycles = 0;
+	}
+}
@@ -14,28 +14,142 @@
  */
 package com.jaamsim.Samples;
 
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+
 import com.jaamsim.datatypes.DoubleVector;
 
+/**
+ * Holds the times and values for a TimeSeries.
+ * <p>
+ * The data is accessed through buffers so that a large time series can be
+ * held in a memory-mapped file instead of on the heap.
+ */
 public class TimeSeriesData {
-	final long[] ticksList;   // time in clock ticks corresponding to each value
-	final double[] valueList;
-	private double maxValue;  // The maximum value that occurs in valueList
-	private double minValue;  // The minimum value that occurs in valueList
+	private final LongBuffer ticksList;    // time in clock ticks corresponding to each value
+	private final DoubleBuffer valueList;
+	private final double maxValue;  // The maximum value that occurs in valueList
+	private final double minValue;  // The minimum value that occurs in valueList
 
 	public TimeSeriesData( DoubleVector times, DoubleVector values ) {
-		ticksList = new long[times.size()];
+		long[] ticks = new long[times.size()];
 		for (int i = 0; i < times.size(); i++) {
-			ticksList[i] = Math.round(times.get(i));
+			ticks[i] = Math.round(times.get(i));
 		}
 
-		valueList = new double[values.size()];
-		maxValue = Double.NEGATIVE_INFINITY;
-		minValue = Double.POSITIVE_INFINITY;
+		double[] vals = new double[values.size()];
+		double max = Double.NEGATIVE_INFINITY;
+		double min = Double.POSITIVE_INFINITY;
 		for (int i = 0; i < values.size(); i++) {
-			valueList[i] = values.get(i);
-			maxValue = Math.max(maxValue, valueList[i]);
-			minValue = Math.min(minValue, valueList[i]);
+			vals[i] = values.get(i);
+			max = Math.max(max, vals[i]);
+			min = Math.min(min, vals[i]);
+		}
+
+		ticksList = LongBuffer.wrap(ticks);
+		valueList = DoubleBuffer.wrap(vals);
+		maxValue = max;
+		minValue = min;
+	}
+
+	/**
+	 * Creates a time series from buffers holding the ticks and values, for
+	 * example views of a memory-mapped file.
+	 * @param ticks - time in clock ticks for each point, in increasing order.
+	 * @param values - value for each point.
+	 * @param min - the minimum value that occurs in values.
+	 * @param max - the maximum value that occurs in values.
+	 */
+	public TimeSeriesData( LongBuffer ticks, DoubleBuffer values, double min, double max ) {
+		if (ticks.limit() != values.limit())
+			throw new IllegalArgumentException("The number of times and values must be equal");
+
+		ticksList = ticks;
+		valueList = values;
+		maxValue = max;
+		minValue = min;
+	}
+
+	public int getNumPoints() {
+		return ticksList.limit();
+	}
+
+	public long getTicks(int index) {
+		return ticksList.get(index);
+	}
+
+	public double getValue(int index) {
+		return valueList.get(index);
+	}
+
+	public long getLastTicks() {
+		return ticksList.get(ticksList.limit() - 1);
+	}
+
+	public double getLastValue() {
+		return valueList.get(valueList.limit() - 1);
+	}
+
+	/**
+	 * Searches the times for the specified ticks value, with the same return
+	 * convention as Arrays.binarySearch.
+	 * @param ticks - simulation time in clock ticks.
+	 * @return index of the ticks value, or (-(insertion point) - 1) if not found.
+	 */
+	public int findTicks(long ticks) {
+		return findTicks(ticks, 0, ticksList.limit());
+	}
+
+	/**
+	 * Searches the times between fromIndex (inclusive) and toIndex (exclusive)
+	 * for the specified ticks value, with the same return convention as
+	 * Arrays.binarySearch.
+	 */
+	public int findTicks(long ticks, int fromIndex, int toIndex) {
+		int low = fromIndex;
+		int high = toIndex - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long midVal = ticksList.get(mid);
+			if (midVal < ticks)
+				low = mid + 1;
+			else if (midVal > ticks)
+				high = mid - 1;
+			else
+				return mid;
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Searches the values for the specified value, which must increase
+	 * monotonically, with the same return convention as Arrays.binarySearch.
+	 * @param val - value to search for.
+	 * @return index of the value, or (-(insertion point) - 1) if not found.
+	 */
+	public int findValue(double val) {
+		return findValue(val, 0, valueList.limit());
+	}
+
+	/**
+	 * Searches the values between fromIndex (inclusive) and toIndex (exclusive)
+	 * for the specified value, with the same return convention as
+	 * Arrays.binarySearch.
+	 */
+	public int findValue(double val, int fromIndex, int toIndex) {
+		int low = fromIndex;
+		int high = toIndex - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = Double.compare(valueList.get(mid), val);
+			if (cmp < 0)
+				low = mid + 1;
+			else if (cmp > 0)
+				high = mid - 1;
+			else
+				return mid;
 		}
+		return -(low + 1);
 	}
 
 	public double getMaxValue() {
@@ -21,6 +21,25 @@ public interface TimeSeriesProvider extends SampleProvider {
 	public long getNextChangeAfterTicks(long ticks);
 	public long getMaxTicksValue();
 
+	/**
+	 * Returns the value at the specified simulation time in clock ticks,
+	 * starting the search from the position held by the given cursor.
+	 * @param ticks - simulation time in clock ticks.
+	 * @param cur - cursor for the consumer making the lookup.
+	 * @return value of the time series.
+	 */
+	public double getValueForTicks(long ticks, TimeSeriesCursor cur);
+
+	/**
+	 * Returns the first time that the value will change after the specified
+	 * simulation time, starting the search from the position held by the
+	 * given cursor.
+	 * @param ticks - simulation time in clock ticks.
+	 * @param cur - cursor for the consumer making the lookup.
+	 * @return simulation time in clock ticks at which the value will change.
+	 */
+	public long getNextChangeAfterTicks(long ticks, TimeSeriesCursor cur);
+
 	/**
 	 * Returns the simulation time in ticks corresponding to the specified
 	 * value that it interpolated from the time series entries.
@@ -30,6 +49,7 @@ public interface TimeSeriesProvider extends SampleProvider {
 	 * @return interpolated simulation time in clock ticks.
 	 */
 	public long getInterpolatedTicksForValue(double val);
+	public long getInterpolatedTicksForValue(double val, TimeSeriesCursor cur);
 
 	/**
 	 * Returns the value corresponding to the specified simulation
@@ -39,4 +59,5 @@ public interface TimeSeriesProvider extends SampleProvider {
 	 * @return interpolated value.
 	 */
 	public double getInterpolatedCumulativeValueForTicks(long ticks);
+	public double getInterpolatedCumulativeValueForTicks(long ticks, TimeSeriesCursor cur);
 }
@@ -14,13 +14,18 @@
  */
 package com.jaamsim.Thresholds;
 
+import java.util.ArrayList;
+
 import com.jaamsim.Graphics.DisplayModelCompat;
+import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.EntityTarget;
+import com.jaamsim.events.ChangeNotifier;
 import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.ColourInput;
+import com.jaamsim.input.EntityListInput;
 import com.jaamsim.input.ExpError;
 import com.jaamsim.input.ExpEvaluator;
 import com.jaamsim.input.ExpressionInput;
@@ -35,6 +40,12 @@ public class ExpressionThreshold extends Threshold {
 	         example = "ExpressionThreshold1  OpenCondition { '[Queue1].QueueLength &gt 3' }")
 	private final ExpressionInput openCondition;
 
+	@Keyword(description = "An optional list of objects whose outputs or attributes are used by the OpenCondition. "
+	                     + "If provided, the condition is only re-evaluated after one of these objects has changed state. "
+	                     + "If left blank, the condition is re-evaluated before every advance of simulation time.",
+	         example = "ExpressionThreshold1  WatchList { Queue1 Server1 }")
+	private final EntityListInput<Entity> watchList;
+
 	@Keyword(description = "The colour of the threshold graphic when the threshold condition is open, but the gate is still closed.",
 	         example = "ExpressionThreshold1  PendingOpenColour { yellow }")
 	private final ColourInput pendingOpenColour;
@@ -55,6 +66,9 @@ public class ExpressionThreshold extends Threshold {
 		openCondition.setRequired(true);
 		this.addInput(openCondition);
 
+		watchList = new EntityListInput<>(Entity.class, "WatchList", "Key Inputs", new ArrayList<Entity>(0));
+		this.addInput(watchList);
+
 		pendingOpenColour = new ColourInput("PendingOpenColour", "Graphics", ColourInput.YELLOW);
 		this.addInput(pendingOpenColour);
 		this.addSynonym(pendingOpenColour, "PendingOpenColor");
@@ -79,6 +93,11 @@ public class ExpressionThreshold extends Threshold {
 		public boolean evaluate() {
 			return ExpressionThreshold.this.openStateChanged();
 		}
+
+		@Override
+		public ChangeNotifier[] getDependencies() {
+			return ExpressionThreshold.this.getWatchNotifiers();
+		}
 	}
 	private final Conditional openChanged = new OpenChangedConditional();
 
@@ -101,6 +120,23 @@ public class ExpressionThreshold extends Threshold {
 		EventManager.scheduleUntil(doOpenClose, openChanged, null);
 	}
 
+	/**
+	 * Returns the change notifiers for the entities in the WatchList and for
+	 * this threshold, or null if no WatchList was provided.
+	 */
+	ChangeNotifier[] getWatchNotifiers() {
+		ArrayList<Entity> list = watchList.getValue();
+		if (list == null || list.isEmpty())
+			return null;
+
+		ChangeNotifier[] ret = new ChangeNotifier[list.size() + 1];
+		for (int i = 0; i < list.size(); i++) {
+			ret[i] = list.get(i).getChangeNotifier();
+		}
+		ret[list.size()] = this.getChangeNotifier();
+		return ret;
+	}
+
 	private boolean getOpenConditionValue(double simTime) {
 		try {
 			// Evaluate the condition (0 = false, non-zero = true)
@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import com.jaamsim.Graphics.DisplayModelCompat;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.EntityTarget;
+import com.jaamsim.basicsim.Simulation;
+import com.jaamsim.basicsim.SimulationContext;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.BooleanInput;
@@ -27,7 +29,6 @@ import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.math.Color4d;
 import com.jaamsim.states.StateEntity;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.units.DimensionlessUnit;
 
 public class Threshold extends StateEntity {
@@ -75,7 +76,7 @@ public class Threshold extends StateEntity {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		thresholdChangedTarget.users.clear();
+		getChangedTarget().users.clear();
 		open = true;
 
 		userList.clear();
@@ -118,11 +119,9 @@ public class Threshold extends StateEntity {
 		return "Open".equals(state);
 	}
 
-	private static final EventHandle thresholdChangedHandle = new EventHandle();
-	private static final ThresholdChangedTarget thresholdChangedTarget = new ThresholdChangedTarget();
-
 	private static class ThresholdChangedTarget extends ProcessTarget {
 		public final ArrayList<ThresholdUser> users = new ArrayList<>();
+		public final EventHandle handle = new EventHandle();
 
 		public ThresholdChangedTarget() {}
 
@@ -140,6 +139,22 @@ public class Threshold extends StateEntity {
 		}
 	}
 
+	/**
+	 * Returns the list of ThresholdUsers to be notified of changes, which is
+	 * shared by all the Thresholds in the same simulation run.
+	 */
+	private ThresholdChangedTarget getChangedTarget() {
+		SimulationContext ctx = this.getContext();
+		synchronized (ctx) {
+			ThresholdChangedTarget t = (ThresholdChangedTarget)ctx.getState(Threshold.class);
+			if (t == null) {
+				t = new ThresholdChangedTarget();
+				ctx.setState(Threshold.class, t);
+			}
+			return t;
+		}
+	}
+
 	public boolean isOpen() {
 		return open;
 	}
@@ -155,12 +170,13 @@ public class Threshold extends StateEntity {
 		else
 			setPresentState("Closed");
 
+		ThresholdChangedTarget target = getChangedTarget();
 		for (ThresholdUser user : this.userList) {
-			if (!thresholdChangedTarget.users.contains(user))
-				thresholdChangedTarget.users.add(user);
+			if (!target.users.contains(user))
+				target.users.add(user);
 		}
-		if (!thresholdChangedTarget.users.isEmpty() && !thresholdChangedHandle.isScheduled())
-			this.scheduleProcessTicks(0, 2, false, thresholdChangedTarget, thresholdChangedHandle);
+		if (!target.users.isEmpty() && !target.handle.isScheduled())
+			this.scheduleProcessTicks(0, 2, false, target, target.handle);
 	}
 
 	private static class DoOpenTarget extends EntityTarget<Threshold> {
@@ -232,7 +248,7 @@ public class Threshold extends StateEntity {
 	 description = "The fraction of total simulation time that the threshold is open.",
 	    unitType = DimensionlessUnit.class)
 	public double getOpenFraction(double simTime) {
-		long simTicks = FrameBox.secondsToTicks(simTime);
+		long simTicks = Simulation.secondsToTicks(simTime);
 		long openTicks = this.getTicksInState(simTicks, getState("Open"));
 		long closedTicks = this.getTicksInState(simTicks, getState("Closed"));
 		long totTicks = openTicks + closedTicks;
@@ -244,7 +260,7 @@ public class Threshold extends StateEntity {
 	 description = "The fraction of total simulation time that the threshold is closed.",
 	    unitType = DimensionlessUnit.class)
 	public double getClosedFraction(double simTime) {
-		long simTicks = FrameBox.secondsToTicks(simTime);
+		long simTicks = Simulation.secondsToTicks(simTime);
 		long openTicks = this.getTicksInState(simTicks, getState("Open"));
 		long closedTicks = this.getTicksInState(simTicks, getState("Closed"));
 		long totTicks = openTicks + closedTicks;
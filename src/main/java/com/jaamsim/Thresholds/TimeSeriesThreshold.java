@@ -15,7 +15,9 @@
 package com.jaamsim.Thresholds;
 
 import com.jaamsim.Samples.TimeSeriesConstantDouble;
+import com.jaamsim.Samples.TimeSeriesCursor;
 import com.jaamsim.basicsim.EntityTarget;
+import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
@@ -24,7 +26,6 @@ import com.jaamsim.input.Keyword;
 import com.jaamsim.input.TimeSeriesInput;
 import com.jaamsim.input.UnitTypeInput;
 import com.jaamsim.input.ValueInput;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -59,6 +60,11 @@ public class TimeSeriesThreshold extends Threshold {
 	         exampleList = {"DistanceUnit"})
 	private final UnitTypeInput unitType;
 
+	// Positions of the last lookups in each time series
+	private final TimeSeriesCursor timeSeriesCursor = new TimeSeriesCursor();
+	private final TimeSeriesCursor maxOpenLimitCursor = new TimeSeriesCursor();
+	private final TimeSeriesCursor minOpenLimitCursor = new TimeSeriesCursor();
+
 	{
 		unitType = new UnitTypeInput("UnitType", "Key Inputs", UserSpecifiedUnit.class);
 		unitType.setRequired(true);
@@ -122,6 +128,14 @@ public class TimeSeriesThreshold extends Threshold {
 					this, minOpenLimit.getValue().getMaxValue(), timeSeries.getValue().getMinValue());
 	}
 
+	@Override
+	public void earlyInit() {
+		super.earlyInit();
+		timeSeriesCursor.reset();
+		maxOpenLimitCursor.reset();
+		minOpenLimitCursor.reset();
+	}
+
 	@Override
 	public void startUp() {
 		super.startUp();
@@ -171,7 +185,7 @@ public class TimeSeriesThreshold extends Threshold {
 	 * @return TRUE if open, FALSE if closed
 	 */
 	public boolean isOpenAtTime(double simTime) {
-		return isOpenAtTicks(FrameBox.secondsToTicks(simTime));
+		return isOpenAtTicks(Simulation.secondsToTicks(simTime));
 	}
 
 	/**
@@ -185,7 +199,7 @@ public class TimeSeriesThreshold extends Threshold {
 	private boolean isOpenAtTicks(long ticks) {
 
 		// Add offset from input
-		ticks += FrameBox.secondsToTicks(offset.getValue());
+		ticks += Simulation.secondsToTicks(offset.getValue());
 		ticks = Math.max(ticks, 0);
 
 		long changeTime = ticks;
@@ -195,7 +209,7 @@ public class TimeSeriesThreshold extends Threshold {
 			return false;
 
 		// If there is no lookahead, then the threshold is open
-		long lookAheadInTicks = FrameBox.secondsToTicks(lookAhead.getValue());
+		long lookAheadInTicks = Simulation.secondsToTicks(lookAhead.getValue());
 		if (lookAheadInTicks == 0)
 			return true;
 
@@ -233,14 +247,14 @@ public class TimeSeriesThreshold extends Threshold {
 			return 0;
 
 		// Add offset from input
-		ticks += FrameBox.secondsToTicks(offset.getValue());
+		ticks += Simulation.secondsToTicks(offset.getValue());
 		ticks = Math.max(ticks, 0);
 
 		// Threshold is currently closed. Find the next open point
 		long openTime = -1;
 		long changeTime = ticks;
 		long maxTicksValueFromTimeSeries = this.getMaxTicksValueFromTimeSeries();
-		long lookAheadInTicks = FrameBox.secondsToTicks(lookAhead.getValue());
+		long lookAheadInTicks = Simulation.secondsToTicks(lookAhead.getValue());
 		while( true ) {
 			changeTime = this.getNextChangeAfterTicks(changeTime);
 
@@ -322,13 +336,13 @@ public class TimeSeriesThreshold extends Threshold {
 			return 0;
 
 		// Add offset from input
-		ticks += FrameBox.secondsToTicks(offset.getValue());
+		ticks += Simulation.secondsToTicks(offset.getValue());
 		ticks = Math.max(ticks, 0);
 
 		// Find the next change point after startTime
 		long changeTime = ticks;
 		long maxTicksValueFromTimeSeries = this.getMaxTicksValueFromTimeSeries();
-		long lookAheadInTicks = FrameBox.secondsToTicks(lookAhead.getValue());
+		long lookAheadInTicks = Simulation.secondsToTicks(lookAhead.getValue());
 		while( true ) {
 			changeTime = this.getNextChangeAfterTicks(changeTime);
 
@@ -356,9 +370,9 @@ public class TimeSeriesThreshold extends Threshold {
 	 * @return the next time in clock ticks that a change will occur
 	 */
 	private long getNextChangeAfterTicks(long ticks) {
-		long firstChange = timeSeries.getValue().getNextChangeAfterTicks(ticks);
-		firstChange = Math.min(firstChange, maxOpenLimit.getValue().getNextChangeAfterTicks(ticks));
-		firstChange = Math.min(firstChange, minOpenLimit.getValue().getNextChangeAfterTicks(ticks));
+		long firstChange = timeSeries.getValue().getNextChangeAfterTicks(ticks, timeSeriesCursor);
+		firstChange = Math.min(firstChange, maxOpenLimit.getValue().getNextChangeAfterTicks(ticks, maxOpenLimitCursor));
+		firstChange = Math.min(firstChange, minOpenLimit.getValue().getNextChangeAfterTicks(ticks, minOpenLimitCursor));
 		return firstChange;
 	}
 
@@ -382,14 +396,14 @@ public class TimeSeriesThreshold extends Threshold {
 	 */
 	private boolean isPointOpenAtTicks(long ticks) {
 
-		double value = timeSeries.getValue().getValueForTicks(ticks);
-		double minOpenLimitVal = minOpenLimit.getValue().getValueForTicks(ticks);
-		double maxOpenLimitVal = maxOpenLimit.getValue().getValueForTicks(ticks);
+		double value = timeSeries.getValue().getValueForTicks(ticks, timeSeriesCursor);
+		double minOpenLimitVal = minOpenLimit.getValue().getValueForTicks(ticks, minOpenLimitCursor);
+		double maxOpenLimitVal = maxOpenLimit.getValue().getValueForTicks(ticks, maxOpenLimitCursor);
 
 		// Error check that threshold limits remain consistent
 		if (minOpenLimitVal > maxOpenLimitVal)
 			error("MaxOpenLimit must be larger than MinOpenLimit. MaxOpenLimit: %s, MinOpenLimit: %s, time: %s",
-					maxOpenLimitVal, minOpenLimitVal, FrameBox.ticksToSeconds(ticks));
+					maxOpenLimitVal, minOpenLimitVal, Simulation.ticksToSeconds(ticks));
 
 		return (value >= minOpenLimitVal) && (value <= maxOpenLimitVal);
 	}
@@ -0,0 +1,317 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A Writer that collects text into fixed-size blocks and hands the full
+ * blocks to a background thread that writes them to the file. One thread
+ * serves all the open writers through a bounded queue, so the simulation
+ * thread only waits for the disk when the queue is full.
+ * <p>
+ * flush() hands over the partial block without waiting for it to be written.
+ * sync() waits until every block has been written and the file has been
+ * forced to the disk; it is called for every open writer at the end of a run
+ * and when the simulation is paused. Since the writer thread is a daemon, a
+ * shutdown hook also writes out every open writer when the program exits.
+ * <p>
+ * A failure while writing a block is recorded on its writer and thrown by the
+ * next call to flush(), sync() or close(); the writer thread keeps running.
+ */
+final class AsyncFileWriter extends Writer {
+	private static final int BLOCK_SIZE = 1 << 16;
+	private static final int QUEUE_SIZE = 64;
+
+	private static final int DATA = 0;
+	private static final int SYNC = 1;
+	private static final int CLOSE = 2;
+
+	private static final class Block {
+		final AsyncFileWriter owner;
+		final int type;
+		final char[] buf;
+		final int len;
+		final CountDownLatch done;
+
+		Block(AsyncFileWriter owner, int type, char[] buf, int len, CountDownLatch done) {
+			this.owner = owner;
+			this.type = type;
+			this.buf = buf;
+			this.len = len;
+			this.done = done;
+		}
+	}
+
+	private static final ArrayBlockingQueue<Block> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+	private static final ConcurrentLinkedQueue<char[]> freeBlocks = new ConcurrentLinkedQueue<>();
+	private static final ArrayList<AsyncFileWriter> openWriters = new ArrayList<>();
+	private static Thread writerThread;
+
+	private final FileOutputStream fileStream;
+	private final Writer out;  // used only by the writer thread
+	private volatile IOException error;
+	private char[] cur;
+	private int pos;
+	private boolean closed;
+
+	AsyncFileWriter(File file, boolean append) throws IOException {
+		fileStream = new FileOutputStream(file, append);
+		out = new OutputStreamWriter(fileStream);
+		cur = getBlock();
+		synchronized (openWriters) {
+			openWriters.add(this);
+			if (writerThread == null) {
+				writerThread = new Thread(new WriterLoop(), "FileEntityWriter");
+				writerThread.setDaemon(true);
+				writerThread.start();
+				Runtime.getRuntime().addShutdownHook(new Thread("FileEntityShutdown") {
+					@Override
+					public void run() {
+						syncAll();
+					}
+				});
+			}
+		}
+	}
+
+	private static char[] getBlock() {
+		char[] ret = freeBlocks.poll();
+		if (ret == null)
+			ret = new char[BLOCK_SIZE];
+		return ret;
+	}
+
+	private static void submit(Block b) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				queue.put(b);
+				break;
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private static void await(CountDownLatch latch) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				latch.await();
+				break;
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed)
+			throw new IOException("Stream closed");
+	}
+
+	/**
+	 * Hands the present block to the writer thread and starts a new one.
+	 */
+	private void handOff() {
+		if (pos == 0)
+			return;
+		submit(new Block(this, DATA, cur, pos, null));
+		cur = getBlock();
+		pos = 0;
+	}
+
+	@Override
+	public synchronized void write(int c) throws IOException {
+		ensureOpen();
+		if (pos == BLOCK_SIZE)
+			handOff();
+		cur[pos++] = (char) c;
+	}
+
+	@Override
+	public synchronized void write(char[] cbuf, int off, int len) throws IOException {
+		ensureOpen();
+		while (len > 0) {
+			if (pos == BLOCK_SIZE)
+				handOff();
+			int n = Math.min(len, BLOCK_SIZE - pos);
+			System.arraycopy(cbuf, off, cur, pos, n);
+			pos += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	@Override
+	public synchronized void write(String str, int off, int len) throws IOException {
+		ensureOpen();
+		while (len > 0) {
+			if (pos == BLOCK_SIZE)
+				handOff();
+			int n = Math.min(len, BLOCK_SIZE - pos);
+			str.getChars(off, off + n, cur, pos);
+			pos += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	@Override
+	public synchronized Writer append(CharSequence csq) throws IOException {
+		if (!(csq instanceof StringBuilder))
+			return super.append(csq);
+
+		// Copy directly from the builder to avoid creating a String
+		ensureOpen();
+		StringBuilder sb = (StringBuilder) csq;
+		int off = 0;
+		int len = sb.length();
+		while (len > 0) {
+			if (pos == BLOCK_SIZE)
+				handOff();
+			int n = Math.min(len, BLOCK_SIZE - pos);
+			sb.getChars(off, off + n, cur, pos);
+			pos += n;
+			off += n;
+			len -= n;
+		}
+		return this;
+	}
+
+	/**
+	 * Hands the buffered text to the writer thread without waiting for it to
+	 * be written.
+	 */
+	@Override
+	public synchronized void flush() throws IOException {
+		ensureOpen();
+		handOff();
+		this.checkError();
+	}
+
+	/**
+	 * Waits until all the text written so far is on the disk.
+	 */
+	synchronized void sync() throws IOException {
+		ensureOpen();
+		handOff();
+		CountDownLatch latch = new CountDownLatch(1);
+		submit(new Block(this, SYNC, null, 0, latch));
+		await(latch);
+		this.checkError();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+
+		handOff();
+		freeBlocks.offer(cur);
+		cur = null;
+		closed = true;
+		synchronized (openWriters) {
+			openWriters.remove(this);
+		}
+
+		CountDownLatch latch = new CountDownLatch(1);
+		submit(new Block(this, CLOSE, null, 0, latch));
+		await(latch);
+		this.checkError();
+	}
+
+	private void checkError() throws IOException {
+		IOException e = error;
+		if (e != null) {
+			error = null;
+			throw e;
+		}
+	}
+
+	/**
+	 * Waits until the text written to every open writer is on the disk.
+	 */
+	static void syncAll() {
+		ArrayList<AsyncFileWriter> writers;
+		synchronized (openWriters) {
+			writers = new ArrayList<>(openWriters);
+		}
+		for (AsyncFileWriter each : writers) {
+			try {
+				each.sync();
+			}
+			catch (IOException e) {}
+		}
+	}
+
+	private static class WriterLoop implements Runnable {
+		@Override
+		public void run() {
+			while (true) {
+				Block b;
+				try {
+					b = queue.take();
+				}
+				catch (InterruptedException e) {
+					continue;
+				}
+
+				AsyncFileWriter w = b.owner;
+				try {
+					switch (b.type) {
+					case DATA:
+						w.out.write(b.buf, 0, b.len);
+						break;
+					case SYNC:
+						w.out.flush();
+						w.fileStream.getFD().sync();
+						break;
+					case CLOSE:
+						w.out.close();
+						break;
+					}
+				}
+				catch (IOException e) {
+					w.error = e;
+				}
+				catch (RuntimeException e) {
+					w.error = new IOException(e);
+				}
+				finally {
+					if (b.buf != null)
+						freeBlocks.offer(b.buf);
+					if (b.done != null)
+						b.done.countDown();
+				}
+			}
+		}
+	}
+}
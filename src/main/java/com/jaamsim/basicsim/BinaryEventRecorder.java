@@ -0,0 +1,205 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTraceListener;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.InputErrorException;
+
+/**
+ * Writes the event trace in the binary format defined by EventTraceFile.
+ * <p>
+ * Records are appended to a memory-mapped region of the file that is
+ * extended in large blocks, so that no system call or string formatting is
+ * needed for each event. The unused part of the last block is left filled
+ * with zeros, which the reader treats as the end of the trace. A Wait record
+ * holds the description of the wait target instead of the calling method, to
+ * avoid taking a stack trace for each wait.
+ */
+class BinaryEventRecorder implements EventTraceListener {
+	private static final int BLOCK_SIZE = 1 << 22;
+	private static final int MAX_RECORD_SIZE = 1 + 4 * 10 + 5;
+
+	private final String fileName;
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private MappedByteBuffer buf;
+	private long blockStart;
+
+	private final HashMap<String, Integer> stringIds = new HashMap<>();
+	private long lastTick;
+
+	public BinaryEventRecorder(String fileName) {
+		this.fileName = fileName;
+		try {
+			File backingFileObject = new File(fileName);
+			file = new RandomAccessFile(backingFileObject, "rw");
+			file.setLength(0);
+			channel = file.getChannel();
+			blockStart = 0;
+			buf = channel.map(FileChannel.MapMode.READ_WRITE, blockStart, BLOCK_SIZE);
+		}
+		catch (IOException e) {
+			throw new InputErrorException("IOException thrown trying to open event trace file: " + e);
+		}
+		catch (SecurityException e) {
+			throw new InputErrorException("SecurityException thrown trying to open File: " + e);
+		}
+
+		buf.putInt(EventTraceFile.MAGIC);
+		buf.putInt(EventTraceFile.VERSION);
+	}
+
+	/**
+	 * Ensures that the present block has room for the given number of bytes.
+	 */
+	private void reserve(int n) {
+		if (buf.remaining() >= n)
+			return;
+
+		blockStart += buf.position();
+		try {
+			buf = channel.map(FileChannel.MapMode.READ_WRITE, blockStart, Math.max(n, BLOCK_SIZE));
+		}
+		catch (IOException e) {
+			throw new ErrorException("Unable to extend the event trace file: %s", e);
+		}
+	}
+
+	private void putLong(long val) {
+		long v = (val << 1) ^ (val >> 63);
+		while ((v & ~0x7fL) != 0) {
+			buf.put((byte) ((v & 0x7f) | 0x80));
+			v >>>= 7;
+		}
+		buf.put((byte) v);
+	}
+
+	private int getStringId(String str) {
+		if (str == null)
+			return 0;
+
+		Integer id = stringIds.get(str);
+		if (id != null)
+			return id;
+
+		id = stringIds.size() + 1;
+		stringIds.put(str, id);
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		this.reserve(1 + 10 + bytes.length);
+		buf.put((byte) EventTraceFile.STRING);
+		putLong(bytes.length);
+		buf.put(bytes);
+		return id;
+	}
+
+	private void record(int type, EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		int em = this.getStringId(e.name);
+		int desc = 0;
+		if (t != null)
+			desc = this.getStringId(t.getDescription());
+
+		this.reserve(MAX_RECORD_SIZE);
+		buf.put((byte) type);
+		putLong(em);
+		putLong(curTick - lastTick);
+		putLong(tick - curTick);
+		putLong(priority);
+		putLong(desc);
+		lastTick = curTick;
+	}
+
+	/**
+	 * Writes the trace to the disk and closes the file. Records written after
+	 * the last block was mapped are kept, and the file is truncated to the
+	 * end of the trace. Some platforms do not allow a mapped file to be
+	 * truncated, in which case the zero padding is left in place and marks the
+	 * end of the trace for the reader.
+	 */
+	void close() {
+		try {
+			buf.force();
+			long end = blockStart + buf.position();
+			buf = null;
+			channel.truncate(end);
+		}
+		catch (IOException e) {
+			InputAgent.logWarning("Unable to trim the event trace file %s: %s", fileName, e.getMessage());
+		}
+		finally {
+			try {
+				file.close();
+			}
+			catch (IOException e) {
+				InputAgent.logWarning("Unable to close the event trace file %s: %s", fileName, e.getMessage());
+			}
+		}
+	}
+
+	@Override
+	public synchronized void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.record(EventTraceFile.WAIT, e, curTick, tick, priority, t);
+	}
+
+	@Override
+	public synchronized void traceEvent(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.record(EventTraceFile.EVENT, e, curTick, tick, priority, t);
+	}
+
+	@Override
+	public synchronized void traceInterrupt(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.record(EventTraceFile.INTERRUPT, e, curTick, tick, priority, t);
+	}
+
+	@Override
+	public synchronized void traceKill(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.record(EventTraceFile.KILL, e, curTick, tick, priority, t);
+	}
+
+	@Override
+	public synchronized void traceWaitUntil(EventManager e, long tick) {
+		this.record(EventTraceFile.WAIT_UNTIL, e, tick, tick, 0, null);
+	}
+
+	@Override
+	public synchronized void traceWaitUntilEnded(EventManager e, long curTick, ProcessTarget t) {
+		this.record(EventTraceFile.WAIT_UNTIL_ENDED, e, curTick, curTick, 0, t);
+	}
+
+	@Override
+	public synchronized void traceProcessStart(EventManager e, ProcessTarget t, long tick) {
+		this.record(EventTraceFile.PROCESS_START, e, tick, tick, 0, t);
+	}
+
+	@Override
+	public synchronized void traceProcessEnd(EventManager e, long tick) {
+		this.record(EventTraceFile.PROCESS_END, e, tick, tick, 0, null);
+	}
+
+	@Override
+	public synchronized void traceSchedProcess(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.record(EventTraceFile.SCHED_PROCESS, e, curTick, tick, priority, t);
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTraceListener;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Verifies the event stream against a binary trace file written by
+ * BinaryEventRecorder. The file is read as the run proceeds. Records for
+ * other EventManagers are held until they are needed, so that the order in
+ * which the EventManagers run does not matter.
+ */
+class BinaryEventTracer implements EventTraceListener {
+	private EventTraceFile.Reader reader;
+	private final HashMap<String, ArrayDeque<EventTraceFile.Record>> pending;
+	private final EventTraceFile.Record received;
+	private final EventTraceFile.Record expected;
+	private long numVerified;
+
+	public BinaryEventTracer(String evtName) {
+		pending = new HashMap<>();
+		received = new EventTraceFile.Record();
+		expected = new EventTraceFile.Record();
+		try {
+			reader = new EventTraceFile.Reader(new File(evtName));
+		}
+		catch (IOException e) {
+			InputAgent.logMessage("Unable to open an event verification file.");
+		}
+	}
+
+	long getNumVerified() {
+		return numVerified;
+	}
+
+	/**
+	 * Finds the next expected record for the given EventManager.
+	 * @return false if the trace has no more records for the EventManager.
+	 */
+	private boolean nextExpected(String emName) {
+		ArrayDeque<EventTraceFile.Record> queue = pending.get(emName);
+		if (queue != null && !queue.isEmpty()) {
+			expected.copyFrom(queue.removeFirst());
+			return true;
+		}
+
+		if (reader == null)
+			return false;
+
+		try {
+			EventTraceFile.Record rec = new EventTraceFile.Record();
+			while (reader.next(rec)) {
+				if (rec.emName.equals(emName)) {
+					expected.copyFrom(rec);
+					return true;
+				}
+
+				ArrayDeque<EventTraceFile.Record> other = pending.get(rec.emName);
+				if (other == null) {
+					other = new ArrayDeque<>();
+					pending.put(rec.emName, other);
+				}
+				other.addLast(rec);
+				rec = new EventTraceFile.Record();
+			}
+		}
+		catch (IOException e) {
+			InputAgent.logMessage("Error reading the event verification file: %s", e);
+		}
+		return false;
+	}
+
+	private synchronized void verify(EventManager e, int type, long curTick, long tick, int priority, ProcessTarget t) {
+		received.type = type;
+		received.emName = e.name;
+		received.curTick = curTick;
+		received.tick = tick;
+		received.priority = priority;
+		received.desc = (t == null) ? null : t.getDescription();
+
+		if (!this.nextExpected(e.name)) {
+			System.out.println("No matching event found for:");
+			System.out.println(received);
+			e.pause();
+			return;
+		}
+
+		if (!received.matches(expected)) {
+			System.out.println("Difference in event stream detected");
+			System.out.println("R:" + received);
+			System.out.println("E:" + expected);
+			e.pause();
+			new Throwable().printStackTrace();
+			return;
+		}
+		numVerified++;
+	}
+
+	@Override
+	public void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.verify(e, EventTraceFile.WAIT, curTick, tick, priority, t);
+	}
+
+	@Override
+	public void traceEvent(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.verify(e, EventTraceFile.EVENT, curTick, tick, priority, t);
+	}
+
+	@Override
+	public void traceSchedProcess(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.verify(e, EventTraceFile.SCHED_PROCESS, curTick, tick, priority, t);
+	}
+
+	@Override
+	public void traceProcessStart(EventManager e, ProcessTarget t, long tick) {
+		this.verify(e, EventTraceFile.PROCESS_START, tick, tick, 0, t);
+	}
+
+	@Override
+	public void traceProcessEnd(EventManager e, long tick) {
+		this.verify(e, EventTraceFile.PROCESS_END, tick, tick, 0, null);
+	}
+
+	@Override
+	public void traceInterrupt(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.verify(e, EventTraceFile.INTERRUPT, curTick, tick, priority, t);
+	}
+
+	@Override
+	public void traceKill(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.verify(e, EventTraceFile.KILL, curTick, tick, priority, t);
+	}
+
+	@Override
+	public void traceWaitUntil(EventManager e, long tick) {
+		this.verify(e, EventTraceFile.WAIT_UNTIL, tick, tick, 0, null);
+	}
+
+	@Override
+	public void traceWaitUntilEnded(EventManager e, long curTick, ProcessTarget t) {
+		this.verify(e, EventTraceFile.WAIT_UNTIL_ENDED, curTick, curTick, 0, t);
+	}
+}
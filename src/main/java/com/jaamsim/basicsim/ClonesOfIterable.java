@@ -17,7 +17,7 @@ package com.jaamsim.basicsim;
 
 public class ClonesOfIterable<T extends Entity> extends EntityIterator<T> {
 	public ClonesOfIterable(Class<T> aClass) {
-		super(aClass);
+		super(aClass, SimulationContext.current().entities.getClonesOf(aClass, null));
 	}
 
 	@Override
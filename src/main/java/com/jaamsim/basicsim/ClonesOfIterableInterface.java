@@ -18,7 +18,7 @@ package com.jaamsim.basicsim;
 public class ClonesOfIterableInterface<T extends Entity> extends EntityIterator<T> {
 	private final Class<?> ifaceClass;
 	public ClonesOfIterableInterface(Class<T> aClass, Class<?> iface) {
-		super(aClass);
+		super(aClass, SimulationContext.current().entities.getClonesOf(aClass, iface));
 		ifaceClass = iface;
 	}
 
@@ -0,0 +1,380 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import com.jaamsim.input.AttributeHandle;
+import com.jaamsim.input.InputErrorException;
+import com.jaamsim.input.OutputHandle;
+
+/**
+ * Writes the reportable outputs of entities to a self-describing binary file
+ * in which the values are stored by column.
+ * <p>
+ * The file starts with a four byte magic number and a version number,
+ * followed by a sequence of blocks, each starting with a one byte type:
+ * <ul>
+ * <li>SCHEMA: schema number, class name, number of columns, and the name,
+ * unit and type (DOUBLE or STRING) of each column. The first two columns are
+ * always the simulation time in seconds and the entity name, followed by
+ * the columns added by Entity.printColumns.
+ * <li>ROW_GROUP: schema number, number of rows, then each column in turn. A
+ * DOUBLE column is an array of 8-byte values. A STRING column is a dictionary
+ * of the distinct values followed by an array of 4-byte dictionary indices.
+ * <li>END: the end of the file.
+ * </ul>
+ * Strings are written as a 4-byte length followed by UTF-8 bytes, and all
+ * numbers are big-endian. A schema is defined for each class when its first
+ * entity is logged, and again only if a later entity adds different columns.
+ * It is written before its first row group. Rows are collected in memory and
+ * written in groups of ROW_GROUP_SIZE.
+ * <p>
+ * The reportable outputs of each class are found once, from the first entity
+ * of the class that is logged, and the state columns of a class cover every
+ * state entered by any of its entities, so that the entities of a class
+ * normally share one schema.
+ */
+public class ColumnarLogFile {
+	static final int MAGIC = 0x4A434F4C;  // "JCOL"
+	static final int VERSION = 1;
+
+	static final int END = 0;
+	static final int SCHEMA = 1;
+	static final int ROW_GROUP = 2;
+
+	public static final int DOUBLE = 1;
+	public static final int STRING = 2;
+
+	static final int ROW_GROUP_SIZE = 4096;
+
+	private static final class Schema {
+		final int id;
+		final String[] names;
+		final String[] units;
+		final int[] types;
+
+		final double[][] doubles;
+		final String[][] strings;
+		int rows;
+
+		Schema(int id, String[] names, String[] units, int[] types) {
+			this.id = id;
+			this.names = names;
+			this.units = units;
+			this.types = types;
+			int n = names.length;
+			doubles = new double[n][];
+			strings = new String[n][];
+			for (int i = 0; i < n; i++) {
+				if (types[i] == DOUBLE)
+					doubles[i] = new double[ROW_GROUP_SIZE];
+				else
+					strings[i] = new String[ROW_GROUP_SIZE];
+			}
+		}
+
+		boolean matches(int n, String[] names, String[] units, int[] types) {
+			if (n != this.names.length)
+				return false;
+			for (int i = 0; i < n; i++) {
+				if (types[i] != this.types[i] || !names[i].equals(this.names[i]) || !units[i].equals(this.units[i]))
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * The states logged for the entities of one class, in alphabetical order,
+	 * and the names of their columns.
+	 */
+	public static final class StateColumns {
+		private final HashSet<String> stateSet = new HashSet<>();
+		public final ArrayList<String> states = new ArrayList<>();
+		public final ArrayList<String> columns = new ArrayList<>();
+
+		private void addAll(Collection<String> names) {
+			boolean added = false;
+			for (String each : names) {
+				if (stateSet.add(each)) {
+					states.add(each);
+					added = true;
+				}
+			}
+			if (!added)
+				return;
+
+			Collections.sort(states);
+			columns.clear();
+			for (String each : states)
+				columns.add("StateTime[" + each + "]");
+		}
+	}
+
+	private final String fileName;
+	private DataOutputStream out;
+	private final HashMap<Class<? extends Entity>, String[]> outputMap = new HashMap<>();
+	private final HashMap<Class<? extends Entity>, StateColumns> stateMap = new HashMap<>();
+	private final HashMap<Class<? extends Entity>, ArrayList<Schema>> schemaMap = new HashMap<>();
+	private final ArrayList<Schema> schemaList = new ArrayList<>();
+
+	// The row being logged
+	private int rowSize;
+	private String[] rowNames = new String[16];
+	private String[] rowUnits = new String[16];
+	private int[] rowTypes = new int[16];
+	private double[] rowDoubles = new double[16];
+	private String[] rowStrings = new String[16];
+
+	private final ByteBuffer columnBuffer = ByteBuffer.allocate(ROW_GROUP_SIZE * 8);
+	private final HashMap<String, Integer> dictionary = new HashMap<>();
+	private final ArrayList<String> dictionaryValues = new ArrayList<>();
+	private final int[] indices = new int[ROW_GROUP_SIZE];
+
+	public ColumnarLogFile(String fileName) {
+		this.fileName = fileName;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+		}
+		catch (IOException e) {
+			throw new InputErrorException("IOException thrown trying to open columnar log file: " + e);
+		}
+		catch (SecurityException e) {
+			throw new InputErrorException("SecurityException thrown trying to open columnar log file: " + e);
+		}
+	}
+
+	/**
+	 * Adds a row holding the values written by the given entity's
+	 * printColumns method.
+	 * @param ent - the entity to be logged
+	 * @param simTime - simulation time at which the outputs are evaluated
+	 */
+	public void log(Entity ent, double simTime) {
+		rowSize = 0;
+		this.putDouble("SimTime", "s", simTime);
+		this.putString("Entity", "", ent.getName());
+		ent.printColumns(this, simTime);
+
+		try {
+			Schema s = this.getSchema(ent.getClass());
+			int row = s.rows;
+			for (int i = 0; i < rowSize; i++) {
+				if (rowTypes[i] == DOUBLE)
+					s.doubles[i][row] = rowDoubles[i];
+				else
+					s.strings[i][row] = rowStrings[i];
+				rowStrings[i] = null;
+			}
+
+			s.rows++;
+			if (s.rows == ROW_GROUP_SIZE)
+				this.writeRowGroup(s);
+		}
+		catch (IOException e) {
+			throw new ErrorException("Unable to write to %s: %s", fileName, e);
+		}
+	}
+
+	/**
+	 * Returns the names of the reportable outputs of the entity's class, in
+	 * the order of the output report. Attributes are not included.
+	 */
+	public String[] getOutputNames(Entity ent) {
+		String[] ret = outputMap.get(ent.getClass());
+		if (ret != null)
+			return ret;
+
+		ArrayList<String> names = new ArrayList<>();
+		for (OutputHandle o : OutputHandle.getOutputHandleList(ent)) {
+			if (o.isReportable() && !(o instanceof AttributeHandle))
+				names.add(o.getName());
+		}
+		ret = names.toArray(new String[names.size()]);
+		outputMap.put(ent.getClass(), ret);
+		return ret;
+	}
+
+	/**
+	 * Returns the state columns for the given class after adding any of the
+	 * given states that have not been logged for the class before.
+	 */
+	public StateColumns getStateColumns(Class<? extends Entity> klass, Collection<String> states) {
+		StateColumns ret = stateMap.get(klass);
+		if (ret == null) {
+			ret = new StateColumns();
+			stateMap.put(klass, ret);
+		}
+		ret.addAll(states);
+		return ret;
+	}
+
+	/**
+	 * Adds a numeric column to the row being logged.
+	 * @param name - column name
+	 * @param unit - unit in which the value is given, or an empty string
+	 * @param val - value
+	 */
+	public void putDouble(String name, String unit, double val) {
+		this.addColumn(name, unit, DOUBLE);
+		rowDoubles[rowSize++] = val;
+	}
+
+	/**
+	 * Adds a text column to the row being logged.
+	 * @param name - column name
+	 * @param unit - unit in which the value is given, or an empty string
+	 * @param val - value
+	 */
+	public void putString(String name, String unit, String val) {
+		this.addColumn(name, unit, STRING);
+		rowStrings[rowSize++] = val;
+	}
+
+	private void addColumn(String name, String unit, int type) {
+		if (rowSize == rowNames.length) {
+			int n = rowSize * 2;
+			rowNames = Arrays.copyOf(rowNames, n);
+			rowUnits = Arrays.copyOf(rowUnits, n);
+			rowTypes = Arrays.copyOf(rowTypes, n);
+			rowDoubles = Arrays.copyOf(rowDoubles, n);
+			rowStrings = Arrays.copyOf(rowStrings, n);
+		}
+		rowNames[rowSize] = name;
+		rowUnits[rowSize] = unit;
+		rowTypes[rowSize] = type;
+	}
+
+	/**
+	 * Returns the schema for the row being logged, defining a new one if it
+	 * is the first row for its class or if its columns differ from those
+	 * logged before.
+	 */
+	private Schema getSchema(Class<? extends Entity> klass) throws IOException {
+		ArrayList<Schema> list = schemaMap.get(klass);
+		if (list == null) {
+			list = new ArrayList<>(1);
+			schemaMap.put(klass, list);
+		}
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i).matches(rowSize, rowNames, rowUnits, rowTypes))
+				return list.get(i);
+		}
+
+		Schema s = new Schema(schemaList.size(), Arrays.copyOf(rowNames, rowSize),
+				Arrays.copyOf(rowUnits, rowSize), Arrays.copyOf(rowTypes, rowSize));
+		list.add(s);
+		schemaList.add(s);
+
+		out.writeByte(SCHEMA);
+		out.writeInt(s.id);
+		writeString(klass.getSimpleName());
+		out.writeInt(s.names.length);
+		for (int i = 0; i < s.names.length; i++) {
+			writeString(s.names[i]);
+			writeString(s.units[i]);
+			out.writeByte(s.types[i]);
+		}
+		return s;
+	}
+
+	private void writeString(String str) throws IOException {
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private void writeRowGroup(Schema s) throws IOException {
+		int rows = s.rows;
+		out.writeByte(ROW_GROUP);
+		out.writeInt(s.id);
+		out.writeInt(rows);
+		for (int i = 0; i < s.names.length; i++) {
+			if (s.types[i] == DOUBLE) {
+				columnBuffer.clear();
+				columnBuffer.asDoubleBuffer().put(s.doubles[i], 0, rows);
+				out.write(columnBuffer.array(), 0, rows * 8);
+				continue;
+			}
+
+			// Dictionary of the distinct strings in the column
+			String[] col = s.strings[i];
+			dictionary.clear();
+			dictionaryValues.clear();
+			for (int j = 0; j < rows; j++) {
+				Integer idx = dictionary.get(col[j]);
+				if (idx == null) {
+					idx = dictionaryValues.size();
+					dictionary.put(col[j], idx);
+					dictionaryValues.add(col[j]);
+				}
+				indices[j] = idx;
+			}
+			out.writeInt(dictionaryValues.size());
+			for (String each : dictionaryValues)
+				writeString(each);
+
+			columnBuffer.clear();
+			columnBuffer.asIntBuffer().put(indices, 0, rows);
+			out.write(columnBuffer.array(), 0, rows * 4);
+			Arrays.fill(col, 0, rows, null);
+		}
+		s.rows = 0;
+	}
+
+	/**
+	 * Writes the rows that have been collected and flushes the file.
+	 */
+	public void flush() {
+		if (out == null)
+			return;
+		try {
+			for (Schema s : schemaList) {
+				if (s.rows > 0)
+					this.writeRowGroup(s);
+			}
+			out.flush();
+		}
+		catch (IOException e) {
+			throw new ErrorException("Unable to write to %s: %s", fileName, e);
+		}
+	}
+
+	public void close() {
+		if (out == null)
+			return;
+		try {
+			this.flush();
+			out.writeByte(END);
+			out.close();
+		}
+		catch (IOException e) {}
+		out = null;
+	}
+}
@@ -0,0 +1,200 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Reads the row groups of a file written by ColumnarLogFile in order.
+ */
+public class ColumnarLogReader implements AutoCloseable {
+
+	/**
+	 * The columns logged for one class of entity.
+	 */
+	public static final class Schema {
+		public final String className;
+		public final String[] names;
+		public final String[] units;
+		public final int[] types;  // ColumnarLogFile.DOUBLE or STRING
+
+		Schema(String className, String[] names, String[] units, int[] types) {
+			this.className = className;
+			this.names = names;
+			this.units = units;
+			this.types = types;
+		}
+
+		/**
+		 * Returns the index of the column with the given name, or -1.
+		 */
+		public int getColumn(String name) {
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equals(name))
+					return i;
+			}
+			return -1;
+		}
+	}
+
+	private final DataInputStream in;
+	private final ArrayList<Schema> schemas = new ArrayList<>();
+
+	private Schema schema;
+	private int rows;
+	private double[][] doubles;
+	private String[][] strings;
+	private byte[] bytes = new byte[0];
+
+	public ColumnarLogReader(File file) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+		if (in.readInt() != ColumnarLogFile.MAGIC) {
+			in.close();
+			throw new IOException("Not a columnar log file: " + file);
+		}
+		int ver = in.readInt();
+		if (ver != ColumnarLogFile.VERSION) {
+			in.close();
+			throw new IOException("Unsupported columnar log version: " + ver);
+		}
+	}
+
+	private String readString() throws IOException {
+		int n = in.readInt();
+		return new String(readBytes(n), 0, n, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the given number of bytes into a reused array.
+	 */
+	private byte[] readBytes(int n) throws IOException {
+		if (bytes.length < n)
+			bytes = new byte[n];
+		in.readFully(bytes, 0, n);
+		return bytes;
+	}
+
+	/**
+	 * Reads the next row group.
+	 * @return false at the end of the file.
+	 */
+	public boolean next() throws IOException {
+		while (true) {
+			int type;
+			try {
+				type = in.readUnsignedByte();
+			}
+			catch (EOFException e) {
+				return false;
+			}
+
+			switch (type) {
+			case ColumnarLogFile.END:
+				return false;
+
+			case ColumnarLogFile.SCHEMA: {
+				int id = in.readInt();
+				String className = readString();
+				int n = in.readInt();
+				String[] names = new String[n];
+				String[] units = new String[n];
+				int[] types = new int[n];
+				for (int i = 0; i < n; i++) {
+					names[i] = readString();
+					units[i] = readString();
+					types[i] = in.readUnsignedByte();
+				}
+				if (id != schemas.size())
+					throw new IOException("Unexpected schema number: " + id);
+				schemas.add(new Schema(className, names, units, types));
+				continue;
+			}
+
+			case ColumnarLogFile.ROW_GROUP:
+				this.readRowGroup();
+				return true;
+
+			default:
+				throw new IOException("Unknown block type: " + type);
+			}
+		}
+	}
+
+	private void readRowGroup() throws IOException {
+		schema = schemas.get(in.readInt());
+		rows = in.readInt();
+		int n = schema.names.length;
+		doubles = new double[n][];
+		strings = new String[n][];
+		for (int i = 0; i < n; i++) {
+			if (schema.types[i] == ColumnarLogFile.DOUBLE) {
+				ByteBuffer buf = ByteBuffer.wrap(readBytes(rows * 8), 0, rows * 8);
+				doubles[i] = new double[rows];
+				buf.asDoubleBuffer().get(doubles[i]);
+				continue;
+			}
+
+			String[] dict = new String[in.readInt()];
+			for (int j = 0; j < dict.length; j++)
+				dict[j] = readString();
+
+			ByteBuffer buf = ByteBuffer.wrap(readBytes(rows * 4), 0, rows * 4);
+			strings[i] = new String[rows];
+			for (int j = 0; j < rows; j++)
+				strings[i][j] = dict[buf.getInt()];
+		}
+	}
+
+	/**
+	 * Returns the schema of the present row group.
+	 */
+	public Schema getSchema() {
+		return schema;
+	}
+
+	/**
+	 * Returns the number of rows in the present row group.
+	 */
+	public int getRowCount() {
+		return rows;
+	}
+
+	/**
+	 * Returns the values of a DOUBLE column in the present row group.
+	 */
+	public double[] getDoubleColumn(int col) {
+		return doubles[col];
+	}
+
+	/**
+	 * Returns the values of a STRING column in the present row group.
+	 */
+	public String[] getStringColumn(int col) {
+		return strings[col];
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
@@ -34,6 +34,10 @@ class EndModelTarget extends ProcessTarget {
 			Entity.getAll().get(i).doEnd();
 		}
 
+		// Ensure that the log files and the event trace are complete on the disk
+		FileEntity.syncAll();
+		Simulation.endEventTrace(EventManager.current());
+
 		// Print the output report
 		if (Simulation.getPrintReport())
 			InputAgent.printReport(Simulation.getEndTime());
@@ -42,6 +46,18 @@ class EndModelTarget extends ProcessTarget {
 		// close warning/error trace file
 		InputAgent.closeLogFile();
 
+		// A replication hands its outputs and control back to the runner that started it
+		SimulationContext ctx = SimulationContext.current();
+		if (!ctx.isDefault())
+			ctx.setState(ReplicationStatistics.class, ReplicationStatistics.collectOutputs(Simulation.getEndTime()));
+		ctx.endRun();
+
+		// Without a user interface, the code that started the run decides what to do next
+		if (!ctx.isDefault() || InputAgent.isHeadless()) {
+			EventManager.current().pause();
+			return;
+		}
+
 		if (Simulation.getExitAtStop() || InputAgent.getBatch())
 			GUIFrame.shutdown(0);
 
@@ -16,14 +16,15 @@ package com.jaamsim.basicsim;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.concurrent.atomic.AtomicLong;
 
+import com.jaamsim.events.ChangeNotifier;
 import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.AttributeDefinitionListInput;
 import com.jaamsim.input.AttributeHandle;
+import com.jaamsim.input.ExpEvaluator;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
@@ -34,7 +35,7 @@ import com.jaamsim.input.Output;
 import com.jaamsim.input.OutputHandle;
 import com.jaamsim.input.StringInput;
 import com.jaamsim.input.SynonymInput;
-import com.jaamsim.ui.FrameBox;
+import com.jaamsim.ui.GUIUpdates;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
@@ -46,12 +47,9 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * event execution.
  */
 public class Entity {
-	private static AtomicLong entityCount = new AtomicLong(0);
-	private static final ArrayList<Entity> allInstances;
-	private static final HashMap<String, Entity> namedEntities;
-
+	private final SimulationContext context; // model state to which the entity belongs
 	private String entityName;
-	private final long entityNumber;
+	private long entityNumber; // replaced when a recycled entity is reused
 
 	//public static final int FLAG_TRACE = 0x01; // reserved in case we want to treat tracing like the other flags
 	//public static final int FLAG_TRACEREQUIRED = 0x02;
@@ -69,6 +67,9 @@ public class Entity {
 
 	private final HashMap<String, AttributeHandle> attributeMap = new HashMap<>();
 
+	private ChangeNotifier changeNotifier; // created when a Conditional first depends on this entity
+	EntityPool<?> pool; // pool to which the entity is returned by recycle(), or null
+
 	private final BooleanInput trace;
 
 	@Keyword(description = "A free form string describing the Entity",
@@ -81,11 +82,6 @@ public class Entity {
 	         exampleList = {"{ A 20.0 s } { alpha 42 }"})
 	public final AttributeDefinitionListInput attributeDefinitionList;
 
-	static {
-		allInstances = new ArrayList<>(100);
-		namedEntities = new HashMap<>(100);
-	}
-
 	{
 		trace = new BooleanInput("Trace", "Key Inputs", false);
 		trace.setHidden(true);
@@ -104,34 +100,50 @@ public class Entity {
 	 * Constructor for entity initializing members.
 	 */
 	public Entity() {
-		entityNumber = getNextID();
-		synchronized(allInstances) {
-			allInstances.add(this);
-		}
+		context = SimulationContext.current();
+		entityNumber = context.entities.nextEntityNumber();
+		context.entities.add(this);
 
 		flags = 0;
 	}
 
-	private static long getNextID() {
-		return entityCount.incrementAndGet();
+	/**
+	 * Returns every entity in the present context in the order of creation.
+	 * The returned list is not modified when entities are later added or
+	 * killed, so a fresh list must be obtained to see those changes.
+	 */
+	public static ArrayList<? extends Entity> getAll() {
+		return SimulationContext.current().entities.getAll();
 	}
 
-	public static ArrayList<? extends Entity> getAll() {
-		synchronized(allInstances) {
-			return allInstances;
-		}
+	/**
+	 * Returns the model state to which this entity belongs.
+	 */
+	public final SimulationContext getContext() {
+		return context;
 	}
 
-	public static <T extends Entity> ArrayList<T> getInstancesOf(Class<T> proto) {
-		ArrayList<T> instanceList = new ArrayList<>();
+	/**
+	 * Returns the notifier used by conditional events that depend on the
+	 * outputs or attributes of this entity.
+	 */
+	public final ChangeNotifier getChangeNotifier() {
+		if (changeNotifier == null)
+			changeNotifier = new ChangeNotifier();
+		return changeNotifier;
+	}
 
-		for (Entity each : allInstances) {
-			if (proto == each.getClass()) {
-				instanceList.add(proto.cast(each));
-			}
-		}
+	/**
+	 * Signals that the state of this entity has changed, so that any waiting
+	 * Conditional that depends on it is re-evaluated before time advances.
+	 */
+	public final void notifyChanged() {
+		if (changeNotifier != null)
+			changeNotifier.changed();
+	}
 
-		return instanceList;
+	public static <T extends Entity> ArrayList<T> getInstancesOf(Class<T> proto) {
+		return SimulationContext.current().entities.getInstancesOf(proto);
 	}
 
 	public static <T extends Entity> InstanceIterable<T> getInstanceIterator(Class<T> proto){
@@ -152,26 +164,11 @@ public class Entity {
 	}
 
 	public static <T extends Entity> ArrayList<T> getClonesOf(Class<T> proto) {
-		ArrayList<T> cloneList = new ArrayList<>();
-
-		for (Entity each : allInstances) {
-			if (proto.isAssignableFrom(each.getClass())) {
-				cloneList.add(proto.cast(each));
-			}
-		}
-
-		return cloneList;
+		return SimulationContext.current().entities.getClonesOf(proto, null);
 	}
 
 	public static Entity idToEntity(long id) {
-		synchronized (allInstances) {
-			for (Entity e : allInstances) {
-				if (e.getEntityNumber() == id) {
-					return e;
-				}
-			}
-			return null;
-		}
+		return SimulationContext.current().entities.getById(id);
 	}
 
 	public void validate() throws InputErrorException {
@@ -221,34 +218,57 @@ public class Entity {
 	public void setInputsForDragAndDrop() {}
 
 	public void kill() {
-		synchronized (allInstances) {
-			for (int i = 0; i < allInstances.size(); i++) {
-				if (allInstances.get(i) == this) {
-					allInstances.remove(i);
-					break;
-				}
-			}
-		}
+		context.entities.remove(this);
 		if (!testFlag(FLAG_GENERATED)) {
-			synchronized (namedEntities) {
-				if (namedEntities.get(entityName) == this)
-					namedEntities.remove(entityName);
-
-				entityName = null;
-			}
+			context.entities.removeName(entityName, this);
+			entityName = null;
+			ExpEvaluator.invalidateBindings();
 		}
 
 		setFlag(FLAG_DEAD);
 	}
 
+	/**
+	 * Disposes of an entity that is no longer needed by the model. An entity
+	 * supplied by an EntityPool is killed and returned to the pool for reuse,
+	 * any other entity is simply killed.
+	 */
+	public void recycle() {
+		if (testFlag(FLAG_DEAD))
+			return;
+
+		this.kill();
+		if (pool == null)
+			return;
+
+		// Wake any conditions that depend on the entity and detach them, so
+		// that they are not triggered by the entity's next use
+		this.notifyChanged();
+		changeNotifier = null;
+		pool.release(this);
+	}
+
+	/**
+	 * Returns a recycled entity to the model under a new name. The entity is
+	 * given a new number so that it is ordered as a newly created entity and
+	 * so that references to its previous use can be detected.
+	 */
+	void revive(String name) {
+		clearFlag(FLAG_DEAD);
+		entityNumber = context.entities.nextEntityNumber();
+		context.entities.add(this);
+		this.setName(name);
+	}
+
 	/**
 	 * Performs any actions that are required at the end of the simulation run, e.g. to create an output report.
 	 */
 	public void doEnd() {}
 
 	public static long getEntitySequence() {
-		long seq = (long)allInstances.size() << 32;
-		seq += entityCount.get();
+		EntityRegistry reg = SimulationContext.current().entities;
+		long seq = (long)reg.size() << 32;
+		seq += reg.getEntityCount();
 		return seq;
 	}
 
@@ -270,7 +290,7 @@ public class Entity {
 
 	public final double getCurrentTime() {
 		long ticks = getSimTicks();
-		return ticks / Simulation.getSimTimeFactor();
+		return ticks / context.timeScale;
 	}
 
 	protected void addInput(Input<?> in) {
@@ -386,9 +406,7 @@ public class Entity {
 	}
 
 	public static Entity getNamedEntity(String name) {
-		synchronized (namedEntities) {
-			return namedEntities.get(name);
-		}
+		return SimulationContext.current().entities.getByName(name);
 	}
 
 	/**
@@ -400,11 +418,12 @@ public class Entity {
 			return;
 		}
 
-		synchronized (namedEntities) {
-			namedEntities.remove(entityName);
+		synchronized (context.entities) {
+			context.entities.removeName(entityName);
 			entityName = newName;
-			namedEntities.put(entityName, this);
+			context.entities.putName(entityName, this);
 		}
+		ExpEvaluator.invalidateBindings();
 	}
 
 	/**
@@ -428,18 +447,18 @@ public class Entity {
 			}
 
 			// Update the OutputBox
-			FrameBox.reSelectEntity();
+			GUIUpdates.reSelectEntity();
 			return;
 		}
 	}
 
-	static long calculateDelayLength(double waitLength) {
-		return Math.round(waitLength * Simulation.getSimTimeFactor());
+	private long calculateDelayLength(double waitLength) {
+		return Math.round(waitLength * context.timeScale);
 	}
 
 	public double calculateDiscreteTime(double time) {
 		long discTime = calculateDelayLength(time);
-		return discTime / Simulation.getSimTimeFactor();
+		return discTime / context.timeScale;
 	}
 
 	public double calculateEventTime(double waitLength) {
@@ -449,22 +468,22 @@ public class Entity {
 			eventTime = Long.MAX_VALUE;
 		}
 
-		return eventTime / Simulation.getSimTimeFactor();
+		return eventTime / context.timeScale;
 	}
 
 	public double calculateEventTimeBefore(double waitLength) {
-		long eventTime = getSimTicks() + (long)Math.floor(waitLength * Simulation.getSimTimeFactor());
+		long eventTime = getSimTicks() + (long)Math.floor(waitLength * context.timeScale);
 
 		if( eventTime < 0 ) {
 			eventTime = Long.MAX_VALUE;
 		}
 
-		return eventTime / Simulation.getSimTimeFactor();
+		return eventTime / context.timeScale;
 	}
 
 	public double calculateEventTimeAfter(double waitLength) {
-		long eventTime = getSimTicks() + (long)Math.ceil(waitLength * Simulation.getSimTimeFactor());
-		return eventTime / Simulation.getSimTimeFactor();
+		long eventTime = getSimTicks() + (long)Math.ceil(waitLength * context.timeScale);
+		return eventTime / context.timeScale;
 	}
 
 	public final void startProcess(String methodName, Object... args) {
@@ -745,18 +764,50 @@ public class Entity {
 			}
 
 			// Does the output require a unit to be shown?
+			// The line is written in pieces to avoid parsing a format string for each output
 			linePrinted = true;
-			if (ut == Unit.class || ut == DimensionlessUnit.class) {
-				file.format("%s\tOutput[%s]\t%s%n",
-						this.getName(), o.getName(), s);
-			}
-			else {
-				file.format("%s\tOutput[%s, %s]\t%s%n",
-						this.getName(), o.getName(), unitString, s);
+			file.putString(this.getName());
+			file.putString("\tOutput[");
+			file.putString(o.getName());
+			if (ut != Unit.class && ut != DimensionlessUnit.class) {
+				file.putString(", ");
+				file.putString(unitString);
 			}
+			file.putString("]\t");
+			file.putString(s);
+			file.newLine();
 		}
 		if (linePrinted)
-			file.format("%n");
+			file.newLine();
+	}
+
+	/**
+	 * Adds the values in the output report for this entity to a row of a
+	 * columnar log file, one column for each reportable output and attribute.
+	 * @param file - the file in which the outputs are written
+	 * @param simTime - simulation time at which the outputs are evaluated
+	 */
+	public void printColumns(ColumnarLogFile file, double simTime) {
+		for (String name : file.getOutputNames(this)) {
+			this.printColumn(file, this.getOutputHandleInterned(name), simTime);
+		}
+		for (String name : attributeMap.keySet()) {
+			this.printColumn(file, attributeMap.get(name), simTime);
+		}
+	}
+
+	private void printColumn(ColumnarLogFile file, OutputHandle o, double simTime) {
+		Class<? extends Unit> ut = o.getUnitType();
+		boolean unitless = (ut == Unit.class || ut == DimensionlessUnit.class);
+		if (o.isNumericValue()) {
+			String unitString = unitless ? "" : Unit.getDisplayedUnit(ut);
+			double factor = Unit.getDisplayedUnitFactor(ut);
+			file.putDouble(o.getName(), unitString, o.getValueAsDouble(simTime, Double.NaN)/factor);
+		}
+		else {
+			String unitString = unitless ? "" : Unit.getSIUnit(ut);
+			file.putString(o.getName(), unitString, o.getValue(simTime, o.getReturnType()).toString());
+		}
 	}
 
 	@Output(name = "Name",
@@ -803,6 +854,7 @@ public class Entity {
 					ut.getSimpleName(), h.getUnitType().getSimpleName(), "");
 
 		h.setValue(value);
+		this.notifyChanged();
 	}
 
 	public ArrayList<String> getAttributeNames(){
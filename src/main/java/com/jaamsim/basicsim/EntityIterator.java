@@ -20,12 +20,21 @@ import java.util.NoSuchElementException;
 
 
 public abstract class EntityIterator<T extends Entity> implements Iterable<T>, Iterator<T> {
-	private final ArrayList<? extends Entity> allInstances = Entity.getAll();
+	private final ArrayList<? extends Entity> allInstances;
 	protected final Class<T> entClass;
 	private int curPos;
 	private int nextPos;
 
 	public EntityIterator(Class<T> aClass) {
+		this(aClass, Entity.getAll());
+	}
+
+	/**
+	 * Iterates over the matching entities in the given list, which is expected
+	 * to be a subset of the entities in the model in the order of creation.
+	 */
+	EntityIterator(Class<T> aClass, ArrayList<? extends Entity> list) {
+		allInstances = list;
 		entClass = aClass;
 		curPos = -1;
 		nextPos = -1;
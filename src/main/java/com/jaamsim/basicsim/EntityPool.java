@@ -0,0 +1,112 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.ArrayList;
+
+/**
+ * Supplies generated copies of a prototype entity and keeps the copies that
+ * are no longer needed so that they can be reused. Reusing a copy avoids
+ * constructing a new entity and copying the prototype's inputs for every
+ * generated entity.
+ * <p>
+ * A recycled entity keeps the inputs copied from the prototype, but is given
+ * a new entity number and a new name. The caller is responsible for resetting
+ * its state, normally by calling earlyInit().
+ * <p>
+ * The pool holds at most maxFree recycled entities. Any further entities that
+ * are released are left for the garbage collector.
+ */
+public final class EntityPool<T extends Entity> {
+	public static final int DEFAULT_MAX_FREE = 1000;
+
+	private final T proto;
+	private final int maxFree;
+	private final ArrayList<T> freeList = new ArrayList<>();
+	private int numberCreated; // number of new copies made of the prototype
+	private int numberReused;  // number of entities supplied from the free list
+
+	public EntityPool(T proto) {
+		this(proto, DEFAULT_MAX_FREE);
+	}
+
+	public EntityPool(T proto, int maxFree) {
+		this.proto = proto;
+		this.maxFree = maxFree;
+	}
+
+	public T getPrototype() {
+		return proto;
+	}
+
+	/**
+	 * Returns a copy of the prototype with the given name, reusing a recycled
+	 * copy when one is available.
+	 * @param name - name of the entity.
+	 * @return - a live copy of the prototype.
+	 */
+	public T get(String name) {
+		if (freeList.isEmpty()) {
+			T ret = Entity.fastCopy(proto, name);
+			ret.pool = this;
+			numberCreated++;
+			return ret;
+		}
+
+		T ret = freeList.remove(freeList.size() - 1);
+		ret.revive(name);
+		numberReused++;
+		return ret;
+	}
+
+	/**
+	 * Takes back an entity that has been killed by Entity.recycle().
+	 */
+	@SuppressWarnings("unchecked")
+	void release(Entity ent) {
+		if (freeList.size() >= maxFree) {
+			ent.pool = null;
+			return;
+		}
+		freeList.add((T)ent);
+	}
+
+	/**
+	 * Discards the recycled entities held by the pool.
+	 */
+	public void clear() {
+		for (T each : freeList) {
+			each.pool = null;
+		}
+		freeList.clear();
+		numberCreated = 0;
+		numberReused = 0;
+	}
+
+	public int getNumberCreated() {
+		return numberCreated;
+	}
+
+	public int getNumberReused() {
+		return numberReused;
+	}
+
+	/**
+	 * Returns the number of recycled entities waiting to be reused.
+	 */
+	public int getFreeCount() {
+		return freeList.size();
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Indexes the entities belonging to a SimulationContext by entity number, by
+ * name and by class. Entities are added and removed in constant time, and
+ * every list returned by the registry is in the order in which the entities
+ * were created so that the results do not depend on hashing.
+ */
+final class EntityRegistry {
+	private final LinkedHashMap<Long, Entity> idMap = new LinkedHashMap<>(100);
+	private final HashMap<String, Entity> nameMap = new HashMap<>(100);
+	private final HashMap<Class<?>, LinkedHashMap<Long, Entity>> classMap = new HashMap<>();
+
+	private ArrayList<Entity> allList = new ArrayList<>(); // creation-ordered copy of idMap
+
+	private final AtomicLong entityCount = new AtomicLong(0); // last entity number assigned
+	private boolean allListValid = true;
+
+	private static final Comparator<Entity> numberOrder = new Comparator<Entity>() {
+		@Override
+		public int compare(Entity e1, Entity e2) {
+			return Long.compare(e1.getEntityNumber(), e2.getEntityNumber());
+		}
+	};
+
+	/**
+	 * Returns the number for the next entity created in this registry's context.
+	 */
+	long nextEntityNumber() {
+		return entityCount.incrementAndGet();
+	}
+
+	/**
+	 * Returns the number of entity numbers assigned so far.
+	 */
+	long getEntityCount() {
+		return entityCount.get();
+	}
+
+	synchronized void add(Entity ent) {
+		Long id = Long.valueOf(ent.getEntityNumber());
+		idMap.put(id, ent);
+
+		LinkedHashMap<Long, Entity> bucket = classMap.get(ent.getClass());
+		if (bucket == null) {
+			bucket = new LinkedHashMap<>();
+			classMap.put(ent.getClass(), bucket);
+		}
+		bucket.put(id, ent);
+		allListValid = false;
+	}
+
+	synchronized void remove(Entity ent) {
+		Long id = Long.valueOf(ent.getEntityNumber());
+		if (idMap.remove(id) == null)
+			return;
+
+		LinkedHashMap<Long, Entity> bucket = classMap.get(ent.getClass());
+		if (bucket != null)
+			bucket.remove(id);
+		allListValid = false;
+	}
+
+	synchronized int size() {
+		return idMap.size();
+	}
+
+	/**
+	 * Returns every entity in the order of creation. The list is shared and
+	 * replaced rather than modified when entities are added or removed, so it
+	 * must not be changed by the caller.
+	 */
+	synchronized ArrayList<Entity> getAll() {
+		if (!allListValid) {
+			allList = new ArrayList<>(idMap.values());
+			allListValid = true;
+		}
+		return allList;
+	}
+
+	synchronized Entity getById(long id) {
+		return idMap.get(Long.valueOf(id));
+	}
+
+	synchronized Entity getByName(String name) {
+		return nameMap.get(name);
+	}
+
+	synchronized void putName(String name, Entity ent) {
+		nameMap.put(name, ent);
+	}
+
+	synchronized void removeName(String name) {
+		nameMap.remove(name);
+	}
+
+	/**
+	 * Removes the given name if it is held by the given entity.
+	 */
+	synchronized void removeName(String name, Entity ent) {
+		if (nameMap.get(name) == ent)
+			nameMap.remove(name);
+	}
+
+	/**
+	 * Returns the entities whose class is exactly the given class.
+	 */
+	synchronized <T extends Entity> ArrayList<T> getInstancesOf(Class<T> proto) {
+		LinkedHashMap<Long, Entity> bucket = classMap.get(proto);
+		if (bucket == null)
+			return new ArrayList<>();
+
+		ArrayList<T> ret = new ArrayList<>(bucket.size());
+		for (Entity each : bucket.values()) {
+			ret.add(proto.cast(each));
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the entities whose class is the given class, or a subclass of it,
+	 * and that implement the given interface if one is provided.
+	 */
+	synchronized <T extends Entity> ArrayList<T> getClonesOf(Class<T> proto, Class<?> iface) {
+		ArrayList<T> ret = new ArrayList<>();
+		int numBuckets = 0;
+		for (Map.Entry<Class<?>, LinkedHashMap<Long, Entity>> entry : classMap.entrySet()) {
+			Class<?> klass = entry.getKey();
+			if (!proto.isAssignableFrom(klass))
+				continue;
+			if (iface != null && !iface.isAssignableFrom(klass))
+				continue;
+
+			LinkedHashMap<Long, Entity> bucket = entry.getValue();
+			if (bucket.isEmpty())
+				continue;
+
+			for (Entity each : bucket.values()) {
+				ret.add(proto.cast(each));
+			}
+			numBuckets++;
+		}
+
+		// Entities from several classes are merged back into order of creation
+		if (numBuckets > 1)
+			Collections.sort(ret, numberOrder);
+		return ret;
+	}
+}
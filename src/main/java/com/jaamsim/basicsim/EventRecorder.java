@@ -68,7 +68,7 @@ public class EventRecorder implements EventTraceListener {
 		traceLevel++;
 	}
 
-	private void finish(EventManager e) {
+	private void finish() {
 		if(traceLevel != 1)
 			return;
 
@@ -128,72 +128,106 @@ public class EventRecorder implements EventTraceListener {
 
 	@Override
 	public synchronized void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		traceLevel--;
-
-		this.append(String.format("Wait\t%d\t%d\t%s", tick, priority, getWaitDescription()));
-
-		this.finish(e);
+		this.record(EventTraceFile.WAIT, e.name, curTick, tick, priority, getWaitDescription());
 	}
 
 	@Override
 	public synchronized void traceEvent(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Event\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		this.record(EventTraceFile.EVENT, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceInterrupt(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Int\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		this.record(EventTraceFile.INTERRUPT, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceKill(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Kill\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		this.finish(e);
+		this.record(EventTraceFile.KILL, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceWaitUntil(EventManager e, long tick) {
-		this.addHeader(e.name, tick);
-		traceLevel--;
-		this.append("WaitUntil");
-		this.finish(e);
+		this.record(EventTraceFile.WAIT_UNTIL, e.name, tick, 0, 0, null);
 	}
 
 	@Override
 	public synchronized void traceWaitUntilEnded(EventManager e, long curTick, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("WaitUntilEnded\t%s", t.getDescription()));
-		this.finish(e);
+		this.record(EventTraceFile.WAIT_UNTIL_ENDED, e.name, curTick, 0, 0, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceProcessStart(EventManager e, ProcessTarget t, long tick) {
-		this.addHeader(e.name, tick);
-		this.append(String.format("StartProcess\t%s", t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		this.record(EventTraceFile.PROCESS_START, e.name, tick, 0, 0, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceProcessEnd(EventManager e, long tick) {
-		this.addHeader(e.name, tick);
-		traceLevel--;
-		this.append("Exit");
-		this.finish(e);
+		this.record(EventTraceFile.PROCESS_END, e.name, tick, 0, 0, null);
 	}
 
 	@Override
 	public synchronized void traceSchedProcess(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("SchedProcess\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		this.finish(e);
+		this.record(EventTraceFile.SCHED_PROCESS, e.name, curTick, tick, priority, t.getDescription());
+	}
+
+	/**
+	 * Writes one trace record in the text format. Also used to convert a
+	 * binary trace file to text.
+	 * @param type - one of the record types defined in EventTraceFile
+	 * @param emName - name of the EventManager
+	 * @param curTick - present simulation tick
+	 * @param tick - tick for the event, if any
+	 * @param priority - priority for the event, if any
+	 * @param desc - description of the target, if any
+	 */
+	synchronized void record(int type, String emName, long curTick, long tick, int priority, String desc) {
+		this.addHeader(emName, curTick);
+		switch (type) {
+		case EventTraceFile.WAIT:
+			traceLevel--;
+			this.append(String.format("Wait\t%d\t%d\t%s", tick, priority, desc));
+			break;
+		case EventTraceFile.EVENT:
+			this.append(String.format("Event\t%d\t%d\t%s", tick, priority, desc));
+			traceLevel++;
+			break;
+		case EventTraceFile.INTERRUPT:
+			this.append(String.format("Int\t%d\t%d\t%s", tick, priority, desc));
+			traceLevel++;
+			break;
+		case EventTraceFile.KILL:
+			this.append(String.format("Kill\t%d\t%d\t%s", tick, priority, desc));
+			break;
+		case EventTraceFile.WAIT_UNTIL:
+			traceLevel--;
+			this.append("WaitUntil");
+			break;
+		case EventTraceFile.WAIT_UNTIL_ENDED:
+			this.append(String.format("WaitUntilEnded\t%s", desc));
+			break;
+		case EventTraceFile.PROCESS_START:
+			this.append(String.format("StartProcess\t%s", desc));
+			traceLevel++;
+			break;
+		case EventTraceFile.PROCESS_END:
+			traceLevel--;
+			this.append("Exit");
+			break;
+		case EventTraceFile.SCHED_PROCESS:
+			this.append(String.format("SchedProcess\t%d\t%d\t%s", tick, priority, desc));
+			break;
+		}
+		this.finish();
+	}
+
+	/**
+	 * Closes the trace file.
+	 */
+	void close() {
+		try {
+			outputStream.close();
+		}
+		catch (IOException e) {}
 	}
 }
@@ -0,0 +1,66 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Converts a binary event trace file to the text format written by
+ * EventRecorder, so that a trace can be read or compared with a text trace.
+ * Wait records show the wait target instead of the calling method.
+ *
+ * Usage: java -cp JaamSim.jar com.jaamsim.basicsim.EventTraceConverter model.evt model.txt
+ */
+public class EventTraceConverter {
+
+	private EventTraceConverter() {}
+
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.err.println("Usage: EventTraceConverter <binary trace file> <text trace file>");
+			System.exit(1);
+		}
+
+		try {
+			long n = convert(new File(args[0]), args[1]);
+			System.out.format("Converted %d records%n", n);
+		}
+		catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Writes the records of a binary trace file to a text trace file.
+	 * @return the number of records converted.
+	 */
+	static long convert(File binFile, String textFileName) throws IOException {
+		EventRecorder rec = new EventRecorder(textFileName);
+		try (EventTraceFile.Reader reader = new EventTraceFile.Reader(binFile)) {
+			EventTraceFile.Record each = new EventTraceFile.Record();
+			long n = 0;
+			while (reader.next(each)) {
+				rec.record(each.type, each.emName, each.curTick, each.tick, each.priority, each.desc);
+				n++;
+			}
+			return n;
+		}
+		finally {
+			rec.close();
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Defines the binary event trace format written by BinaryEventRecorder.
+ * <p>
+ * The file starts with a four byte magic number and a version number. Each
+ * record then starts with a one byte type. A STRING record defines the next
+ * string number, followed by its length and UTF-8 bytes; strings are written
+ * once, when they are first used, and referred to by number afterwards. Every
+ * other record holds the string number of the EventManager's name, the
+ * present tick as a difference from the present tick of the previous record,
+ * the event tick as a difference from the present tick, the priority, and the
+ * string number of the target description (0 for none). All the numbers are
+ * zig-zag encoded variable length integers. A record type of zero marks the
+ * end of the trace, which allows the writer to extend the file in large
+ * zero-filled blocks.
+ */
+final class EventTraceFile {
+
+	static final int MAGIC = 0x4A534554;  // "JSET"
+	static final int VERSION = 1;
+
+	static final int END = 0;
+	static final int STRING = 1;
+	static final int EVENT = 2;
+	static final int WAIT = 3;
+	static final int SCHED_PROCESS = 4;
+	static final int PROCESS_START = 5;
+	static final int PROCESS_END = 6;
+	static final int INTERRUPT = 7;
+	static final int KILL = 8;
+	static final int WAIT_UNTIL = 9;
+	static final int WAIT_UNTIL_ENDED = 10;
+
+	private EventTraceFile() {}
+
+	/**
+	 * Returns true if the given file starts with the binary trace header.
+	 */
+	static boolean isBinary(File file) {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			return in.readInt() == MAGIC;
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * One trace record, with the strings resolved.
+	 */
+	static final class Record {
+		int type;
+		String emName;
+		long curTick;
+		long tick;
+		int priority;
+		String desc;
+
+		Record() {}
+
+		Record(int type, String emName, long curTick, long tick, int priority, String desc) {
+			this.type = type;
+			this.emName = emName;
+			this.curTick = curTick;
+			this.tick = tick;
+			this.priority = priority;
+			this.desc = desc;
+		}
+
+		void copyFrom(Record rec) {
+			type = rec.type;
+			emName = rec.emName;
+			curTick = rec.curTick;
+			tick = rec.tick;
+			priority = rec.priority;
+			desc = rec.desc;
+		}
+
+		boolean matches(Record rec) {
+			if (type != rec.type || curTick != rec.curTick || tick != rec.tick || priority != rec.priority)
+				return false;
+			if (!emName.equals(rec.emName))
+				return false;
+			if (desc == null)
+				return rec.desc == null;
+			return desc.equals(rec.desc);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s\t%d\t%d\t%d\t%d\t%s", emName, curTick, type, tick, priority, desc);
+		}
+	}
+
+	/**
+	 * Reads the records of a binary trace file in order.
+	 */
+	static final class Reader implements AutoCloseable {
+		private final DataInputStream in;
+		private final ArrayList<String> strings = new ArrayList<>();
+		private long lastTick;
+		private boolean ended;
+
+		Reader(File file) throws IOException {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+			if (in.readInt() != MAGIC) {
+				in.close();
+				throw new IOException("Not a binary event trace file: " + file);
+			}
+			int ver = in.readInt();
+			if (ver != VERSION) {
+				in.close();
+				throw new IOException("Unsupported event trace version: " + ver);
+			}
+			strings.add(null);
+		}
+
+		/**
+		 * Reads the next record into the given object.
+		 * @return false at the end of the trace.
+		 */
+		boolean next(Record rec) throws IOException {
+			while (!ended) {
+				int type;
+				try {
+					type = in.readUnsignedByte();
+				}
+				catch (EOFException e) {
+					type = END;
+				}
+
+				if (type == END) {
+					ended = true;
+					break;
+				}
+
+				if (type == STRING) {
+					byte[] bytes = new byte[(int) readLong()];
+					in.readFully(bytes);
+					strings.add(new String(bytes, StandardCharsets.UTF_8));
+					continue;
+				}
+
+				rec.type = type;
+				rec.emName = strings.get((int) readLong());
+				lastTick += readLong();
+				rec.curTick = lastTick;
+				rec.tick = lastTick + readLong();
+				rec.priority = (int) readLong();
+				rec.desc = strings.get((int) readLong());
+				return true;
+			}
+			return false;
+		}
+
+		private long readLong() throws IOException {
+			long val = 0;
+			int shift = 0;
+			while (true) {
+				int b = in.readUnsignedByte();
+				val |= (long) (b & 0x7f) << shift;
+				if ((b & 0x80) == 0)
+					break;
+				shift += 7;
+			}
+			return (val >>> 1) ^ -(val & 1);
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import com.jaamsim.input.InputErrorException;
+import com.jaamsim.input.IntegerInput;
+import com.jaamsim.input.Keyword;
+import com.jaamsim.input.OutputHandle;
+import com.jaamsim.input.OutputInput;
+import com.jaamsim.input.ValueInput;
+import com.jaamsim.units.DimensionlessUnit;
+
+/**
+ * Specifies a replication study for the model. When the model is run with the
+ * HeadlessRunner, the replications use the substreams GlobalSubstreamSeed,
+ * GlobalSubstreamSeed + 1, ... and are executed in parallel. The reportable
+ * outputs of the replications are combined into a single report giving the
+ * mean and the confidence interval for each output.
+ */
+public class ExperimentManager extends Entity {
+
+	@Keyword(description = "The maximum number of replications to be run.",
+	         example = "Experiment1 NumberOfReplications { 20 }")
+	private final IntegerInput numberOfReplications;
+
+	@Keyword(description = "The minimum number of replications to be run before the "
+			+ "confidence intervals are tested against TargetHalfWidth.",
+	         example = "Experiment1 MinimumReplications { 5 }")
+	private final IntegerInput minimumReplications;
+
+	@Keyword(description = "The number of replications to be run at the same time. A value of "
+			+ "zero uses one thread for each available processor.",
+	         example = "Experiment1 NumberOfThreads { 4 }")
+	private final IntegerInput numberOfThreads;
+
+	@Keyword(description = "The confidence level for the confidence intervals of the outputs.",
+	         example = "Experiment1 ConfidenceLevel { 0.99 }")
+	private final ValueInput confidenceLevel;
+
+	@Keyword(description = "The target half-width of the confidence intervals, as a fraction of "
+			+ "the mean. No further replications are run once the target is met. A value of "
+			+ "zero runs all the replications.",
+	         example = "Experiment1 TargetHalfWidth { 0.05 }")
+	private final ValueInput targetHalfWidth;
+
+	@Keyword(description = "The output whose confidence interval is tested against "
+			+ "TargetHalfWidth. If not specified, every reportable output must meet the target.",
+	         example = "Experiment1 StoppingOutput { Queue1 AverageQueueTime }")
+	private final OutputInput<Object> stoppingOutput;
+
+	{
+		numberOfReplications = new IntegerInput("NumberOfReplications", "Key Inputs", 10);
+		numberOfReplications.setValidRange(1, Integer.MAX_VALUE);
+		this.addInput(numberOfReplications);
+
+		minimumReplications = new IntegerInput("MinimumReplications", "Key Inputs", 3);
+		minimumReplications.setValidRange(2, Integer.MAX_VALUE);
+		this.addInput(minimumReplications);
+
+		numberOfThreads = new IntegerInput("NumberOfThreads", "Key Inputs", 0);
+		numberOfThreads.setValidRange(0, Integer.MAX_VALUE);
+		this.addInput(numberOfThreads);
+
+		confidenceLevel = new ValueInput("ConfidenceLevel", "Key Inputs", 0.95d);
+		confidenceLevel.setUnitType(DimensionlessUnit.class);
+		confidenceLevel.setValidRange(0.5d, 0.9999d);
+		this.addInput(confidenceLevel);
+
+		targetHalfWidth = new ValueInput("TargetHalfWidth", "Key Inputs", 0.0d);
+		targetHalfWidth.setUnitType(DimensionlessUnit.class);
+		targetHalfWidth.setValidRange(0.0d, Double.POSITIVE_INFINITY);
+		this.addInput(targetHalfWidth);
+
+		stoppingOutput = new OutputInput<>(Object.class, "StoppingOutput", "Key Inputs", null);
+		this.addInput(stoppingOutput);
+	}
+
+	public ExperimentManager() {}
+
+	/**
+	 * Returns the ExperimentManager for the present model, or null if there is none.
+	 */
+	public static ExperimentManager getInstance() {
+		for (ExperimentManager each : Entity.getClonesOfIterator(ExperimentManager.class)) {
+			return each;
+		}
+		return null;
+	}
+
+	@Override
+	public void validate() {
+		super.validate();
+
+		if (minimumReplications.getValue() > numberOfReplications.getValue())
+			throw new InputErrorException("MinimumReplications cannot exceed NumberOfReplications");
+
+		// Only the reportable numerical outputs are recorded for each replication
+		if (stoppingOutput.getValue() != null) {
+			if (stoppingOutput.isChain())
+				throw new InputErrorException("StoppingOutput must be an output of an entity, not a chain of outputs");
+
+			OutputHandle out = stoppingOutput.getOutputHandle(0.0d);
+			if (!out.isReportable())
+				throw new InputErrorException("StoppingOutput must be a reportable output: %s", stoppingOutput.getValue());
+			if (!out.isNumericValue())
+				throw new InputErrorException("StoppingOutput must be a numerical output: %s", stoppingOutput.getValue());
+		}
+	}
+
+	public int getNumberOfReplications() {
+		return numberOfReplications.getValue();
+	}
+
+	public int getMinimumReplications() {
+		return minimumReplications.getValue();
+	}
+
+	public int getNumberOfThreads() {
+		if (numberOfThreads.getValue() == 0)
+			return Runtime.getRuntime().availableProcessors();
+		return numberOfThreads.getValue();
+	}
+
+	public double getConfidenceLevel() {
+		return confidenceLevel.getValue();
+	}
+
+	public double getTargetHalfWidth() {
+		return targetHalfWidth.getValue();
+	}
+
+	/**
+	 * Returns the entity and output name for StoppingOutput, e.g.
+	 * "Queue1.AverageQueueTime", or null if it was not specified.
+	 */
+	public String getStoppingOutput() {
+		return stoppingOutput.getValue();
+	}
+}
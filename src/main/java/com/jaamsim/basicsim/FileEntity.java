@@ -18,34 +18,56 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.text.DecimalFormat;
+import java.util.Formatter;
 
 import com.jaamsim.input.InputErrorException;
-import com.jaamsim.ui.LogBox;
+import com.jaamsim.ui.GUIUpdates;
 
 /**
  * Class encapsulating file input/output methods and file access.
+ * <p>
+ * A file opened for asynchronous output is written by a background thread
+ * (see AsyncFileWriter). flush() then hands the buffered text to that thread
+ * without waiting, and sync() or syncAll() are used where the text must be on
+ * the disk.
  */
 public class FileEntity {
 	public static int ALIGNMENT_LEFT = 0;
 	public static int ALIGNMENT_RIGHT = 1;
 
 	private File backingFileObject;
-	private BufferedWriter outputStream;
+	private Writer outputStream;
+	private final StringBuilder formatBuffer = new StringBuilder();  // reused by format()
+	private final Formatter stringFormatter = new Formatter(formatBuffer);
 
 	private DecimalFormat formatter;
 
 	public FileEntity(String fileName) {
-		this(fileName, false);
+		this(fileName, false, false);
 	}
 
 	public FileEntity(String fileName, boolean append) {
+		this(fileName, append, false);
+	}
+
+	/**
+	 * Opens the given file for output.
+	 * @param fileName - name of the file
+	 * @param append - if TRUE, text is added to the end of an existing file
+	 * @param async - if TRUE, the file is written by a background thread
+	 */
+	public FileEntity(String fileName, boolean append, boolean async) {
 		backingFileObject = new File( fileName);
 		formatter = new DecimalFormat( "##0.00" );
 
 		try {
 			backingFileObject.createNewFile();
-			outputStream = new BufferedWriter( new FileWriter( backingFileObject, append ) );
+			if (async)
+				outputStream = new AsyncFileWriter( backingFileObject, append );
+			else
+				outputStream = new BufferedWriter( new FileWriter( backingFileObject, append ) );
 		}
 		catch( IOException e ) {
 			throw new InputErrorException( "IOException thrown trying to open FileEntity: " + e );
@@ -68,7 +90,7 @@ public class FileEntity {
 		}
 		catch( IOException e ) {
 			outputStream = null;
-			LogBox.logLine( "Unable to close FileEntity: " + backingFileObject.getName() );
+			GUIUpdates.logLine("Unable to close FileEntity: " + backingFileObject.getName());
 		}
 	}
 
@@ -83,12 +105,44 @@ public class FileEntity {
 		}
 	}
 
+	/**
+	 * Waits until the text written so far is on the disk.
+	 */
+	public void sync() {
+		try {
+			if( outputStream instanceof AsyncFileWriter ) {
+				((AsyncFileWriter)outputStream).sync();
+			}
+			else if( outputStream != null ) {
+				outputStream.flush();
+			}
+		}
+		catch( IOException e ) {
+			throw new ErrorException( "Unable to flush FileEntity: " + e );
+		}
+	}
+
+	/**
+	 * Waits until the text written to every file opened for asynchronous
+	 * output is on the disk.
+	 */
+	public static void syncAll() {
+		AsyncFileWriter.syncAll();
+	}
+
 	public void putString( String string ) {
 		write(string);
 	}
 
 	public void format(String format, Object... args) {
-		write(String.format(format, args));
+		formatBuffer.setLength(0);
+		stringFormatter.format(format, args);
+		try {
+			outputStream.append(formatBuffer);
+		}
+		catch( IOException e ) {
+			return;
+		}
 	}
 
 	/**
@@ -109,19 +163,17 @@ public class FileEntity {
 	 * Generic string writing method.  All other methods will wrap this class.
 	 */
 	private void putString( String string, int putLength, int alignment ) {
-		String spaces = "";
-
-		for( int i = 0; i < putLength - string.length(); i++ ) {
-			spaces = " " + spaces;
-		}
+		int numSpaces = putLength - string.length();
 		try {
 			if( alignment == ALIGNMENT_LEFT ) {
-				outputStream.write( string + spaces );
+				outputStream.write( string );
+			}
+			for( int i = 0; i < numSpaces; i++ ) {
+				outputStream.write( ' ' );
 			}
 			if( alignment == ALIGNMENT_RIGHT ) {
-				outputStream.write( spaces + string );
+				outputStream.write( string );
 			}
-			outputStream.flush();
 		}
 		catch( IOException e ) {
 			return;
@@ -170,7 +222,7 @@ public class FileEntity {
 
 	public void newLine() {
 		try {
-			outputStream.newLine();
+			outputStream.write( System.lineSeparator() );
 		}
 		catch( IOException e ) {
 			return;
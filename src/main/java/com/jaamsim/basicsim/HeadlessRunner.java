@@ -0,0 +1,336 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.jaamsim.events.EventErrorListener;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTimeListener;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.KeywordIndex;
+
+/**
+ * Command line entry point that loads a configuration file, runs it to completion
+ * and exits without creating any part of the user interface. None of the Swing,
+ * rendering or controller classes are loaded, so the runner can be used on
+ * machines without a display.
+ * <p>
+ * If the model contains an ExperimentManager, or the -replications option is
+ * given, the model is run several times on a pool of threads. Each replication
+ * has its own SimulationContext and EventManager, and uses the substream
+ * GlobalSubstreamSeed + n for its random distributions. The reportable outputs
+ * of the replications are combined into "model.rep", which gives the mean and
+ * the confidence interval half-width for each output. The options override
+ * the NumberOfReplications and NumberOfThreads inputs to the ExperimentManager.
+ *
+ * The runner can also be called from other code through run(String...), which
+ * returns the exit status instead of ending the virtual machine.
+ *
+ * Usage: java -cp JaamSim.jar com.jaamsim.basicsim.HeadlessRunner [-replications N] [-threads T] model.cfg
+ */
+public class HeadlessRunner implements EventTimeListener, EventErrorListener {
+
+	HeadlessRunner() {}
+
+	public static void main(String[] args) {
+		System.exit(run(args));
+	}
+
+	/**
+	 * Loads and runs the configuration file given by the arguments, which are
+	 * the same as for the command line.
+	 * @return 0 if the model ran to completion, or 1 if there was an error
+	 */
+	public static int run(String... args) {
+		ArrayList<String> configFiles = new ArrayList<>(args.length);
+		int numReps = 0;
+		int numThreads = 0;
+		for (int i = 0; i < args.length; i++) {
+			String each = args[i];
+			if ((each.equalsIgnoreCase("-replications") || each.equalsIgnoreCase("-threads")) && i + 1 < args.length) {
+				int val = parsePositive(args[++i]);
+				if (val <= 0)
+					return 1;
+				if (each.equalsIgnoreCase("-replications"))
+					numReps = val;
+				else
+					numThreads = val;
+				continue;
+			}
+
+			// Accept the GUI directives so existing batch scripts can be reused
+			if (each.equalsIgnoreCase("-b") || each.equalsIgnoreCase("-batch") ||
+			    each.equalsIgnoreCase("-m") || each.equalsIgnoreCase("-minimize") ||
+			    each.equalsIgnoreCase("-q") || each.equalsIgnoreCase("-quiet") ||
+			    each.equalsIgnoreCase("-z") || each.equalsIgnoreCase("-zbuffer") ||
+			    each.equalsIgnoreCase("-sg") || each.equalsIgnoreCase("-safe_graphics"))
+				continue;
+
+			configFiles.add(each);
+		}
+
+		if (configFiles.size() != 1) {
+			System.err.println("Usage: HeadlessRunner [-replications N] [-threads T] <configuration file>");
+			return 1;
+		}
+
+		System.setProperty("java.awt.headless", "true");
+		InputAgent.setHeadless(true);
+		InputAgent.setBatch(true);
+
+		EventManager evt = new EventManager("DefaultEventManager");
+		HeadlessRunner runner = new HeadlessRunner();
+		evt.setTimeListener(runner);
+		evt.setErrorListener(runner);
+
+		// Load the autoload file
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("inputs/autoload.cfg");
+
+		File loadFile = resolveConfigFile(configFiles.get(0));
+		InputAgent.setConfigFile(loadFile);
+		try {
+			InputAgent.loadConfigurationFile(loadFile);
+		}
+		catch (Throwable t) {
+			InputAgent.logMessage("Fatal Error while loading file '%s': %s", loadFile.getName(), t.getMessage());
+			return 1;
+		}
+		InputAgent.setRecordEdits(true);
+
+		if (InputAgent.numErrors() > 0) {
+			InputAgent.logMessage("Input errors were detected while loading file: '%s'", loadFile.getName());
+			return 1;
+		}
+
+		InputAgent.logMessage("Configuration File Loaded - startup time: %.3f s", getUptime());
+
+		ExperimentManager exp = ExperimentManager.getInstance();
+		if (exp != null || numReps > 1)
+			return runReplications(loadFile, exp, numReps, numThreads);
+
+		SimulationContext ctx = SimulationContext.current();
+		Simulation.start(evt);
+		try {
+			ctx.awaitEnd();
+		}
+		catch (InterruptedException e) {
+			return 1;
+		}
+		return (ctx.getRunError() == null) ? 0 : 1;
+	}
+
+	/**
+	 * Returns the positive integer given by the string, or 0 if it is not one.
+	 */
+	private static int parsePositive(String str) {
+		try {
+			int val = Integer.parseInt(str);
+			if (val > 0)
+				return val;
+		}
+		catch (NumberFormatException e) {}
+
+		System.err.println("Expected a positive integer but found: " + str);
+		return 0;
+	}
+
+	/**
+	 * Resolves the configuration file against the current working directory.
+	 */
+	private static File resolveConfigFile(String name) {
+		File loadFile = new File(name);
+		if (!loadFile.exists())
+			loadFile = new File(new File(System.getProperty("user.dir")), name);
+		return loadFile.getAbsoluteFile();
+	}
+
+	/**
+	 * Runs the replications of the configuration file on a pool of threads and
+	 * writes the combined report. The outputs of the replications are added
+	 * to the statistics in replication order, so the results and the point at
+	 * which the target half-width is met do not depend on the thread timing.
+	 * @param exp - settings for the replications, or null to use the defaults
+	 * @param reps - number of replications, or zero to use the ExperimentManager
+	 * @param threads - number of threads, or zero to use the ExperimentManager
+	 * @return 0 if the replications ran to completion, or 1 if there was an error
+	 */
+	private static int runReplications(final File loadFile, ExperimentManager exp, int reps, int threads) {
+		try {
+			if (exp != null)
+				exp.validate();
+		}
+		catch (Throwable t) {
+			InputAgent.logMessage("%s: Validation error- %s", exp.getName(), t.getMessage());
+			return 1;
+		}
+
+		int numReps = (reps > 0) ? reps : (exp != null) ? exp.getNumberOfReplications() : 1;
+		int minReps = (exp != null) ? Math.min(exp.getMinimumReplications(), numReps) : numReps;
+		int numThreads = (threads > 0) ? threads : (exp != null) ? exp.getNumberOfThreads()
+		                                          : Runtime.getRuntime().availableProcessors();
+		double confidence = (exp != null) ? exp.getConfidenceLevel() : 0.95d;
+		double target = (exp != null) ? exp.getTargetHalfWidth() : 0.0d;
+		String stoppingOutput = (exp != null) ? exp.getStoppingOutput() : null;
+
+		final HeadlessRunner runner = new HeadlessRunner();
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(numThreads, numReps));
+		ArrayList<Future<ArrayList<ReplicationStatistics.OutputValue>>> results = new ArrayList<>(numReps);
+		for (int i = 0; i < numReps; i++) {
+			final int rep = i;
+			results.add(pool.submit(new Callable<ArrayList<ReplicationStatistics.OutputValue>>() {
+				@Override
+				public ArrayList<ReplicationStatistics.OutputValue> call() throws Exception {
+					return runner.runReplication(loadFile, rep);
+				}
+			}));
+		}
+		pool.shutdown();
+
+		// A failed replication is recorded and the others are allowed to finish
+		ReplicationStatistics stats = new ReplicationStatistics();
+		ArrayList<String> failures = new ArrayList<>();
+		try {
+			for (int i = 0; i < results.size(); i++) {
+				try {
+					stats.add(results.get(i).get());
+				}
+				catch (ExecutionException e) {
+					Throwable t = (e.getCause() != null) ? e.getCause() : e;
+					failures.add(String.format("Replication %d failed: %s", i + 1, t.getMessage()));
+					continue;
+				}
+				int n = stats.getNumberOfReplications();
+				InputAgent.logMessage("Replication %d completed - elapsed time: %.3f s", i + 1, getUptime());
+
+				if (target > 0.0d && n >= minReps && stats.isConverged(stoppingOutput, confidence, target)) {
+					InputAgent.logMessage("Target half-width reached after %d replications", n);
+					break;
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			InputAgent.logMessage("Fatal Error while running file '%s': %s", loadFile.getName(), e.getMessage());
+			pool.shutdownNow();
+			return 1;
+		}
+
+		// Replications still running are no longer needed
+		pool.shutdownNow();
+
+		for (String each : failures)
+			InputAgent.logMessage("%s", each);
+
+		if (stats.getNumberOfReplications() > 0) {
+			FileEntity file = new FileEntity(InputAgent.getReportFileName(InputAgent.getRunName()) + ".rep");
+			stats.printReport(file, confidence);
+		}
+		InputAgent.closeLogFile();
+		return failures.isEmpty() ? 0 : 1;
+	}
+
+	/**
+	 * Loads the configuration file into a new SimulationContext and runs it to
+	 * its end time using the substream offset by the replication number.
+	 * @return the reportable outputs of the replication at its end time
+	 */
+	@SuppressWarnings("unchecked")
+	ArrayList<ReplicationStatistics.OutputValue> runReplication(File loadFile, int rep) throws Exception {
+		SimulationContext ctx = new SimulationContext("Replication" + (rep + 1));
+		SimulationContext.setCurrent(ctx);
+		EventManager evt = new EventManager("Replication" + (rep + 1));
+		try {
+			InputAgent.setHeadless(true);
+			InputAgent.setBatch(true);
+
+			ctx.setEventManager(evt);
+			evt.setTimeListener(this);
+			evt.setErrorListener(this);
+
+			InputAgent.setRecordEdits(false);
+			InputAgent.readResource("inputs/autoload.cfg");
+
+			InputAgent.setConfigFile(loadFile);
+			InputAgent.setRunSuffix("-rep" + (rep + 1));
+			InputAgent.loadConfigurationFile(loadFile);
+			InputAgent.setRecordEdits(true);
+			if (InputAgent.numErrors() > 0)
+				throw new ErrorException("Input errors were detected while loading file: '%s'", loadFile.getName());
+
+			ArrayList<String> seed = new ArrayList<>(1);
+			seed.add(Integer.toString(Simulation.getSubstreamNumber() + rep));
+			InputAgent.apply(Simulation.getInstance(), new KeywordIndex("GlobalSubstreamSeed", seed, null));
+
+			Simulation.start(evt);
+			ctx.awaitEnd();
+			if (ctx.getRunError() != null)
+				throw new ErrorException("%s", ctx.getRunError().getMessage());
+			return (ArrayList<ReplicationStatistics.OutputValue>)ctx.getState(ReplicationStatistics.class);
+		}
+		finally {
+			// Stop a replication that failed or is no longer needed, and release
+			// the threads of any processes still waiting for their events
+			evt.pause();
+			evt.clear();
+			SimulationContext.setCurrent(null);
+		}
+	}
+
+	/**
+	 * Returns the number of seconds since the virtual machine was started.
+	 */
+	static double getUptime() {
+		return ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0d;
+	}
+
+	@Override
+	public void tickUpdate(long tick) {}
+
+	@Override
+	public void timeRunning(boolean running) {}
+
+	/**
+	 * Ends the run in which the error occurred. The error is reported by the
+	 * caller once the run, or the pool of replications, has finished.
+	 */
+	@Override
+	public void handleError(EventManager evt, Throwable t, long currentTick) {
+		if (t instanceof OutOfMemoryError) {
+			InputAgent.logMessage("Out of Memory use the -Xmx flag during execution for more memory");
+		}
+
+		double curSec = evt.ticksToSeconds(currentTick);
+		InputAgent.logMessage("EXCEPTION AT TIME: %f s", curSec);
+		InputAgent.logMessage("Error: %s", t.getMessage());
+		for (StackTraceElement each : t.getStackTrace())
+			InputAgent.logMessage(each.toString());
+
+		InputAgent.closeLogFile();
+
+		Object ctx = evt.getContext();
+		if (ctx instanceof SimulationContext)
+			((SimulationContext)ctx).failRun(t);
+		else
+			SimulationContext.getDefault().failRun(t);
+	}
+}
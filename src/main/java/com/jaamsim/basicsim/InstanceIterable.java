@@ -17,7 +17,7 @@ package com.jaamsim.basicsim;
 
 public class InstanceIterable<T extends Entity> extends EntityIterator<T> {
 	public InstanceIterable(Class<T> aClass) {
-		super(aClass);
+		super(aClass, Entity.getInstancesOf(aClass));
 	}
 
 	@Override
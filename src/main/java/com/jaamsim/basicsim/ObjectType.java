@@ -31,9 +31,6 @@ import com.jaamsim.math.Vec3d;
 import com.jaamsim.units.DistanceUnit;
 
 public class ObjectType extends Entity {
-	private static final ArrayList<ObjectType> allInstances;
-	private static final HashMap<Class<? extends Entity>, ObjectType> objectTypeMap;
-
 	@Keyword(description = "The java class of the object type",
 	         example = "This is placeholder example text")
 	private final ClassInput javaClass;
@@ -65,11 +62,6 @@ public class ObjectType extends Entity {
 
 	private final ArrayList<DisplayModel> displayEntityDefault = new ArrayList<>(1);
 
-	static {
-		allInstances = new ArrayList<>();
-		objectTypeMap = new HashMap<>();
-	}
-
 	{
 		javaClass = new ClassInput( "JavaClass", "Key Inputs", null );
 		this.addInput( javaClass );
@@ -95,6 +87,7 @@ public class ObjectType extends Entity {
 	}
 
 	public ObjectType() {
+		ArrayList<ObjectType> allInstances = getContext().objectTypes;
 		synchronized (allInstances) {
 			allInstances.add(this);
 		}
@@ -111,6 +104,7 @@ public class ObjectType extends Entity {
 		}
 
 		if (in == javaClass) {
+			HashMap<Class<? extends Entity>, ObjectType> objectTypeMap = getContext().objectTypeMap;
 			synchronized (objectTypeMap) {
 				objectTypeMap.put(javaClass.getValue(), this);
 			}
@@ -120,12 +114,14 @@ public class ObjectType extends Entity {
 	}
 
 	public static ArrayList<ObjectType> getAll() {
+		ArrayList<ObjectType> allInstances = SimulationContext.current().objectTypes;
 		synchronized (allInstances) {
 			return allInstances;
 		}
 	}
 
 	public static ObjectType getObjectTypeForClass(Class<? extends Entity> klass) {
+		HashMap<Class<? extends Entity>, ObjectType> objectTypeMap = SimulationContext.current().objectTypeMap;
 		synchronized (objectTypeMap) {
 			return objectTypeMap.get(klass);
 		}
@@ -134,8 +130,8 @@ public class ObjectType extends Entity {
 	@Override
 	public void kill() {
 		super.kill();
-		allInstances.remove(this);
-		objectTypeMap.remove(javaClass.getValue());
+		getContext().objectTypes.remove(this);
+		getContext().objectTypeMap.remove(javaClass.getValue());
 	}
 
 	public Class<? extends Entity> getJavaClass() {
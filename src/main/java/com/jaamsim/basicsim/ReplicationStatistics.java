@@ -0,0 +1,172 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import com.jaamsim.input.OutputHandle;
+import com.jaamsim.math.StudentT;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.Unit;
+
+/**
+ * Accumulates the reportable numerical outputs of a series of replications
+ * into running means and confidence intervals.
+ */
+class ReplicationStatistics {
+
+	/**
+	 * The value of one reportable output at the end of a replication.
+	 */
+	static final class OutputValue {
+		final String key;   // entity and output names, as used by OutputInput
+		final String label; // the first columns of the report line
+		final double value; // value in the displayed unit
+
+		OutputValue(String key, String label, double value) {
+			this.key = key;
+			this.label = label;
+			this.value = value;
+		}
+	}
+
+	private static final class OutputStatistic {
+		final String label;
+		int count;
+		double mean;
+		double sumSquares; // sum of squared differences from the mean
+
+		OutputStatistic(String label) {
+			this.label = label;
+		}
+
+		void add(double val) {
+			count++;
+			double delta = val - mean;
+			mean += delta / count;
+			sumSquares += delta * (val - mean);
+		}
+
+		double getHalfWidth(double confidence) {
+			if (count < 2)
+				return Double.POSITIVE_INFINITY;
+			double t = StudentT.inverseCdf(0.5d + 0.5d * confidence, count - 1);
+			return t * Math.sqrt(sumSquares / (count - 1) / count);
+		}
+	}
+
+	private final LinkedHashMap<String, OutputStatistic> stats = new LinkedHashMap<>();
+	private int numReplications;
+
+	/**
+	 * Returns the reportable numerical outputs of the entities in the present
+	 * simulation run, in the same order and units as the output report.
+	 */
+	static ArrayList<OutputValue> collectOutputs(double simTime) {
+		ArrayList<OutputValue> ret = new ArrayList<>();
+		for (Entity ent : Entity.getAll()) {
+			if (ent.testFlag(Entity.FLAG_GENERATED))
+				continue;
+
+			for (OutputHandle o : OutputHandle.getOutputHandleList(ent)) {
+				if (!o.isReportable() || !o.isNumericValue())
+					continue;
+
+				Class<? extends Unit> ut = o.getUnitType();
+				double val = o.getValueAsDouble(simTime, Double.NaN) / Unit.getDisplayedUnitFactor(ut);
+				String label;
+				if (ut == Unit.class || ut == DimensionlessUnit.class)
+					label = String.format("%s\tOutput[%s]", ent.getName(), o.getName());
+				else
+					label = String.format("%s\tOutput[%s, %s]", ent.getName(), o.getName(), Unit.getDisplayedUnit(ut));
+
+				ret.add(new OutputValue(ent.getName() + "." + o.getName(), label, val));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Adds the outputs of the next replication to the statistics.
+	 */
+	void add(ArrayList<OutputValue> values) {
+		numReplications++;
+		for (OutputValue each : values) {
+			if (Double.isNaN(each.value))
+				continue;
+
+			OutputStatistic stat = stats.get(each.key);
+			if (stat == null) {
+				stat = new OutputStatistic(each.label);
+				stats.put(each.key, stat);
+			}
+			stat.add(each.value);
+		}
+	}
+
+	int getNumberOfReplications() {
+		return numReplications;
+	}
+
+	/**
+	 * Returns whether the confidence interval for the given output, or for
+	 * every output if the key is null, is narrower than the target relative
+	 * half-width. The half-width is measured as a fraction of the mean, and
+	 * an output whose values are all the same is always converged. There must
+	 * be at least one statistic to test.
+	 */
+	boolean isConverged(String key, double confidence, double target) {
+		if (key != null) {
+			OutputStatistic stat = stats.get(key);
+			return stat != null && isConverged(stat, confidence, target);
+		}
+
+		if (stats.isEmpty())
+			return false;
+
+		for (OutputStatistic stat : stats.values()) {
+			if (!isConverged(stat, confidence, target))
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean isConverged(OutputStatistic stat, double confidence, double target) {
+		if (stat.sumSquares == 0.0d)
+			return stat.count >= 2;
+		return stat.getHalfWidth(confidence) <= target * Math.abs(stat.mean);
+	}
+
+	/**
+	 * Writes the mean and the confidence interval half-width of each output.
+	 */
+	void printReport(FileEntity file, double confidence) {
+		file.format("Replications\t%d%n", numReplications);
+		file.format("ConfidenceLevel\t%s%n", confidence);
+		file.format("Name\tOutput\tMean\tHalfWidth%n");
+
+		String lastName = null;
+		for (OutputStatistic stat : stats.values()) {
+			String name = stat.label.substring(0, stat.label.indexOf('\t'));
+			if (!name.equals(lastName)) {
+				file.format("%n");
+				lastName = name;
+			}
+			file.format("%s\t%s\t%s%n", stat.label, stat.mean, stat.getHalfWidth(confidence));
+		}
+		file.close();
+	}
+}
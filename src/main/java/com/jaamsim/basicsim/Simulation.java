@@ -15,13 +15,14 @@
 package com.jaamsim.basicsim;
 
 import java.io.File;
-
-import javax.swing.JFrame;
+import java.util.ArrayList;
 
 import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventQueueType;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.DirInput;
 import com.jaamsim.input.EntityListInput;
+import com.jaamsim.input.EnumInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.IntegerInput;
@@ -29,14 +30,10 @@ import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.math.Vec3d;
-import com.jaamsim.ui.EditBox;
-import com.jaamsim.ui.EntityPallet;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.ui.GUIFrame;
+import com.jaamsim.ui.GUIUpdates;
 import com.jaamsim.ui.LogBox;
-import com.jaamsim.ui.ObjectSelector;
-import com.jaamsim.ui.OutputBox;
-import com.jaamsim.ui.PropertyBox;
+import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.DistanceUnit;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
@@ -52,63 +49,83 @@ public class Simulation extends Entity {
 	// Key Inputs tab
 	@Keyword(description = "The duration of the simulation run in which all statistics will be recorded.",
 	         example = "Simulation Duration { 8760 h }")
-	private static final ValueInput runDuration;
+	private final ValueInput runDuration;
 
 	@Keyword(description = "The initialization interval for the simulation run. The model will run "
 			+ "for the InitializationDuration interval and then clear the statistics and execute for the "
 			+ "specified RunDuration interval. The total length of the simulation run will be the sum of "
 			+ "the InitializationDuration and RunDuration inputs.",
 	         example = "Simulation Initialization { 720 h }")
-	private static final ValueInput initializationTime;
+	private final ValueInput initializationTime;
 
 	@Keyword(description = "Indicates whether an output report will be printed at the end of the simulation run.",
 	         example = "Simulation PrintReport { TRUE }")
-	private static final BooleanInput printReport;
+	private final BooleanInput printReport;
 
 	@Keyword(description = "The directory in which to place the output report. Defaults to the "
 			+ "directory containing the configuration file for the run.",
 			example = "Simulation ReportDirectory { 'c:\reports\' }")
-	private static final DirInput reportDirectory;
+	private final DirInput reportDirectory;
 
 	@Keyword(description = "The length of time represented by one simulation tick.",
 	         example = "Simulation TickLength { 1e-6 s }")
-	private static final ValueInput tickLengthInput;
+	private final ValueInput tickLengthInput;
 
 	@Keyword(description = "Indicates whether to close the program on completion of the simulation run.",
 	         example = "Simulation ExitAtStop { TRUE }")
-	private static final BooleanInput exitAtStop;
+	private final BooleanInput exitAtStop;
 
 	@Keyword(description = "Global seed that sets the substream for each probability distribution. "
 			+ "Must be an integer >= 0. GlobalSubstreamSeed works together with each probability "
 			+ "distribution's RandomSeed keyword to determine its random sequence. It allows the "
 			+ "user to change all the random sequences in a model with a single input.",
 	         example = "Simulation GlobalSubstreamSeed { 5 }")
-	private static final IntegerInput globalSeedInput;
+	private final IntegerInput globalSeedInput;
+
+	@Keyword(description = "If TRUE, the event loop is handed directly to a waiting process when it "
+			+ "is resumed, and a process that starts waiting executes events itself until its own "
+			+ "wakeup. This reduces the number of thread switches for models with many waiting "
+			+ "processes.",
+	         example = "Simulation DirectProcessHandoff { TRUE }")
+	private final BooleanInput directHandoff;
+
+	@Keyword(description = "The data structure used to hold the future events. REDBLACK is a "
+			+ "balanced tree, CALENDAR is a calendar queue and LADDER is a ladder queue. The "
+			+ "queues can be faster for models with a very large number of pending events.",
+	         example = "Simulation EventQueue { LADDER }")
+	private final EnumInput<EventQueueType> eventQueue;
+
+	@Keyword(description = "The stack size in kilobytes requested for the threads that execute "
+			+ "processes. Each entity that is waiting holds one of these threads, so a smaller "
+			+ "stack allows a model to have many more waiting entities. A value of 0 uses the "
+			+ "default stack size for the Java virtual machine.",
+	         example = "Simulation ProcessStackSize { 256 }")
+	private final IntegerInput processStackSize;
 
 	// GUI tab
 	@Keyword(description = "An optional list of units to be used for displaying model outputs.",
 	         example = "Simulation DisplayedUnits { h kt }")
-	private static final EntityListInput<? extends Unit> displayedUnits;
+	private final EntityListInput<? extends Unit> displayedUnits;
 
 	@Keyword(description = "If TRUE, a dragged object will be positioned to the nearest grid point.",
 	         example = "Simulation SnapToGrid { TRUE }")
-	private static final BooleanInput snapToGrid;
+	private final BooleanInput snapToGrid;
 
 	@Keyword(description = "The distance between snap grid points.",
 	         example = "Simulation SnapGridSpacing { 1 m }")
-	private static final ValueInput snapGridSpacing;
+	private final ValueInput snapGridSpacing;
 
 	@Keyword(description = "The distance moved by the selected entity when the an arrow key is pressed.",
 	         example = "Simulation IncrementSize { 1 cm }")
-	private static final ValueInput incrementSize;
+	private final ValueInput incrementSize;
 
 	@Keyword(description = "A Boolean to turn on or off real time in the simulation run",
 	         example = "Simulation RealTime { TRUE }")
-	private static final BooleanInput realTime;
+	private final BooleanInput realTime;
 
 	@Keyword(description = "The real time speed up factor",
 	         example = "Simulation RealTimeFactor { 1200 }")
-	private static final IntegerInput realTimeFactor;
+	private final IntegerInput realTimeFactor;
 
 	public static final int DEFAULT_REAL_TIME_FACTOR = 1;
 	public static final int MIN_REAL_TIME_FACTOR = 1;
@@ -116,61 +133,61 @@ public class Simulation extends Entity {
 
 	@Keyword(description = "The time at which the simulation will be paused.",
 	         example = "Simulation PauseTime { 200 h }")
-	private static final ValueInput pauseTime;
+	private final ValueInput pauseTime;
 
 	@Keyword(description = "Indicates whether the Model Builder tool should be shown on startup.",
 	         example = "Simulation ShowModelBuilder { TRUE }")
-	private static final BooleanInput showModelBuilder;
+	private final BooleanInput showModelBuilder;
 
 	@Keyword(description = "Indicates whether the Object Selector tool should be shown on startup.",
 	         example = "Simulation ShowObjectSelector { TRUE }")
-	private static final BooleanInput showObjectSelector;
+	private final BooleanInput showObjectSelector;
 
 	@Keyword(description = "Indicates whether the Input Editor tool should be shown on startup.",
 	         example = "Simulation ShowInputEditor { TRUE }")
-	private static final BooleanInput showInputEditor;
+	private final BooleanInput showInputEditor;
 
 	@Keyword(description = "Indicates whether the Output Viewer tool should be shown on startup.",
 	         example = "Simulation ShowOutputViewer { TRUE }")
-	private static final BooleanInput showOutputViewer;
+	private final BooleanInput showOutputViewer;
 
 	@Keyword(description = "Indicates whether the Output Viewer tool should be shown on startup.",
 	         example = "Simulation ShowPropertyViewer { TRUE }")
-	private static final BooleanInput showPropertyViewer;
+	private final BooleanInput showPropertyViewer;
 
 	@Keyword(description = "Indicates whether the Log Viewer tool should be shown on startup.",
 	         example = "Simulation ShowLogViewer { TRUE }")
-	private static final BooleanInput showLogViewer;
+	private final BooleanInput showLogViewer;
 
 	@Keyword(description = "Time at which the simulation run is started (hh:mm).",
 	         example = "Simulation StartTime { 2160 h }")
-	private static final ValueInput startTimeInput;
+	private final ValueInput startTimeInput;
 
 	// Hidden keywords
 	@Keyword(description = "If the value is TRUE, then the input report file will be printed after "
 			+ "loading the configuration file.  The input report can always be generated when "
 			+ "needed by selecting \"Print Input Report\" under the File menu.",
 	         example = "Simulation PrintInputReport { TRUE }")
-	private static final BooleanInput printInputReport;
+	private final BooleanInput printInputReport;
 
 	@Keyword(description = "This is placeholder description text",
 	         example = "This is placeholder example text")
-	private static final BooleanInput traceEventsInput;
+	private final BooleanInput traceEventsInput;
 
 	@Keyword(description = "This is placeholder description text",
 	         example = "This is placeholder example text")
-	private static final BooleanInput verifyEventsInput;
+	private final BooleanInput verifyEventsInput;
 
-	private static double timeScale; // the scale from discrete to continuous time
-	private static double startTime; // simulation time (seconds) for the start of the run (not necessarily zero)
-	private static double endTime;   // simulation time (seconds) for the end of the run
+	@Keyword(description = "If TRUE, the event trace is written in the text format instead of the "
+			+ "binary format. A binary trace can be converted to text with EventTraceConverter.",
+	         example = "Simulation TraceEventsAsText { TRUE }")
+	private final BooleanInput traceEventsAsTextInput;
 
-	private static Simulation myInstance;
+	private BinaryEventRecorder binaryRecorder;  // binary event trace for the present run
 
 	private static String modelName = "JaamSim";
 
-	static {
-
+	{
 		// Key Inputs tab
 		runDuration = new ValueInput("RunDuration", "Key Inputs", 31536000.0d);
 		runDuration.setUnitType(TimeUnit.class);
@@ -193,6 +210,13 @@ public class Simulation extends Entity {
 		globalSeedInput = new IntegerInput("GlobalSubstreamSeed", "Key Inputs", 0);
 		globalSeedInput.setValidRange(0, Integer.MAX_VALUE);
 
+		directHandoff = new BooleanInput("DirectProcessHandoff", "Key Inputs", false);
+
+		eventQueue = new EnumInput<>(EventQueueType.class, "EventQueue", "Key Inputs", EventQueueType.REDBLACK);
+
+		processStackSize = new IntegerInput("ProcessStackSize", "Key Inputs", 0);
+		processStackSize.setValidRange(0, Integer.MAX_VALUE / 1024);
+
 		// GUI tab
 		displayedUnits = new EntityListInput<>(Unit.class, "DisplayedUnits", "GUI", null);
 		displayedUnits.setDefaultText("SI Units");
@@ -248,15 +272,10 @@ public class Simulation extends Entity {
 
 		traceEventsInput = new BooleanInput("TraceEvents", "Key Inputs", false);
 		verifyEventsInput = new BooleanInput("VerifyEvents", "Key Inputs", false);
+		traceEventsAsTextInput = new BooleanInput("TraceEventsAsText", "Key Inputs", false);
 
 		printInputReport = new BooleanInput("PrintInputReport", "Key Inputs", false);
 
-		// Initialize basic model information
-		startTime = 0.0;
-		endTime = 8760.0*3600.0;
-	}
-
-	{
 		// Key Inputs tab
 		this.addInput(runDuration);
 		this.addInput(initializationTime);
@@ -265,6 +284,9 @@ public class Simulation extends Entity {
 		this.addInput(tickLengthInput);
 		this.addInput(exitAtStop);
 		this.addInput(globalSeedInput);
+		this.addInput(directHandoff);
+		this.addInput(eventQueue);
+		this.addInput(processStackSize);
 
 		// GUI tab
 		this.addInput(displayedUnits);
@@ -285,27 +307,44 @@ public class Simulation extends Entity {
 		this.addInput(startTimeInput);
 		this.addInput(traceEventsInput);
 		this.addInput(verifyEventsInput);
+		this.addInput(traceEventsAsTextInput);
 		this.addInput(printInputReport);
 
 		// Hide various keywords
 		startTimeInput.setHidden(true);
 		traceEventsInput.setHidden(true);
 		verifyEventsInput.setHidden(true);
+		traceEventsAsTextInput.setHidden(true);
 		printInputReport.setHidden(true);
 	}
 
 	public Simulation() {}
 
+	/**
+	 * Stops tracing or verifying the events for the present run and closes the
+	 * binary trace file, which writes it to the disk and truncates it to the
+	 * last record. Recording and verification stop at the same point.
+	 */
+	static void endEventTrace(EventManager evt) {
+		evt.setTraceListener(null);
+		Simulation sim = getInstance();
+		if (sim.binaryRecorder != null) {
+			sim.binaryRecorder.close();
+			sim.binaryRecorder = null;
+		}
+	}
+
 	public static Simulation getInstance() {
-		if (myInstance == null) {
+		SimulationContext ctx = SimulationContext.current();
+		if (ctx.simulation == null) {
 			for (Entity ent : Entity.getAll()) {
 				if (ent instanceof Simulation ) {
-					myInstance = (Simulation) ent;
+					ctx.simulation = (Simulation) ent;
 					break;
 				}
 			}
 		}
-		return myInstance;
+		return ctx.simulation;
 	}
 
 	@Override
@@ -336,75 +375,43 @@ public class Simulation extends Entity {
 			return;
 		}
 
-		if (in == showModelBuilder) {
-			setWindowVisible(EntityPallet.getInstance(), showModelBuilder.getValue());
-			return;
-		}
-
-		if (in == showObjectSelector) {
-			setWindowVisible(ObjectSelector.getInstance(), showObjectSelector.getValue());
-			return;
-		}
-
-		if (in == showInputEditor) {
-			setWindowVisible(EditBox.getInstance(), showInputEditor.getValue());
-			FrameBox.reSelectEntity();
-			return;
-		}
-
-		if (in == showOutputViewer) {
-			setWindowVisible(OutputBox.getInstance(), showOutputViewer.getValue());
-			FrameBox.reSelectEntity();
-			return;
-		}
-
-		if (in == showPropertyViewer) {
-			setWindowVisible(PropertyBox.getInstance(), showPropertyViewer.getValue());
-			FrameBox.reSelectEntity();
+		if (in == showModelBuilder || in == showObjectSelector) {
+			setToolVisible((BooleanInput)in, ((BooleanInput)in).getValue());
 			return;
 		}
 
-		if (in == showLogViewer) {
-			setWindowVisible(LogBox.getInstance(), showLogViewer.getValue());
-			FrameBox.reSelectEntity();
+		if (in == showInputEditor || in == showOutputViewer ||
+		    in == showPropertyViewer || in == showLogViewer) {
+			setToolVisible((BooleanInput)in, ((BooleanInput)in).getValue());
+			GUIUpdates.reSelectEntity();
 			return;
 		}
 	}
 
 	public static void clear() {
-		initializationTime.reset();
-		runDuration.reset();
-		pauseTime.reset();
-		tickLengthInput.reset();
-		traceEventsInput.reset();
-		verifyEventsInput.reset();
-		printInputReport.reset();
-		realTimeFactor.reset();
-		realTime.reset();
-		updateRealTime();
-		exitAtStop.reset();
-
-		startTimeInput.reset();
-
-		showModelBuilder.reset();
-		showObjectSelector.reset();
-		showInputEditor.reset();
-		showOutputViewer.reset();
-		showPropertyViewer.reset();
-		showLogViewer.reset();
+		SimulationContext ctx = SimulationContext.current();
+		Simulation sim = getInstance();
+		if (sim != null) {
+			sim.realTimeFactor.reset();
+			sim.realTime.reset();
+			sim.updateRealTime();
+		}
 
 		// Initialize basic model information
-		startTime = 0.0;
-		endTime = 8760.0*3600.0;
-		myInstance = null;
+		ctx.resetRunTimes();
+		ctx.simulation = null;
 
 		// close warning/error trace file
 		InputAgent.closeLogFile();
 
 		// Kill all entities except simulation
 		while(Entity.getAll().size() > 0) {
-			Entity ent = Entity.getAll().get(Entity.getAll().size()-1);
-			ent.kill();
+			ArrayList<? extends Entity> ents = Entity.getAll();
+			for (int i = ents.size() - 1; i >= 0; i--) {
+				Entity ent = ents.get(i);
+				if (!ent.testFlag(Entity.FLAG_DEAD))
+					ent.kill();
+			}
 		}
 	}
 
@@ -415,12 +422,24 @@ public class Simulation extends Entity {
 	 *		3) start EventManager processing events
 	 */
 	public static void start(EventManager evt) {
+		SimulationContext ctx = SimulationContext.current();
+		Simulation sim = getInstance();
+		ctx.startRun();
+
 		// Validate each entity based on inputs only
 		for (int i = 0; i < Entity.getAll().size(); i++) {
 			try {
 				Entity.getAll().get(i).validate();
 			}
 			catch (Throwable e) {
+				// There is no user to correct the inputs when running headless
+				if (InputAgent.isHeadless()) {
+					InputAgent.logMessage("%s: Validation error- %s", Entity.getAll().get(i).getName(), e.getMessage());
+					InputAgent.closeLogFile();
+					ctx.failRun(e);
+					return;
+				}
+
 				LogBox.format("%s: Validation error- %s", Entity.getAll().get(i).getName(), e.getMessage());
 				GUIFrame.showErrorDialog("Input Error Detected During Validation",
 				                         "%s: %-70s",
@@ -432,53 +451,73 @@ public class Simulation extends Entity {
 		}
 
 		InputAgent.prepareReportDirectory();
-		evt.clear();
+		ctx.setEventManager(evt);
+		evt.setEventQueue(sim.eventQueue.getValue());
 		evt.setTraceListener(null);
+		if (sim.binaryRecorder != null) {
+			sim.binaryRecorder.close();
+			sim.binaryRecorder = null;
+		}
 
 		if( Simulation.traceEvents() ) {
 			String evtName = InputAgent.getConfigFile().getParentFile() + File.separator + InputAgent.getRunName() + ".evt";
-			EventRecorder rec = new EventRecorder(evtName);
-			evt.setTraceListener(rec);
+			if (sim.traceEventsAsTextInput.getValue()) {
+				EventRecorder rec = new EventRecorder(evtName);
+				evt.setTraceListener(rec);
+			}
+			else {
+				sim.binaryRecorder = new BinaryEventRecorder(evtName);
+				evt.setTraceListener(sim.binaryRecorder);
+			}
 		}
 		else if( Simulation.verifyEvents() ) {
 			String evtName = InputAgent.getConfigFile().getParentFile() + File.separator + InputAgent.getRunName() + ".evt";
-			EventTracer trc = new EventTracer(evtName);
-			evt.setTraceListener(trc);
+			if (EventTraceFile.isBinary(new File(evtName))) {
+				BinaryEventTracer trc = new BinaryEventTracer(evtName);
+				evt.setTraceListener(trc);
+			}
+			else {
+				EventTracer trc = new EventTracer(evtName);
+				evt.setTraceListener(trc);
+			}
 		}
 
-		evt.setTickLength(tickLengthInput.getValue());
-		setSimTimeScale(evt.secondsToNearestTick(3600.0d));
-		FrameBox.setSecondsPerTick(tickLengthInput.getValue());
+		evt.setTickLength(sim.tickLengthInput.getValue());
+		evt.setDirectHandoff(sim.directHandoff.getValue());
+		EventManager.setProcessStackSize(sim.processStackSize.getValue() * 1024L);
+		ctx.timeScale = evt.secondsToNearestTick(3600.0d);
+		ctx.secondsPerTick = sim.tickLengthInput.getValue();
+		GUIUpdates.setSecondsPerTick(sim.tickLengthInput.getValue());
 
-		startTime = startTimeInput.getValue();
-		endTime = startTime + Simulation.getInitializationTime() + Simulation.getRunDuration();
+		ctx.startTime = sim.startTimeInput.getValue();
+		ctx.endTime = ctx.startTime + Simulation.getInitializationTime() + Simulation.getRunDuration();
 
 		evt.scheduleProcessExternal(0, 0, false, new InitModelTarget(), null);
 		evt.resume(evt.secondsToNearestTick(Simulation.getPauseTime()));
 	}
 
 	public static int getSubstreamNumber() {
-		return globalSeedInput.getValue();
+		// Distributions can be initialised without a Simulation in unit tests
+		Simulation sim = getInstance();
+		if (sim == null)
+			return 0;
+		return sim.globalSeedInput.getValue();
 	}
 
 	public static boolean getPrintReport() {
-		return printReport.getValue();
+		return getInstance().printReport.getValue();
 	}
 
 	public static boolean traceEvents() {
-		return traceEventsInput.getValue();
+		return getInstance().traceEventsInput.getValue();
 	}
 
 	public static boolean verifyEvents() {
-		return verifyEventsInput.getValue();
-	}
-
-	static void setSimTimeScale(double scale) {
-		timeScale = scale;
+		return getInstance().verifyEventsInput.getValue();
 	}
 
 	public static double getSimTimeFactor() {
-		return timeScale;
+		return SimulationContext.current().timeScale;
 	}
 
 	public static double getEventTolerance() {
@@ -486,11 +525,25 @@ public class Simulation extends Entity {
 	}
 
 	public static double getTickLength() {
-		return tickLengthInput.getValue();
+		return getInstance().tickLengthInput.getValue();
+	}
+
+	/**
+	 * Return the number of seconds represented by the given number of ticks.
+	 */
+	public static final double ticksToSeconds(long ticks) {
+		return ticks * SimulationContext.current().secondsPerTick;
+	}
+
+	/**
+	 * Return the number of ticks represented by the given number of seconds.
+	 */
+	public static final long secondsToTicks(double seconds) {
+		return Math.round(seconds / SimulationContext.current().secondsPerTick);
 	}
 
 	public static double getPauseTime() {
-		return pauseTime.getValue();
+		return getInstance().pauseTime.getValue();
 	}
 
 	/**
@@ -498,7 +551,7 @@ public class Simulation extends Entity {
 	 * @return - simulation time in seconds for the start of the run.
 	 */
 	public static double getStartTime() {
-		return startTime;
+		return SimulationContext.current().startTime;
 	}
 
 	/**
@@ -506,29 +559,29 @@ public class Simulation extends Entity {
 	 * @return - simulation time in seconds when the current run will stop.
 	 */
 	public static double getEndTime() {
-		return endTime;
+		return SimulationContext.current().endTime;
 	}
 
 	/**
 	 * Returns the duration of the run (not including intialization)
 	 */
 	public static double getRunDuration() {
-		return runDuration.getValue();
+		return getInstance().runDuration.getValue();
 	}
 
 	/**
 	 * Returns the duration of the initialization period
 	 */
 	public static double getInitializationTime() {
-		return initializationTime.getValue();
+		return getInstance().initializationTime.getValue();
 	}
 
 	public static double getIncrementSize() {
-		return incrementSize.getValue();
+		return getInstance().incrementSize.getValue();
 	}
 
 	public static boolean isSnapToGrid() {
-		return snapToGrid.getValue();
+		return getInstance().snapToGrid.getValue();
 	}
 
 	/**
@@ -540,7 +593,7 @@ public class Simulation extends Entity {
 	 * @return newest snap grid point.
 	 */
 	public static Vec3d getSnapGridPosition(Vec3d newPos, Vec3d oldPos) {
-		double spacing = snapGridSpacing.getValue();
+		double spacing = getInstance().snapGridSpacing.getValue();
 		Vec3d ret = new Vec3d(newPos);
 		if (Math.abs(newPos.x - oldPos.x) < spacing)
 			ret.x = oldPos.x;
@@ -557,7 +610,7 @@ public class Simulation extends Entity {
 	 * @return nearest snap grid point.
 	 */
 	public static Vec3d getSnapGridPosition(Vec3d pos) {
-		double spacing = snapGridSpacing.getValue();
+		double spacing = getInstance().snapGridSpacing.getValue();
 		Vec3d ret = new Vec3d(pos);
 		ret.x = spacing*Math.rint(ret.x/spacing);
 		ret.y = spacing*Math.rint(ret.y/spacing);
@@ -565,11 +618,15 @@ public class Simulation extends Entity {
 		return ret;
 	}
 
-	static void updateRealTime() {
+	void updateRealTime() {
+		if (InputAgent.isHeadless())
+			return;
 		GUIFrame.instance().updateForRealTime(realTime.getValue(), realTimeFactor.getValue());
 	}
 
-	static void updatePauseTime() {
+	void updatePauseTime() {
+		if (InputAgent.isHeadless())
+			return;
 		GUIFrame.instance().updateForPauseTime(pauseTime.getValueString());
 	}
 
@@ -582,41 +639,48 @@ public class Simulation extends Entity {
 	}
 
 	public static boolean getExitAtStop() {
-		return exitAtStop.getValue();
+		return getInstance().exitAtStop.getValue();
 	}
 
 	public static boolean getPrintInputReport() {
-		return printInputReport.getValue();
+		return getInstance().printInputReport.getValue();
 	}
 
-	public static void setWindowVisible(JFrame f, boolean visible) {
-		f.setVisible(visible);
-		if (visible)
-			f.toFront();
+	/**
+	 * Shows or hides the Tools window controlled by the given input. The
+	 * windows are managed by GUIFrame so that this class can be loaded
+	 * without loading any of the Swing tool windows.
+	 */
+	private static void setToolVisible(BooleanInput in, boolean visible) {
+		if (InputAgent.isHeadless())
+			return;
+		GUIFrame.setToolVisible(in.getKeyword(), visible);
 	}
 
 	/**
 	 * Re-open any Tools windows that have been closed temporarily.
 	 */
 	public static void showActiveTools() {
-		setWindowVisible(EntityPallet.getInstance(), showModelBuilder.getValue());
-		setWindowVisible(ObjectSelector.getInstance(), showObjectSelector.getValue());
-		setWindowVisible(EditBox.getInstance(), showInputEditor.getValue());
-		setWindowVisible(OutputBox.getInstance(), showOutputViewer.getValue());
-		setWindowVisible(PropertyBox.getInstance(), showPropertyViewer.getValue());
-		setWindowVisible(LogBox.getInstance(), showLogViewer.getValue());
+		Simulation sim = getInstance();
+		setToolVisible(sim.showModelBuilder, sim.showModelBuilder.getValue());
+		setToolVisible(sim.showObjectSelector, sim.showObjectSelector.getValue());
+		setToolVisible(sim.showInputEditor, sim.showInputEditor.getValue());
+		setToolVisible(sim.showOutputViewer, sim.showOutputViewer.getValue());
+		setToolVisible(sim.showPropertyViewer, sim.showPropertyViewer.getValue());
+		setToolVisible(sim.showLogViewer, sim.showLogViewer.getValue());
 	}
 
 	/**
 	 * Closes all the Tools windows temporarily.
 	 */
 	public static void closeAllTools() {
-		setWindowVisible(EntityPallet.getInstance(), false);
-		setWindowVisible(ObjectSelector.getInstance(), false);
-		setWindowVisible(EditBox.getInstance(), false);
-		setWindowVisible(OutputBox.getInstance(), false);
-		setWindowVisible(PropertyBox.getInstance(), false);
-		setWindowVisible(LogBox.getInstance(), false);
+		Simulation sim = getInstance();
+		setToolVisible(sim.showModelBuilder, false);
+		setToolVisible(sim.showObjectSelector, false);
+		setToolVisible(sim.showInputEditor, false);
+		setToolVisible(sim.showOutputViewer, false);
+		setToolVisible(sim.showPropertyViewer, false);
+		setToolVisible(sim.showLogViewer, false);
 	}
 
 	@Output(name = "Configuration File",
@@ -624,4 +688,25 @@ public class Simulation extends Entity {
 	public String getConfigFileName(double simTime) {
 		return InputAgent.getConfigFile().getPath();
 	}
+
+	@Output(name = "ConditionEvaluations",
+	 description = "The number of times a waiting condition has been evaluated during the present run.",
+	    unitType = DimensionlessUnit.class)
+	public long getConditionEvaluations(double simTime) {
+		EventManager evt = getContext().getEventManager();
+		if (evt == null)
+			return 0;
+		return evt.getConditionEvaluations();
+	}
+
+	@Output(name = "ConditionEvaluationsSaved",
+	 description = "The number of condition evaluations that were skipped because none of the "
+	             + "objects in the condition's WatchList had changed state.",
+	    unitType = DimensionlessUnit.class)
+	public long getConditionEvaluationsSaved(double simTime) {
+		EventManager evt = getContext().getEventManager();
+		if (evt == null)
+			return 0;
+		return evt.getConditionEvaluationsSaved();
+	}
 }
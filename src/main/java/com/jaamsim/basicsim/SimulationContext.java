@@ -0,0 +1,176 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.jaamsim.events.EventManager;
+
+/**
+ * Owns the model state for one simulation run: the registries of entities and
+ * object types, the Simulation entity and the time scale of the run, plus any
+ * per-run state stored by other classes through getState/setState.
+ * <p>
+ * A normal run uses the default context. Several replications of one model
+ * can be executed concurrently by giving each one its own context and
+ * EventManager. Code running in a Process finds the context attached to its
+ * EventManager, other threads use the context set by setCurrent, and all
+ * remaining code uses the default context.
+ */
+public final class SimulationContext {
+	private static final SimulationContext defaultContext = new SimulationContext("Default");
+	private static final ThreadLocal<SimulationContext> threadContext = new ThreadLocal<>();
+
+	private final String name;
+
+	final EntityRegistry entities = new EntityRegistry();
+	final ArrayList<ObjectType> objectTypes = new ArrayList<>();
+	final HashMap<Class<? extends Entity>, ObjectType> objectTypeMap = new HashMap<>();
+
+	Simulation simulation;
+	double timeScale; // the scale from discrete to continuous time
+	volatile double secondsPerTick; // the tick length used by the present run
+	double startTime; // simulation time (seconds) for the start of the run (not necessarily zero)
+	double endTime;   // simulation time (seconds) for the end of the run
+
+	private final HashMap<Class<?>, Object> stateMap = new HashMap<>();
+	private EventManager evt;
+	private boolean runEnded;
+	private Throwable runError; // the error that stopped the run, or null
+
+	public SimulationContext(String name) {
+		this.name = name;
+		this.resetRunTimes();
+	}
+
+	/**
+	 * Returns the context used by the user interface and by any code that has
+	 * not been associated with another context.
+	 */
+	public static SimulationContext getDefault() {
+		return defaultContext;
+	}
+
+	/**
+	 * Returns the context for the code running in the present thread.
+	 */
+	public static SimulationContext current() {
+		if (EventManager.hasCurrent()) {
+			Object ctx = EventManager.current().getContext();
+			if (ctx != null)
+				return (SimulationContext)ctx;
+		}
+
+		SimulationContext ctx = threadContext.get();
+		if (ctx != null)
+			return ctx;
+
+		return defaultContext;
+	}
+
+	/**
+	 * Associates the present thread with the given context. Used while a
+	 * configuration file is loaded into a context outside of its Processes.
+	 * @param ctx - the context, or null to revert to the default context
+	 */
+	public static void setCurrent(SimulationContext ctx) {
+		if (ctx == null)
+			threadContext.remove();
+		else
+			threadContext.set(ctx);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isDefault() {
+		return this == defaultContext;
+	}
+
+	/**
+	 * Sets the EventManager that executes the runs for this context and
+	 * attaches the context to it.
+	 */
+	public void setEventManager(EventManager e) {
+		evt = e;
+		evt.setContext(this);
+	}
+
+	public EventManager getEventManager() {
+		return evt;
+	}
+
+	/**
+	 * Returns the state stored for the given class, or null if none.
+	 */
+	public synchronized Object getState(Class<?> owner) {
+		return stateMap.get(owner);
+	}
+
+	public synchronized void setState(Class<?> owner, Object state) {
+		stateMap.put(owner, state);
+	}
+
+	final void resetRunTimes() {
+		startTime = 0.0;
+		endTime = 8760.0*3600.0;
+	}
+
+	/**
+	 * Marks the start of a new run for this context.
+	 */
+	synchronized void startRun() {
+		runEnded = false;
+		runError = null;
+	}
+
+	/**
+	 * Records that the run for this context has reached its end time.
+	 */
+	synchronized void endRun() {
+		runEnded = true;
+		this.notifyAll();
+	}
+
+	/**
+	 * Ends the run for this context because of the given error.
+	 */
+	public synchronized void failRun(Throwable t) {
+		runError = t;
+		this.endRun();
+	}
+
+	/**
+	 * Returns the error that stopped the run, or null if the run completed.
+	 */
+	public synchronized Throwable getRunError() {
+		return runError;
+	}
+
+	/**
+	 * Blocks until the run for this context has reached its end time.
+	 */
+	public synchronized void awaitEnd() throws InterruptedException {
+		while (!runEnded)
+			this.wait();
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
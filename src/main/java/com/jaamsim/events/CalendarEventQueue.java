@@ -0,0 +1,353 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.events;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * CalendarEventQueue is a calendar queue (R. Brown, 1988) holding the future
+ * events. Nodes are hashed by time into an array of 'days', each day holding a
+ * sorted list of nodes linked through EventNode.right. The number of days and
+ * their width are recalculated as the number of nodes grows and shrinks, giving
+ * O(1) average cost to insert and remove the next node. The last node of each day
+ * is also held so that nodes scheduled in increasing order are appended directly.
+ */
+class CalendarEventQueue implements EventTree {
+	private static final int MIN_BUCKETS = 16;
+	private static final int SAMPLE_SIZE = 25;
+
+	private EventNode[] buckets;
+	private EventNode[] tails;
+	private int mask;
+	private long width;   // the number of ticks covered by each day
+	private long curDay;  // the day to start searching from, no node is earlier
+	private int count;
+	private EventNode lowest;
+
+	CalendarEventQueue() {
+		reset();
+	}
+
+	@Override
+	public final EventNode getNextNode() {
+		if (lowest == null) updateLowest();
+		return lowest;
+	}
+
+	@Override
+	public final void reset() {
+		buckets = new EventNode[MIN_BUCKETS];
+		tails = new EventNode[MIN_BUCKETS];
+		mask = MIN_BUCKETS - 1;
+		width = 1;
+		curDay = 0;
+		count = 0;
+		lowest = null;
+		clearFreeList();
+	}
+
+	private long dayOf(long tick) {
+		// floor division, ticks may be negative
+		long day = tick / width;
+		if (tick % width < 0)
+			day--;
+		return day;
+	}
+
+	private void updateLowest() {
+		if (count == 0) {
+			lowest = null;
+			return;
+		}
+
+		// Check each day of the coming year in turn, the head of a day's list is
+		// the next node if it falls in this year
+		for (int i = 0; i < buckets.length; i++) {
+			long day = curDay + i;
+			EventNode head = buckets[(int)(day & mask)];
+			if (head != null && dayOf(head.schedTick) == day) {
+				curDay = day;
+				lowest = head;
+				return;
+			}
+		}
+
+		// Nothing in the coming year, search all the days directly
+		EventNode min = null;
+		for (EventNode head : buckets) {
+			if (head == null)
+				continue;
+			if (min == null || head.compareToNode(min) < 0)
+				min = head;
+		}
+		curDay = dayOf(min.schedTick);
+		lowest = min;
+	}
+
+	@Override
+	public final EventNode createOrFindNode(long schedTick, int priority) {
+		long day = dayOf(schedTick);
+		int idx = (int)(day & mask);
+
+		// Check the last node first, nodes are commonly created in order
+		EventNode prev = null;
+		EventNode n = buckets[idx];
+		EventNode tail = tails[idx];
+		if (tail != null) {
+			int comp = tail.compare(schedTick, priority);
+			if (comp == 0)
+				return tail;
+			if (comp < 0) {
+				prev = tail;
+				n = null;
+			}
+		}
+
+		while (n != null) {
+			int comp = n.compare(schedTick, priority);
+			if (comp == 0)
+				return n; // Found existing node
+			if (comp > 0)
+				break;
+			prev = n;
+			n = n.right;
+		}
+
+		// There is no current node for this time/priority
+		EventNode newNode = getNewNode(schedTick, priority);
+		newNode.right = n;
+		if (prev == null)
+			buckets[idx] = newNode;
+		else
+			prev.right = newNode;
+		if (n == null)
+			tails[idx] = newNode;
+
+		if (count == 0 || day < curDay)
+			curDay = day;
+		count++;
+
+		if (lowest != null && newNode.compareToNode(lowest) < 0)
+			lowest = newNode;
+
+		if (count > 2 * buckets.length)
+			resize(2 * buckets.length);
+
+		return newNode;
+	}
+
+	@Override
+	public final boolean removeNode(long schedTick, int priority) {
+		int idx = (int)(dayOf(schedTick) & mask);
+
+		EventNode prev = null;
+		EventNode n = buckets[idx];
+		while (true) {
+			if (n == null)
+				return false; // Node not found
+			if (n.compare(schedTick, priority) == 0)
+				break;
+			prev = n;
+			n = n.right;
+		}
+
+		// Debugging
+		if (n.head != null || n.tail != null)
+			throw new RuntimeException("Removing non-empy node");
+
+		if (prev == null)
+			buckets[idx] = n.right;
+		else
+			prev.right = n.right;
+		if (n.right == null)
+			tails[idx] = prev;
+
+		count--;
+		if (n == lowest)
+			lowest = null;
+
+		reuseNode(n);
+
+		if (count < buckets.length / 2 && buckets.length > MIN_BUCKETS)
+			resize(buckets.length / 2);
+
+		return true;
+	}
+
+	/**
+	 * Rebuild the calendar with the given number of days, choosing a new day
+	 * width from the spacing of the earliest nodes.
+	 */
+	private void resize(int newSize) {
+		EventNode[] nodes = new EventNode[count];
+		int pos = 0;
+		for (EventNode head : buckets) {
+			for (EventNode n = head; n != null; n = n.right)
+				nodes[pos++] = n;
+		}
+		Arrays.sort(nodes, nodeOrder);
+
+		width = calcWidth(nodes);
+		buckets = new EventNode[newSize];
+		tails = new EventNode[newSize];
+		mask = newSize - 1;
+
+		// Insert in reverse order at the head of each day to keep the lists sorted
+		for (int i = nodes.length - 1; i >= 0; i--) {
+			int idx = (int)(dayOf(nodes[i].schedTick) & mask);
+			if (buckets[idx] == null)
+				tails[idx] = nodes[i];
+			nodes[i].right = buckets[idx];
+			buckets[idx] = nodes[i];
+		}
+
+		if (nodes.length > 0)
+			curDay = dayOf(nodes[0].schedTick);
+		lowest = null;
+	}
+
+	/**
+	 * Returns three times the average separation between the distinct times of
+	 * the earliest nodes, ignoring separations more than twice the average.
+	 */
+	private long calcWidth(EventNode[] nodes) {
+		int num = Math.min(nodes.length, SAMPLE_SIZE);
+		double total = 0.0d;
+		int gaps = 0;
+		for (int i = 1; i < num; i++) {
+			if (nodes[i].schedTick == nodes[i - 1].schedTick)
+				continue;
+			total += (double)nodes[i].schedTick - nodes[i - 1].schedTick;
+			gaps++;
+		}
+		if (gaps == 0)
+			return width;
+
+		double avg = total / gaps;
+		total = 0.0d;
+		gaps = 0;
+		for (int i = 1; i < num; i++) {
+			double sep = (double)nodes[i].schedTick - nodes[i - 1].schedTick;
+			if (sep == 0.0d || sep > 2.0d * avg)
+				continue;
+			total += sep;
+			gaps++;
+		}
+		if (gaps == 0)
+			return width;
+
+		double ret = 3.0d * total / gaps;
+		if (ret < 1.0d)
+			return 1;
+		if (ret > Long.MAX_VALUE / 4)
+			return Long.MAX_VALUE / 4;
+		return (long)ret;
+	}
+
+	private static final Comparator<EventNode> nodeOrder = new Comparator<EventNode>() {
+		@Override
+		public int compare(EventNode a, EventNode b) {
+			return a.compareToNode(b);
+		}
+	};
+
+	@Override
+	public final EventNode find(long schedTick, int priority) {
+		EventNode n = buckets[(int)(dayOf(schedTick) & mask)];
+		while (n != null) {
+			int comp = n.compare(schedTick, priority);
+			if (comp == 0)
+				return n;
+			if (comp > 0)
+				return null;
+			n = n.right;
+		}
+		return null;
+	}
+
+	@Override
+	public final void runOnAllNodes(EventNode.Runner runner) {
+		for (EventNode head : buckets) {
+			for (EventNode n = head; n != null; n = n.right)
+				runner.runOnNode(n);
+		}
+	}
+
+	// Verify the sorting structure and return the number of nodes
+	@Override
+	public final int verify() {
+		int num = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			EventNode prev = null;
+			for (EventNode n = buckets[i]; n != null; n = n.right) {
+				long day = dayOf(n.schedTick);
+				if ((int)(day & mask) != i)
+					throw new RuntimeException("Calendar queue node in the wrong day");
+				if (day < curDay)
+					throw new RuntimeException("Calendar queue node earlier than the current day");
+				if (prev != null && prev.compareToNode(n) != -1)
+					throw new RuntimeException("Calendar queue order verify failed");
+				prev = n;
+				num++;
+			}
+			if (tails[i] != prev)
+				throw new RuntimeException("Calendar queue tail verify failed");
+		}
+		if (num != count)
+			throw new RuntimeException("Calendar queue count verify failed");
+		return num;
+	}
+
+	@Override
+	public final int verifyNodeCount() {
+		return count;
+	}
+
+	private EventNode freeList = null;
+
+	private EventNode getNewNode(long schedTick, int priority) {
+		if (freeList == null) {
+			EventNode ret = new EventNode(schedTick, priority);
+			ret.left = null;
+			ret.right = null;
+			return ret;
+		}
+
+		EventNode ret = freeList;
+		freeList = freeList.right;
+
+		ret.schedTick = schedTick;
+		ret.priority = priority;
+		ret.head = null;
+		ret.tail = null;
+		ret.right = null;
+
+		return ret;
+	}
+
+	private void reuseNode(EventNode node) {
+		// Clear the node
+		node.head = null;
+		node.tail = null;
+
+		node.right = freeList;
+		freeList = node;
+	}
+
+	private void clearFreeList() {
+		freeList = null;
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.events;
+
+import java.util.ArrayList;
+
+/**
+ * A source of changes that conditional events can depend on. Calling changed()
+ * marks every waiting Conditional that declared this notifier as one of its
+ * dependencies for re-evaluation before the next advance of simulation time.
+ */
+public final class ChangeNotifier {
+	private final ArrayList<ConditionalEvent> watchers = new ArrayList<>();
+
+	public ChangeNotifier() {}
+
+	/**
+	 * Signals that a value read by the dependent conditions may have changed.
+	 */
+	public final void changed() {
+		for (int i = 0; i < watchers.size(); i++) {
+			watchers.get(i).dirty = true;
+		}
+	}
+
+	/**
+	 * Returns true if any waiting conditional event depends on this notifier.
+	 */
+	public final boolean isWatched() {
+		return !watchers.isEmpty();
+	}
+
+	final void addWatcher(ConditionalEvent evt) {
+		watchers.add(evt);
+	}
+
+	final void removeWatcher(ConditionalEvent evt) {
+		watchers.remove(evt);
+	}
+}
@@ -16,4 +16,14 @@ package com.jaamsim.events;
 
 public abstract class Conditional {
 	public abstract boolean evaluate();
+
+	/**
+	 * Returns the notifiers for every value read by evaluate(). A conditional
+	 * that declares its dependencies is only re-evaluated after one of them has
+	 * signalled a change. The default of null means the dependencies are unknown
+	 * and the condition is tested before every advance of simulation time.
+	 */
+	public ChangeNotifier[] getDependencies() {
+		return null;
+	}
 }
@@ -16,10 +16,28 @@ package com.jaamsim.events;
 
 final class ConditionalEvent extends BaseEvent {
 	Conditional c;
+	final ChangeNotifier[] deps; // null if the condition must always be evaluated
+	boolean dirty; // TRUE if a dependency has changed since the last evaluation
 
 	ConditionalEvent(Conditional c, ProcessTarget t, EventHandle hand) {
 		this.target = t;
 		this.handle = hand;
 		this.c = c;
+		this.deps = c.getDependencies();
+		this.dirty = true;
+	}
+
+	final void watch() {
+		if (deps == null)
+			return;
+		for (ChangeNotifier each : deps)
+			each.addWatcher(this);
+	}
+
+	final void unwatch() {
+		if (deps == null)
+			return;
+		for (ChangeNotifier each : deps)
+			each.removeWatcher(this);
 	}
 }
@@ -39,12 +39,15 @@ public final class EventManager {
 
 	private final Object lockObject; // Object used as global lock for synchronization
 
-	private final EventTree eventTree;
+	private EventTree eventTree;
 
 	private volatile boolean executeEvents;
 	private boolean processRunning;
+	private boolean directHandoff; // TRUE if blocked Processes run the event loop themselves
 
 	private final ArrayList<ConditionalEvent> condEvents;
+	private long condEvaluations; // number of times a Conditional was evaluated
+	private long condEvaluationsSaved; // number of evaluations skipped as no dependency had changed
 
 	private long currentTick; // Master simulation time (long)
 	private long nextTick; // The next tick to execute events at
@@ -65,6 +68,8 @@ public final class EventManager {
 	private EventErrorListener errListener;
 	private EventTraceListener trcListener;
 
+	private volatile Object context; // model state owned by the run driven by this EventManager
+
 	/**
 	 * Allocates a new EventManager with the given parent and name
 	 *
@@ -82,11 +87,12 @@ public final class EventManager {
 
 		setTickLength(1e-6d);
 
-		eventTree = new EventTree();
+		eventTree = EventQueueType.REDBLACK.newEventTree();
 		condEvents = new ArrayList<>();
 
 		executeEvents = false;
 		processRunning = false;
+		directHandoff = false;
 		executeRealTime = false;
 		realTimeFactor = 1;
 		rebaseRealTime = true;
@@ -114,12 +120,90 @@ public final class EventManager {
 		}
 	}
 
+	/**
+	 * Attaches the model state for the run driven by this EventManager so that
+	 * code executing in its Processes can find the registries of that run.
+	 * The EventManager does not interpret the object in any way.
+	 * @param ctx the model state, or null for none
+	 */
+	public final void setContext(Object ctx) {
+		context = ctx;
+	}
+
+	public final Object getContext() {
+		return context;
+	}
+
+	/**
+	 * Returns the number of times a Conditional has been evaluated since the
+	 * last call to clear().
+	 */
+	public final long getConditionEvaluations() {
+		synchronized (lockObject) {
+			return condEvaluations;
+		}
+	}
+
+	/**
+	 * Returns the number of Conditional evaluations that were skipped because
+	 * none of the condition's declared dependencies had changed.
+	 */
+	public final long getConditionEvaluationsSaved() {
+		synchronized (lockObject) {
+			return condEvaluationsSaved;
+		}
+	}
+
 	public final void setTraceListener(EventTraceListener l) {
 		synchronized (lockObject) {
 			trcListener = l;
 		}
 	}
 
+	/**
+	 * Selects how control is passed between Processes when a waiting Process is
+	 * resumed. By default the thread running the event loop wakes the waiting
+	 * Process and sleeps until that Process blocks again, costing two thread
+	 * switches per resume. With direct handoff the event loop is handed to the
+	 * resumed Process, and a blocking Process keeps running the event loop until
+	 * it reaches its own wakeup, so a resume costs at most one thread switch and
+	 * none when no other Process needs to run in between.
+	 * <p>
+	 * Plain ProcessTargets are executed inline in both modes. This should only
+	 * be changed while the EventManager is not running.
+	 * @param enable true to hand the event loop directly between Processes
+	 */
+	public final void setDirectHandoff(boolean enable) {
+		synchronized (lockObject) {
+			directHandoff = enable;
+		}
+	}
+
+	/**
+	 * Sets the stack size requested for the threads backing new Processes.
+	 * Every entity waiting in a simWait or waitUntil holds one of these threads,
+	 * so a smaller stack allows many more simultaneously waiting processes.
+	 * @param bytes the stack size in bytes, or 0 to use the JVM default
+	 */
+	public static final void setProcessStackSize(long bytes) {
+		if (bytes < 0)
+			throw new ProcessError("Negative process stack size is invalid, bytes = " + bytes);
+
+		Process.setStackSize(bytes);
+	}
+
+	/**
+	 * Selects the data structure used to hold the future events, any events
+	 * already scheduled are killed as for clear().
+	 * @param type the future event set implementation to use
+	 */
+	public final void setEventQueue(EventQueueType type) {
+		synchronized (lockObject) {
+			clear();
+			eventTree = type.newEventTree();
+		}
+	}
+
 	public void clear() {
 		synchronized (lockObject) {
 			currentTick = 0;
@@ -134,11 +218,14 @@ public final class EventManager {
 
 			for (int i = 0; i < condEvents.size(); i++) {
 				condEvents.get(i).target.kill();
+				condEvents.get(i).unwatch();
 				if (condEvents.get(i).handle != null) {
 					condEvents.get(i).handle.event = null;
 				}
 			}
 			condEvents.clear();
+			condEvaluations = 0;
+			condEvaluationsSaved = 0;
 		}
 	}
 
@@ -163,6 +250,13 @@ public final class EventManager {
 			// If the event has a captured process, pass control to it
 			Process p = t.getProcess();
 			if (p != null) {
+				// Hand the event loop to the waiting process and return this
+				// thread to the pool
+				if (directHandoff) {
+					p.wake();
+					return false;
+				}
+
 				p.setNextProcess(cur);
 				p.wake();
 				threadWait(cur);
@@ -208,85 +302,118 @@ public final class EventManager {
 			// This occurs in the startProcess or interrupt case where we start
 			// a process with a target already assigned
 			if (t != null) {
-				executeTarget(cur, t);
-				return;
+				// A target handed off from a blocked process has nobody to return
+				// control to and continues the event loop once it completes
+				if (!executeTarget(cur, t))
+					return;
 			}
+			else {
+				if (processRunning)
+					return;
 
-			if (processRunning)
-				return;
+				processRunning = true;
+				timelistener.timeRunning(true);
+			}
 
-			processRunning = true;
-			timelistener.timeRunning(true);
+			runEvents(cur, false);
+		}
+	}
 
-			// Loop continuously
-			while (true) {
-				EventNode nextNode = eventTree.getNextNode();
-				if (nextNode == null ||
-				    currentTick >= targetTick) {
-					executeEvents = false;
-				}
+	/**
+	 * Executes events until there are no more events to execute before the
+	 * target time or the EventManager is paused.
+	 * <p>
+	 * When nested is true, the loop is being run by a Process that is blocked
+	 * waiting for its own wakeup event. The loop returns as soon as that event
+	 * is reached, any other event is handed to another thread as the blocked
+	 * Process cannot execute model code on its stack.
+	 * Must hold the lockObject when calling this method.
+	 */
+	private void runEvents(Process cur, boolean nested) {
+		// Loop continuously
+		while (true) {
+			EventNode nextNode = eventTree.getNextNode();
+			if (nextNode == null ||
+			    currentTick >= targetTick) {
+				executeEvents = false;
+			}
 
-				if (!executeEvents) {
-					processRunning = false;
-					timelistener.timeRunning(false);
-					return;
-				}
+			if (!executeEvents) {
+				processRunning = false;
+				timelistener.timeRunning(false);
+				if (nested)
+					threadWait(cur);
+				return;
+			}
 
-				// If the next event is at the current tick, execute it
-				if (nextNode.schedTick == currentTick) {
-					// Remove the event from the future events
-					Event nextEvent = nextNode.head;
-					ProcessTarget nextTarget = nextEvent.target;
-					if (trcListener != null) trcListener.traceEvent(this, currentTick, nextNode.schedTick, nextNode.priority, nextTarget);
+			// If the next event is at the current tick, execute it
+			if (nextNode.schedTick == currentTick) {
+				// Remove the event from the future events
+				Event nextEvent = nextNode.head;
+				ProcessTarget nextTarget = nextEvent.target;
+				if (trcListener != null) trcListener.traceEvent(this, currentTick, nextNode.schedTick, nextNode.priority, nextTarget);
 
-					removeEvent(nextEvent);
+				removeEvent(nextEvent);
 
-					// the return from execute target informs whether or not this
-					// thread should grab an new Event, or return to the pool
-					if (executeTarget(cur, nextTarget))
-						continue;
-					else
+				if (nested) {
+					// Our own wakeup, resume without switching threads
+					Process p = nextTarget.getProcess();
+					if (p == cur)
 						return;
+
+					// Pass the event loop on with the event and wait to be resumed
+					if (p == null)
+						p = Process.allocate(this, null, nextTarget);
+					p.wake();
+					threadWait(cur);
+					return;
 				}
 
-				// If the next event would require us to advance the time, check the
-				// conditonal events
-				if (eventTree.getNextNode().schedTick > nextTick) {
-					if (condEvents.size() > 0) {
-						evaluateConditions(cur);
-						if (!executeEvents) continue;
-					}
+				// the return from execute target informs whether or not this
+				// thread should grab an new Event, or return to the pool
+				if (executeTarget(cur, nextTarget))
+					continue;
+				else
+					return;
+			}
 
-					// If a conditional event was satisfied, we will have a new event at the
-					// beginning of the eventStack for the current tick, go back to the
-					// beginning, otherwise fall through to the time-advance
-					nextTick = eventTree.getNextNode().schedTick;
-					if (nextTick == currentTick)
-						continue;
+			// If the next event would require us to advance the time, check the
+			// conditonal events
+			if (eventTree.getNextNode().schedTick > nextTick) {
+				if (condEvents.size() > 0) {
+					evaluateConditions(cur);
+					if (!executeEvents) continue;
 				}
 
-				// Advance to the next event time
-				if (executeRealTime) {
-					// Loop until the next event time is reached
-					long realTick = this.calcRealTimeTick();
-					if (realTick < nextTick && realTick < targetTick) {
-						// Update the displayed simulation time
-						currentTick = realTick;
-						timelistener.tickUpdate(currentTick);
-						//Halt the thread for 20ms and then reevaluate the loop
-						try { lockObject.wait(20); } catch( InterruptedException e ) {}
-						continue;
-					}
+				// If a conditional event was satisfied, we will have a new event at the
+				// beginning of the eventStack for the current tick, go back to the
+				// beginning, otherwise fall through to the time-advance
+				nextTick = eventTree.getNextNode().schedTick;
+				if (nextTick == currentTick)
+					continue;
+			}
+
+			// Advance to the next event time
+			if (executeRealTime) {
+				// Loop until the next event time is reached
+				long realTick = this.calcRealTimeTick();
+				if (realTick < nextTick && realTick < targetTick) {
+					// Update the displayed simulation time
+					currentTick = realTick;
+					timelistener.tickUpdate(currentTick);
+					//Halt the thread for 20ms and then reevaluate the loop
+					try { lockObject.wait(20); } catch( InterruptedException e ) {}
+					continue;
 				}
+			}
 
-				// advance time
-				if (targetTick < nextTick)
-					currentTick = targetTick;
-				else
-					currentTick = nextTick;
+			// advance time
+			if (targetTick < nextTick)
+				currentTick = targetTick;
+			else
+				currentTick = nextTick;
 
-				timelistener.tickUpdate(currentTick);
-			}
+			timelistener.tickUpdate(currentTick);
 		}
 	}
 
@@ -295,8 +422,21 @@ public final class EventManager {
 		try {
 			for (int i = 0; i < condEvents.size();) {
 				ConditionalEvent c = condEvents.get(i);
+
+				// Skip conditions whose declared dependencies have not changed
+				if (c.deps != null) {
+					if (!c.dirty) {
+						condEvaluationsSaved++;
+						i++;
+						continue;
+					}
+					c.dirty = false;
+				}
+
+				condEvaluations++;
 				if (c.c.evaluate()) {
 					condEvents.remove(i);
+					c.unwatch();
 					EventNode node = getEventNode(currentTick, 0);
 					Event evt = getEvent();
 					evt.node = node;
@@ -353,15 +493,20 @@ public final class EventManager {
 	private void captureProcess(Process cur) {
 		// if we don't wake a new process, take one from the pool
 		Process next = cur.preCapture();
-		if (next == null) {
-			processRunning = false;
-			Process.processEvents(this);
+		if (next != null) {
+			next.wake();
+			threadWait(cur);
+		}
+		else if (directHandoff) {
+			// keep running the event loop on this thread until our wakeup
+			runEvents(cur, true);
 		}
 		else {
-			next.wake();
+			processRunning = false;
+			Process.processEvents(this);
+			threadWait(cur);
 		}
 
-		threadWait(cur);
 		cur.postCapture();
 	}
 
@@ -488,6 +633,7 @@ public final class EventManager {
 				handle.event = evt;
 			}
 			condEvents.add(evt);
+			evt.watch();
 			if (trcListener != null) trcListener.traceWaitUntil(this, currentTick);
 			captureProcess(cur);
 		}
@@ -508,6 +654,7 @@ public final class EventManager {
 				handle.event = evt;
 			}
 			condEvents.add(evt);
+			evt.watch();
 			if (trcListener != null) trcListener.traceWaitUntil(this, currentTick);
 		}
 	}
@@ -564,6 +711,7 @@ public final class EventManager {
 		}
 		else {
 			condEvents.remove(base);
+			((ConditionalEvent)base).unwatch();
 		}
 		return t;
 	}
@@ -28,6 +28,7 @@ class EventNode {
 	boolean red;
 	EventNode left;
 	EventNode right;
+	EventNode hashNext; // chains nodes in the hash index of LadderEventQueue
 
 	EventNode(long tick, int prio) {
 		schedTick = tick;
@@ -0,0 +1,35 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.events;
+
+/**
+ * The data structures available to hold the future events of an EventManager.
+ */
+public enum EventQueueType {
+	REDBLACK,
+	CALENDAR,
+	LADDER;
+
+	final EventTree newEventTree() {
+		switch (this) {
+		case CALENDAR:
+			return new CalendarEventQueue();
+		case LADDER:
+			return new LadderEventQueue();
+		default:
+			return new RedBlackEventTree();
+		}
+	}
+}
@@ -0,0 +1,512 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.events;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * LadderEventQueue is a ladder queue (W.T. Tang, R.S.M. Goh and I.L.-J. Thng,
+ * 2005) holding the future events. Nodes far in the future are held unsorted in
+ * 'Top'. When they are needed, they are spread into the buckets of a 'rung' of
+ * the ladder, and buckets that are still too large are split into further rungs.
+ * Only the small number of nodes in the next bucket are ever sorted, into
+ * 'Bottom', which gives O(1) amortized cost to insert and remove the next node.
+ * <p>
+ * Nodes are held in doubly linked lists using EventNode.left and EventNode.right,
+ * and a hash index through EventNode.hashNext finds the node for a time and
+ * priority without searching the unsorted lists.
+ */
+class LadderEventQueue implements EventTree {
+	private static final int THRES = 50;    // bucket size above which a new rung is created
+	private static final int MAX_RUNGS = 8;
+	private static final int MIN_TABLE = 64;
+
+	// Top: unsorted nodes at or after topStart
+	private EventNode top;
+	private int nTop;
+	private long topMin;
+	private long topMax;
+	private long topStart;
+
+	// Ladder: rung r holds its nodes in buckets numbered rCur[r] and above
+	private int nRungs;
+	private final long[] rStart = new long[MAX_RUNGS];  // the tick at the start of bucket 0
+	private final long[] rWidth = new long[MAX_RUNGS];  // the number of ticks in each bucket
+	private final int[] rCur = new int[MAX_RUNGS];      // the first bucket not yet emptied
+	private final EventNode[][] rBuckets = new EventNode[MAX_RUNGS][];
+
+	// Bottom: sorted nodes earlier than the current bucket of the last rung
+	private EventNode bottom;
+
+	private EventNode[] table;
+	private int count;
+
+	LadderEventQueue() {
+		reset();
+	}
+
+	@Override
+	public final EventNode getNextNode() {
+		if (bottom == null) fillBottom();
+		return bottom;
+	}
+
+	@Override
+	public final void reset() {
+		top = null;
+		nTop = 0;
+		topMin = Long.MAX_VALUE;
+		topMax = Long.MIN_VALUE;
+		topStart = Long.MIN_VALUE;
+
+		nRungs = 0;
+		Arrays.fill(rBuckets, null);
+
+		bottom = null;
+
+		table = new EventNode[MIN_TABLE];
+		count = 0;
+		clearFreeList();
+	}
+
+	@Override
+	public final EventNode createOrFindNode(long schedTick, int priority) {
+		EventNode n = find(schedTick, priority);
+		if (n != null)
+			return n;
+
+		// There is no current node for this time/priority
+		n = getNewNode(schedTick, priority);
+		insertHash(n);
+		insertNode(n);
+		return n;
+	}
+
+	@Override
+	public final boolean removeNode(long schedTick, int priority) {
+		EventNode n = removeHash(schedTick, priority);
+		if (n == null)
+			return false; // Node not found
+
+		// Debugging
+		if (n.head != null || n.tail != null)
+			throw new RuntimeException("Removing non-empy node");
+
+		// The next node is the common case
+		if (n == bottom) {
+			bottom = n.right;
+			if (bottom != null)
+				bottom.left = null;
+			reuseNode(n);
+			return true;
+		}
+
+		// Unlink the node, a node at the head of a list needs its list found
+		int rung = locate(n.schedTick);
+		if (n.left != null) {
+			n.left.right = n.right;
+		}
+		else if (rung == -1) {
+			top = n.right;
+		}
+		else if (rung == MAX_RUNGS) {
+			bottom = n.right;
+		}
+		else {
+			rBuckets[rung][bucketIndex(n.schedTick, rung)] = n.right;
+		}
+		if (n.right != null)
+			n.right.left = n.left;
+
+		if (rung == -1)
+			nTop--;
+
+		reuseNode(n);
+		return true;
+	}
+
+	/**
+	 * Returns -1 if the given time belongs in Top, MAX_RUNGS if it belongs in
+	 * Bottom, otherwise the rung that holds it.
+	 */
+	private int locate(long tick) {
+		if (tick >= topStart && topStart != Long.MAX_VALUE)
+			return -1;
+
+		for (int r = 0; r < nRungs; r++) {
+			if (rCur[r] < rBuckets[r].length && tick >= bucketStart(r, rCur[r]))
+				return r;
+		}
+		return MAX_RUNGS;
+	}
+
+	// Returns the tick at the start of the given bucket, saturating on overflow
+	private long bucketStart(int rung, int idx) {
+		return addTicks(rStart[rung], rWidth[rung], idx);
+	}
+
+	private static long addTicks(long start, long width, long num) {
+		if (num > 0 && width > (Long.MAX_VALUE - start) / num)
+			return Long.MAX_VALUE;
+		return start + width * num;
+	}
+
+	// Returns the bucket for the given time, the last bucket also holds any
+	// later times that could not be spread without overflow
+	private int bucketIndex(long tick, int rung) {
+		long offset = tick - rStart[rung];
+		if (offset < 0)
+			offset = Long.MAX_VALUE;
+		long idx = offset / rWidth[rung];
+		int last = rBuckets[rung].length - 1;
+		return idx > last ? last : (int)idx;
+	}
+
+	private void insertNode(EventNode n) {
+		int rung = locate(n.schedTick);
+		if (rung == -1) {
+			pushList(n, top);
+			top = n;
+			nTop++;
+			topMin = Math.min(topMin, n.schedTick);
+			topMax = Math.max(topMax, n.schedTick);
+			return;
+		}
+
+		if (rung < MAX_RUNGS) {
+			EventNode[] buckets = rBuckets[rung];
+			int idx = bucketIndex(n.schedTick, rung);
+			pushList(n, buckets[idx]);
+			buckets[idx] = n;
+			return;
+		}
+
+		insertBottom(n);
+	}
+
+	// Sorted insert into Bottom
+	private void insertBottom(EventNode n) {
+		EventNode prev = null;
+		EventNode next = bottom;
+		while (next != null && next.compareToNode(n) < 0) {
+			prev = next;
+			next = next.right;
+		}
+		n.left = prev;
+		n.right = next;
+		if (prev == null)
+			bottom = n;
+		else
+			prev.right = n;
+		if (next != null)
+			next.left = n;
+	}
+
+	// Link the node in front of the given list head
+	private static void pushList(EventNode n, EventNode head) {
+		n.left = null;
+		n.right = head;
+		if (head != null)
+			head.left = n;
+	}
+
+	/**
+	 * Move the nodes in the next non-empty bucket into Bottom, splitting large
+	 * buckets into new rungs and spreading Top into a new rung when the ladder
+	 * is empty.
+	 */
+	private void fillBottom() {
+		while (bottom == null) {
+			if (nRungs == 0) {
+				if (top == null)
+					return;
+				spreadTop();
+			}
+
+			// Find the next non-empty bucket in the last rung
+			int r = nRungs - 1;
+			EventNode[] buckets = rBuckets[r];
+			while (rCur[r] < buckets.length && buckets[rCur[r]] == null)
+				rCur[r]++;
+
+			// The rung is empty, remove it
+			if (rCur[r] == buckets.length) {
+				rBuckets[r] = null;
+				nRungs--;
+				// With no rungs, Bottom is empty and every node can go to Top
+				if (nRungs == 0)
+					topStart = Long.MIN_VALUE;
+				continue;
+			}
+
+			int idx = rCur[r];
+			EventNode list = buckets[idx];
+			buckets[idx] = null;
+			rCur[r]++;
+
+			int num = 0;
+			for (EventNode n = list; n != null; n = n.right)
+				num++;
+
+			if (num > THRES && rWidth[r] > 1 && nRungs < MAX_RUNGS) {
+				long width = (rWidth[r] + num - 1) / num;
+				long numBuckets = (rWidth[r] + width - 1) / width;
+				addRung(bucketStart(r, idx), width, (int)numBuckets, list);
+				continue;
+			}
+
+			sortIntoBottom(list, num);
+		}
+	}
+
+	private void spreadTop() {
+		long span = topMax - topMin;
+		if (span < 0)
+			span = Long.MAX_VALUE;
+		long width = span / nTop + 1;
+		long numBuckets = span / width + 1;
+
+		EventNode list = top;
+		top = null;
+		nTop = 0;
+		addRung(topMin, width, (int)numBuckets, list);
+		topStart = addTicks(topMin, width, numBuckets);
+		topMin = Long.MAX_VALUE;
+		topMax = Long.MIN_VALUE;
+	}
+
+	private void addRung(long start, long width, int numBuckets, EventNode list) {
+		int r = nRungs;
+		nRungs++;
+		rStart[r] = start;
+		rWidth[r] = width;
+		rCur[r] = 0;
+		EventNode[] buckets = new EventNode[numBuckets];
+		rBuckets[r] = buckets;
+
+		EventNode n = list;
+		while (n != null) {
+			EventNode next = n.right;
+			int idx = bucketIndex(n.schedTick, r);
+			pushList(n, buckets[idx]);
+			buckets[idx] = n;
+			n = next;
+		}
+	}
+
+	private void sortIntoBottom(EventNode list, int num) {
+		// Small buckets are insertion sorted in place
+		if (num <= THRES) {
+			EventNode n = list;
+			while (n != null) {
+				EventNode next = n.right;
+				insertBottom(n);
+				n = next;
+			}
+			return;
+		}
+
+		EventNode[] nodes = new EventNode[num];
+		int pos = 0;
+		for (EventNode n = list; n != null; n = n.right)
+			nodes[pos++] = n;
+		Arrays.sort(nodes, nodeOrder);
+
+		EventNode prev = null;
+		for (EventNode n : nodes) {
+			n.left = prev;
+			n.right = null;
+			if (prev == null)
+				bottom = n;
+			else
+				prev.right = n;
+			prev = n;
+		}
+	}
+
+	private static final Comparator<EventNode> nodeOrder = new Comparator<EventNode>() {
+		@Override
+		public int compare(EventNode a, EventNode b) {
+			return a.compareToNode(b);
+		}
+	};
+
+	private static int hash(long schedTick, int priority) {
+		int h = (int)(schedTick ^ (schedTick >>> 32)) * 31 + priority;
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public final EventNode find(long schedTick, int priority) {
+		EventNode n = table[hash(schedTick, priority) & (table.length - 1)];
+		while (n != null) {
+			if (n.schedTick == schedTick && n.priority == priority)
+				return n;
+			n = n.hashNext;
+		}
+		return null;
+	}
+
+	private void insertHash(EventNode n) {
+		if (count >= table.length * 3 / 4)
+			resizeHash(table.length * 2);
+
+		int idx = hash(n.schedTick, n.priority) & (table.length - 1);
+		n.hashNext = table[idx];
+		table[idx] = n;
+		count++;
+	}
+
+	private EventNode removeHash(long schedTick, int priority) {
+		int idx = hash(schedTick, priority) & (table.length - 1);
+		EventNode prev = null;
+		EventNode n = table[idx];
+		while (n != null) {
+			if (n.schedTick == schedTick && n.priority == priority)
+				break;
+			prev = n;
+			n = n.hashNext;
+		}
+		if (n == null)
+			return null;
+
+		if (prev == null)
+			table[idx] = n.hashNext;
+		else
+			prev.hashNext = n.hashNext;
+		n.hashNext = null;
+		count--;
+
+		if (count < table.length / 8 && table.length > MIN_TABLE)
+			resizeHash(table.length / 2);
+
+		return n;
+	}
+
+	private void resizeHash(int size) {
+		EventNode[] old = table;
+		table = new EventNode[size];
+		for (EventNode head : old) {
+			EventNode n = head;
+			while (n != null) {
+				EventNode next = n.hashNext;
+				int idx = hash(n.schedTick, n.priority) & (size - 1);
+				n.hashNext = table[idx];
+				table[idx] = n;
+				n = next;
+			}
+		}
+	}
+
+	@Override
+	public final void runOnAllNodes(EventNode.Runner runner) {
+		for (EventNode head : table) {
+			for (EventNode n = head; n != null; n = n.hashNext)
+				runner.runOnNode(n);
+		}
+	}
+
+	// Verify the sorting structure and return the number of nodes
+	@Override
+	public final int verify() {
+		int num = 0;
+		int numTop = 0;
+		for (EventNode n = top; n != null; n = n.right) {
+			verifyLink(n, top);
+			if (locate(n.schedTick) != -1)
+				throw new RuntimeException("Ladder queue Top verify failed");
+			numTop++;
+		}
+		if (numTop != nTop)
+			throw new RuntimeException("Ladder queue Top count verify failed");
+		num += numTop;
+
+		for (int r = 0; r < nRungs; r++) {
+			EventNode[] buckets = rBuckets[r];
+			for (int i = 0; i < buckets.length; i++) {
+				if (i < rCur[r] && buckets[i] != null)
+					throw new RuntimeException("Ladder queue emptied bucket verify failed");
+				for (EventNode n = buckets[i]; n != null; n = n.right) {
+					verifyLink(n, buckets[i]);
+					if (locate(n.schedTick) != r || bucketIndex(n.schedTick, r) != i)
+						throw new RuntimeException("Ladder queue rung verify failed");
+					num++;
+				}
+			}
+		}
+
+		for (EventNode n = bottom; n != null; n = n.right) {
+			verifyLink(n, bottom);
+			if (locate(n.schedTick) != MAX_RUNGS)
+				throw new RuntimeException("Ladder queue Bottom verify failed");
+			if (n.right != null && n.compareToNode(n.right) != -1)
+				throw new RuntimeException("Ladder queue Bottom order verify failed");
+			num++;
+		}
+
+		if (num != count)
+			throw new RuntimeException("Ladder queue count verify failed");
+		for (int i = 0; i < table.length; i++) {
+			for (EventNode n = table[i]; n != null; n = n.hashNext) {
+				if ((hash(n.schedTick, n.priority) & (table.length - 1)) != i)
+					throw new RuntimeException("Ladder queue hash verify failed");
+			}
+		}
+		return num;
+	}
+
+	private void verifyLink(EventNode n, EventNode head) {
+		if (n == head ? n.left != null : n.left.right != n)
+			throw new RuntimeException("Ladder queue link verify failed");
+	}
+
+	@Override
+	public final int verifyNodeCount() {
+		return count;
+	}
+
+	private EventNode freeList = null;
+
+	private EventNode getNewNode(long schedTick, int priority) {
+		if (freeList == null) {
+			return new EventNode(schedTick, priority);
+		}
+
+		EventNode ret = freeList;
+		freeList = freeList.right;
+
+		ret.schedTick = schedTick;
+		ret.priority = priority;
+		ret.head = null;
+		ret.tail = null;
+
+		return ret;
+	}
+
+	private void reuseNode(EventNode node) {
+		// Clear the node
+		node.left = null;
+		node.head = null;
+		node.tail = null;
+
+		node.right = freeList;
+		freeList = node;
+	}
+
+	private void clearFreeList() {
+		freeList = null;
+	}
+}
@@ -33,8 +33,9 @@ import java.util.ArrayList;
 final class Process extends Thread {
 	// Properties required to manage the pool of available Processes
 	private static final ArrayList<Process> pool; // storage for all available Processes
-	private static final int maxPoolSize = 100; // Maximum number of Processes allowed to be pooled at a given time
+	private static final int initPoolSize = 100; // Initial capacity of the pool of Processes
 	private static int numProcesses = 0; // Total of all created processes to date (used to name new Processes)
+	private static long stackSize = 0; // Requested stack size in bytes for new Processes, 0 is the JVM default
 
 	private EventManager eventManager; // The EventManager that is currently managing this Process
 	private Process nextProcess; // The Process from which the present process was created
@@ -49,15 +50,28 @@ final class Process extends Thread {
 	private boolean dieFlag;
 	private boolean activeFlag;
 	private boolean condWait;
+	private boolean allocated; // TRUE if the Process was handed out before it first entered the pool
 
 	// Initialize the storage for the pooled Processes
 	static {
-		pool = new ArrayList<>(maxPoolSize);
+		pool = new ArrayList<>(initPoolSize);
 	}
 
-	private Process(String name) {
-		// Construct a thread with the given name
-		super(name);
+	private Process(String name, long stack) {
+		// Construct a thread with the given name and stack size
+		super(null, null, name, stack);
+	}
+
+	/**
+	 * Sets the stack size requested for Processes created from now on. Each
+	 * waiting Process holds its own thread stack, so models with many
+	 * simultaneously waiting entities can reduce memory use by lowering it.
+	 * @param bytes the stack size in bytes, or 0 to use the JVM default
+	 */
+	static void setStackSize(long bytes) {
+		synchronized (pool) {
+			stackSize = bytes;
+		}
 	}
 
 	/**
@@ -116,8 +130,12 @@ final class Process extends Thread {
 	// Useful to filter pooled threads when staring at stack traces.
 	private void waitInPool() {
 		synchronized (pool) {
-			// Add ourselves to the pool and wait to be assigned work
-			pool.add(this);
+			// Add ourselves to the pool and wait to be assigned work, a newly
+			// created Process has already been assigned work and just waits
+			if (allocated)
+				allocated = false;
+			else
+				pool.add(this);
 			// Set the present process to sleep, and release its lock
 			// (done by pool.wait();)
 			// Note: the try/while(true)/catch construct is needed to avoid
@@ -159,25 +177,21 @@ final class Process extends Thread {
 
 	// Return a process from the pool or create a new one
 	private static Process getProcess() {
-		while (true) {
-			synchronized (pool) {
-				// If there is an available process in the pool, then use it
-				if (pool.size() > 0) {
-					return pool.remove(pool.size() - 1);
-				}
-				// If there are no process in the pool, then create a new one and add it to the pool
-				else {
-					numProcesses++;
-					Process temp = new Process("processthread-" + numProcesses);
-					temp.start(); // Note: Thread.start() calls Process.run which adds the new process to the pool
-				}
+		synchronized (pool) {
+			// If there is an available process in the pool, then use it
+			if (pool.size() > 0) {
+				return pool.remove(pool.size() - 1);
 			}
 
-			// Allow the Process.run method to execute so that it can add the
-			// new process to the pool
-			// Note: that the lock on the pool has been dropped, so that the
-			// Process.run method can grab it.
-			try { Thread.sleep(10); } catch (InterruptedException e) {}
+			// If there are no process in the pool, then create a new one and
+			// hand it out directly, it will wait in Process.run to be woken
+			// Note: waking the Process before it reaches its wait is safe as the
+			// interrupt is held until then
+			numProcesses++;
+			Process temp = new Process("processthread-" + numProcesses, stackSize);
+			temp.allocated = true;
+			temp.start();
+			return temp;
 		}
 	}
 
@@ -14,7 +14,10 @@
  */
 package com.jaamsim.input;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.SimulationContext;
 import com.jaamsim.units.Unit;
 
 /**
@@ -24,11 +27,63 @@ import com.jaamsim.units.Unit;
  */
 public class ExpEvaluator {
 
-	private static Entity getEntity(String[] names, double simTime, Entity thisEnt) throws ExpError {
+	private static final AtomicInteger bindingVersion = new AtomicInteger();
+
+	/**
+	 * Discards the entities and outputs bound to the variables in expressions,
+	 * called whenever an entity name or an input is changed.
+	 */
+	public static void invalidateBindings() {
+		bindingVersion.incrementAndGet();
+	}
+
+	/**
+	 * The entity named in a variable and the OutputHandles for each of the outputs
+	 * in its chain. Each handle is kept with the entity it was found for and is only
+	 * looked up again when the chain reaches a different entity.
+	 */
+	private static class VarBinding {
+		final int version;
+		final Entity namedEnt;
+		final OutputBinding[] outputs;
+
+		VarBinding(String[] names, int version) {
+			this.version = version;
+			namedEnt = names[0] == "this" ? null : Entity.getNamedEntity(names[0]);
+			outputs = new OutputBinding[names.length];
+		}
+	}
+
+	private static class OutputBinding {
+		final Entity ent;
+		final OutputHandle handle;
+
+		OutputBinding(Entity ent, OutputHandle handle) {
+			this.ent = ent;
+			this.handle = handle;
+		}
+	}
+
+	private static OutputHandle getOutputHandle(Entity ent, String[] names, int i, VarBinding binding) {
+		if (binding == null)
+			return ent.getOutputHandleInterned(names[i]);
+
+		OutputBinding ob = binding.outputs[i];
+		if (ob != null && ob.ent == ent)
+			return ob.handle;
+
+		OutputHandle oh = ent.getOutputHandleInterned(names[i]);
+		binding.outputs[i] = new OutputBinding(ent, oh);
+		return oh;
+	}
+
+	private static Entity getEntity(String[] names, double simTime, Entity thisEnt, VarBinding binding) throws ExpError {
 
 		Entity ent;
 		if (names[0] == "this")
 			ent = thisEnt;
+		else if (binding != null)
+			ent = binding.namedEnt;
 		else
 			ent = Entity.getNamedEntity(names[0]);
 
@@ -38,7 +93,7 @@ public class ExpEvaluator {
 		// Run the output chain up to the second last name
 		for(int i = 1; i < names.length-1; ++i) {
 			String outputName = names[i];
-			OutputHandle oh = ent.getOutputHandleInterned(outputName);
+			OutputHandle oh = getOutputHandle(ent, names, i, binding);
 			if (oh == null) {
 				throw new ExpError(null, 0, "Output '%s' not found on entity '%s'", outputName, ent.getName());
 			}
@@ -95,9 +150,7 @@ public class ExpEvaluator {
 		}
 	}
 
-	private static EntityParseContext EC = new EntityParseContext();
-
-	private static class EntityEvalContext implements ExpParser.EvalContext {
+	private static class EntityEvalContext implements ExpParser.BindingEvalContext {
 
 		// These are updated in updateContext() which must be called before any expression are evaluated
 		private double simTime;
@@ -110,15 +163,29 @@ public class ExpEvaluator {
 
 		@Override
 		public ExpResult getVariableValue(String[] names) throws ExpError {
-			Entity ent = getEntity(names, simTime, thisEnt);
+			return getValue(names, null);
+		}
+
+		@Override
+		public ExpResult getVariableValue(ExpParser.Variable var) throws ExpError {
+			VarBinding binding = (VarBinding)var.getBinding();
+			int version = bindingVersion.get();
+			if (binding == null || binding.version != version) {
+				binding = new VarBinding(var.getNames(), version);
+				var.setBinding(binding);
+			}
+			return getValue(var.getNames(), binding);
+		}
+
+		private ExpResult getValue(String[] names, VarBinding binding) throws ExpError {
+			Entity ent = getEntity(names, simTime, thisEnt, binding);
 
 			String outputName = names[names.length-1];
-			OutputHandle oh = ent.getOutputHandleInterned(outputName);
+			OutputHandle oh = getOutputHandle(ent, names, names.length-1, binding);
 			if (oh == null) {
 				throw new ExpError(null, 0, "Could not find output '%s' on entity '%s'", outputName, ent.getName());
 			}
 			return new ExpResult(oh.getValueAsDouble(simTime, 0), oh.unitType);
-
 		}
 
 		@Override
@@ -126,12 +193,24 @@ public class ExpEvaluator {
 			return false;
 		}
 	}
+	/**
+	 * Returns the parse context for the present simulation context, creating
+	 * it on first use so that concurrent runs do not share one instance.
+	 */
 	public static ExpParser.ParseContext getParseContext() {
-		return EC;
+		SimulationContext ctx = SimulationContext.current();
+		synchronized (ctx) {
+			EntityParseContext pc = (EntityParseContext)ctx.getState(EntityParseContext.class);
+			if (pc == null) {
+				pc = new EntityParseContext();
+				ctx.setState(EntityParseContext.class, pc);
+			}
+			return pc;
+		}
 	}
 
 	public static void runAssignment(ExpParser.Assignment assign, double simTime, Entity thisEnt) throws ExpError {
-		Entity assignmentEnt = getEntity(assign.destination, simTime, thisEnt);
+		Entity assignmentEnt = getEntity(assign.destination, simTime, thisEnt, null);
 
 		ExpResult result = evaluateExpression(assign.value, simTime, thisEnt);
 
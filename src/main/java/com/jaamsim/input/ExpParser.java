@@ -15,6 +15,8 @@
 package com.jaamsim.input;
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.jaamsim.basicsim.ObjectType;
 import com.jaamsim.units.AngleUnit;
@@ -51,6 +53,14 @@ public class ExpParser {
 		public boolean eagerEval();
 	}
 
+	/**
+	 * An EvalContext that resolves a variable once and keeps the result with the
+	 * Variable, rather than looking up each name on every evaluation.
+	 */
+	public interface BindingEvalContext extends EvalContext {
+		public ExpResult getVariableValue(Variable var) throws ExpError;
+	}
+
 	private interface ExpressionWalker {
 		public void visit(ExpNode exp) throws ExpError;
 		public ExpNode updateRef(ExpNode exp) throws ExpError;
@@ -62,13 +72,44 @@ public class ExpParser {
 	public static class Expression {
 		public final String source;
 
+		// The thread evaluating the expression when there is only one, other threads
+		// are held in executingThreads
+		private final AtomicReference<Thread> executingThread = new AtomicReference<>();
+		private final AtomicInteger numExecutingThreads = new AtomicInteger();
 		private final ArrayList<Thread> executingThreads = new ArrayList<>();
 
 		private ExpNode rootNode;
+		private volatile CompiledNode compiledRoot;
+		private int compileAttempts;
+
 		public Expression(String source) {
 			this.source = source;
 		}
 		public ExpResult evaluate(EvalContext ec) throws ExpError {
+			Thread cur = Thread.currentThread();
+			if (executingThread.compareAndSet(null, cur)) {
+				if (numExecutingThreads.get() == 0) {
+					try {
+						return evaluateImp(ec);
+					} finally {
+						executingThread.set(null);
+					}
+				}
+				executingThread.set(null);
+			}
+			else if (executingThread.get() == cur) {
+				throw new ExpError(null, 0, "Expression recursion detected for expression: %s", source);
+			}
+
+			numExecutingThreads.incrementAndGet();
+			try {
+				return evaluateThreaded(ec);
+			} finally {
+				numExecutingThreads.decrementAndGet();
+			}
+		}
+
+		private ExpResult evaluateThreaded(EvalContext ec) throws ExpError {
 			synchronized(executingThreads) {
 				if (executingThreads.contains(Thread.currentThread())) {
 					throw new ExpError(null, 0, "Expression recursion detected for expression: %s", source);
@@ -78,7 +119,7 @@ public class ExpParser {
 			}
 			ExpResult res = null;
 			try {
-				res = rootNode.evaluate(ec);
+				res = evaluateImp(ec);
 			} finally {
 				synchronized(executingThreads) {
 					executingThreads.remove(Thread.currentThread());
@@ -86,6 +127,43 @@ public class ExpParser {
 			}
 			return res;
 		}
+
+		private ExpResult evaluateImp(EvalContext ec) throws ExpError {
+			CompiledNode comp = compiledRoot;
+			if (comp != null)
+				return evaluateCompiled(comp, ec);
+
+			ExpResult res = rootNode.evaluate(ec);
+			compile();
+			return res;
+		}
+
+		private ExpResult evaluateCompiled(CompiledNode comp, EvalContext ec) throws ExpError {
+			try {
+				return comp.evaluate(ec);
+			}
+			catch (UnitChange c) {
+				// A variable no longer has the unit type the expression was compiled
+				// for, go back to the interpreter until it can be compiled again
+				compiledRoot = null;
+				return c.result;
+			}
+		}
+
+		/**
+		 * Tries to compile the expression using the unit types seen for each variable
+		 * by the interpreter. A variable that has not been evaluated yet, such as one
+		 * in a branch of a conditional not taken, leaves the expression interpreted
+		 * until a later attempt.
+		 */
+		private void compile() {
+			if (compileAttempts >= MAX_COMPILE_ATTEMPTS)
+				return;
+
+			compileAttempts++;
+			compiledRoot = rootNode.compile();
+		}
+
 		void setRootNode(ExpNode node) {
 			rootNode = node;
 		}
@@ -96,6 +174,10 @@ public class ExpParser {
 		public final Expression exp;
 		public final int tokenPos;
 		public abstract ExpResult evaluate(EvalContext ec) throws ExpError;
+		/**
+		 * Returns the compiled form of this node, or null if it can not be compiled.
+		 */
+		abstract CompiledNode compile();
 		public ExpNode(ParseContext context, Expression exp, int pos) {
 			this.context = context;
 			this.tokenPos = pos;
@@ -115,6 +197,10 @@ public class ExpParser {
 			return val;
 		}
 		@Override
+		CompiledNode compile() {
+			return new CompiledConstant(val);
+		}
+		@Override
 		void walk(ExpressionWalker w) throws ExpError {
 			w.visit(this);
 		}
@@ -122,14 +208,38 @@ public class ExpParser {
 
 	public static class Variable extends ExpNode {
 		private String[] vals;
+		private Class<? extends Unit> lastUnitType; // unit type of the last value, used for compiling
+		private volatile Object binding; // kept for a BindingEvalContext
 		public Variable(ParseContext context, String[] vals, Expression exp, int pos) {
 			super(context, exp, pos);
 			this.vals = vals;
 		}
 		@Override
 		public ExpResult evaluate(EvalContext ec) throws ExpError {
+			ExpResult res = getValue(ec);
+			lastUnitType = res.unitType;
+			return res;
+		}
+		ExpResult getValue(EvalContext ec) throws ExpError {
+			if (ec instanceof BindingEvalContext)
+				return ((BindingEvalContext)ec).getVariableValue(this);
 			return ec.getVariableValue(vals);
 		}
+		public String[] getNames() {
+			return vals;
+		}
+		public Object getBinding() {
+			return binding;
+		}
+		public void setBinding(Object b) {
+			binding = b;
+		}
+		@Override
+		CompiledNode compile() {
+			if (lastUnitType == null)
+				return null;
+			return new CompiledVariable(this, lastUnitType);
+		}
 		@Override
 		void walk(ExpressionWalker w) throws ExpError {
 			w.visit(this);
@@ -150,6 +260,24 @@ public class ExpParser {
 			return func.apply(context, subExp.evaluate(ec));
 		}
 		@Override
+		CompiledNode compile() {
+			CompiledNode sub = subExp.compile();
+			if (sub == null)
+				return null;
+
+			int op = getUnaryOpCode(func);
+			if (op == OP_NONE)
+				return null;
+
+			try {
+				ExpResult res = func.apply(context, new ExpResult(0, sub.unitType));
+				return new CompiledUnaryOp(this, sub, op, res.unitType);
+			}
+			catch (ExpError e) {
+				return null;
+			}
+		}
+		@Override
 		void walk(ExpressionWalker w) throws ExpError {
 			subExp.walk(w);
 
@@ -180,6 +308,31 @@ public class ExpParser {
 			return func.apply(context, lRes, rRes, exp.source, tokenPos);
 		}
 
+		@Override
+		CompiledNode compile() {
+			CompiledNode lhs = lSubExp.compile();
+			CompiledNode rhs = rSubExp.compile();
+			if (lhs == null || rhs == null)
+				return null;
+
+			int op = getBinaryOpCode(func);
+			if (op == OP_NONE)
+				return null;
+
+			// Resolve the unit checks now, a unit error is left for the interpreter to report
+			try {
+				ExpResult res = func.apply(context, new ExpResult(0, lhs.unitType), new ExpResult(0, rhs.unitType), exp.source, tokenPos);
+				return new CompiledBinaryOp(this, lhs, rhs, op, res.unitType);
+			}
+			catch (ExpError e) {
+				return null;
+			}
+		}
+
+		ExpResult evaluateRight(EvalContext ec) throws ExpError {
+			return rConstVal != null ? rConstVal : rSubExp.evaluate(ec);
+		}
+
 		@Override
 		void walk(ExpressionWalker w) throws ExpError {
 			lSubExp.walk(w);
@@ -221,6 +374,21 @@ public class ExpParser {
 				return constTrueRes != null ? constTrueRes : trueExp.evaluate(ec);
 		}
 
+		@Override
+		CompiledNode compile() {
+			CompiledNode c = condExp.compile();
+			CompiledNode t = trueExp.compile();
+			CompiledNode f = falseExp.compile();
+			if (c == null || t == null || f == null)
+				return null;
+
+			// The unit type of the result must not depend on the condition
+			if (t.unitType != f.unitType)
+				return null;
+
+			return new CompiledConditional(c, t, f);
+		}
+
 		private ExpResult eagerEval(EvalContext ec) throws ExpError {
 			ExpResult  condRes =  constCondRes != null ?  constCondRes :  condExp.evaluate(ec);
 			ExpResult  trueRes =  constTrueRes != null ?  constTrueRes :  trueExp.evaluate(ec);
@@ -268,6 +436,35 @@ public class ExpParser {
 			}
 			return function.call(context, argVals, exp.source, tokenPos);
 		}
+
+		@Override
+		CompiledNode compile() {
+			int op = getFunctionCode(function);
+			if (op == OP_NONE)
+				return null;
+
+			CompiledNode[] compArgs = new CompiledNode[args.size()];
+			ExpResult[] argVals = new ExpResult[args.size()];
+			for (int i = 0; i < args.size(); ++i) {
+				compArgs[i] = args.get(i).compile();
+				if (compArgs[i] == null)
+					return null;
+				argVals[i] = new ExpResult(0, compArgs[i].unitType);
+			}
+
+			try {
+				ExpResult res = function.call(context, argVals, exp.source, tokenPos);
+				return new CompiledFuncCall(this, compArgs, op, res.unitType);
+			}
+			catch (ExpError e) {
+				return null;
+			}
+		}
+
+		ExpResult evaluateArg(EvalContext ec, int i) throws ExpError {
+			ExpResult constArg = constResults.get(i);
+			return constArg != null ? constArg : args.get(i).evaluate(ec);
+		}
 		@Override
 		void walk(ExpressionWalker w) throws ExpError {
 			for (int i = 0; i < args.size(); ++i) {
@@ -287,6 +484,434 @@ public class ExpParser {
 		public Expression value;
 	}
 
+	////////////////////////////////////////////////////////////////////
+	// Compiled expressions
+	//
+	// A compiled expression is a tree of nodes that calculate a primitive double.
+	// The unit type of every node is resolved when it is compiled, so no unit checks
+	// are made and no ExpResults are created while it is evaluated. The unit types of
+	// the variables are taken from their previous values and are checked each time a
+	// variable is read. If one has changed, the node throws a UnitChange holding the
+	// result calculated by the interpreter from that point, and each parent node
+	// finishes its own calculation in the same way without reading any value twice.
+
+	private static final int MAX_COMPILE_ATTEMPTS = 10;
+
+	private static class UnitChange extends Exception {
+		final ExpResult result;
+
+		UnitChange(ExpResult result) {
+			super(null, null, false, false);
+			this.result = result;
+		}
+	}
+
+	private abstract static class CompiledNode {
+		final Class<? extends Unit> unitType;
+
+		CompiledNode(Class<? extends Unit> unitType) {
+			this.unitType = unitType;
+		}
+
+		abstract double eval(EvalContext ec) throws ExpError, UnitChange;
+
+		ExpResult evaluate(EvalContext ec) throws ExpError, UnitChange {
+			return new ExpResult(eval(ec), unitType);
+		}
+	}
+
+	private static class CompiledConstant extends CompiledNode {
+		final ExpResult val;
+
+		CompiledConstant(ExpResult val) {
+			super(val.unitType);
+			this.val = val;
+		}
+
+		@Override
+		double eval(EvalContext ec) {
+			return val.value;
+		}
+
+		@Override
+		ExpResult evaluate(EvalContext ec) {
+			return val;
+		}
+	}
+
+	private static class CompiledVariable extends CompiledNode {
+		final Variable node;
+
+		CompiledVariable(Variable node, Class<? extends Unit> unitType) {
+			super(unitType);
+			this.node = node;
+		}
+
+		@Override
+		double eval(EvalContext ec) throws ExpError, UnitChange {
+			ExpResult res = node.getValue(ec);
+			if (res.unitType != unitType) {
+				node.lastUnitType = res.unitType;
+				throw new UnitChange(res);
+			}
+			return res.value;
+		}
+	}
+
+	private static class CompiledUnaryOp extends CompiledNode {
+		final UnaryOp node;
+		final CompiledNode subExp;
+		final int op;
+
+		CompiledUnaryOp(UnaryOp node, CompiledNode subExp, int op, Class<? extends Unit> unitType) {
+			super(unitType);
+			this.node = node;
+			this.subExp = subExp;
+			this.op = op;
+		}
+
+		@Override
+		double eval(EvalContext ec) throws ExpError, UnitChange {
+			double val;
+			try {
+				val = subExp.eval(ec);
+			}
+			catch (UnitChange c) {
+				throw new UnitChange(node.func.apply(node.context, c.result));
+			}
+
+			switch (op) {
+			case OP_NEG: return -val;
+			case OP_PLUS: return val;
+			case OP_NOT: return val == 0 ? 1 : 0;
+			default: throw new ExpError(node.exp.source, node.tokenPos, "Unknown operator");
+			}
+		}
+	}
+
+	private static class CompiledBinaryOp extends CompiledNode {
+		final BinaryOp node;
+		final CompiledNode lSubExp;
+		final CompiledNode rSubExp;
+		final int op;
+
+		CompiledBinaryOp(BinaryOp node, CompiledNode lSubExp, CompiledNode rSubExp, int op, Class<? extends Unit> unitType) {
+			super(unitType);
+			this.node = node;
+			this.lSubExp = lSubExp;
+			this.rSubExp = rSubExp;
+			this.op = op;
+		}
+
+		@Override
+		double eval(EvalContext ec) throws ExpError, UnitChange {
+			double l;
+			try {
+				l = lSubExp.eval(ec);
+			}
+			catch (UnitChange c) {
+				ExpResult rRes = node.evaluateRight(ec);
+				throw new UnitChange(node.func.apply(node.context, c.result, rRes, node.exp.source, node.tokenPos));
+			}
+
+			double r;
+			try {
+				r = rSubExp.eval(ec);
+			}
+			catch (UnitChange c) {
+				ExpResult lRes = new ExpResult(l, lSubExp.unitType);
+				throw new UnitChange(node.func.apply(node.context, lRes, c.result, node.exp.source, node.tokenPos));
+			}
+
+			switch (op) {
+			case OP_ADD: return l + r;
+			case OP_SUB: return l - r;
+			case OP_MUL: return l * r;
+			case OP_DIV: return l / r;
+			case OP_POW: return Math.pow(l, r);
+			case OP_MOD: return l % r;
+			case OP_EQ: return l == r ? 1 : 0;
+			case OP_NE: return l != r ? 1 : 0;
+			case OP_AND: return (l != 0) && (r != 0) ? 1 : 0;
+			case OP_OR: return (l != 0) || (r != 0) ? 1 : 0;
+			case OP_LT: return l < r ? 1 : 0;
+			case OP_LE: return l <= r ? 1 : 0;
+			case OP_GT: return l > r ? 1 : 0;
+			case OP_GE: return l >= r ? 1 : 0;
+			default: throw new ExpError(node.exp.source, node.tokenPos, "Unknown operator");
+			}
+		}
+	}
+
+	private static class CompiledConditional extends CompiledNode {
+		final CompiledNode condExp;
+		final CompiledNode trueExp;
+		final CompiledNode falseExp;
+
+		CompiledConditional(CompiledNode condExp, CompiledNode trueExp, CompiledNode falseExp) {
+			super(trueExp.unitType);
+			this.condExp = condExp;
+			this.trueExp = trueExp;
+			this.falseExp = falseExp;
+		}
+
+		@Override
+		double eval(EvalContext ec) throws ExpError, UnitChange {
+			// The unit type of the condition does not affect the result
+			double cond;
+			try {
+				cond = condExp.eval(ec);
+			}
+			catch (UnitChange c) {
+				cond = c.result.value;
+			}
+
+			if (!ec.eagerEval()) {
+				if (cond == 0)
+					return falseExp.eval(ec);
+				else
+					return trueExp.eval(ec);
+			}
+
+			// Eager evaluation, a unit change only matters for the branch returned
+			double t = 0;
+			ExpResult tRes = null;
+			try {
+				t = trueExp.eval(ec);
+			}
+			catch (UnitChange c) {
+				tRes = c.result;
+			}
+
+			double f = 0;
+			try {
+				f = falseExp.eval(ec);
+			}
+			catch (UnitChange c) {
+				if (cond == 0)
+					throw c;
+			}
+
+			if (cond == 0)
+				return f;
+			if (tRes != null)
+				throw new UnitChange(tRes);
+			return t;
+		}
+	}
+
+	private static class CompiledFuncCall extends CompiledNode {
+		final FuncCall node;
+		final CompiledNode[] args;
+		final int op;
+
+		CompiledFuncCall(FuncCall node, CompiledNode[] args, int op, Class<? extends Unit> unitType) {
+			super(unitType);
+			this.node = node;
+			this.args = args;
+			this.op = op;
+		}
+
+		@Override
+		double eval(EvalContext ec) throws ExpError, UnitChange {
+			switch (op) {
+			case FN_E: return Math.E;
+			case FN_PI: return Math.PI;
+			}
+
+			double a0;
+			try {
+				a0 = args[0].eval(ec);
+			}
+			catch (UnitChange c) {
+				throw interpretFrom(ec, 0, c.result, 0);
+			}
+
+			switch (op) {
+			case FN_ABS: return Math.abs(a0);
+			case FN_SIN: return Math.sin(a0);
+			case FN_COS: return Math.cos(a0);
+			case FN_TAN: return Math.tan(a0);
+			case FN_ASIN: return Math.asin(a0);
+			case FN_ACOS: return Math.acos(a0);
+			case FN_ATAN: return Math.atan(a0);
+			case FN_EXP: return Math.exp(a0);
+			case FN_LN: return Math.log(a0);
+			case FN_LOG: return Math.log10(a0);
+			}
+
+			// Functions of two or more arguments, the minimum and maximum functions
+			// keep the first argument in case of a tie
+			double best = a0;
+			int index = 0;
+			for (int i = 1; i < args.length; ++i) {
+				double val;
+				try {
+					val = args[i].eval(ec);
+				}
+				catch (UnitChange c) {
+					throw interpretFrom(ec, i, c.result, a0);
+				}
+
+				switch (op) {
+				case FN_ATAN2:
+					return Math.atan2(a0, val);
+				case FN_MAX:
+				case FN_INDEX_OF_MAX:
+					if (val > best) {
+						best = val;
+						index = i;
+					}
+					break;
+				case FN_MIN:
+				case FN_INDEX_OF_MIN:
+					if (val < best) {
+						best = val;
+						index = i;
+					}
+					break;
+				default:
+					throw new ExpError(node.exp.source, node.tokenPos, "Unknown function");
+				}
+			}
+
+			if (op == FN_INDEX_OF_MAX || op == FN_INDEX_OF_MIN)
+				return index + 1;
+			return best;
+		}
+
+		/**
+		 * Calls the interpreted function after argument 'i' has changed unit type.
+		 * Only the value of the first argument is kept, this is sufficient because
+		 * the only functions of more than two arguments require them all to have the
+		 * same unit type, so a change after the first argument is always an error.
+		 */
+		private UnitChange interpretFrom(EvalContext ec, int i, ExpResult changed, double a0) throws ExpError {
+			ExpResult[] argVals = new ExpResult[args.length];
+			for (int j = 0; j < i; ++j) {
+				argVals[j] = new ExpResult(a0, args[j].unitType);
+			}
+			argVals[i] = changed;
+			for (int j = i + 1; j < args.length; ++j) {
+				argVals[j] = node.evaluateArg(ec, j);
+			}
+			return new UnitChange(node.function.call(node.context, argVals, node.exp.source, node.tokenPos));
+		}
+	}
+
+	private static final int OP_NONE = -1;
+	private static final int OP_NEG = 0;
+	private static final int OP_PLUS = 1;
+	private static final int OP_NOT = 2;
+	private static final int OP_ADD = 3;
+	private static final int OP_SUB = 4;
+	private static final int OP_MUL = 5;
+	private static final int OP_DIV = 6;
+	private static final int OP_POW = 7;
+	private static final int OP_MOD = 8;
+	private static final int OP_EQ = 9;
+	private static final int OP_NE = 10;
+	private static final int OP_AND = 11;
+	private static final int OP_OR = 12;
+	private static final int OP_LT = 13;
+	private static final int OP_LE = 14;
+	private static final int OP_GT = 15;
+	private static final int OP_GE = 16;
+
+	private static final int FN_MAX = 17;
+	private static final int FN_MIN = 18;
+	private static final int FN_ABS = 19;
+	private static final int FN_INDEX_OF_MIN = 20;
+	private static final int FN_INDEX_OF_MAX = 21;
+	private static final int FN_E = 22;
+	private static final int FN_PI = 23;
+	private static final int FN_SIN = 24;
+	private static final int FN_COS = 25;
+	private static final int FN_TAN = 26;
+	private static final int FN_ASIN = 27;
+	private static final int FN_ACOS = 28;
+	private static final int FN_ATAN = 29;
+	private static final int FN_ATAN2 = 30;
+	private static final int FN_EXP = 31;
+	private static final int FN_LN = 32;
+	private static final int FN_LOG = 33;
+
+	private static int getUnaryOpCode(UnOpFunc func) {
+		String symbol = null;
+		for (UnaryOpEntry oe : unaryOps) {
+			if (oe.function == func)
+				symbol = oe.symbol;
+		}
+		if (symbol == null)
+			return OP_NONE;
+
+		switch (symbol) {
+		case "-": return OP_NEG;
+		case "+": return OP_PLUS;
+		case "!": return OP_NOT;
+		default: return OP_NONE;
+		}
+	}
+
+	private static int getBinaryOpCode(BinOpFunc func) {
+		String symbol = null;
+		for (BinaryOpEntry oe : binaryOps) {
+			if (oe.function == func)
+				symbol = oe.symbol;
+		}
+		if (symbol == null)
+			return OP_NONE;
+
+		switch (symbol) {
+		case "+": return OP_ADD;
+		case "-": return OP_SUB;
+		case "*": return OP_MUL;
+		case "/": return OP_DIV;
+		case "^": return OP_POW;
+		case "%": return OP_MOD;
+		case "==": return OP_EQ;
+		case "!=": return OP_NE;
+		case "&&": return OP_AND;
+		case "||": return OP_OR;
+		case "<": return OP_LT;
+		case "<=": return OP_LE;
+		case ">": return OP_GT;
+		case ">=": return OP_GE;
+		default: return OP_NONE;
+		}
+	}
+
+	private static int getFunctionCode(CallableFunc func) {
+		String name = null;
+		for (FunctionEntry fe : functions) {
+			if (fe.function == func)
+				name = fe.name;
+		}
+		if (name == null)
+			return OP_NONE;
+
+		switch (name) {
+		case "max": return FN_MAX;
+		case "min": return FN_MIN;
+		case "abs": return FN_ABS;
+		case "indexOfMin": return FN_INDEX_OF_MIN;
+		case "indexOfMax": return FN_INDEX_OF_MAX;
+		case "E": return FN_E;
+		case "PI": return FN_PI;
+		case "sin": return FN_SIN;
+		case "cos": return FN_COS;
+		case "tan": return FN_TAN;
+		case "asin": return FN_ASIN;
+		case "acos": return FN_ACOS;
+		case "atan": return FN_ATAN;
+		case "atan2": return FN_ATAN2;
+		case "exp": return FN_EXP;
+		case "ln": return FN_LN;
+		case "log": return FN_LOG;
+		default: return OP_NONE;
+		}
+	}
+
 	///////////////////////////////////////////////////////////
 	// Entries for user definable operators and functions
 
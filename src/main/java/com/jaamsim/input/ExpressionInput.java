@@ -16,7 +16,7 @@ package com.jaamsim.input;
 
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.input.ExpParser.Expression;
-import com.jaamsim.ui.LogBox;
+import com.jaamsim.ui.GUIUpdates;
 
 public class ExpressionInput extends Input<ExpParser.Expression> {
 	private Entity thisEnt;
@@ -43,7 +43,7 @@ public class ExpressionInput extends Input<ExpParser.Expression> {
 			value = exp;
 
 		} catch (ExpError e) {
-			LogBox.logException(e);
+			GUIUpdates.logException(e);
 			throw new InputErrorException(e.toString());
 		}
 	}
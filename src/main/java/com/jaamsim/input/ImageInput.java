@@ -35,6 +35,10 @@ public class ImageInput extends Input<BufferedImage> {
 			throw new InputErrorException("The specified file does not exist.\n" +
 					"File path = %s", kw.getArg(0));
 
+		// Images are only displayed by the user interface
+		if (InputAgent.isHeadless())
+			return;
+
 		try {
 			temp = ImageIO.read(uri.toURL());
 		}
@@ -696,6 +696,9 @@ public abstract class Input<T> {
 	public static final long usPerYr  = 365 * usPerDay;
 
 	public static boolean isRFC8601DateTime(String input) {
+		// Every date/time format contains a '-' or a ':', which avoids the
+		// regular expressions for ordinary numbers
+		if (input.indexOf('-') < 0 && input.indexOf(':') < 0) return false;
 		if (is8601time.matcher(input).matches()) return true;
 		if (is8601full.matcher(input).matches()) return true;
 		if (is8601date.matcher(input).matches()) return true;
@@ -27,8 +27,10 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
@@ -36,57 +38,71 @@ import com.jaamsim.basicsim.FileEntity;
 import com.jaamsim.basicsim.Group;
 import com.jaamsim.basicsim.ObjectType;
 import com.jaamsim.basicsim.Simulation;
+import com.jaamsim.basicsim.SimulationContext;
 import com.jaamsim.math.Vec3d;
-import com.jaamsim.ui.FrameBox;
-import com.jaamsim.ui.GUIFrame;
-import com.jaamsim.ui.LogBox;
+import com.jaamsim.ui.GUIUpdates;
 
 public class InputAgent {
 	private static final String recordEditsMarker = "RecordEdits";
 
-	private static int numErrors = 0;
-	private static int numWarnings = 0;
-	private static FileEntity logFile;
+	private static final Set<String> headlessSkipped = Collections.synchronizedSet(new HashSet<String>()); // user interface types and objects ignored in headless mode
 
-	private static double lastTimeForTrace;
+	private static final String INP_ERR_DEFINEUSED = "The name: %s has already been used and is a %s";
 
-	private static File configFile;           // present configuration file
-	private static boolean batchRun;
-	private static boolean sessionEdited;     // TRUE if any inputs have been changed after loading a configuration file
-	private static boolean recordEditsFound;  // TRUE if the "RecordEdits" marker is found in the configuration file
-	private static boolean recordEdits;       // TRUE if input changes are to be marked as edited.
+	/**
+	 * The input state for one simulation run, held by its SimulationContext.
+	 */
+	private static final class RunState {
+		int numErrors = 0;
+		int numWarnings = 0;
+		FileEntity logFile;
 
-	private static final String INP_ERR_DEFINEUSED = "The name: %s has already been used and is a %s";
+		double lastTimeForTrace = -1.0d;
 
-	private static File reportDir;
+		File configFile;           // present configuration file
+		String runSuffix = "";     // appended to the run name to distinguish replications
+		boolean sessionEdited;     // TRUE if any inputs have been changed after loading a configuration file
+		boolean recordEditsFound;  // TRUE if the "RecordEdits" marker is found in the configuration file
+		boolean recordEdits;       // TRUE if input changes are to be marked as edited.
 
-	static {
-		recordEditsFound = false;
-		sessionEdited = false;
-		batchRun = false;
-		configFile = null;
-		reportDir = null;
-		lastTimeForTrace = -1.0d;
+		File reportDir;
+
+		boolean batchRun;
+		boolean headless;          // TRUE if there is no user interface to update
+	}
+
+	private static RunState state() {
+		SimulationContext ctx = SimulationContext.current();
+		synchronized (ctx) {
+			RunState st = (RunState)ctx.getState(InputAgent.class);
+			if (st == null) {
+				st = new RunState();
+				ctx.setState(InputAgent.class, st);
+			}
+			return st;
+		}
 	}
 
 	public static void clear() {
-		logFile = null;
-		numErrors = 0;
-		numWarnings = 0;
-		recordEditsFound = false;
-		sessionEdited = false;
-		configFile = null;
-		reportDir = null;
-		lastTimeForTrace = -1.0d;
+		RunState st = state();
+		st.logFile = null;
+		st.numErrors = 0;
+		st.numWarnings = 0;
+		st.recordEditsFound = false;
+		st.sessionEdited = false;
+		st.configFile = null;
+		st.reportDir = null;
+		st.lastTimeForTrace = -1.0d;
 		setReportDirectory(null);
 	}
 
 	private static String getReportDirectory() {
-		if (reportDir != null)
-			return reportDir.getPath() + File.separator;
+		RunState st = state();
+		if (st.reportDir != null)
+			return st.reportDir.getPath() + File.separator;
 
-		if (configFile != null)
-			return configFile.getParentFile().getPath() + File.separator;
+		if (st.configFile != null)
+			return st.configFile.getParentFile().getPath() + File.separator;
 
 		return null;
 	}
@@ -96,15 +112,17 @@ public class InputAgent {
 	}
 
 	public static void setReportDirectory(File dir) {
-		reportDir = dir;
-		if (reportDir == null)
+		RunState st = state();
+		st.reportDir = dir;
+		if (st.reportDir == null)
 			return;
-		if (!reportDir.exists() && !reportDir.mkdirs())
-			throw new InputErrorException("Was unable to create the Report Directory: %s", reportDir.toString());
+		if (!st.reportDir.exists() && !st.reportDir.mkdirs())
+			throw new InputErrorException("Was unable to create the Report Directory: %s", st.reportDir.toString());
 	}
 
 	public static void prepareReportDirectory() {
-		if (reportDir != null) reportDir.mkdirs();
+		RunState st = state();
+		if (st.reportDir != null) st.reportDir.mkdirs();
 	}
 
 	/**
@@ -113,7 +131,7 @@ public class InputAgent {
 	 * @param file - the present configuration file.
 	 */
 	public static void setConfigFile(File file) {
-		configFile = file;
+		state().configFile = file;
 	}
 
 	/**
@@ -124,28 +142,40 @@ public class InputAgent {
 	 * @return the present configuration file.
 	 */
 	public static File getConfigFile() {
-		return configFile;
+		return state().configFile;
 	}
 
 	/**
 	 * Returns the name of the simulation run.
 	 * <p>
 	 * For example, if the configuration file name is "case1.cfg", then the
-	 * run name is "case1".
+	 * run name is "case1". A replication of the run has the replication
+	 * suffix appended, e.g. "case1-rep2".
 	 * <p>
 	 * @return the name of simulation run.
 	 */
 	public static String getRunName() {
-
-		if( InputAgent.getConfigFile() == null )
+		RunState st = state();
+		if( st.configFile == null )
 			return "";
 
-		String name = InputAgent.getConfigFile().getName();
+		String name = st.configFile.getName();
 		int index = name.lastIndexOf( "." );
-		if( index == -1 )
-			return name;
+		if( index != -1 )
+			name = name.substring( 0, index );
 
-		return name.substring( 0, index );
+		return name + st.runSuffix;
+	}
+
+	/**
+	 * Sets the suffix appended to the run name, so that concurrent
+	 * replications of one configuration file write separate log and report
+	 * files.
+	 *
+	 * @param suffix - the replication suffix, e.g. "-rep2".
+	 */
+	public static void setRunSuffix(String suffix) {
+		state().runSuffix = suffix;
 	}
 
 	/**
@@ -154,7 +184,7 @@ public class InputAgent {
 	 * @param bool - TRUE if a RecordEdits marker was found.
 	 */
 	public static void setRecordEditsFound(boolean bool) {
-		recordEditsFound = bool;
+		state().recordEditsFound = bool;
 	}
 
 	/**
@@ -163,7 +193,7 @@ public class InputAgent {
 	 * @return - TRUE if a RecordEdits marker was found.
 	 */
 	public static boolean getRecordEditsFound() {
-		return recordEditsFound;
+		return state().recordEditsFound;
 	}
 
 	/**
@@ -182,7 +212,7 @@ public class InputAgent {
 	 * @return the RecordEdits mode for the InputAgent.
 	 */
 	public static boolean recordEdits() {
-		return recordEdits;
+		return state().recordEdits;
 	}
 
 	/**
@@ -201,19 +231,43 @@ public class InputAgent {
 	 * @param b - boolean value for the RecordEdits mode
 	 */
 	public static void setRecordEdits(boolean b) {
-		recordEdits = b;
+		state().recordEdits = b;
 	}
 
 	public static boolean isSessionEdited() {
-		return sessionEdited;
+		return state().sessionEdited;
 	}
 
 	public static void setBatch(boolean batch) {
-		batchRun = batch;
+		state().batchRun = batch;
 	}
 
 	public static boolean getBatch() {
-		return batchRun;
+		return state().batchRun;
+	}
+
+	/**
+	 * Marks the run in the present context as having no user interface. Each
+	 * context carries its own setting. In this mode the model and
+	 * input code will not touch any of the Swing, rendering or controller
+	 * classes, so that a model can be run on a machine without a display.
+	 */
+	public static void setHeadless(boolean bool) {
+		state().headless = bool;
+	}
+
+	public static boolean isHeadless() {
+		return state().headless;
+	}
+
+	/**
+	 * Returns true if the given class name belongs to one of the user interface
+	 * packages that must not be loaded in headless mode.
+	 */
+	private static boolean isUserInterfaceClass(String className) {
+		return className.startsWith("com.jaamsim.ui.") ||
+		       className.startsWith("com.jaamsim.render.") ||
+		       className.startsWith("com.jaamsim.controllers.");
 	}
 
 	private static int getBraceDepth(ArrayList<String> tokens, int startingBraceDepth, int startingIndex) {
@@ -269,7 +323,7 @@ public class InputAgent {
 
 		try {
 			readStream(resRoot.toString(), resPath, res);
-			GUIFrame.instance().setProgressText(null);
+			GUIUpdates.setProgressText(null);
 		}
 		catch (URISyntaxException ex) {
 			rethrowWrapped(ex);
@@ -279,7 +333,7 @@ public class InputAgent {
 
 	public static final boolean readStream(String root, URI path, String file) throws URISyntaxException {
 		String shortName = file.substring(file.lastIndexOf('/') + 1, file.length());
-		GUIFrame.instance().setProgressText(shortName);
+		GUIUpdates.setProgressText(shortName);
 		URI resolved = getFileURI(path, file, root);
 
 		URL url = null;
@@ -385,6 +439,14 @@ public class InputAgent {
 			return;
 		}
 
+		// Objects whose type is implemented by the user interface are not created
+		if (isHeadless() && headlessSkipped.contains(record.get(1))) {
+			for (int i = 3; i < record.size() - 1; i++) {
+				headlessSkipped.add(record.get(i));
+			}
+			return;
+		}
+
 		Class<? extends Entity> proto = null;
 		try {
 			if( record.get( 1 ).equalsIgnoreCase( "ObjectType" ) ) {
@@ -493,7 +555,7 @@ public class InputAgent {
 			ent = proto.newInstance();
 			if (addedEntity) {
 				ent.setFlag(Entity.FLAG_ADDED);
-				sessionEdited = true;
+				state().sessionEdited = true;
 			}
 		}
 		catch (InstantiationException e) {}
@@ -512,6 +574,9 @@ public class InputAgent {
 	public static void processKeywordRecord(ArrayList<String> record, ParseContext context) {
 		Entity ent = Input.tryParseEntity(record.get(0), Entity.class);
 		if (ent == null) {
+			if (isHeadless() && headlessSkipped.contains(record.get(0)))
+				return;
+
 			InputAgent.logError("Could not find Entity: %s", record.get(0));
 			return;
 		}
@@ -519,6 +584,13 @@ public class InputAgent {
 		// Validate the tokens have the Entity Keyword { Args... } Keyword { Args... }
 		ArrayList<KeywordIndex> words = InputAgent.getKeywords(record, context);
 		for (KeywordIndex keyword : words) {
+			// Do not load the classes for user interface object types
+			if (isHeadless() && ent instanceof ObjectType && keyword.keyword.equals("JavaClass") &&
+			    keyword.numArgs() == 1 && isUserInterfaceClass(keyword.getArg(0))) {
+				headlessSkipped.add(ent.getName());
+				continue;
+			}
+
 			try {
 				InputAgent.processKeyword(ent, keyword);
 			}
@@ -567,6 +639,7 @@ public class InputAgent {
 
 	// Load the run file
 	public static void loadConfigurationFile( File file) throws URISyntaxException {
+		RunState st = state();
 
 		String inputTraceFileName = InputAgent.getRunName() + ".log";
 		// Initializing the tracing for the model
@@ -577,7 +650,7 @@ public class InputAgent {
 			URI logURI = confURI.resolve(new URI(null, inputTraceFileName, null)); // The new URI here effectively escapes the file name
 
 			// Set and open the input trace file name
-			logFile = new FileEntity( logURI.getPath());
+			st.logFile = new FileEntity( logURI.getPath());
 		}
 		catch( Exception e ) {
 			InputAgent.logWarning("Could not create trace file");
@@ -587,20 +660,20 @@ public class InputAgent {
 		InputAgent.readStream("", dirURI, file.getName());
 
 		// The session is not considered to be edited after loading a configuration file
-		sessionEdited = false;
+		st.sessionEdited = false;
 
 		// Save and close the input trace file
-		if (logFile != null) {
-			if (InputAgent.numWarnings == 0 && InputAgent.numErrors == 0) {
-				logFile.close();
-				logFile.delete();
-				logFile = new FileEntity( inputTraceFileName);
+		if (st.logFile != null) {
+			if (st.numWarnings == 0 && st.numErrors == 0) {
+				st.logFile.close();
+				st.logFile.delete();
+				st.logFile = new FileEntity( inputTraceFileName);
 			}
 		}
 
 		//  Check for found errors
-		if( InputAgent.numErrors > 0 )
-			throw new InputErrorException("%d input errors and %d warnings found", InputAgent.numErrors, InputAgent.numWarnings);
+		if( st.numErrors > 0 )
+			throw new InputErrorException("%d input errors and %d warnings found", st.numErrors, st.numWarnings);
 
 		if (Simulation.getPrintInputReport())
 			InputAgent.printInputFileKeywords();
@@ -632,7 +705,7 @@ public class InputAgent {
 		}
 
 		InputAgent.apply(ent, in, kw);
-		FrameBox.valueUpdate();
+		GUIUpdates.valueUpdate();
 	}
 
 	public static final void apply(Entity ent, Input<?> in, KeywordIndex kw) {
@@ -650,10 +723,14 @@ public class InputAgent {
 			in.setEdited(true);
 			ent.setFlag(Entity.FLAG_EDITED);
 			if (!ent.testFlag(Entity.FLAG_GENERATED) && in.isPromptReqd())
-				sessionEdited = true;
+				state().sessionEdited = true;
 		}
 
 		ent.updateForInput(in);
+
+		// Expressions may refer to the outputs and attributes defined by this input
+		if (!ent.testFlag(Entity.FLAG_GENERATED))
+			ExpEvaluator.invalidateBindings();
 	}
 
 	public static void processKeyword(Entity entity, KeywordIndex key) {
@@ -663,7 +740,7 @@ public class InputAgent {
 		Input<?> input = entity.getInput( key.keyword );
 		if (input != null) {
 			InputAgent.apply(entity, input, key);
-			FrameBox.valueUpdate();
+			GUIUpdates.valueUpdate();
 			return;
 		}
 
@@ -826,16 +903,17 @@ public class InputAgent {
 	}
 
 	public static void closeLogFile() {
-		if (logFile == null)
+		RunState st = state();
+		if (st.logFile == null)
 			return;
 
-		logFile.flush();
-		logFile.close();
+		st.logFile.flush();
+		st.logFile.close();
 
-		if (numErrors ==0 && numWarnings == 0) {
-			logFile.delete();
+		if (st.numErrors ==0 && st.numWarnings == 0) {
+			st.logFile.delete();
 		}
-		logFile = null;
+		st.logFile = null;
 	}
 
 	private static final String errPrefix = "*** ERROR *** %s%n";
@@ -843,34 +921,35 @@ public class InputAgent {
 	private static final String wrnPrefix = "***WARNING*** %s%n";
 
 	public static int numErrors() {
-		return numErrors;
+		return state().numErrors;
 	}
 
 	public static int numWarnings() {
-		return numWarnings;
+		return state().numWarnings;
 	}
 
 	private static void echoInputRecord(ArrayList<String> tokens) {
-		if (logFile == null)
+		RunState st = state();
+		if (st.logFile == null)
 			return;
 
 		boolean beginLine = true;
 		for (int i = 0; i < tokens.size(); i++) {
 			if (!beginLine)
-				logFile.write("  ");
+				st.logFile.write("  ");
 			String tok = tokens.get(i);
-			logFile.write(tok);
+			st.logFile.write(tok);
 			beginLine = false;
 			if (tok.startsWith("\"")) {
-				logFile.newLine();
+				st.logFile.newLine();
 				beginLine = true;
 			}
 		}
 		// If there were any leftover string written out, make sure the line gets terminated
 		if (!beginLine)
-			logFile.newLine();
+			st.logFile.newLine();
 
-		logFile.flush();
+		st.logFile.flush();
 	}
 
 	private static void logBadInput(ArrayList<String> tokens, String msg) {
@@ -879,18 +958,20 @@ public class InputAgent {
 	}
 
 	public static void logMessage(String fmt, Object... args) {
+		RunState st = state();
 		String msg = String.format(fmt, args);
-		LogBox.logLine(msg);
+		GUIUpdates.logLine(msg);
 
-		if (logFile == null)
+		if (st.logFile == null)
 			return;
 
-		logFile.write(msg);
-		logFile.newLine();
-		logFile.flush();
+		st.logFile.write(msg);
+		st.logFile.newLine();
+		st.logFile.flush();
 	}
 
 	public static void trace(int indent, Entity ent, String meth, String... text) {
+		RunState st = state();
 		// Create an indent string to space the lines
 		StringBuilder ind = new StringBuilder("");
 		for (int i = 0; i < indent; i++)
@@ -899,9 +980,9 @@ public class InputAgent {
 
 		// Print a TIME header every time time has advanced
 		double traceTime = ent.getCurrentTime();
-		if (lastTimeForTrace != traceTime) {
+		if (st.lastTimeForTrace != traceTime) {
 			System.out.format(" \nTIME = %.5f\n", traceTime);
-			lastTimeForTrace = traceTime;
+			st.lastTimeForTrace = traceTime;
 		}
 
 		// Output the traces line(s)
@@ -914,19 +995,19 @@ public class InputAgent {
 	}
 
 	public static void logWarning(String fmt, Object... args) {
-		numWarnings++;
+		state().numWarnings++;
 		String msg = String.format(fmt, args);
 		InputAgent.logMessage(wrnPrefix, msg);
 	}
 
 	public static void logError(String fmt, Object... args) {
-		numErrors++;
+		state().numErrors++;
 		String msg = String.format(fmt, args);
 		InputAgent.logMessage(errPrefix, msg);
 	}
 
 	public static void logInpError(String fmt, Object... args) {
-		numErrors++;
+		state().numErrors++;
 		String msg = String.format(fmt, args);
 		InputAgent.logMessage(inpErrPrefix, msg);
 	}
@@ -1066,7 +1147,7 @@ public class InputAgent {
 		file.flush();
 		file.close();
 
-		sessionEdited = false;
+		state().sessionEdited = false;
 	}
 
 	private static boolean matchesKey(String key, String[] keys) {
@@ -1158,7 +1239,7 @@ public class InputAgent {
 		InputAgent.setRecordEditsFound(false);
 
 		// Set the model state to unedited
-		sessionEdited = false;
+		state().sessionEdited = false;
 	}
 
 	public static KeywordIndex formatPointsInputs(String keyword, ArrayList<Vec3d> points, Vec3d offset) {
@@ -1290,8 +1371,8 @@ public class InputAgent {
 
 		// Check that the file path includes the jail folder
 		if (jailPrefix != null && ret.toString().indexOf(jailPrefix) != 0) {
-			LogBox.format("Failed jail test: %s in jail: %s context: %s\n", ret.toString(), jailPrefix, context.toString());
-			LogBox.getInstance().setVisible(true);
+			String msg = String.format("Failed jail test: %s in jail: %s context: %s", ret.toString(), jailPrefix, context.toString());
+			GUIUpdates.showLogLine(msg);
 			return null; // This resolved URI is not in our jail
 		}
 
@@ -14,12 +14,16 @@
  */
 package com.jaamsim.input;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
@@ -37,10 +41,30 @@ public class OutputHandle {
 	public OutputStaticInfo outputInfo;
 	public Class<? extends Unit> unitType;
 
-	private static final HashMap<Class<? extends Entity>, ArrayList<OutputStaticInfo>> outputInfoCache;
+	// Shared by concurrent simulation runs, so a racing thread may build an
+	// entry twice but only the first one stored is ever returned
+	private static final ConcurrentHashMap<Class<? extends Entity>, ArrayList<OutputStaticInfo>> outputInfoCache;
+	private static final ConcurrentHashMap<Class<? extends Entity>, HashMap<String, OutputStaticInfo>> outputInfoMapCache;
+
+	private static final MethodType VALUE_TYPE = MethodType.methodType(Object.class, Entity.class, double.class);
+	private static final MethodType DOUBLE_TYPE = MethodType.methodType(double.class, Entity.class, double.class);
+	private static final MethodHandle BOOLEAN_TO_DOUBLE;
 
 	static {
-		outputInfoCache = new HashMap<>();
+		outputInfoCache = new ConcurrentHashMap<>();
+		outputInfoMapCache = new ConcurrentHashMap<>();
+
+		try {
+			BOOLEAN_TO_DOUBLE = MethodHandles.lookup().findStatic(OutputHandle.class, "booleanToDouble",
+					MethodType.methodType(double.class, boolean.class));
+		}
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private static double booleanToDouble(boolean val) {
+		return val ? 1.0d : 0.0d;
 	}
 
 	public OutputHandle(Entity e, String outputName) {
@@ -74,6 +98,9 @@ public class OutputHandle {
 		public final String desc;
 		public final boolean reportable;
 		public final Class<? extends Unit> unitType;
+		public final Class<?> returnType;
+		public final MethodHandle valueHandle;  // (Entity, double)Object, null if the method is not accessible
+		public final MethodHandle doubleHandle; // (Entity, double)double, for outputs returning a primitive
 
 		public OutputStaticInfo(Method m, Output a) {
 			method = m;
@@ -81,9 +108,34 @@ public class OutputHandle {
 			reportable = a.reportable();
 			name = a.name().intern();
 			unitType = a.unitType();
+			returnType = m.getReturnType();
+
+			MethodHandle mh = null;
+			try {
+				mh = MethodHandles.lookup().unreflect(m);
+			}
+			catch (IllegalAccessException e) {}
+
+			valueHandle = mh == null ? null : mh.asType(VALUE_TYPE);
+			doubleHandle = mh == null ? null : getDoubleHandle(mh, returnType);
 		}
 	}
 
+	/**
+	 * Returns a handle that converts the output's value to a double, or null if
+	 * the output does not return a primitive numeric or boolean type.
+	 */
+	private static MethodHandle getDoubleHandle(MethodHandle mh, Class<?> rtype) {
+		if (rtype == boolean.class)
+			return MethodHandles.filterReturnValue(mh, BOOLEAN_TO_DOUBLE).asType(DOUBLE_TYPE);
+
+		if (rtype == double.class || rtype == float.class || rtype == long.class ||
+		    rtype == int.class || rtype == short.class || rtype == char.class)
+			return mh.asType(DOUBLE_TYPE);
+
+		return null;
+	}
+
 	// Note: this method will not include attributes in the list. For a complete list use
 	// Entity.hasOutput()
 	public static Boolean hasOutput(Class<? extends Entity> klass, String outputName) {
@@ -95,19 +147,27 @@ public class OutputHandle {
 	}
 
 	private static OutputStaticInfo getOutputInfo(Class<? extends Entity> klass, String outputName) {
-		for (OutputStaticInfo p : getOutputInfoImp(klass)) {
-			if( p.name.equals(outputName) )
-				return p;
-		}
-		return null;
+		return getOutputInfoMap(klass).get(outputName);
 	}
 
 	private static OutputStaticInfo getOutputInfoInterned(Class<? extends Entity> klass, String outputName) {
-		for (OutputStaticInfo p : getOutputInfoImp(klass)) {
-			if( p.name == outputName )
-				return p;
+		return getOutputInfoMap(klass).get(outputName);
+	}
+
+	private static HashMap<String, OutputStaticInfo> getOutputInfoMap(Class<? extends Entity> klass) {
+		HashMap<String, OutputStaticInfo> ret = outputInfoMapCache.get(klass);
+		if (ret != null)
+			return ret;
+
+		// Keep the first output found for each name, as the list is searched in order
+		ArrayList<OutputStaticInfo> list = getOutputInfoImp(klass);
+		ret = new HashMap<>(list.size() * 2);
+		for (OutputStaticInfo p : list) {
+			if (!ret.containsKey(p.name))
+				ret.put(p.name, p);
 		}
-		return null;
+		HashMap<String, OutputStaticInfo> prev = outputInfoMapCache.putIfAbsent(klass, ret);
+		return prev != null ? prev : ret;
 	}
 
 	private static ArrayList<OutputStaticInfo> getOutputInfoImp(Class<? extends Entity> klass) {
@@ -131,8 +191,8 @@ public class OutputHandle {
 
 			ret.add(new OutputStaticInfo(m, a));
 		}
-		outputInfoCache.put(klass, ret);
-		return ret;
+		ArrayList<OutputStaticInfo> prev = outputInfoCache.putIfAbsent(klass, ret);
+		return prev != null ? prev : ret;
 	}
 
 	/**
@@ -180,11 +240,23 @@ public class OutputHandle {
 		if( outputInfo.method == null )
 			return null;
 
+		if (!klass.isAssignableFrom(outputInfo.returnType))
+			return null;
+
+		if (outputInfo.valueHandle != null) {
+			try {
+				return (T)(Object)outputInfo.valueHandle.invokeExact(ent, simTime);
+			}
+			catch (RuntimeException | Error e) {
+				throw e;
+			}
+			catch (Throwable t) {
+				throw new ErrorException(t);
+			}
+		}
+
 		T ret = null;
 		try {
-			if (!klass.isAssignableFrom(outputInfo.method.getReturnType()))
-				return null;
-
 			ret = (T)outputInfo.method.invoke(ent, simTime);
 		}
 		catch (InvocationTargetException | IllegalAccessException | ClassCastException ex) {
@@ -240,7 +312,19 @@ public class OutputHandle {
 	 * @return
 	 */
 	public double getValueAsDouble(double simTime, double def) {
-		Class<?> retType = this.getReturnType();
+		if (outputInfo.doubleHandle != null) {
+			try {
+				return (double)outputInfo.doubleHandle.invokeExact(ent, simTime);
+			}
+			catch (RuntimeException | Error e) {
+				throw e;
+			}
+			catch (Throwable t) {
+				throw new ErrorException(t);
+			}
+		}
+
+		Class<?> retType = outputInfo.returnType;
 		if (retType == double.class)
 			return this.getValue(simTime, double.class);
 
@@ -298,7 +382,7 @@ public class OutputHandle {
 
 	public Class<?> getReturnType() {
 		assert (outputInfo.method != null);
-		return outputInfo.method.getReturnType();
+		return outputInfo.returnType;
 	}
 
 	public Class<?> getDeclaringClass() {
@@ -333,14 +417,10 @@ public class OutputHandle {
 		}
 
 		@SuppressWarnings("unchecked")
-		ArrayList<OutputStaticInfo> infos = getOutputInfoImp((Class<? extends Entity>)klass);
-
-		for (OutputStaticInfo info : infos) {
-			if (info.name.equals(outputName)) {
-				 return info.method.getReturnType();
-			}
-		}
-		return null;
+		OutputStaticInfo info = getOutputInfo((Class<? extends Entity>)klass, outputName);
+		if (info == null)
+			return null;
+		return info.returnType;
 	}
 
 	// Lookup an outputs return type from the unit type
@@ -350,14 +430,10 @@ public class OutputHandle {
 		}
 
 		@SuppressWarnings("unchecked")
-		ArrayList<OutputStaticInfo> infos = getOutputInfoImp((Class<? extends Entity>)klass);
-
-		for (OutputStaticInfo info : infos) {
-			if (info.name.equals(outputName)) {
-				 return info.unitType;
-			}
-		}
-		return null;
+		OutputStaticInfo info = getOutputInfo((Class<? extends Entity>)klass, outputName);
+		if (info == null)
+			return null;
+		return info.unitType;
 	}
 
 }
@@ -92,6 +92,14 @@ public class OutputInput<T> extends Input<String> {
 		}
 	}
 
+	/**
+	 * Returns true if the input names a chain of outputs rather than a single
+	 * output of the entity.
+	 */
+	public boolean isChain() {
+		return !outputNameList.isEmpty();
+	}
+
 	public OutputHandle getOutputHandle(double simTime) {
 		OutputHandle o = out;
 		for( String name : outputNameList ) {
@@ -79,27 +79,8 @@ public class TimeSeriesDataInput extends Input<TimeSeriesData> {
 				each.add(kw.getArg(j));
 			}
 
-			// Time input in RFC8601 date/time format
-			long recordus;
-			if (Input.isRFC8601DateTime(each.get(0))) {
-				Input.assertCountRange(each, 2, 3);
-				recordus = Input.parseRFC8601DateTime(each.get(0));
-				each.remove(0);
-			}
-			// Time input in number/unit format
-			else {
-				// Parse the unit portion of the time input
-				Input.assertCountRange(each, 3, 4);
-				TimeUnit unit = Input.tryParseUnit(each.get(1), TimeUnit.class);
-				if (unit == null)
-					throw new InputErrorException(INP_ERR_NOUNITFOUND, each.get(1), "TimeUnit");
-
-				// Parse the numeric portion of the time input
-				double factor = unit.getConversionFactorToSI();
-				recordus = (long) (Input.parseDouble(each.get(0), 0.0, Double.POSITIVE_INFINITY, factor)*1e6);
-				each.remove(0);
-				each.remove(0);
-			}
+			// Time portion of the record
+			long recordus = parseRecordTime(each);
 
 			// Make sure the times are in increasing order
 			if (recordus <= lastTime)
@@ -130,6 +111,38 @@ public class TimeSeriesDataInput extends Input<TimeSeriesData> {
 		value = new TimeSeriesData( times, values );
 	}
 
+	/**
+	 * Parses and removes the time portion of a time series record, which is
+	 * either a date/time in RFC8601 format or a number followed by a time unit.
+	 * @param each - tokens for the record.
+	 * @return time for the record in microseconds.
+	 * @throws InputErrorException
+	 */
+	static long parseRecordTime(ArrayList<String> each) throws InputErrorException {
+
+		// Time input in RFC8601 date/time format
+		if (Input.isRFC8601DateTime(each.get(0))) {
+			Input.assertCountRange(each, 2, 3);
+			long recordus = Input.parseRFC8601DateTime(each.get(0));
+			each.remove(0);
+			return recordus;
+		}
+
+		// Time input in number/unit format
+		// Parse the unit portion of the time input
+		Input.assertCountRange(each, 3, 4);
+		TimeUnit unit = Input.tryParseUnit(each.get(1), TimeUnit.class);
+		if (unit == null)
+			throw new InputErrorException(INP_ERR_NOUNITFOUND, each.get(1), "TimeUnit");
+
+		// Parse the numeric portion of the time input
+		double factor = unit.getConversionFactorToSI();
+		long recordus = (long) (Input.parseDouble(each.get(0), 0.0, Double.POSITIVE_INFINITY, factor)*1e6);
+		each.remove(0);
+		each.remove(0);
+		return recordus;
+	}
+
 	public void setUnitType(Class<? extends Unit> u) {
 		if (u != unitType)
 			this.reset();
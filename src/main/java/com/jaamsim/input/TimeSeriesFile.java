@@ -0,0 +1,420 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import com.jaamsim.Samples.TimeSeriesData;
+import com.jaamsim.units.Unit;
+
+/**
+ * Reads time series data from an external file.
+ * <p>
+ * The data can be given either as a text file with one record per line, or
+ * in a binary layout that is memory-mapped directly. A text file is parsed
+ * only once: the result is saved in the binary layout next to it, with the
+ * extension CACHE_EXT added, and the saved copy is mapped on later loads as
+ * long as the text file is unchanged. If the copy cannot be written next to
+ * the text file, for example in a read-only directory, it is written to the
+ * temporary directory instead, and if that also fails the parsed data is
+ * kept on the heap.
+ * <p>
+ * Each line of a text file holds one record in the same form as the inline
+ * TimeSeries input, with the fields separated by commas or white space, for
+ * example "2010-01-01 00:00:00, 0.5, m" or "3 h, 1.5 m". Blank lines, lines
+ * starting with '#' and a first line starting with a letter (a column
+ * header) are ignored.
+ * <p>
+ * The binary layout is a big-endian header of HEADER_SIZE bytes followed by
+ * the time of each point in clock ticks as 8 byte integers and then the value
+ * of each point in SI units as 8 byte floating point numbers. The header
+ * holds the magic number, the version, the number of points, the clock tick
+ * length in seconds, the minimum and maximum values, the hash code of the
+ * unit type's name (0 if unspecified), and the length and modification time
+ * of the text file it was created from (0 for none).
+ */
+public final class TimeSeriesFile {
+
+	static final int MAGIC = 0x4A545342;  // "JTSB"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 64;
+
+	public static final String CACHE_EXT = ".tsb";
+
+	private static final Pattern COMMA = Pattern.compile(",");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private TimeSeriesFile() {}
+
+	/**
+	 * Returns the time series data held in the given file, which is mapped
+	 * into memory rather than read onto the heap whenever a binary copy is
+	 * available.
+	 * @param file - text or binary time series file.
+	 * @param unitType - unit type for the values.
+	 * @param tickLength - simulation clock tick length in seconds.
+	 * @return time series data backed by the mapped file, or by heap arrays if
+	 * no binary copy could be written.
+	 * @throws InputErrorException
+	 */
+	public static TimeSeriesData load(File file, Class<? extends Unit> unitType, double tickLength)
+	throws InputErrorException {
+		try {
+			if (isBinary(file)) {
+				TimeSeriesData ret = map(file, unitType, tickLength, -1L, -1L);
+				if (ret == null)
+					throw new InputErrorException("The binary time series file %s does not match " +
+							"the present clock tick length or unit type", file);
+				return ret;
+			}
+
+			// Use the binary copy of a text file if it is up to date
+			File[] caches = { getCacheFile(file), getTempCacheFile(file) };
+			for (File cache : caches) {
+				TimeSeriesData ret = mapCache(cache, unitType, tickLength, file);
+				if (ret != null)
+					return ret;
+			}
+
+			Records rec = parse(file, unitType, tickLength);
+			if (rec.n < 1)
+				throw new InputErrorException("The time series file %s contains no records", file);
+
+			for (File cache : caches) {
+				try {
+					write(cache, rec.ticks, rec.values, rec.n, unitType, tickLength, file.length(), file.lastModified());
+				}
+				catch (IOException | SecurityException e) {
+					continue;
+				}
+				TimeSeriesData ret = mapCache(cache, unitType, tickLength, file);
+				if (ret != null)
+					return ret;
+			}
+
+			// Neither copy could be written, so keep the parsed data on the heap
+			long[] ticks = Arrays.copyOf(rec.ticks, rec.n);
+			double[] values = Arrays.copyOf(rec.values, rec.n);
+			return new TimeSeriesData(LongBuffer.wrap(ticks), DoubleBuffer.wrap(values), rec.min, rec.max);
+		}
+		catch (IOException e) {
+			throw new InputErrorException("Unable to read the time series file %s:%n%s", file, e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the file used to hold the parsed contents of the given text file.
+	 */
+	public static File getCacheFile(File file) {
+		return new File(file.getPath() + CACHE_EXT);
+	}
+
+	/**
+	 * Returns the file in the temporary directory used in place of the cache
+	 * file when the latter cannot be written.
+	 */
+	static File getTempCacheFile(File file) {
+		String name = String.format("jaamsim-%08x-%s%s", file.getAbsolutePath().hashCode(),
+				file.getName(), CACHE_EXT);
+		return new File(System.getProperty("java.io.tmpdir"), name);
+	}
+
+	/**
+	 * Returns true if the given file starts with the binary header.
+	 */
+	static boolean isBinary(File file) {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			return in.readInt() == MAGIC;
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Parses the given text file and writes its contents to a binary file.
+	 * @param file - text time series file.
+	 * @param dest - binary file to be written.
+	 * @param unitType - unit type for the values.
+	 * @param tickLength - simulation clock tick length in seconds.
+	 * @throws InputErrorException
+	 * @throws IOException
+	 */
+	public static void convert(File file, File dest, Class<? extends Unit> unitType, double tickLength)
+	throws InputErrorException, IOException {
+		Records rec = parse(file, unitType, tickLength);
+		write(dest, rec.ticks, rec.values, rec.n, unitType, tickLength, file.length(), file.lastModified());
+	}
+
+	/**
+	 * The records read from a text file, held in the first n entries of each
+	 * array.
+	 */
+	private static final class Records {
+		final long[] ticks;
+		final double[] values;
+		final int n;
+		final double min;
+		final double max;
+
+		Records(long[] ticks, double[] values, int n) {
+			this.ticks = ticks;
+			this.values = values;
+			this.n = n;
+			double mx = Double.NEGATIVE_INFINITY;
+			double mn = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < n; i++) {
+				mx = Math.max(mx, values[i]);
+				mn = Math.min(mn, values[i]);
+			}
+			min = mn;
+			max = mx;
+		}
+	}
+
+	private static Records parse(File file, Class<? extends Unit> unitType, double tickLength)
+	throws InputErrorException, IOException {
+		long[] ticks = new long[1024];
+		double[] values = new double[1024];
+		int n = 0;
+
+		long startingYearOffset = -1;
+		long lastTime = -1;
+		ArrayList<String> each = new ArrayList<>();
+		try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+			int lineNum = 0;
+			while (true) {
+				String line = in.readLine();
+				if (line == null)
+					break;
+				lineNum++;
+
+				line = line.trim();
+				if (line.isEmpty() || line.charAt(0) == '#')
+					continue;
+				if (n == 0 && Character.isLetter(line.charAt(0)))
+					continue;
+
+				try {
+					splitRecord(line, each);
+
+					// Parse the time and value in the same way as the inline input
+					long recordus = TimeSeriesDataInput.parseRecordTime(each);
+					if (recordus <= lastTime)
+						throw new InputErrorException("The times must be given in increasing order");
+					lastTime = recordus;
+
+					if (startingYearOffset == -1) {
+						startingYearOffset = recordus / Input.usPerYr;
+						startingYearOffset *= Input.usPerYr;
+					}
+					long usOffset = recordus - startingYearOffset;
+
+					double val = Input.parseDoubles(each, Double.NEGATIVE_INFINITY,
+							Double.POSITIVE_INFINITY, unitType).get(0);
+
+					if (n == ticks.length) {
+						ticks = Arrays.copyOf(ticks, n * 2);
+						values = Arrays.copyOf(values, n * 2);
+					}
+					ticks[n] = Math.round(usOffset/(1.0e6*tickLength));
+					values[n] = val;
+					n++;
+				}
+				catch (InputErrorException e) {
+					throw new InputErrorException("Error on line %d of %s:%n%s", lineNum, file, e.getMessage());
+				}
+			}
+		}
+
+		return new Records(ticks, values, n);
+	}
+
+	/**
+	 * Splits one line of a text file into tokens, keeping a date/time field
+	 * as a single token.
+	 */
+	private static void splitRecord(String line, ArrayList<String> each) {
+		each.clear();
+		for (String field : COMMA.split(line)) {
+			field = field.trim();
+			if (field.length() > 1 && field.charAt(0) == '"' && field.charAt(field.length() - 1) == '"')
+				field = field.substring(1, field.length() - 1).trim();
+			if (field.isEmpty())
+				continue;
+
+			if (Input.isRFC8601DateTime(field)) {
+				each.add(field);
+				continue;
+			}
+
+			for (String tok : WHITESPACE.split(field)) {
+
+				// Rejoin a date and time that were separated by white space
+				if (each.size() == 1 && tok.indexOf(':') > 0) {
+					String dateTime = each.get(0) + " " + tok;
+					if (Input.isRFC8601DateTime(dateTime)) {
+						each.set(0, dateTime);
+						continue;
+					}
+				}
+				each.add(tok);
+			}
+		}
+	}
+
+	/**
+	 * Maps the binary copy of the given text file. Returns null if the copy
+	 * does not exist, is out of date, or fails any of the checks made by map,
+	 * so that a damaged copy is replaced rather than reported as an error.
+	 */
+	private static TimeSeriesData mapCache(File cache, Class<? extends Unit> unitType, double tickLength, File file) {
+		if (!cache.isFile() || !isBinary(cache))
+			return null;
+		try {
+			return map(cache, unitType, tickLength, file.length(), file.lastModified());
+		}
+		catch (InputErrorException | IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Writes time series data in the binary layout. The data is written to a
+	 * temporary file in the same directory which then replaces the destination
+	 * in a single step, so that a file mapped by another load is never
+	 * truncated and a write that is cut short never leaves a partial file.
+	 * @param dest - file to be written.
+	 * @param ticks - time in clock ticks for each point.
+	 * @param values - value in SI units for each point.
+	 * @param n - number of points.
+	 * @param unitType - unit type for the values, or null if unspecified.
+	 * @param tickLength - clock tick length in seconds used for the ticks.
+	 * @param srcLength - length of the text file the data came from, or 0.
+	 * @param srcModified - modification time of the text file, or 0.
+	 * @throws IOException
+	 */
+	public static void write(File dest, long[] ticks, double[] values, int n, Class<? extends Unit> unitType,
+			double tickLength, long srcLength, long srcModified) throws IOException {
+
+		double max = Double.NEGATIVE_INFINITY;
+		double min = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			max = Math.max(max, values[i]);
+			min = Math.min(min, values[i]);
+		}
+
+		File dir = dest.getAbsoluteFile().getParentFile();
+		File tmp = File.createTempFile(dest.getName(), ".tmp", dir);
+		try {
+			writeData(tmp, ticks, values, n, min, max, unitType, tickLength, srcLength, srcModified);
+			Files.move(tmp.toPath(), dest.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			tmp.delete();
+		}
+	}
+
+	private static void writeData(File dest, long[] ticks, double[] values, int n, double min, double max,
+			Class<? extends Unit> unitType, double tickLength, long srcLength, long srcModified)
+	throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dest), 65536))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(n);
+			out.writeDouble(tickLength);
+			out.writeDouble(min);
+			out.writeDouble(max);
+			out.writeInt(getUnitHash(unitType));
+			out.writeInt(0);
+			out.writeLong(srcLength);
+			out.writeLong(srcModified);
+
+			for (int i = 0; i < n; i++)
+				out.writeLong(ticks[i]);
+			for (int i = 0; i < n; i++)
+				out.writeDouble(values[i]);
+		}
+	}
+
+	private static int getUnitHash(Class<? extends Unit> unitType) {
+		if (unitType == null)
+			return 0;
+		return unitType.getSimpleName().hashCode();
+	}
+
+	/**
+	 * Maps a binary file into memory. Returns null if the header does not
+	 * match the given clock tick length, unit type, or source file. A source
+	 * length or modification time of -1 is not checked.
+	 */
+	static TimeSeriesData map(File file, Class<? extends Unit> unitType, double tickLength,
+			long srcLength, long srcModified) throws InputErrorException, IOException {
+
+		try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = ch.size();
+			if (size < HEADER_SIZE || size > Integer.MAX_VALUE)
+				throw new InputErrorException("Invalid size for the binary time series file %s", file);
+
+			MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION)
+				throw new InputErrorException("Unsupported binary time series file %s", file);
+
+			long n = buf.getLong(8);
+			int unitHash = buf.getInt(40);
+			if (buf.getDouble(16) != tickLength
+					|| (unitHash != 0 && unitHash != getUnitHash(unitType))
+					|| (srcLength >= 0 && buf.getLong(48) != srcLength)
+					|| (srcModified >= 0 && buf.getLong(56) != srcModified))
+				return null;
+
+			if (n < 1)
+				throw new InputErrorException("The time series file %s contains no records", file);
+			if (size != HEADER_SIZE + 16*n)
+				throw new InputErrorException("The binary time series file %s is truncated", file);
+
+			LongBuffer ticks = slice(buf, HEADER_SIZE, (int)n*8).asLongBuffer();
+			DoubleBuffer values = slice(buf, HEADER_SIZE + (int)n*8, (int)n*8).asDoubleBuffer();
+			return new TimeSeriesData(ticks, values, buf.getDouble(24), buf.getDouble(32));
+		}
+	}
+
+	private static ByteBuffer slice(ByteBuffer buf, int pos, int len) {
+		ByteBuffer dup = buf.duplicate();
+		dup.position(pos);
+		dup.limit(pos + len);
+		return dup.slice();
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+
+import com.jaamsim.Samples.TimeSeriesData;
+import com.jaamsim.basicsim.Simulation;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.Unit;
+import com.jaamsim.units.UserSpecifiedUnit;
+
+/**
+ * Input for time series data held in an external text or binary file. The
+ * file is loaded through TimeSeriesFile, so the data is memory-mapped rather
+ * than held on the heap.
+ */
+public class TimeSeriesFileInput extends Input<TimeSeriesData> {
+	private Class<? extends Unit> unitType;
+	private double tickLength;  // simulation clock tick length used to convert times into ticks
+	private URI uri;
+
+	public TimeSeriesFileInput(String key, String cat, TimeSeriesData def) {
+		super(key, cat, def);
+		unitType = DimensionlessUnit.class;
+	}
+
+	@Override
+	public void parse(KeywordIndex kw) throws InputErrorException {
+		URI temp = Input.parseURI(kw);
+
+		if (unitType == UserSpecifiedUnit.class)
+			throw new InputErrorException(INP_ERR_UNITUNSPECIFIED);
+
+		if (!"file".equals(temp.getScheme()))
+			throw new InputErrorException("The time series data must be in a local file.\n" +
+					"File path = %s", kw.getArg(0));
+
+		File file = new File(temp);
+		if (!file.isFile())
+			throw new InputErrorException("The specified file does not exist.\n" +
+					"File path = %s", kw.getArg(0));
+
+		tickLength = Simulation.getTickLength();
+		value = TimeSeriesFile.load(file, unitType, tickLength);
+		uri = temp;
+	}
+
+	@Override
+	public void copyFrom(Input<?> in) {
+		super.copyFrom(in);
+		TimeSeriesFileInput inp = (TimeSeriesFileInput) in;
+		tickLength = inp.tickLength;
+		uri = inp.uri;
+	}
+
+	@Override
+	public void getValueTokens(ArrayList<String> toks) {
+		if (uri == null) return;
+
+		toks.add(InputAgent.getRelativeFilePath(uri));
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		uri = null;
+	}
+
+	public void setUnitType(Class<? extends Unit> u) {
+		if (u != unitType)
+			this.reset();
+		unitType = u;
+	}
+
+	public double getTickLength() {
+		return tickLength;
+	}
+}
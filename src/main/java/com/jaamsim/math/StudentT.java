@@ -0,0 +1,123 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.math;
+
+/**
+ * Cumulative distribution and quantile functions for Student's t distribution,
+ * used to calculate confidence intervals for the mean of a small sample.
+ */
+public class StudentT {
+
+	private static final int MAX_ITERATIONS = 300;
+	private static final double EPSILON = 1.0e-15;
+	private static final double TINY = 1.0e-300;
+
+	/**
+	 * Returns the probability that a t-distributed random variable with the
+	 * given degrees of freedom is less than or equal to t.
+	 */
+	public static double cdf(double t, int dof) {
+		if (Double.isNaN(t))
+			return Double.NaN;
+		if (t == Double.POSITIVE_INFINITY)
+			return 1.0d;
+		if (t == Double.NEGATIVE_INFINITY)
+			return 0.0d;
+
+		double x = dof / (dof + t * t);
+		double tail = 0.5d * regularizedBeta(x, 0.5d * dof, 0.5d);
+		return (t >= 0.0d) ? 1.0d - tail : tail;
+	}
+
+	/**
+	 * Returns the value t for which cdf(t, dof) equals the given probability.
+	 */
+	public static double inverseCdf(double p, int dof) {
+		if (Double.isNaN(p) || p < 0.0d || p > 1.0d)
+			return Double.NaN;
+		if (p == 0.0d)
+			return Double.NEGATIVE_INFINITY;
+		if (p == 1.0d)
+			return Double.POSITIVE_INFINITY;
+		if (p < 0.5d)
+			return -inverseCdf(1.0d - p, dof);
+
+		// Bracket the quantile and then bisect, the cdf is monotonic
+		double lo = 0.0d;
+		double hi = 1.0d;
+		while (cdf(hi, dof) < p) {
+			lo = hi;
+			hi *= 2.0d;
+		}
+		for (int i = 0; i < MAX_ITERATIONS; i++) {
+			double mid = 0.5d * (lo + hi);
+			if (mid == lo || mid == hi)
+				break;
+			if (cdf(mid, dof) < p)
+				lo = mid;
+			else
+				hi = mid;
+		}
+		return 0.5d * (lo + hi);
+	}
+
+	/**
+	 * Returns the regularized incomplete beta function I_x(a, b), evaluated
+	 * with the continued fraction expansion and the modified Lentz method.
+	 */
+	static double regularizedBeta(double x, double a, double b) {
+		if (x <= 0.0d)
+			return 0.0d;
+		if (x >= 1.0d)
+			return 1.0d;
+
+		// The continued fraction converges rapidly only below this point
+		if (x > (a + 1.0d) / (a + b + 2.0d))
+			return 1.0d - regularizedBeta(1.0d - x, b, a);
+
+		double logFront = Gamma.logGamma(a + b) - Gamma.logGamma(a) - Gamma.logGamma(b)
+		                + a * Math.log(x) + b * Math.log(1.0d - x);
+		double front = Math.exp(logFront) / a;
+
+		double f = 1.0d;
+		double c = 1.0d;
+		double d = 0.0d;
+		for (int i = 0; i <= MAX_ITERATIONS; i++) {
+			int m = i / 2;
+			double num;
+			if (i == 0)
+				num = 1.0d;
+			else if (i % 2 == 0)
+				num = (m * (b - m) * x) / ((a + 2.0d * m - 1.0d) * (a + 2.0d * m));
+			else
+				num = -((a + m) * (a + b + m) * x) / ((a + 2.0d * m) * (a + 2.0d * m + 1.0d));
+
+			d = 1.0d + num * d;
+			if (Math.abs(d) < TINY)
+				d = TINY;
+			d = 1.0d / d;
+
+			c = 1.0d + num / c;
+			if (Math.abs(c) < TINY)
+				c = TINY;
+
+			double delta = c * d;
+			f *= delta;
+			if (Math.abs(1.0d - delta) < EPSILON)
+				break;
+		}
+		return front * (f - 1.0d);
+	}
+}
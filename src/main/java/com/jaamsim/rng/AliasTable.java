@@ -0,0 +1,118 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.rng;
+
+/**
+ * Table for selecting one of a fixed set of outcomes with given probabilities
+ * in constant time by the alias method of Walker, as constructed by Vose
+ * (IEEE Trans. Software Eng. 17(9), 1991).
+ * <p>
+ * Each outcome owns a column of width 1/n. A column is split between its own
+ * outcome and a single alias outcome, so a sample needs one uniform random
+ * number: its integer part after scaling by n picks the column and the
+ * fractional part picks between the two outcomes.
+ */
+public final class AliasTable {
+	private final double[] prob; // probability of keeping the column's own outcome
+	private final int[] alias;   // outcome selected for the remainder of the column
+
+	/**
+	 * Builds the table for the given weights. The weights need not sum to one
+	 * and are normalised by their total.
+	 * @param weights - non-negative weight for each outcome
+	 */
+	public AliasTable(double[] weights) {
+		int n = weights.length;
+		if (n == 0)
+			throw new IllegalArgumentException("At least one outcome is required");
+
+		double total = 0.0d;
+		int maxIndex = 0;
+		for (int i = 0; i < n; i++) {
+			double w = weights[i];
+			if (!(w >= 0.0d) || w == Double.POSITIVE_INFINITY)
+				throw new IllegalArgumentException("Weights must be finite and non-negative");
+			total += w;
+			if (w > weights[maxIndex])
+				maxIndex = i;
+		}
+		if (total <= 0.0d)
+			throw new IllegalArgumentException("The weights must not all be zero");
+
+		prob = new double[n];
+		alias = new int[n];
+
+		// Scale the weights so that the average column is full
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int numSmall = 0;
+		int numLarge = 0;
+		for (int i = 0; i < n; i++) {
+			scaled[i] = weights[i] * n / total;
+			if (scaled[i] < 1.0d)
+				small[numSmall++] = i;
+			else
+				large[numLarge++] = i;
+		}
+
+		// Fill each under-full column from an over-full one
+		while (numSmall > 0 && numLarge > 0) {
+			int l = small[--numSmall];
+			int g = large[--numLarge];
+			prob[l] = scaled[l];
+			alias[l] = g;
+			scaled[g] = (scaled[g] + scaled[l]) - 1.0d;
+			if (scaled[g] < 1.0d)
+				small[numSmall++] = g;
+			else
+				large[numLarge++] = g;
+		}
+
+		// The remaining columns are full, apart from rounding errors. An
+		// outcome with zero weight must never be selected, so its column is
+		// given to the most likely outcome instead.
+		while (numLarge > 0) {
+			int g = large[--numLarge];
+			prob[g] = 1.0d;
+			alias[g] = g;
+		}
+		while (numSmall > 0) {
+			int l = small[--numSmall];
+			prob[l] = (weights[l] > 0.0d) ? 1.0d : 0.0d;
+			alias[l] = (weights[l] > 0.0d) ? l : maxIndex;
+		}
+	}
+
+	/**
+	 * Returns the number of outcomes.
+	 */
+	public int size() {
+		return prob.length;
+	}
+
+	/**
+	 * Returns the outcome selected by the given uniform random number.
+	 * @param u - random number in the range [0, 1)
+	 * @return index of the outcome, from 0 to size() - 1
+	 */
+	public int sample(double u) {
+		double x = u * prob.length;
+		int i = Math.min((int)x, prob.length - 1);
+		if (x - i < prob[i])
+			return i;
+		return alias[i];
+	}
+}
@@ -126,6 +126,16 @@ public class MRG1999a {
 		setSeed(seeds[0], seeds[1], seeds[2], seeds[3], seeds[4], seeds[5]);
 	}
 
+	/**
+	 * Sets the state of this generator to that of the given generator, so that
+	 * both return the same sequence of values from this point.
+	 * @param other - generator whose state is copied
+	 */
+	public void setState(MRG1999a other) {
+		s0 = other.s0; s1 = other.s1; s2 = other.s2;
+		s3 = other.s3; s4 = other.s4; s5 = other.s5;
+	}
+
 	public void setSeed(long s0, long s1, long s2, long s3, long s4, long s5) {
 		if (s0 == 0 && s1 == 0 && s2 == 0)
 			throw new IllegalArgumentException("The first three seeds cannot all be 0");
@@ -163,6 +173,41 @@ public class MRG1999a {
 		return p * norm;
 	}
 
+	/**
+	 * Fills part of an array with the next uniformly distributed values U(0,1).
+	 * The values are identical to those returned by the same number of calls
+	 * to nextUniform(), but the state is held in local variables for the whole
+	 * block rather than being read and written for each value.
+	 * @param dst - array to receive the values
+	 * @param off - index of the first value in the array
+	 * @param len - number of values to generate
+	 */
+	public void fill(double[] dst, int off, int len) {
+		if (off < 0 || len < 0 || off > dst.length - len)
+			throw new IndexOutOfBoundsException("off=" + off + " len=" + len + " length=" + dst.length);
+
+		long x0 = uint(s0), x1 = uint(s1), x2 = uint(s2);
+		long y0 = uint(s3), y1 = uint(s4), y2 = uint(s5);
+		for (int i = off; i < off + len; i++) {
+			// Mix the first half of the state
+			long p1 = (1403580l * x1 - 810728l * x0) % m1;
+			if (p1 < 0) p1 += m1;
+			x0 = x1; x1 = x2; x2 = p1;
+
+			// Mix the second half of the state
+			long p2 = (527612l * y2 - 1370589l * y0) % m2;
+			if (p2 < 0) p2 += m2;
+			y0 = y1; y1 = y2; y2 = p2;
+
+			long p = p1 - p2;
+			if (p <= 0) p += m1;
+			dst[i] = p * norm;
+		}
+
+		s0 = (int)x0; s1 = (int)x1; s2 = (int)x2;
+		s3 = (int)y0; s4 = (int)y1; s5 = (int)y2;
+	}
+
 	@Override
 	public String toString() {
 		return String.format("%d, %d, %d, %d, %d, %d",
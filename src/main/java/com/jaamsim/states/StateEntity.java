@@ -20,6 +20,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 
 import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.basicsim.ColumnarLogFile;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.FileEntity;
 import com.jaamsim.basicsim.Simulation;
@@ -91,10 +92,16 @@ public class StateEntity extends DisplayEntity {
 				stateListeners.add(sel);
 		}
 
+		// Close the state trace file if it is already open
+		if (stateReportFile != null) {
+			stateReportFile.close();
+			stateReportFile = null;
+		}
+
 		// Create state trace file if required
 		if (traceState.getValue()) {
 			String fileName = InputAgent.getReportFileName(InputAgent.getRunName() + "-" + this.getName() + ".trc");
-			stateReportFile = new FileEntity( fileName);
+			stateReportFile = new FileEntity( fileName, false, true);
 		}
 	}
 
@@ -128,6 +135,32 @@ public class StateEntity extends DisplayEntity {
 		file.format("%n");
 	}
 
+	@Override
+	public void printColumns(ColumnarLogFile file, double simTime) {
+		super.printColumns(file, simTime);
+
+		long totalTicks = 0;
+		long workingTicks = 0;
+		for (StateRecord st : states.values()) {
+			long ticks = this.getTicksInState(st);
+			totalTicks += ticks;
+			if (st.working)
+				workingTicks += ticks;
+		}
+
+		// One column for each state entered by an entity of this class, so
+		// that the entities share a schema
+		ColumnarLogFile.StateColumns cols = file.getStateColumns(this.getClass(), states.keySet());
+		for (int i = 0; i < cols.states.size(); i++) {
+			StateRecord st = states.get(cols.states.get(i));
+			long ticks = (st == null) ? 0 : this.getTicksInState(st);
+			file.putDouble(cols.columns.get(i), "h", ticks / Simulation.getSimTimeFactor());
+		}
+
+		file.putDouble("StateTime[TotalTime]", "h", totalTicks / Simulation.getSimTimeFactor());
+		file.putDouble("StateTime[WorkingTime]", "h", workingTicks / Simulation.getSimTimeFactor());
+	}
+
 	/**
 	 * Get the name of the initial state this Entity will be initialized with.
 	 * @return
@@ -180,6 +213,7 @@ public class StateEntity extends DisplayEntity {
 		StateRecord prev = presentState;
 		presentState = nextState;
 		stateChanged(prev, presentState);
+		this.notifyChanged();
 	}
 
 	private void setGraphicsForState(String state) {
@@ -218,7 +252,6 @@ public class StateEntity extends DisplayEntity {
 			stateReportFile.format("%.5f  %s.setState( \"%s\" ) dt = %g\n",
 			                       timeOfPrevStart, this.getName(),
 			                       prev.name, duration);
-			stateReportFile.flush();
 		}
 	}
 
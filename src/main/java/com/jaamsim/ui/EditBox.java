@@ -76,8 +76,13 @@ public class EditBox extends FrameBox {
 
 	private static final int ROW_HEIGHT=20;
 	private static final int VALUE_COLUMN=2;
-	public static final String NONE = EditBox.formatEditorText("None");
-	public static final String REQD = EditBox.formatEditorText("Required Input");
+	// Markup for the grey text shown in place of a value, see formatEditorText
+	private static final String EDITOR_TEXT_START = "<html><i><font color=\"gray\">";
+	private static final String EDITOR_TEXT_END = "</font></i></html>";
+
+	// Constant expressions so that model classes can use them without loading the editor
+	public static final String NONE = EDITOR_TEXT_START + "None" + EDITOR_TEXT_END;
+	public static final String REQD = EDITOR_TEXT_START + "Required Input" + EDITOR_TEXT_END;
 
 	private static EditBox myInstance;  // only one instance allowed to be open
 	private Entity currentEntity;
@@ -227,7 +232,7 @@ public class EditBox extends FrameBox {
 	}
 
 	public static String formatEditorText(String str) {
-		return String.format("<html><i><font color=\"gray\">%s</font></i></html>", str);
+		return EDITOR_TEXT_START + str + EDITOR_TEXT_END;
 	}
 
 /**
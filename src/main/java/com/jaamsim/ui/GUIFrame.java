@@ -70,6 +70,7 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
+import com.jaamsim.basicsim.FileEntity;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.controllers.RateLimiter;
 import com.jaamsim.controllers.RenderManager;
@@ -1268,12 +1269,11 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 			this.updateForSimulationState(GUIFrame.SIM_STATE_CONFIGURED);
 
 			// kill all generated objects
-			for (int i = 0; i < Entity.getAll().size();) {
-				Entity ent = Entity.getAll().get(i);
-				if (ent.testFlag(Entity.FLAG_GENERATED))
+			ArrayList<? extends Entity> ents = Entity.getAll();
+			for (int i = 0; i < ents.size(); i++) {
+				Entity ent = ents.get(i);
+				if (ent.testFlag(Entity.FLAG_GENERATED) && !ent.testFlag(Entity.FLAG_DEAD))
 					ent.kill();
-				else
-					i++;
 			}
 		}
 		else
@@ -1796,6 +1796,7 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 			updateForSimulationState(SIM_STATE_RUNNING);
 		}
 		else {
+			FileEntity.syncAll();
 			updateForSimulationState(SIM_STATE_PAUSED);
 		}
 	}
@@ -1827,6 +1828,39 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 		                         t.getMessage());
 	}
 
+	public static void setWindowVisible(JFrame f, boolean visible) {
+		f.setVisible(visible);
+		if (visible)
+			f.toFront();
+	}
+
+	/**
+	 * Shows or hides the Tools window that is controlled by the given
+	 * Simulation keyword.
+	 */
+	public static void setToolVisible(String keyword, boolean visible) {
+		switch (keyword) {
+		case "ShowModelBuilder":
+			setWindowVisible(EntityPallet.getInstance(), visible);
+			break;
+		case "ShowObjectSelector":
+			setWindowVisible(ObjectSelector.getInstance(), visible);
+			break;
+		case "ShowInputEditor":
+			setWindowVisible(EditBox.getInstance(), visible);
+			break;
+		case "ShowOutputViewer":
+			setWindowVisible(OutputBox.getInstance(), visible);
+			break;
+		case "ShowPropertyViewer":
+			setWindowVisible(PropertyBox.getInstance(), visible);
+			break;
+		case "ShowLogViewer":
+			setWindowVisible(LogBox.getInstance(), visible);
+			break;
+		}
+	}
+
 	void load() {
 		LogBox.logLine("Loading...");
 
@@ -2090,7 +2124,7 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 				options[0]);
 
 		if (userOption == JOptionPane.YES_OPTION) {
-			Simulation.setWindowVisible(LogBox.getInstance(), true);
+			GUIFrame.setWindowVisible(LogBox.getInstance(), true);
 		}
 	}
 
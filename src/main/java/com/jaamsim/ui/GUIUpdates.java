@@ -0,0 +1,94 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.ui;
+
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Forwards log messages and display updates from the model to the user
+ * interface. When the model is run without a user interface, the messages
+ * go to the console and the updates are ignored. This class does not load
+ * any of the Swing classes, so the model can call it in either mode.
+ */
+public final class GUIUpdates {
+
+	private GUIUpdates() {}
+
+	/**
+	 * Writes a line to the Log Viewer, or to the console when headless.
+	 */
+	public static void logLine(String msg) {
+		if (InputAgent.isHeadless()) {
+			System.out.println(msg);
+			return;
+		}
+		LogBox.logLine(msg);
+	}
+
+	/**
+	 * Writes a line to the Log Viewer and makes sure the viewer is visible,
+	 * or writes it to the console when headless.
+	 */
+	public static void showLogLine(String msg) {
+		logLine(msg);
+		if (!InputAgent.isHeadless())
+			LogBox.getInstance().setVisible(true);
+	}
+
+	/**
+	 * Writes the stack trace for an exception to the Log Viewer, or to the
+	 * console when headless.
+	 */
+	public static void logException(Throwable ex) {
+		if (InputAgent.isHeadless()) {
+			ex.printStackTrace(System.out);
+			return;
+		}
+		LogBox.logException(ex);
+	}
+
+	/**
+	 * Refreshes the values shown in the tool windows.
+	 */
+	public static void valueUpdate() {
+		if (!InputAgent.isHeadless())
+			FrameBox.valueUpdate();
+	}
+
+	/**
+	 * Refreshes the tool windows for the selected entity, for example after
+	 * its units or outputs have changed.
+	 */
+	public static void reSelectEntity() {
+		if (!InputAgent.isHeadless())
+			FrameBox.reSelectEntity();
+	}
+
+	/**
+	 * Sets the tick length used by the tool windows to display times.
+	 */
+	public static void setSecondsPerTick(double secsPerTick) {
+		if (!InputAgent.isHeadless())
+			FrameBox.setSecondsPerTick(secsPerTick);
+	}
+
+	/**
+	 * Shows the name of the file being loaded, or clears it if null.
+	 */
+	public static void setProgressText(String txt) {
+		if (!InputAgent.isHeadless())
+			GUIFrame.instance().setProgressText(txt);
+	}
+}
@@ -15,8 +15,10 @@
 package com.jaamsim.units;
 
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.SimulationContext;
 import com.jaamsim.input.Keyword;
 
 public abstract class Unit extends Entity {
@@ -32,13 +34,11 @@ public abstract class Unit extends Entity {
 		this.addInput(conversionFactorToSI);
 	}
 
-	private static final HashMap<Class<? extends Unit>, Unit>
-		preferredUnit = new HashMap<>();
-
 	public Unit() {}
 
-	private static final HashMap<Class<? extends Unit>, String>
-		siUnit = new HashMap<>();
+	// Filled in by the static initialisers of the unit types, which can run on any thread
+	private static final ConcurrentHashMap<Class<? extends Unit>, String>
+		siUnit = new ConcurrentHashMap<>();
 
 	public static final void setSIUnit(Class<? extends Unit> unitType, String si) {
 		siUnit.put(unitType, si);
@@ -57,12 +57,29 @@ public abstract class Unit extends Entity {
 		return "SI";
 	}
 
+	/**
+	 * Returns the preferred units for the present simulation run, which refer
+	 * to the Unit entities of that run.
+	 */
+	@SuppressWarnings("unchecked")
+	private static HashMap<Class<? extends Unit>, Unit> getPreferredUnits() {
+		SimulationContext ctx = SimulationContext.current();
+		synchronized (ctx) {
+			HashMap<Class<? extends Unit>, Unit> ret = (HashMap<Class<? extends Unit>, Unit>)ctx.getState(Unit.class);
+			if (ret == null) {
+				ret = new HashMap<>();
+				ctx.setState(Unit.class, ret);
+			}
+			return ret;
+		}
+	}
+
 	public static final void setPreferredUnit(Class<? extends Unit> type, Unit u) {
-		preferredUnit.put(type, u);
+		getPreferredUnits().put(type, u);
 	}
 
 	public static final <T extends Unit> Unit getPreferredUnit(Class<T> type) {
-		return preferredUnit.get(type);
+		return getPreferredUnits().get(type);
 	}
 
 	public static final <T extends Unit> String getDisplayedUnit(Class<T> ut) {
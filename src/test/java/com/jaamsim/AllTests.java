@@ -22,6 +22,16 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
 	com.jaamsim.events.TestEventManager.class,
 	com.jaamsim.events.TestEventTree.class,
+	com.jaamsim.basicsim.TestEntityRegistry.class,
+	com.jaamsim.basicsim.TestEventTraceFile.class,
+	com.jaamsim.basicsim.TestFileEntity.class,
+	com.jaamsim.basicsim.TestColumnarLogFile.class,
+	com.jaamsim.basicsim.TestReplicationStatistics.class,
+	com.jaamsim.basicsim.TestHeadlessRunner.class,
+	com.jaamsim.BasicObjects.TestQueueEntryList.class,
+	com.jaamsim.BasicObjects.TestResourceWaitList.class,
+	com.jaamsim.BasicObjects.TestSeizeModel.class,
+	com.jaamsim.Graphics.TestSeriesInfo.class,
 	com.jaamsim.math.TestAABB.class,
 	com.jaamsim.math.TestQuaternion.class,
 	com.jaamsim.math.TestTransform.class,
@@ -34,14 +44,19 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.math.TestVec4d.class,
 	com.jaamsim.math.TestMat4d.class,
 	com.jaamsim.math.TestInterners.class,
+	com.jaamsim.math.TestStudentT.class,
 	com.jaamsim.rng.TestMRG1999a.class,
+	com.jaamsim.rng.TestAliasTable.class,
 	com.jaamsim.video.vp8.TestBoolEncoder.class,
 	com.jaamsim.video.vp8.TestTransforms.class,
 	com.jaamsim.video.vp8.TestYUV.class,
 	com.jaamsim.input.TestKeyedVec3dCurve.class,
 	com.jaamsim.input.TestExpParser.class,
+	com.jaamsim.input.TestExpEvaluator.class,
 	com.jaamsim.input.TestParser.class,
 	com.jaamsim.input.TestOutput.class,
+	com.jaamsim.input.TestTimeSeriesFile.class,
+	com.jaamsim.Samples.TestTimeSeries.class,
 	com.jaamsim.probability.TestContinuousDistribution.class,
 	com.jaamsim.probability.TestDiscreteDistribution.class,
 	com.jaamsim.probability.TestErlangDistribution.class,
@@ -56,6 +71,7 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.probability.TestWeibullDistribution.class,
 	com.jaamsim.probability.TestEntitlementSelector.class,
 	com.jaamsim.probability.TestBooleanSelector.class,
+	com.jaamsim.probability.TestSampleArray.class,
 	com.jaamsim.MeshFiles.TestVertexMap.class,
 	com.jaamsim.MeshFiles.TestDataBlocks.class,
 })
@@ -0,0 +1,151 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class TestQueueEntryList {
+
+	private static class RefEntry implements Comparable<RefEntry> {
+		final long entNum;
+		final int priority;
+		final int match;
+		final QueueEntryList.Entry entry;
+
+		RefEntry(long n, int pri, int m, QueueEntryList.Entry e) {
+			entNum = n;
+			priority = pri;
+			match = m;
+			entry = e;
+		}
+
+		@Override
+		public int compareTo(RefEntry e) {
+			if (priority != e.priority)
+				return (priority < e.priority) ? -1 : 1;
+			return Long.compare(entNum, e.entNum);
+		}
+	}
+
+	/**
+	 * Compares the queue order and match lists against a TreeSet for a random
+	 * mixture of FIFO and LIFO arrivals, priorities, and match values.
+	 */
+	@Test
+	public void testRandomOrder() {
+		QueueEntryList list = new QueueEntryList();
+		TreeSet<RefEntry> ref = new TreeSet<>();
+		Random rng = new Random(42);
+
+		long n = 0;
+		for (int step = 0; step < 20000; step++) {
+			int action = rng.nextInt(3);
+			if (action < 2 || ref.isEmpty()) {
+				n++;
+				long num = rng.nextInt(4) == 0 ? -n : n;
+				int pri = rng.nextInt(4);
+				int m = rng.nextInt(6) - 2;
+				QueueEntryList.Entry e = list.add(null, num, pri, true, m, step);
+				ref.add(new RefEntry(num, pri, m, e));
+			}
+			else if (rng.nextBoolean()) {
+				RefEntry first = ref.pollFirst();
+				assertTrue(list.first() == first.entry);
+				list.remove(first.entry);
+			}
+			else {
+				int m = rng.nextInt(6) - 2;
+				QueueEntryList.MatchList ml = list.getMatchList(m);
+				RefEntry firstMatch = null;
+				for (RefEntry each : ref) {
+					if (each.match == m) {
+						firstMatch = each;
+						break;
+					}
+				}
+				if (firstMatch == null) {
+					assertTrue(ml == null);
+					assertTrue(list.getMatchCount(m) == 0);
+					continue;
+				}
+				assertTrue(ml.head == firstMatch.entry);
+				ref.remove(firstMatch);
+				list.remove(ml.head);
+			}
+
+			if (step % 10 == 0)
+				checkContents(list, ref);
+		}
+		checkContents(list, ref);
+
+		list.clear();
+		assertTrue(list.size() == 0);
+		assertTrue(list.first() == null);
+		assertTrue(list.getMatchValueCount() == 0);
+	}
+
+	private void checkContents(QueueEntryList list, TreeSet<RefEntry> ref) {
+		assertTrue(list.size() == ref.size());
+
+		// Queue order
+		QueueEntryList.Entry e = list.first();
+		for (RefEntry each : ref) {
+			assertTrue(e == each.entry);
+			e = e.next;
+		}
+		assertTrue(e == null);
+
+		// Match lists in increasing order of match value
+		int prev = Integer.MIN_VALUE;
+		int total = 0;
+		int max = 0;
+		for (int i = 0; i < list.getMatchValueCount(); i++) {
+			QueueEntryList.MatchList ml = list.getMatchListAt(i);
+			assertTrue(ml.value > prev);
+			prev = ml.value;
+
+			ArrayList<RefEntry> matches = new ArrayList<>();
+			for (RefEntry each : ref) {
+				if (each.match == ml.value)
+					matches.add(each);
+			}
+			assertTrue(ml.count == matches.size());
+			assertTrue(list.getMatchCount(ml.value) == matches.size());
+
+			QueueEntryList.Entry me = ml.head;
+			for (RefEntry each : matches) {
+				assertTrue(me == each.entry);
+				me = me.nextMatch;
+			}
+			assertTrue(me == null);
+			total += ml.count;
+			max = Math.max(max, ml.count);
+		}
+		assertTrue(total == ref.size());
+
+		// Largest count for a match value
+		assertTrue(list.getMaxMatchCount() == max);
+		if (max == 0)
+			assertTrue(list.getMaxMatchList() == null);
+		else
+			assertTrue(list.getMaxMatchList().count == max);
+	}
+}
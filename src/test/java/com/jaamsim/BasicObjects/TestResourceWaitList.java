@@ -0,0 +1,81 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.basicsim.SimulationContext;
+import com.jaamsim.input.InputAgent;
+
+public class TestResourceWaitList {
+
+	@Before
+	public void setUp() {
+		SimulationContext.setCurrent(new SimulationContext("TestResourceWaitList"));
+	}
+
+	@After
+	public void tearDown() {
+		SimulationContext.setCurrent(null);
+	}
+
+	@Test
+	public void testOrder() {
+		ResourceWaitList list = new ResourceWaitList();
+		ArrayList<ResourceWaitList.Node> nodes = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			Seize s = InputAgent.defineEntityWithUniqueName(Seize.class, "Seize", "-", true);
+			nodes.add(new ResourceWaitList.Node(s, list));
+		}
+
+		Random rand = new Random(7);
+		for (int step = 0; step < 20000; step++) {
+			ResourceWaitList.Node n = nodes.get(rand.nextInt(nodes.size()));
+			if (rand.nextInt(4) == 0)
+				list.remove(n);
+			else
+				list.update(n, rand.nextInt(20));
+
+			// Compare against a scan in order of definition
+			ResourceWaitList.Node best = null;
+			int count = 0;
+			for (ResourceWaitList.Node each : nodes) {
+				if (each.pos < 0)
+					continue;
+				count++;
+				if (best == null || each.time < best.time)
+					best = each;
+			}
+			assertTrue(list.size() == count);
+			if (best == null)
+				assertTrue(list.first() == null);
+			else
+				assertTrue(list.first() == best.seize);
+		}
+
+		list.clear();
+		assertTrue(list.size() == 0);
+		assertTrue(list.first() == null);
+		for (ResourceWaitList.Node each : nodes)
+			assertTrue(each.pos == -1);
+	}
+}
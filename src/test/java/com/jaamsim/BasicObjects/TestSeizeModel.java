@@ -0,0 +1,144 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URISyntaxException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.Simulation;
+import com.jaamsim.basicsim.SimulationContext;
+import com.jaamsim.events.EventErrorListener;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Runs a model in which three Seize objects share two Resources and compares
+ * its outputs with those obtained when the waiting Seize objects were found
+ * by scanning every Seize object at each release.
+ */
+public class TestSeizeModel {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private SimulationContext ctx;
+
+	private static final String[] MODEL = {
+		"Define ExponentialDistribution { IAT1 IAT2 IAT3 Svc1 Svc2 Svc3 }",
+		"Define UniformDistribution { P1 N2 }",
+		"Define SimEntity { Proto }",
+		"Define EntityGenerator { Gen1 Gen2 Gen3 }",
+		"Define Queue { Q1 Q2 Q3 SQ1 SQ2 SQ3 }",
+		"Define Resource { R1 R2 }",
+		"Define Seize { S1 S2 S3 }",
+		"Define Server { Srv1 Srv2 Srv3 }",
+		"Define Release { Rel1 Rel2 Rel3 }",
+		"Define EntitySink { Sink }",
+		"IAT1 UnitType { TimeUnit } Mean { 1.0 s } RandomSeed { 1 }",
+		"IAT2 UnitType { TimeUnit } Mean { 1.5 s } RandomSeed { 2 }",
+		"IAT3 UnitType { TimeUnit } Mean { 1.2 s } RandomSeed { 3 }",
+		"Svc1 UnitType { TimeUnit } Mean { 0.8 s } RandomSeed { 4 }",
+		"Svc2 UnitType { TimeUnit } Mean { 0.9 s } RandomSeed { 5 }",
+		"Svc3 UnitType { TimeUnit } Mean { 0.7 s } RandomSeed { 6 }",
+		"P1 UnitType { DimensionlessUnit } MinValue { 0 } MaxValue { 3 } RandomSeed { 7 }",
+		"N2 UnitType { DimensionlessUnit } MinValue { 1 } MaxValue { 3 } RandomSeed { 8 }",
+		"R1 Capacity { 3 }",
+		"R2 Capacity { 4 }",
+		"Gen1 NextComponent { Q1 } InterArrivalTime { IAT1 } PrototypeEntity { Proto }",
+		"Gen2 NextComponent { Q2 } InterArrivalTime { IAT2 } PrototypeEntity { Proto }",
+		"Gen3 NextComponent { Q3 } InterArrivalTime { IAT3 } PrototypeEntity { Proto }",
+		"Q1 Priority { P1 }",
+		"Q3 FIFO { FALSE }",
+		"S1 WaitQueue { Q1 } Resource { R1 } NextComponent { SQ1 }",
+		"S2 WaitQueue { Q2 } Resource { R1 R2 } NumberOfUnits { { 1 } { N2 } } NextComponent { SQ2 }",
+		"S3 WaitQueue { Q3 } Resource { R2 } NextComponent { SQ3 }",
+		"Srv1 WaitQueue { SQ1 } ServiceTime { Svc1 } NextComponent { Rel1 }",
+		"Srv2 WaitQueue { SQ2 } ServiceTime { Svc2 } NextComponent { Rel2 }",
+		"Srv3 WaitQueue { SQ3 } ServiceTime { Svc3 } NextComponent { Rel3 }",
+		"Rel1 Resource { R1 } NextComponent { Sink }",
+		"Rel2 Resource { R1 R2 } NumberOfUnits { { 1 } { 3 } } NextComponent { Sink }",
+		"Rel3 Resource { R2 } NextComponent { Sink }",
+		"Simulation RunDuration { 20000 s } PrintReport { FALSE }",
+	};
+
+	@Before
+	public void setUp() {
+		ctx = new SimulationContext("TestSeizeModel");
+		SimulationContext.setCurrent(ctx);
+	}
+
+	@After
+	public void tearDown() {
+		SimulationContext.setCurrent(null);
+	}
+
+	private static double getOutput(String entName, String outputName) {
+		Entity ent = Entity.getNamedEntity(entName);
+		return ent.getOutputHandle(outputName).getValueAsDouble(20000.0d, Double.NaN);
+	}
+
+	@Test
+	public void testSharedResources() throws IOException, URISyntaxException, InterruptedException {
+		File file = folder.newFile("seize.cfg");
+		PrintWriter out = new PrintWriter(file);
+		for (String line : MODEL)
+			out.println(line);
+		out.close();
+
+		InputAgent.setHeadless(true);
+		InputAgent.setBatch(true);
+		EventManager evt = new EventManager("TestSeizeModel");
+		ctx.setEventManager(evt);
+		evt.setErrorListener(new EventErrorListener() {
+			@Override
+			public void handleError(EventManager e, Throwable t, long currentTick) {
+				ctx.failRun(t);
+			}
+		});
+
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("inputs/autoload.cfg");
+		InputAgent.setConfigFile(file);
+		InputAgent.loadConfigurationFile(file);
+		InputAgent.setRecordEdits(true);
+		assertTrue(InputAgent.numErrors() == 0);
+
+		Simulation.start(evt);
+		ctx.awaitEnd();
+		assertTrue(ctx.getRunError() == null);
+
+		assertEquals(19727.0d, getOutput("S1", "NumberAdded"), 0.0d);
+		assertEquals(13322.0d, getOutput("S2", "NumberAdded"), 0.0d);
+		assertEquals(16751.0d, getOutput("S3", "NumberAdded"), 0.0d);
+		assertEquals(33049.0d, getOutput("R1", "UnitsSeized"), 0.0d);
+		assertEquals(33046.0d, getOutput("R1", "UnitsReleased"), 0.0d);
+		assertEquals(36848.0d, getOutput("R2", "UnitsSeized"), 0.0d);
+		assertEquals(49797.0d, getOutput("Sink", "NumberAdded"), 0.0d);
+		assertEquals(0.04280581521132634d * 3600.0d, getOutput("Q1", "AverageQueueTime"), 1.0e-9d);
+		assertEquals(2.9420584884999887d, getOutput("R1", "UnitsInUseAverage"), 1.0e-9d);
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.Graphics;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jaamsim.Graphics.GraphBasics.PointBuffer;
+import com.jaamsim.Graphics.GraphBasics.SeriesInfo;
+
+public class TestSeriesInfo {
+
+	@Test
+	public void testRingBuffer() {
+		SeriesInfo info = new SeriesInfo();
+		info.init(5);
+		assertTrue(info.getPoints().getCount() == 0);
+
+		for (int i = 0; i < 3; i++)
+			info.add(i, 10 * i);
+		assertTrue(info.getPoints().getCount() == 3);
+
+		// The oldest points are replaced once the buffer is full
+		for (int i = 3; i < 12; i++)
+			info.add(i, 10 * i);
+		PointBuffer buf = info.getPoints();
+		assertTrue(buf.getCapacity() == 5);
+		long first = Math.max(0, buf.getCount() - buf.getCapacity());
+		assertTrue(first == 7);
+		int index = buf.getIndex(first);
+		for (long k = first; k < buf.getCount(); k++) {
+			assertTrue(buf.getXAt(index) == k);
+			assertTrue(buf.getYAt(index) == 10 * k);
+			index = (index + 1) % buf.getCapacity();
+		}
+
+		// Clearing the series publishes a new buffer and leaves the old one
+		// unchanged for any reader that is still using it
+		info.clear();
+		info.add(1.5d, 2.5d);
+		PointBuffer cleared = info.getPoints();
+		assertTrue(cleared != buf);
+		assertTrue(cleared.getCount() == 1);
+		assertTrue(cleared.getXAt(cleared.getIndex(0)) == 1.5d);
+		assertTrue(cleared.getYAt(cleared.getIndex(0)) == 2.5d);
+		assertTrue(buf.getCount() == 12);
+		assertTrue(buf.getXAt(buf.getIndex(11)) == 11.0d);
+	}
+}
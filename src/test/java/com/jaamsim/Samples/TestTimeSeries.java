@@ -0,0 +1,83 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.Samples;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.basicsim.Simulation;
+import com.jaamsim.input.InputAgent;
+
+public class TestTimeSeries {
+
+	private static TimeSeries createSeries(double[] values) {
+		if (Simulation.getInstance() == null)
+			InputAgent.defineEntityWithUniqueName(Simulation.class, "Simulation", "-", true);
+
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		ArrayList<String> args = new ArrayList<>();
+		for (int i = 0; i < values.length; i++) {
+			args.add("{");
+			args.add(String.format("2010-01-%02d %02d:00:00", 1 + i / 24, i % 24));
+			args.add(Double.toString(values[i]));
+			args.add("}");
+		}
+
+		TimeSeries ts = InputAgent.defineEntityWithUniqueName(TimeSeries.class, "TS", "-", true);
+		InputAgent.applyArgs(ts, "UnitType", t.getName());
+		InputAgent.applyArgs(ts, "Value", args.toArray(new String[args.size()]));
+		return ts;
+	}
+
+	@Test
+	public void testCursorLookups() {
+		int n = 500;
+		double[] values = new double[n];
+		for (int i = 1; i < n; i++) {
+			// Include repeated values to test exact matches
+			values[i] = values[i - 1] + ((i % 10 == 0) ? 0.0d : i % 3 + 1);
+		}
+		TimeSeries ts = createSeries(values);
+		ts.validate();
+
+		long last = ts.getMaxTicksValue();
+		TimeSeriesCursor ticksCursor = new TimeSeriesCursor();
+		TimeSeriesCursor valueCursor = new TimeSeriesCursor();
+		Random rnd = new Random(1);
+		long ticks = 0;
+		for (int i = 0; i < 20000; i++) {
+			// Mostly small steps forward, with occasional jumps in either direction
+			if (i % 100 == 0)
+				ticks = (long)(rnd.nextDouble() * last * 1.1d);
+			else
+				ticks += (long)(rnd.nextDouble() * 3.0e9d);
+
+			assertEquals(ts.getValueForTicks(ticks), ts.getValueForTicks(ticks, ticksCursor), 0.0d);
+			assertEquals(ts.getNextChangeAfterTicks(ticks), ts.getNextChangeAfterTicks(ticks, ticksCursor));
+			assertEquals(ts.getInterpolatedCumulativeValueForTicks(ticks),
+					ts.getInterpolatedCumulativeValueForTicks(ticks, ticksCursor), 0.0d);
+
+			double val = (i % 7 == 0) ? values[rnd.nextInt(n)] : rnd.nextDouble() * values[n - 1];
+			assertEquals(ts.getInterpolatedTicksForValue(val), ts.getInterpolatedTicksForValue(val, valueCursor));
+		}
+	}
+}
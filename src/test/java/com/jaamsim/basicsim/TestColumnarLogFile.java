@@ -0,0 +1,175 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.BasicObjects.Queue;
+import com.jaamsim.BasicObjects.SimEntity;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.events.TestFrameworkHelpers;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.OutputHandle;
+
+public class TestColumnarLogFile {
+
+	private File colFile;
+
+	@Before
+	public void setUp() throws IOException {
+		SimulationContext.setCurrent(new SimulationContext("TestColumnarLogFile"));
+		colFile = File.createTempFile("log", ".col");
+	}
+
+	@After
+	public void tearDown() {
+		SimulationContext.setCurrent(null);
+		colFile.delete();
+	}
+
+	private static ArrayList<OutputHandle> getReportable(Entity ent) {
+		ArrayList<OutputHandle> ret = new ArrayList<>();
+		for (OutputHandle o : OutputHandle.getOutputHandleList(ent)) {
+			if (o.isReportable())
+				ret.add(o);
+		}
+		return ret;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		SimEntity ent = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Ent", "-", true);
+		Queue que = InputAgent.defineEntityWithUniqueName(Queue.class, "Que", "-", true);
+
+		// Enough rows for the SimEntity to fill more than one row group
+		int numRows = ColumnarLogFile.ROW_GROUP_SIZE + 100;
+		ColumnarLogFile file = new ColumnarLogFile(colFile.getPath());
+		for (int i = 0; i < numRows; i++) {
+			file.log(ent, i);
+			if (i % 10 == 0)
+				file.log(que, i);
+		}
+		file.close();
+
+		int entRows = 0;
+		int queRows = 0;
+		ArrayList<OutputHandle> queOutputs = getReportable(que);
+		try (ColumnarLogReader reader = new ColumnarLogReader(colFile)) {
+			while (reader.next()) {
+				ColumnarLogReader.Schema s = reader.getSchema();
+				assertTrue(s.names[0].equals("SimTime"));
+				assertTrue(s.names[1].equals("Entity"));
+				double[] times = reader.getDoubleColumn(0);
+				String[] names = reader.getStringColumn(1);
+
+				if (s.className.equals("SimEntity")) {
+					assertTrue(s.names.length == getReportable(ent).size() + 4);
+					assertTrue(s.names[s.names.length - 1].equals("StateTime[WorkingTime]"));
+					for (int j = 0; j < reader.getRowCount(); j++) {
+						assertTrue(times[j] == entRows);
+						assertTrue(names[j].equals(ent.getName()));
+						entRows++;
+					}
+					continue;
+				}
+
+				assertTrue(s.className.equals("Queue"));
+				assertTrue(s.names.length == queOutputs.size() + 4);
+				for (int col = 2; col < queOutputs.size() + 2; col++) {
+					OutputHandle o = queOutputs.get(col - 2);
+					assertTrue(s.names[col].equals(o.getName()));
+					assertTrue((s.types[col] == ColumnarLogFile.DOUBLE) == o.isNumericValue());
+				}
+				int numAdded = s.getColumn("NumberAdded");
+				assertTrue(numAdded >= 0);
+				for (int j = 0; j < reader.getRowCount(); j++) {
+					assertTrue(times[j] == queRows * 10);
+					assertTrue(names[j].equals(que.getName()));
+					assertTrue(reader.getDoubleColumn(numAdded)[j] == 0.0d);
+					queRows++;
+				}
+			}
+		}
+		assertTrue(entRows == numRows);
+		assertTrue(queRows == (numRows + 9) / 10);
+	}
+
+	private static class LogStates extends ProcessTarget {
+		final ColumnarLogFile file;
+		final SimEntity ent1;
+		final SimEntity ent2;
+
+		LogStates(ColumnarLogFile file, SimEntity ent1, SimEntity ent2) {
+			this.file = file;
+			this.ent1 = ent1;
+			this.ent2 = ent2;
+		}
+
+		@Override
+		public String getDescription() {
+			return "LogStates";
+		}
+
+		@Override
+		public void process() {
+			ent1.earlyInit();
+			ent2.earlyInit();
+			ent2.setPresentState("Busy");
+
+			file.log(ent2, 0.0d);
+			file.log(ent1, 0.0d);
+			file.log(ent2, 1.0d);
+		}
+	}
+
+	@Test
+	public void testStateColumns() throws IOException {
+		SimEntity ent1 = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Ent", "-", true);
+		SimEntity ent2 = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Ent", "-", true);
+
+		// Both entities have a column for every state, including the states
+		// that they have not entered, so they share one schema
+		ColumnarLogFile file = new ColumnarLogFile(colFile.getPath());
+		EventManager evt = new EventManager("ColumnarLogUnitTest");
+		evt.clear();
+		evt.scheduleProcessExternal(0, 0, false, new LogStates(file, ent1, ent2), null);
+		TestFrameworkHelpers.runEventsToTick(evt, Long.MAX_VALUE, 100000000);
+		file.close();
+
+		int numGroups = 0;
+		int numRows = 0;
+		try (ColumnarLogReader reader = new ColumnarLogReader(colFile)) {
+			while (reader.next()) {
+				ColumnarLogReader.Schema s = reader.getSchema();
+				numGroups++;
+				numRows += reader.getRowCount();
+				assertTrue(s.getColumn("StateTime[Busy]") == 2);
+				assertTrue(s.getColumn("StateTime[None]") == 3);
+				assertTrue(s.getColumn("StateTime[TotalTime]") == 4);
+			}
+		}
+		assertTrue(numGroups == 1);
+		assertTrue(numRows == 3);
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.BasicObjects.Queue;
+import com.jaamsim.BasicObjects.SimEntity;
+import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.input.InputAgent;
+
+public class TestEntityRegistry {
+
+	@Before
+	public void setUp() {
+		SimulationContext.setCurrent(new SimulationContext("TestEntityRegistry"));
+	}
+
+	@After
+	public void tearDown() {
+		SimulationContext.setCurrent(null);
+	}
+
+	@Test
+	public void testLookup() {
+		Queue q1 = InputAgent.defineEntityWithUniqueName(Queue.class, "Q", "-", true);
+		SimEntity s1 = InputAgent.defineEntityWithUniqueName(SimEntity.class, "S", "-", true);
+		Queue q2 = InputAgent.defineEntityWithUniqueName(Queue.class, "Q", "-", true);
+
+		assertTrue(Entity.idToEntity(q1.getEntityNumber()) == q1);
+		assertTrue(Entity.idToEntity(s1.getEntityNumber()) == s1);
+		assertTrue(Entity.getNamedEntity(q2.getName()) == q2);
+		assertTrue(Entity.getNamedEntity("NoSuchEntity") == null);
+
+		ArrayList<Queue> queues = Entity.getInstancesOf(Queue.class);
+		assertTrue(queues.size() == 2);
+		assertTrue(queues.get(0) == q1);
+		assertTrue(queues.get(1) == q2);
+
+		// Clones of several classes are returned in the order of creation
+		ArrayList<DisplayEntity> clones = Entity.getClonesOf(DisplayEntity.class);
+		assertTrue(clones.size() == 3);
+		assertTrue(clones.get(0) == q1);
+		assertTrue(clones.get(1) == s1);
+		assertTrue(clones.get(2) == q2);
+
+		int count = 0;
+		for (Queue each : Entity.getClonesOfIterator(Queue.class)) {
+			assertTrue(each == queues.get(count));
+			count++;
+		}
+		assertTrue(count == 2);
+
+		s1.setName("Renamed");
+		assertTrue(Entity.getNamedEntity("Renamed") == s1);
+		assertTrue(Entity.getNamedEntity("S") == null);
+	}
+
+	@Test
+	public void testKill() {
+		ArrayList<SimEntity> ents = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			ents.add(InputAgent.defineEntityWithUniqueName(SimEntity.class, "S", "-", true));
+		}
+
+		ArrayList<? extends Entity> before = Entity.getAll();
+		assertTrue(before.size() == 1000);
+
+		// Kill every other entity
+		for (int i = 0; i < ents.size(); i += 2) {
+			ents.get(i).kill();
+		}
+
+		// A list obtained before the kills is left unchanged
+		assertTrue(before.size() == 1000);
+
+		ArrayList<? extends Entity> after = Entity.getAll();
+		assertTrue(after.size() == 500);
+		for (int i = 0; i < after.size(); i++) {
+			assertTrue(after.get(i) == ents.get(2*i + 1));
+		}
+
+		SimEntity dead = ents.get(0);
+		assertTrue(Entity.idToEntity(dead.getEntityNumber()) == null);
+		assertTrue(Entity.getInstancesOf(SimEntity.class).size() == 500);
+
+		// Killing an entity twice has no effect
+		dead.kill();
+		assertTrue(Entity.getAll().size() == 500);
+	}
+
+	@Test
+	public void testPool() {
+		SimEntity proto = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Proto", "-", true);
+		EntityPool<SimEntity> pool = new EntityPool<>(proto);
+
+		SimEntity ent1 = pool.get("Gen_1");
+		SimEntity ent2 = pool.get("Gen_2");
+		assertTrue(ent1 != ent2);
+		assertTrue(ent1.testFlag(Entity.FLAG_GENERATED));
+		assertTrue(pool.getNumberCreated() == 2);
+		assertTrue(Entity.getAll().size() == 3);
+
+		// A recycled entity leaves the model until it is reused
+		ent1.recycle();
+		assertTrue(ent1.testFlag(Entity.FLAG_DEAD));
+		assertTrue(Entity.idToEntity(ent1.getEntityNumber()) == null);
+		assertTrue(pool.getFreeCount() == 1);
+
+		// Recycling twice does not return the entity to the pool twice
+		ent1.recycle();
+		assertTrue(pool.getFreeCount() == 1);
+
+		long oldNumber = ent1.getEntityNumber();
+		SimEntity ent3 = pool.get("Gen_3");
+		assertTrue(ent3 == ent1);
+		assertTrue(ent3.getEntityNumber() > ent2.getEntityNumber());
+		assertTrue(Entity.idToEntity(oldNumber) == null);
+		assertTrue(!ent3.testFlag(Entity.FLAG_DEAD));
+		assertTrue(ent3.getName().equals("Gen_3"));
+		assertTrue(Entity.idToEntity(ent3.getEntityNumber()) == ent3);
+		assertTrue(pool.getNumberReused() == 1);
+
+		// The reused entity is ordered as if it had just been created
+		ArrayList<? extends Entity> all = Entity.getAll();
+		assertTrue(all.size() == 3);
+		assertTrue(all.get(1) == ent2);
+		assertTrue(all.get(2) == ent3);
+		ArrayList<SimEntity> clones = Entity.getClonesOf(SimEntity.class);
+		assertTrue(clones.size() == 3);
+		for (int i = 0; i < clones.size(); i++)
+			assertTrue(clones.get(i) == all.get(i));
+
+		// An entity that was not supplied by a pool is simply killed
+		proto.recycle();
+		assertTrue(proto.testFlag(Entity.FLAG_DEAD));
+		assertTrue(pool.getFreeCount() == 0);
+	}
+
+	@Test
+	public void testPoolBound() {
+		SimEntity proto = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Proto", "-", true);
+		EntityPool<SimEntity> pool = new EntityPool<>(proto, 2);
+
+		ArrayList<SimEntity> list = new ArrayList<>();
+		for (int i = 0; i < 5; i++)
+			list.add(pool.get("Gen_" + (i + 1)));
+
+		// Entities beyond the bound are discarded rather than kept for reuse
+		for (SimEntity each : list)
+			each.recycle();
+		assertTrue(pool.getFreeCount() == 2);
+		assertTrue(list.get(4).testFlag(Entity.FLAG_DEAD));
+
+		pool.get("Gen_6");
+		pool.get("Gen_7");
+		pool.get("Gen_8");
+		assertTrue(pool.getNumberReused() == 2);
+		assertTrue(pool.getNumberCreated() == 6);
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTraceListener;
+import com.jaamsim.events.ProcessTarget;
+
+public class TestEventTraceFile {
+
+	private File binFile;
+	private File textFile;
+	private File convFile;
+
+	@Before
+	public void setUp() throws IOException {
+		binFile = File.createTempFile("trace", ".evt");
+		textFile = File.createTempFile("trace", ".txt");
+		convFile = File.createTempFile("trace", ".txt");
+	}
+
+	@After
+	public void tearDown() {
+		binFile.delete();
+		textFile.delete();
+		convFile.delete();
+	}
+
+	private static class Target extends ProcessTarget {
+		private final String desc;
+
+		Target(String desc) {
+			this.desc = desc;
+		}
+
+		@Override
+		public String getDescription() {
+			return desc;
+		}
+
+		@Override
+		public void process() {}
+	}
+
+	/**
+	 * Sends the same sequence of trace calls to the given listener. The calls
+	 * for the second EventManager are made after those for the first when
+	 * 'grouped' is true, and interleaved with them otherwise.
+	 */
+	private static void replay(EventTraceListener l, EventManager e1, EventManager e2, boolean grouped) {
+		Target a = new Target("Gen1.process");
+		Target b = new Target("Srv1.endService");
+		Target c = new Target("Gen2.process");
+
+		for (int i = 0; i < 100; i++) {
+			long t = i * 1000L;
+			l.traceEvent(e1, t, t, 5, a);
+			l.traceSchedProcess(e1, t, t + 300000000000L, 5, b);
+			l.traceKill(e1, t, -1, -1, b);
+			l.traceProcessStart(e1, b, t);
+			l.traceWaitUntilEnded(e1, t, a);
+			l.traceProcessEnd(e1, t);
+			l.traceInterrupt(e1, t, t + 10, 2, b);
+			l.traceProcessEnd(e1, t);
+			l.traceProcessEnd(e1, t);
+			l.traceWaitUntil(e1, t);
+			if (!grouped) {
+				l.traceEvent(e2, t / 2, t / 2, -3, c);
+				l.traceProcessEnd(e2, t / 2);
+			}
+		}
+
+		if (grouped) {
+			for (int i = 0; i < 100; i++) {
+				long t = i * 1000L;
+				l.traceEvent(e2, t / 2, t / 2, -3, c);
+				l.traceProcessEnd(e2, t / 2);
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		EventManager e1 = new EventManager("DefaultEventManager");
+		EventManager e2 = new EventManager("Other");
+
+		BinaryEventRecorder rec = new BinaryEventRecorder(binFile.getPath());
+		replay(rec, e1, e2, false);
+		rec.close();
+
+		// Read the records back
+		EventTraceFile.Reader reader = new EventTraceFile.Reader(binFile);
+		EventTraceFile.Record each = new EventTraceFile.Record();
+		assertTrue(reader.next(each));
+		assertTrue(each.matches(new EventTraceFile.Record(EventTraceFile.EVENT, "DefaultEventManager", 0, 0, 5, "Gen1.process")));
+		assertTrue(reader.next(each));
+		assertTrue(each.matches(new EventTraceFile.Record(EventTraceFile.SCHED_PROCESS, "DefaultEventManager", 0, 300000000000L, 5, "Srv1.endService")));
+		int count = 2;
+		while (reader.next(each))
+			count++;
+		reader.close();
+		assertTrue(count == 1200);
+
+		// The records for each EventManager can be verified in a different order
+		BinaryEventTracer trc = new BinaryEventTracer(binFile.getPath());
+		replay(trc, e1, e2, true);
+		assertTrue(trc.getNumVerified() == 1200);
+
+		// A change in the event stream is detected
+		trc = new BinaryEventTracer(binFile.getPath());
+		trc.traceEvent(e1, 0, 0, 5, new Target("Gen1.process"));
+		trc.traceSchedProcess(e1, 0, 300000000000L, 5, new Target("Srv1.endService"));
+		trc.traceKill(e1, 0, -1, -1, new Target("Srv1.startService"));
+		assertTrue(trc.getNumVerified() == 2);
+
+		// The converted trace matches the text trace
+		EventRecorder text = new EventRecorder(textFile.getPath());
+		replay(text, e1, e2, false);
+		text.close();
+		assertTrue(EventTraceConverter.convert(binFile, convFile.getPath()) == 1200);
+		List<String> expected = Files.readAllLines(textFile.toPath(), StandardCharsets.UTF_8);
+		List<String> converted = Files.readAllLines(convFile.toPath(), StandardCharsets.UTF_8);
+		assertTrue(expected.size() > 1000);
+		assertTrue(converted.equals(expected));
+	}
+
+	@Test
+	public void testFormatDetection() throws IOException {
+		BinaryEventRecorder rec = new BinaryEventRecorder(binFile.getPath());
+		rec.close();
+		assertTrue(EventTraceFile.isBinary(binFile));
+
+		EventRecorder text = new EventRecorder(textFile.getPath());
+		text.close();
+		assertTrue(!EventTraceFile.isBinary(textFile));
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestFileEntity {
+
+	private File syncFile;
+	private File asyncFile;
+
+	@Before
+	public void setUp() throws IOException {
+		syncFile = File.createTempFile("file", ".txt");
+		asyncFile = File.createTempFile("file", ".txt");
+	}
+
+	@After
+	public void tearDown() {
+		syncFile.delete();
+		asyncFile.delete();
+	}
+
+	private static void writeLines(FileEntity file, int first, int last) {
+		for (int i = first; i < last; i++) {
+			file.format("%s\tOutput[%s]\t%s%n", "Entity" + i, "Value", i * 0.25d);
+			file.putDoublePadRight(i / 3.0d, 2, 12);
+			file.putDoubleWithDecimalsTabs(i / 7.0d, 3, 2);
+			file.putStringTabs("End", 1);
+			file.newLine();
+			if (i % 1000 == 0)
+				file.flush();
+		}
+	}
+
+	@Test
+	public void testAsyncOutput() throws IOException {
+		FileEntity sync = new FileEntity(syncFile.getPath());
+		FileEntity async = new FileEntity(asyncFile.getPath(), false, true);
+
+		// Text is on the disk after sync, with more than one block written
+		writeLines(sync, 0, 5000);
+		writeLines(async, 0, 5000);
+		sync.sync();
+		async.sync();
+		byte[] expected = Files.readAllBytes(syncFile.toPath());
+		assertTrue(expected.length > 200000);
+		assertTrue(Arrays.equals(Files.readAllBytes(asyncFile.toPath()), expected));
+
+		// Text written after the last sync is on the disk after close
+		writeLines(sync, 5000, 6000);
+		writeLines(async, 5000, 6000);
+		sync.close();
+		async.close();
+		expected = Files.readAllBytes(syncFile.toPath());
+		assertTrue(Arrays.equals(Files.readAllBytes(asyncFile.toPath()), expected));
+
+		// Appending to the file
+		async = new FileEntity(asyncFile.getPath(), true, true);
+		async.putString("Appended");
+		FileEntity.syncAll();
+		String text = new String(Files.readAllBytes(asyncFile.toPath()));
+		assertTrue(text.endsWith("End\t" + System.lineSeparator() + "Appended"));
+		async.close();
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Runs the replications of a model on several threads at once and compares
+ * their outputs with those of the same replications run one after another.
+ */
+public class TestHeadlessRunner {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final String[] MODEL = {
+		"Define ExponentialDistribution { IATDist SvcDist }",
+		"Define SimEntity { Proto }",
+		"Define EntityGenerator { Gen }",
+		"Define Queue { Q }",
+		"Define Server { Srv }",
+		"Define EntitySink { Sink }",
+		"IATDist UnitType { TimeUnit } Mean { 1.0 s } RandomSeed { 1 }",
+		"SvcDist UnitType { TimeUnit } Mean { 0.8 s } RandomSeed { 2 }",
+		"Gen NextComponent { Srv } InterArrivalTime { IATDist } PrototypeEntity { Proto }",
+		"Srv NextComponent { Sink } WaitQueue { Q } ServiceTime { SvcDist }",
+		"Simulation RunDuration { 5000 s } PrintReport { FALSE }",
+	};
+
+	private static boolean sameOutputs(ArrayList<ReplicationStatistics.OutputValue> a,
+			ArrayList<ReplicationStatistics.OutputValue> b) {
+		if (a.size() != b.size())
+			return false;
+		for (int i = 0; i < a.size(); i++) {
+			if (!a.get(i).key.equals(b.get(i).key))
+				return false;
+			if (Double.doubleToLongBits(a.get(i).value) != Double.doubleToLongBits(b.get(i).value))
+				return false;
+		}
+		return true;
+	}
+
+	@Test
+	public void testParallelReplications() throws Exception {
+		File file = folder.newFile("mm1.cfg");
+		try (PrintWriter out = new PrintWriter(file)) {
+			for (String line : MODEL)
+				out.println(line);
+		}
+
+		final File loadFile = file;
+		final HeadlessRunner runner = new HeadlessRunner();
+		int numReps = 6;
+		ArrayList<ArrayList<ReplicationStatistics.OutputValue>> expected = new ArrayList<>();
+		for (int i = 0; i < numReps; i++)
+			expected.add(runner.runReplication(loadFile, i));
+
+		ExecutorService pool = Executors.newFixedThreadPool(3);
+		ArrayList<Future<ArrayList<ReplicationStatistics.OutputValue>>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < numReps; i++) {
+				final int rep = i;
+				results.add(pool.submit(new Callable<ArrayList<ReplicationStatistics.OutputValue>>() {
+					@Override
+					public ArrayList<ReplicationStatistics.OutputValue> call() throws Exception {
+						return runner.runReplication(loadFile, rep);
+					}
+				}));
+			}
+			for (int i = 0; i < numReps; i++)
+				assertTrue(sameOutputs(expected.get(i), results.get(i).get()));
+		}
+		finally {
+			pool.shutdown();
+		}
+
+		// Each replication uses its own substream
+		assertTrue(expected.get(0).size() > 0);
+		assertEquals(expected.get(0).size(), expected.get(1).size());
+		assertTrue(!sameOutputs(expected.get(0), expected.get(1)));
+	}
+}
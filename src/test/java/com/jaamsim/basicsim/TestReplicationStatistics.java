@@ -0,0 +1,92 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.BasicObjects.Queue;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.InputErrorException;
+
+public class TestReplicationStatistics {
+
+	@Before
+	public void setUp() {
+		SimulationContext.setCurrent(new SimulationContext("TestReplicationStatistics"));
+	}
+
+	@After
+	public void tearDown() {
+		SimulationContext.setCurrent(null);
+	}
+
+	private static ArrayList<ReplicationStatistics.OutputValue> values(double val) {
+		ArrayList<ReplicationStatistics.OutputValue> ret = new ArrayList<>();
+		ret.add(new ReplicationStatistics.OutputValue("Q.QueueLengthAverage", "Q\tOutput[QueueLengthAverage]", val));
+		return ret;
+	}
+
+	@Test
+	public void testConverged() {
+		ReplicationStatistics stats = new ReplicationStatistics();
+		assertFalse(stats.isConverged(null, 0.95d, 0.05d));
+
+		// Replications without any recorded outputs are never converged
+		stats.add(new ArrayList<ReplicationStatistics.OutputValue>());
+		stats.add(new ArrayList<ReplicationStatistics.OutputValue>());
+		assertFalse(stats.isConverged(null, 0.95d, 0.05d));
+		assertFalse(stats.isConverged("Q.QueueLengthAverage", 0.95d, 0.05d));
+
+		stats = new ReplicationStatistics();
+		stats.add(values(10.0d));
+		stats.add(values(10.1d));
+		stats.add(values(9.9d));
+		assertTrue(stats.isConverged(null, 0.95d, 0.05d));
+		assertTrue(stats.isConverged("Q.QueueLengthAverage", 0.95d, 0.05d));
+		assertFalse(stats.isConverged("Q.QueueLength", 0.95d, 0.05d));
+		assertFalse(stats.isConverged(null, 0.95d, 0.001d));
+	}
+
+	private static boolean validStoppingOutput(ExperimentManager exp, String... args) {
+		InputAgent.applyArgs(exp, "StoppingOutput", args);
+		try {
+			exp.validate();
+			return true;
+		}
+		catch (InputErrorException e) {
+			return false;
+		}
+	}
+
+	@Test
+	public void testStoppingOutput() {
+		ExperimentManager exp = InputAgent.defineEntityWithUniqueName(ExperimentManager.class, "Exp", "-", true);
+		InputAgent.defineEntityWithUniqueName(Queue.class, "Q", "-", true);
+
+		assertTrue(validStoppingOutput(exp, "Q", "QueueLengthAverage"));
+
+		// Outputs that are not recorded for each replication are rejected
+		assertFalse(validStoppingOutput(exp, "Q", "QueueLength"));
+		assertFalse(validStoppingOutput(exp, "Q", "QueueLengthDistribution"));
+		assertFalse(validStoppingOutput(exp, "Q", "Name"));
+	}
+}
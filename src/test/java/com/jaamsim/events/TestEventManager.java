@@ -281,7 +281,20 @@ public class TestEventManager {
 	 */
 	@Test
 	public void testScheduleWait() {
+		scheduleWait(false);
+	}
+
+	/**
+	 * Repeat the wait test with the event loop handed directly between Processes.
+	 */
+	@Test
+	public void testScheduleWaitDirectHandoff() {
+		scheduleWait(true);
+	}
+
+	private void scheduleWait(boolean directHandoff) {
 		EventManager evt = new EventManager("testScheduleWaitEVT");
+		evt.setDirectHandoff(directHandoff);
 		evt.clear();
 
 		final ArrayList<String> log = new ArrayList<>();
@@ -335,6 +348,219 @@ public class TestEventManager {
 		}
 	}
 
+	/**
+	 * Mix plain events, waiting processes and started processes with the event
+	 * loop handed directly between Processes.
+	 */
+	@Test
+	public void testStartProcessDirectHandoff() {
+		EventManager evt = new EventManager("testStartProcessDirectHandoffEVT");
+		evt.setDirectHandoff(true);
+		evt.clear();
+
+		final ArrayList<String> log = new ArrayList<>();
+		evt.scheduleProcessExternal(0, 0, false, new ProcessTarget() {
+			@Override
+			public String getDescription() { return ""; }
+
+			@Override
+			public void process() {
+				log.add("Parent:" + EventManager.simTicks());
+				EventManager.startProcess(new ProcessTarget() {
+					@Override
+					public String getDescription() { return ""; }
+
+					@Override
+					public void process() {
+						log.add("Child:" + EventManager.simTicks());
+						EventManager.waitTicks(2, 0, true, null);
+						log.add("Child:" + EventManager.simTicks());
+					}
+				});
+				log.add("Parent:" + EventManager.simTicks());
+				EventManager.waitTicks(1, 0, true, null);
+				log.add("Parent:" + EventManager.simTicks());
+				EventManager.waitTicks(2, 0, true, null);
+				log.add("Parent:" + EventManager.simTicks());
+			}
+		}, null);
+		evt.scheduleProcessExternal(1, 1, false, new LogTarget(1, log), null);
+		evt.scheduleProcessExternal(2, 1, false, new LogTarget(2, log), null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 100, 1000);
+
+		ArrayList<String> expected = new ArrayList<>();
+		expected.add("Parent:0");
+		expected.add("Child:0");
+		expected.add("Parent:0");
+		expected.add("Parent:1");
+		expected.add("Target:1");
+		expected.add("Child:2");
+		expected.add("Target:2");
+		expected.add("Parent:3");
+
+		assertTrue(expected.size() == log.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(expected.get(i).equals(log.get(i)));
+		}
+	}
+
+	/**
+	 * Start a large number of processes that are all waiting at the same time,
+	 * each one requires its own thread to be created.
+	 */
+	@Test
+	public void testManyWaitingProcesses() {
+		EventManager.setProcessStackSize(256 * 1024);
+		try {
+			EventManager evt = new EventManager("testManyWaitingProcessesEVT");
+			evt.clear();
+
+			final int[] count = new int[1];
+			for (int i = 0; i < 2000; i++) {
+				evt.scheduleProcessExternal(0, 0, true, new ProcessTarget() {
+					@Override
+					public String getDescription() { return ""; }
+
+					@Override
+					public void process() {
+						EventManager.waitTicks(10, 0, true, null);
+						count[0]++;
+					}
+				}, null);
+			}
+
+			TestFrameworkHelpers.runEventsToTick(evt, 100, 10000);
+			assertTrue(count[0] == 2000);
+		}
+		finally {
+			EventManager.setProcessStackSize(0);
+		}
+	}
+
+	/**
+	 * A conditional that declares its dependencies is only re-evaluated after
+	 * one of them signals a change, while an undeclared one is tested before
+	 * every time advance.
+	 */
+	@Test
+	public void testConditionDependencies() {
+		EventManager evt = new EventManager("testConditionDependenciesEVT");
+		evt.clear();
+
+		final int[] count = new int[1];
+		final ChangeNotifier notifier = new ChangeNotifier();
+		final ArrayList<String> log = new ArrayList<>();
+
+		// Increment the count at every tick, but only signal the even values
+		for (int i = 1; i < 10; i++) {
+			evt.scheduleProcessExternal(i, 0, false, new ProcessTarget() {
+				@Override
+				public String getDescription() { return ""; }
+
+				@Override
+				public void process() {
+					count[0]++;
+					if (count[0] % 2 == 0)
+						notifier.changed();
+				}
+			}, null);
+		}
+
+		evt.scheduleProcessExternal(0, 0, false, new ProcessTarget() {
+			@Override
+			public String getDescription() { return ""; }
+
+			@Override
+			public void process() {
+				EventManager.scheduleUntil(new TickLogTarget("Untracked", log), new CountConditional(count, null), null);
+				EventManager.scheduleUntil(new TickLogTarget("Tracked", log), new CountConditional(count, notifier), null);
+			}
+		}, null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 100, 1000);
+
+		// The undeclared condition fires at tick 3, the declared one waits for the
+		// change signalled at tick 4
+		assertTrue(log.size() == 2);
+		assertTrue(log.get(0).equals("Untracked:3"));
+		assertTrue(log.get(1).equals("Tracked:4"));
+		assertTrue(!notifier.isWatched());
+		assertTrue(evt.getConditionEvaluationsSaved() > 0);
+	}
+
+	/**
+	 * Killing a conditional event removes it from its dependencies.
+	 */
+	@Test
+	public void testConditionDependencyKill() {
+		EventManager evt = new EventManager("testConditionDependencyKillEVT");
+		evt.clear();
+
+		final int[] count = new int[1];
+		final ChangeNotifier notifier = new ChangeNotifier();
+		final ArrayList<String> log = new ArrayList<>();
+		final EventHandle handle = new EventHandle();
+
+		evt.scheduleProcessExternal(0, 0, false, new ProcessTarget() {
+			@Override
+			public String getDescription() { return ""; }
+
+			@Override
+			public void process() {
+				EventManager.scheduleUntil(new LogTarget(0, log), new CountConditional(count, notifier), handle);
+				if (!notifier.isWatched())
+					log.add("NotWatched");
+				EventManager.killEvent(handle);
+			}
+		}, null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 100, 1000);
+
+		assertTrue(log.isEmpty());
+		assertTrue(!notifier.isWatched());
+		assertTrue(!handle.isScheduled());
+	}
+
+	private static class TickLogTarget extends ProcessTarget {
+		final ArrayList<String> log;
+		final String name;
+		TickLogTarget(String n, ArrayList<String> l) {
+			log = l;
+			name = n;
+		}
+
+		@Override
+		public String getDescription() {
+			return name;
+		}
+
+		@Override
+		public void process() {
+			log.add(name + ":" + EventManager.simTicks());
+		}
+	}
+
+	private static class CountConditional extends Conditional {
+		final int[] count;
+		final ChangeNotifier[] deps;
+
+		CountConditional(int[] c, ChangeNotifier n) {
+			count = c;
+			deps = (n == null) ? null : new ChangeNotifier[] { n };
+		}
+
+		@Override
+		public boolean evaluate() {
+			return count[0] >= 3;
+		}
+
+		@Override
+		public ChangeNotifier[] getDependencies() {
+			return deps;
+		}
+	}
+
 	private static class LogTarget extends ProcessTarget {
 		final ArrayList<String> log;
 		final int num;
@@ -16,12 +16,29 @@ package com.jaamsim.events;
 
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Random;
+
 import org.junit.Test;
 
 public class TestEventTree {
 @Test
 public void testRBTree() {
-	EventTree tree = new EventTree();
+	testTree(EventQueueType.REDBLACK);
+}
+
+@Test
+public void testCalendarQueue() {
+	testTree(EventQueueType.CALENDAR);
+}
+
+@Test
+public void testLadderQueue() {
+	testTree(EventQueueType.LADDER);
+}
+
+private void testTree(EventQueueType type) {
+	EventTree tree = type.newEventTree();
 
 	for (int i = 0; i < 10000; ++i) {
 		tree.createOrFindNode(i, 0);
@@ -41,7 +58,7 @@ public void testRBTree() {
 		assertTrue(nodeCount == 10000 - i - 1);
 	}
 
-	tree = new EventTree();
+	tree = type.newEventTree();
 	for (int i = 10000; i > 0; --i) {
 		tree.createOrFindNode(i, 0);
 		tree.verify();
@@ -82,4 +99,75 @@ public void testRBTree() {
 		assertTrue((20000-2-2*i) == nodeCount);
 	}
 }
+
+@Test
+public void testRandomOrder() {
+	for (EventQueueType type : EventQueueType.values()) {
+		randomOrder(type);
+	}
+}
+
+/**
+ * Mix random inserts, lookups and removals of both the next node and arbitrary
+ * nodes, checking the next node against a simple list sorted by time and priority.
+ */
+private void randomOrder(EventQueueType type) {
+	EventTree tree = type.newEventTree();
+	ArrayList<long[]> keys = new ArrayList<>();
+	Random rand = new Random(1234);
+	long now = 0;
+
+	for (int i = 0; i < 50000; ++i) {
+		int op = rand.nextInt(10);
+		if (op < 5 || keys.isEmpty()) {
+			// Clustered times close to now with a few far in the future
+			long tick = now + (rand.nextInt(10) == 0 ? rand.nextInt(1000000) : rand.nextInt(100));
+			if (rand.nextInt(1000) == 0)
+				tick = Long.MAX_VALUE;
+			int prio = rand.nextInt(5);
+			boolean exists = tree.find(tick, prio) != null;
+			EventNode node = tree.createOrFindNode(tick, prio);
+			assertTrue(node.schedTick == tick && node.priority == prio);
+			if (!exists)
+				addKey(keys, tick, prio);
+		}
+		else if (op < 9) {
+			EventNode next = tree.getNextNode();
+			long[] key = keys.remove(0);
+			assertTrue(next.schedTick == key[0] && next.priority == key[1]);
+			now = key[0];
+			assertTrue(tree.removeNode(key[0], (int)key[1]));
+		}
+		else {
+			long[] key = keys.remove(rand.nextInt(keys.size()));
+			assertTrue(tree.removeNode(key[0], (int)key[1]));
+			assertTrue(tree.find(key[0], (int)key[1]) == null);
+		}
+
+		if (i % 1000 == 0) {
+			tree.verify();
+			assertTrue(tree.verifyNodeCount() == keys.size());
+		}
+	}
+
+	while (!keys.isEmpty()) {
+		EventNode next = tree.getNextNode();
+		long[] key = keys.remove(0);
+		assertTrue(next.schedTick == key[0] && next.priority == key[1]);
+		assertTrue(tree.removeNode(key[0], (int)key[1]));
+	}
+	assertTrue(tree.getNextNode() == null);
+	assertTrue(tree.verifyNodeCount() == 0);
+}
+
+private static void addKey(ArrayList<long[]> keys, long tick, int prio) {
+	int i = 0;
+	while (i < keys.size()) {
+		long[] key = keys.get(i);
+		if (key[0] > tick || (key[0] == tick && key[1] > prio))
+			break;
+		i++;
+	}
+	keys.add(i, new long[] { tick, prio });
+}
 }
@@ -20,7 +20,14 @@ public class TestSchedEvent {
 
 	@Test
 	public void testLIFOEvents() {
+		for (EventQueueType type : EventQueueType.values()) {
+			lifoEvents(type);
+		}
+	}
+
+	private void lifoEvents(EventQueueType type) {
 		EventManager evt = new EventManager("TestEVT");
+		evt.setEventQueue(type);
 		evt.clear();
 
 		ProcessTarget targ = new TestTarget(1);
@@ -38,12 +45,19 @@ public class TestSchedEvent {
 
 		long endExecNanos = System.nanoTime();
 
-		outputResults("LIFO Events", nanoStamps, endSchedNanos, endExecNanos);
+		outputResults("LIFO Events (" + type + ")", nanoStamps, endSchedNanos, endExecNanos);
 	}
 
 	@Test
 	public void testFIFOEvents() {
+		for (EventQueueType type : EventQueueType.values()) {
+			fifoEvents(type);
+		}
+	}
+
+	private void fifoEvents(EventQueueType type) {
 		EventManager evt = new EventManager("TestEVT");
+		evt.setEventQueue(type);
 		evt.clear();
 
 		ProcessTarget targ = new TestTarget(1);
@@ -61,12 +75,19 @@ public class TestSchedEvent {
 
 		long endExecNanos = System.nanoTime();
 
-		outputResults("FIFO Events", nanoStamps, endSchedNanos, endExecNanos);
+		outputResults("FIFO Events (" + type + ")", nanoStamps, endSchedNanos, endExecNanos);
 	}
 
 	@Test
 	public void testPriorityEvents() {
+		for (EventQueueType type : EventQueueType.values()) {
+			priorityEvents(type);
+		}
+	}
+
+	private void priorityEvents(EventQueueType type) {
 		EventManager evt = new EventManager("TestEVT");
+		evt.setEventQueue(type);
 		evt.clear();
 
 		ProcessTarget targ = new TestTarget(1);
@@ -84,12 +105,19 @@ public class TestSchedEvent {
 
 		long endExecNanos = System.nanoTime();
 
-		outputResults("Different Priority Events", nanoStamps, endSchedNanos, endExecNanos);
+		outputResults("Different Priority Events (" + type + ")", nanoStamps, endSchedNanos, endExecNanos);
 	}
 
 	@Test
 	public void testTimeEvents() {
+		for (EventQueueType type : EventQueueType.values()) {
+			timeEvents(type);
+		}
+	}
+
+	private void timeEvents(EventQueueType type) {
 		EventManager evt = new EventManager("TestEVT");
+		evt.setEventQueue(type);
 		evt.clear();
 
 		ProcessTarget targ = new TestTarget(1);
@@ -107,7 +135,38 @@ public class TestSchedEvent {
 
 		long endExecNanos = System.nanoTime();
 
-		outputResults("Different Time Events", nanoStamps, endSchedNanos, endExecNanos);
+		outputResults("Different Time Events (" + type + ")", nanoStamps, endSchedNanos, endExecNanos);
+	}
+
+	@Test
+	public void testWaitEvents() {
+		waitEvents(false);
+		waitEvents(true);
+	}
+
+	/**
+	 * Time 100 processes that each wait 1000 times, every wakeup requires
+	 * control to be passed to a waiting process.
+	 */
+	private void waitEvents(boolean directHandoff) {
+		EventManager evt = new EventManager("TestEVT");
+		evt.setDirectHandoff(directHandoff);
+		evt.clear();
+
+		int numProcs = 100;
+		int numWaits = 1000;
+		for (int i = 0; i < numProcs; i++) {
+			evt.scheduleProcessExternal(0, 0, true, new WaitingTarget(numWaits, i + 1), null);
+		}
+
+		long startNanos = System.nanoTime();
+		TestFrameworkHelpers.runEventsToTick(evt, Long.MAX_VALUE, Long.MAX_VALUE);
+		long execNanos = System.nanoTime() - startNanos;
+
+		long numEvents = (long)numProcs * (numWaits + 1);
+		System.out.println(directHandoff ? "Wait Events (direct handoff)" : "Wait Events");
+		System.out.format("Done exec - %12d ns (%f ns/evt, %.0f evt/s)%n%n", execNanos,
+		                  (double)execNanos / numEvents, numEvents * 1.0e9d / execNanos);
 	}
 
 	private final void outputResults(String test, long[] nanoStamps, long endSchedNanos, long endExecNanos) {
@@ -143,4 +202,25 @@ public class TestSchedEvent {
 			//System.out.flush();
 		}
 	}
+
+	private static class WaitingTarget extends ProcessTarget {
+		final int numWaits;
+		final long waitTicks;
+		WaitingTarget(int n, long ticks) {
+			numWaits = n;
+			waitTicks = ticks;
+		}
+
+		@Override
+		public String getDescription() {
+			return "WaitingTarget";
+		}
+
+		@Override
+		public void process() {
+			for (int i = 0; i < numWaits; i++) {
+				EventManager.waitTicks(waitTicks, 0, true, null);
+			}
+		}
+	}
 }
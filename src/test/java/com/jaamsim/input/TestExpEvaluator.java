@@ -0,0 +1,105 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jaamsim.ProbabilityDistributions.NormalDistribution;
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.ObjectType;
+
+public class TestExpEvaluator {
+
+	private static ObjectType unitType = null;
+
+	private static NormalDistribution defineDist(String name, String mean) {
+		if (unitType == null) {
+			unitType = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", "-", true);
+			InputAgent.applyArgs(unitType, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+		}
+
+		NormalDistribution dist = InputAgent.defineEntityWithUniqueName(NormalDistribution.class, name, "-", true);
+		InputAgent.applyArgs(dist, "UnitType", unitType.getName());
+		InputAgent.applyArgs(dist, "Mean", mean);
+		return dist;
+	}
+
+	private static double evaluate(ExpParser.Expression exp, Entity thisEnt) throws ExpError {
+		return ExpEvaluator.evaluateExpression(exp, 0.0d, thisEnt).value;
+	}
+
+	@Test
+	public void testRebinding() throws ExpError {
+		NormalDistribution dist = defineDist("BindDist", "10.0");
+		String name = dist.getName();
+		ExpParser.Expression exp = ExpParser.parseExpression(ExpEvaluator.getParseContext(), "[" + name + "].CalculatedMean + 1");
+
+		assertTrue(evaluate(exp, dist) == 11);
+		assertTrue(evaluate(exp, dist) == 11);
+
+		InputAgent.applyArgs(dist, "Mean", "20.0");
+		assertTrue(evaluate(exp, dist) == 21);
+
+		// Renaming the entity breaks the reference
+		dist.setName(name + "Renamed");
+		boolean threw = false;
+		try {
+			evaluate(exp, dist);
+		} catch (ExpError e) {
+			threw = true;
+		}
+		assertTrue(threw);
+
+		// A new entity with the original name is found
+		NormalDistribution dist2 = defineDist(name, "30.0");
+		assertTrue(dist2.getName().equals(name));
+		assertTrue(evaluate(exp, dist) == 31);
+
+		dist2.kill();
+		threw = false;
+		try {
+			evaluate(exp, dist);
+		} catch (ExpError e) {
+			threw = true;
+		}
+		assertTrue(threw);
+	}
+
+	@Test
+	public void testThisBinding() throws ExpError {
+		NormalDistribution dist1 = defineDist("ThisDist", "10.0");
+		NormalDistribution dist2 = defineDist("ThisDist", "20.0");
+		ExpParser.Expression exp = ExpParser.parseExpression(ExpEvaluator.getParseContext(), "this.CalculatedMean");
+
+		assertTrue(evaluate(exp, dist1) == 10);
+		assertTrue(evaluate(exp, dist2) == 20);
+		assertTrue(evaluate(exp, dist1) == 10);
+
+		// An attribute defined after the expression is first evaluated
+		exp = ExpParser.parseExpression(ExpEvaluator.getParseContext(), "this.Attrib");
+		boolean threw = false;
+		try {
+			evaluate(exp, dist1);
+		} catch (ExpError e) {
+			threw = true;
+		}
+		assertTrue(threw);
+
+		InputAgent.applyArgs(dist1, "AttributeDefinitionList", "{", "Attrib", "5", "}");
+		assertTrue(evaluate(exp, dist1) == 5);
+	}
+}
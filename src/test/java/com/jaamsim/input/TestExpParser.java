@@ -503,4 +503,162 @@ public class TestExpParser {
 		assertTrue(assign.value.evaluate(ec).value == 42);
 
 	}
+
+	private static class VarEC implements ExpParser.EvalContext {
+		double foo = 4;
+		double bar = 3;
+		Class<? extends Unit> barUnit = DimensionlessUnit.class;
+		boolean eager = false;
+		int reads = 0;
+
+		@Override
+		public ExpResult getVariableValue(String[] name) {
+			reads++;
+			if (name[0].equals("foo")) return new ExpResult(foo, DimensionlessUnit.class);
+			return new ExpResult(bar, barUnit);
+		}
+		@Override
+		public boolean eagerEval() { return eager; }
+	}
+
+	@Test
+	public void testCompiled() throws ExpError {
+		String[] sources = {
+			"[foo] + 2*[bar] - [foo]/[bar]",
+			"-[foo] % [bar] + ![bar]",
+			"[foo] ^ 2 == 16 && [bar] != 3 || [foo] >= [bar]",
+			"[foo] < [bar] ? [foo] : [bar] * 2",
+			"[foo] <= 4 ? max([foo], [bar], 2) : min([foo], [bar], 2)",
+			"indexOfMax([foo], [bar], 1) + indexOfMin([foo], [bar], 1) + abs(-[bar])",
+			"sin([foo]) + cos([bar]) + tan([foo]) + PI() + E()",
+			"atan2([foo], [bar]) + asin(1/[foo]) + acos(1/[foo]) + atan([bar])",
+			"exp([bar]) + ln([foo]) + log([foo])",
+		};
+
+		VarEC ec = new VarEC();
+		for (String src : sources) {
+			for (boolean eager : new boolean[] { false, true }) {
+				ec.eager = eager;
+				ExpParser.Expression exp = ExpParser.parseExpression(pc, src);
+				for (int i = 0; i < 5; i++) {
+					ec.foo = i;
+					ec.bar = 3 - i;
+
+					// A newly parsed expression is interpreted
+					ec.reads = 0;
+					ExpResult expected = ExpParser.parseExpression(pc, src).evaluate(ec);
+					int expectedReads = ec.reads;
+
+					ec.reads = 0;
+					ExpResult res = exp.evaluate(ec);
+					assertTrue(Double.compare(res.value, expected.value) == 0);
+					assertTrue(res.unitType == expected.unitType);
+					assertTrue(ec.reads == expectedReads);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCompiledUnitChange() throws ExpError {
+		class UnitPC implements ExpParser.ParseContext {
+			@Override
+			public UnitData getUnitByName(String name) {
+				UnitData ret = new UnitData();
+				ret.scaleFactor = 1;
+				ret.unitType = DistanceUnit.class;
+				return ret;
+			}
+			@Override
+			public Class<? extends Unit> multUnitTypes(Class<? extends Unit> a, Class<? extends Unit> b) {
+				return null;
+			}
+			@Override
+			public Class<? extends Unit> divUnitTypes(Class<? extends Unit> num, Class<? extends Unit> denom) {
+				return null;
+			}
+		}
+		VarEC ec = new VarEC();
+		ExpParser.Expression exp = ExpParser.parseExpression(new UnitPC(), "[foo] > 2 ? [bar] + 1[m] : 5[m]");
+
+		ec.barUnit = DistanceUnit.class;
+		for (int i = 0; i < 3; i++) {
+			ExpResult res = exp.evaluate(ec);
+			assertTrue(res.value == 4);
+			assertTrue(res.unitType == DistanceUnit.class);
+		}
+
+		// The branch not taken does not depend on the unit of [bar]
+		ec.barUnit = TimeUnit.class;
+		ec.foo = 1;
+		ExpResult res = exp.evaluate(ec);
+		assertTrue(res.value == 5);
+		assertTrue(res.unitType == DistanceUnit.class);
+
+		// A unit error is reported as by the interpreter, reading each variable once
+		ec.foo = 4;
+		ec.reads = 0;
+		boolean threw = false;
+		try {
+			exp.evaluate(ec);
+		} catch (ExpError ex) {
+			threw = true;
+		}
+		assertTrue(threw);
+		assertTrue(ec.reads == 2);
+
+		// A unit change that is still valid gives the same result as the interpreter
+		exp = ExpParser.parseExpression(pc, "max([bar], 1) + [bar]");
+		ec.barUnit = DimensionlessUnit.class;
+		for (int i = 0; i < 3; i++) {
+			exp.evaluate(ec);
+		}
+		ec.barUnit = TimeUnit.class;
+		ec.reads = 0;
+		threw = false;
+		try {
+			exp.evaluate(ec);
+		} catch (ExpError ex) {
+			threw = true;
+		}
+		assertTrue(threw);
+		assertTrue(ec.reads == 1);
+
+		exp = ExpParser.parseExpression(pc, "[bar] * [foo]");
+		ec.barUnit = DimensionlessUnit.class;
+		for (int i = 0; i < 3; i++) {
+			exp.evaluate(ec);
+		}
+		ec.barUnit = TimeUnit.class;
+		ec.reads = 0;
+		res = exp.evaluate(ec);
+		assertTrue(res.value == 3 * 4);
+		assertTrue(ec.reads == 2);
+	}
+
+	@Test
+	public void testRecursion() throws ExpError {
+		class RecursiveEC implements ExpParser.EvalContext {
+			ExpParser.Expression exp;
+			@Override
+			public ExpResult getVariableValue(String[] name) throws ExpError {
+				return exp.evaluate(this);
+			}
+			@Override
+			public boolean eagerEval() { return true; }
+		}
+		RecursiveEC ec = new RecursiveEC();
+		ec.exp = ExpParser.parseExpression(pc, "1 + [foo]");
+
+		boolean threw = false;
+		try {
+			ec.exp.evaluate(ec);
+		} catch (ExpError ex) {
+			threw = true;
+		}
+		assertTrue(threw);
+
+		// The expression can still be evaluated after the error
+		assertTrue(ec.exp.evaluate(new VarEC()).value == 5);
+	}
 }
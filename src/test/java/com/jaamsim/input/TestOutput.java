@@ -14,14 +14,18 @@
  */
 package com.jaamsim.input;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.junit.Test;
 
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.ErrorException;
+import com.jaamsim.basicsim.ObjectType;
 
 public class TestOutput {
 
@@ -61,4 +65,55 @@ public class TestOutput {
 		}
 	}
 
+	@Test
+	public void testHandleValues() throws Exception {
+		ObjectType ent = InputAgent.defineEntityWithUniqueName(ObjectType.class, "OutputTest", "-", true);
+		InputAgent.applyArgs(ent, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		for (OutputHandle out : OutputHandle.getOutputHandleList(ent)) {
+			Method m = ent.getClass().getMethod(getMethodName(ent, out.getName()), double.class);
+			Object expected;
+			try {
+				expected = m.invoke(ent, 0.0d);
+			}
+			catch (InvocationTargetException e) {
+				// The handle must throw the same unchecked exception as the
+				// reflective call, and wrap only checked exceptions
+				Throwable cause = e.getCause();
+				Class<?> expectedType = (cause instanceof RuntimeException || cause instanceof Error)
+						? cause.getClass() : ErrorException.class;
+				boolean threw = false;
+				try {
+					out.getValue(0.0d, m.getReturnType());
+				}
+				catch (Throwable t) {
+					threw = (t.getClass() == expectedType);
+				}
+				assertTrue(out.getName(), threw);
+				continue;
+			}
+
+			if (!m.getReturnType().isPrimitive())
+				assertEquals(out.getName(), expected, out.getValue(0.0d, Object.class));
+			assertTrue(OutputHandle.getStaticOutputType(ent.getClass(), out.getName()) == m.getReturnType());
+
+			if (!out.isNumericValue())
+				continue;
+
+			double val = out.getValueAsDouble(0.0d, Double.NaN);
+			if (expected instanceof Boolean)
+				assertEquals(out.getName(), ((Boolean)expected) ? 1.0d : 0.0d, val, 0.0d);
+			else if (expected instanceof Number)
+				assertEquals(out.getName(), ((Number)expected).doubleValue(), val, 0.0d);
+		}
+	}
+
+	private static String getMethodName(Entity ent, String outputName) {
+		for (Method m : ent.getClass().getMethods()) {
+			Output o = m.getAnnotation(Output.class);
+			if (o != null && o.name().equals(outputName))
+				return m.getName();
+		}
+		return null;
+	}
 }
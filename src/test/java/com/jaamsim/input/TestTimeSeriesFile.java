@@ -0,0 +1,217 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.Samples.TimeSeriesData;
+import com.jaamsim.units.DimensionlessUnit;
+
+public class TestTimeSeriesFile {
+
+	private File textFile;
+	private File binFile;
+
+	@Before
+	public void setUp() throws IOException {
+		textFile = File.createTempFile("series", ".csv");
+		binFile = File.createTempFile("series", ".tsb");
+	}
+
+	@After
+	public void tearDown() {
+		TimeSeriesFile.getCacheFile(textFile).delete();
+		TimeSeriesFile.getTempCacheFile(textFile).delete();
+		textFile.delete();
+		binFile.delete();
+	}
+
+	private void writeText(String... lines) throws IOException {
+		try (PrintWriter out = new PrintWriter(textFile)) {
+			for (String line : lines)
+				out.println(line);
+		}
+	}
+
+	@Test
+	public void testTextFile() throws IOException {
+		writeText("Time, Value",
+		          "# comment",
+		          "2010-01-01 00:00:00, 0.5",
+		          "",
+		          "\"2010-01-01 01:00:00\", 1.5",
+		          "2010-01-01 03:30:00 1.25");
+
+		TimeSeriesData data = TimeSeriesFile.load(textFile, DimensionlessUnit.class, 1.0e-3d);
+		assertEquals(3, data.getNumPoints());
+		assertEquals(0L, data.getTicks(0));
+		assertEquals(3600000L, data.getTicks(1));
+		assertEquals(12600000L, data.getTicks(2));
+		assertEquals(0.5d, data.getValue(0), 0.0d);
+		assertEquals(1.5d, data.getValue(1), 0.0d);
+		assertEquals(1.25d, data.getValue(2), 0.0d);
+		assertEquals(0.5d, data.getMinValue(), 0.0d);
+		assertEquals(1.5d, data.getMaxValue(), 0.0d);
+
+		assertEquals(1, data.findTicks(3600000L));
+		assertEquals(-3, data.findTicks(3600001L));
+		assertEquals(-1, data.findTicks(-1L));
+
+		// The binary copy is used while the text file is unchanged
+		File cache = TimeSeriesFile.getCacheFile(textFile);
+		assertTrue(cache.isFile());
+		assertTrue(cache.setLastModified(1000L));
+		data = TimeSeriesFile.load(textFile, DimensionlessUnit.class, 1.0e-3d);
+		assertEquals(1000L, cache.lastModified());
+		assertEquals(3, data.getNumPoints());
+
+		// A different tick length rebuilds the binary copy
+		data = TimeSeriesFile.load(textFile, DimensionlessUnit.class, 1.0e-6d);
+		assertEquals(12600000000L, data.getTicks(2));
+		assertTrue(cache.lastModified() != 1000L);
+	}
+
+	@Test
+	public void testBinaryFile() throws IOException {
+		int n = 100000;
+		long[] ticks = new long[n];
+		double[] values = new double[n];
+		for (int i = 0; i < n; i++) {
+			ticks[i] = 10L * i;
+			values[i] = i % 7;
+		}
+		TimeSeriesFile.write(binFile, ticks, values, n, null, 1.0e-6d, 0L, 0L);
+
+		TimeSeriesData data = TimeSeriesFile.load(binFile, DimensionlessUnit.class, 1.0e-6d);
+		assertEquals(n, data.getNumPoints());
+		assertEquals(0.0d, data.getMinValue(), 0.0d);
+		assertEquals(6.0d, data.getMaxValue(), 0.0d);
+		assertEquals(10L * (n - 1), data.getLastTicks());
+		for (int i = 0; i < n; i += 997) {
+			assertEquals(i, data.findTicks(10L * i));
+			assertEquals(-i - 2, data.findTicks(10L * i + 5));
+			assertEquals(i % 7, data.getValue(i), 0.0d);
+		}
+	}
+
+	@Test(expected = InputErrorException.class)
+	public void testBinaryTickLength() throws IOException {
+		TimeSeriesFile.write(binFile, new long[] { 0L }, new double[] { 1.0d }, 1, null, 1.0e-6d, 0L, 0L);
+		TimeSeriesFile.load(binFile, DimensionlessUnit.class, 1.0e-3d);
+	}
+
+	@Test
+	public void testUnwritableCache() throws IOException {
+		writeText("2010-01-01 00:00:00, 0.5",
+		          "2010-01-01 01:00:00, 1.5");
+
+		// A directory in place of the cache file makes it impossible to write
+		File cache = TimeSeriesFile.getCacheFile(textFile);
+		assertTrue(cache.mkdir());
+		TimeSeriesData data = TimeSeriesFile.load(textFile, DimensionlessUnit.class, 1.0e-3d);
+		assertEquals(2, data.getNumPoints());
+		assertEquals(3600000L, data.getTicks(1));
+		assertTrue(cache.isDirectory());
+
+		File temp = TimeSeriesFile.getTempCacheFile(textFile);
+		assertTrue(temp.isFile());
+		assertTrue(temp.delete());
+
+		// With neither copy writable the data is kept on the heap
+		assertTrue(temp.mkdir());
+		data = TimeSeriesFile.load(textFile, DimensionlessUnit.class, 1.0e-3d);
+		assertEquals(2, data.getNumPoints());
+		assertEquals(1.5d, data.getValue(1), 0.0d);
+		assertEquals(0.5d, data.getMinValue(), 0.0d);
+		assertEquals(1.5d, data.getMaxValue(), 0.0d);
+		assertTrue(temp.isDirectory());
+	}
+
+	@Test
+	public void testDamagedCache() throws IOException {
+		writeText("2010-01-01 00:00:00, 0.5",
+		          "2010-01-01 01:00:00, 1.5");
+		TimeSeriesFile.load(textFile, DimensionlessUnit.class, 1.0e-3d);
+
+		// A cache cut short by a failed write is replaced
+		File cache = TimeSeriesFile.getCacheFile(textFile);
+		try (RandomAccessFile raf = new RandomAccessFile(cache, "rw")) {
+			raf.setLength(raf.length() - 8);
+		}
+		TimeSeriesData data = TimeSeriesFile.load(textFile, DimensionlessUnit.class, 1.0e-3d);
+		assertEquals(2, data.getNumPoints());
+		assertEquals(1.5d, data.getValue(1), 0.0d);
+		assertEquals(TimeSeriesFile.HEADER_SIZE + 32L, cache.length());
+	}
+
+	@Test
+	public void testConcurrentLoad() throws Exception {
+		int n = 20000;
+		String[] lines = new String[n];
+		for (int i = 0; i < n; i++)
+			lines[i] = String.format("2010-01-01 %02d:%02d:%02d, %d", i / 3600, (i / 60) % 60, i % 60, i % 13);
+		writeText(lines);
+
+		final int numThreads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+		try {
+			for (int round = 0; round < 5; round++) {
+				TimeSeriesFile.getCacheFile(textFile).delete();
+				ArrayList<Future<TimeSeriesData>> results = new ArrayList<>();
+				for (int i = 0; i < numThreads; i++) {
+					results.add(pool.submit(new Callable<TimeSeriesData>() {
+						@Override
+						public TimeSeriesData call() {
+							return TimeSeriesFile.load(textFile, DimensionlessUnit.class, 1.0d);
+						}
+					}));
+				}
+				for (Future<TimeSeriesData> res : results) {
+					TimeSeriesData data = res.get();
+					assertEquals(n, data.getNumPoints());
+					for (int i = 0; i < n; i += 997) {
+						assertEquals(i, data.getTicks(i));
+						assertEquals(i % 13, data.getValue(i), 0.0d);
+					}
+				}
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = InputErrorException.class)
+	public void testTextOrder() throws IOException {
+		writeText("2010-01-01 01:00:00, 0.5",
+		          "2010-01-01 00:00:00, 1.5");
+		TimeSeriesFile.load(textFile, DimensionlessUnit.class, 1.0e-6d);
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.math;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TestStudentT {
+
+@Test
+public void testInverseCdf() {
+	// Two-sided 95% critical values from standard tables
+	assertEquals(12.7062, StudentT.inverseCdf(0.975d, 1), 1.0e-4);
+	assertEquals(4.3027, StudentT.inverseCdf(0.975d, 2), 1.0e-4);
+	assertEquals(2.7764, StudentT.inverseCdf(0.975d, 4), 1.0e-4);
+	assertEquals(2.2281, StudentT.inverseCdf(0.975d, 10), 1.0e-4);
+	assertEquals(2.0423, StudentT.inverseCdf(0.975d, 30), 1.0e-4);
+
+	// Other confidence levels
+	assertEquals(2.1318, StudentT.inverseCdf(0.95d, 4), 1.0e-4);
+	assertEquals(3.1693, StudentT.inverseCdf(0.995d, 10), 1.0e-4);
+	assertEquals(-2.2281, StudentT.inverseCdf(0.025d, 10), 1.0e-4);
+	assertEquals(0.0d, StudentT.inverseCdf(0.5d, 7), 1.0e-12);
+}
+
+@Test
+public void testCdf() {
+	// One degree of freedom is the Cauchy distribution
+	for (double t = -5.0d; t <= 5.0d; t += 0.5d) {
+		double expected = 0.5d + Math.atan(t) / Math.PI;
+		assertEquals(expected, StudentT.cdf(t, 1), 1.0e-12);
+	}
+
+	// Two degrees of freedom has a closed form
+	for (double t = -5.0d; t <= 5.0d; t += 0.5d) {
+		double expected = 0.5d + t / (2.0d * Math.sqrt(2.0d + t * t));
+		assertEquals(expected, StudentT.cdf(t, 2), 1.0e-12);
+	}
+}
+}
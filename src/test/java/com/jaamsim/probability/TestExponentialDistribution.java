@@ -16,14 +16,54 @@ package com.jaamsim.probability;
 
 import static org.junit.Assert.assertTrue;
 
+import java.util.HashSet;
+
 import org.junit.Test;
 
 import com.jaamsim.ProbabilityDistributions.ExponentialDistribution;
+import com.jaamsim.basicsim.ErrorException;
 import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.events.TestFrameworkHelpers;
 import com.jaamsim.input.InputAgent;
 
 public class TestExponentialDistribution {
 
+	static class DistinctSamples extends ProcessTarget {
+		final ExponentialDistribution dist;
+		final int numSamples;
+		final HashSet<Double> values = new HashSet<>();
+
+		public DistinctSamples(ExponentialDistribution dist, int numSamples) {
+			this.dist = dist;
+			this.numSamples = numSamples;
+		}
+		@Override
+		public String getDescription() {
+			return "DistinctSamplesUnitTest";
+		}
+
+		@Override
+		public void process() {
+			for (int i = 0; i < numSamples; i++)
+				values.add(dist.getNextSample(0.0d));
+		}
+	}
+
+	private static ExponentialDistribution defineDist(String mean, String minValue) {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		ExponentialDistribution dist = InputAgent.defineEntityWithUniqueName(ExponentialDistribution.class, "Dist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "Mean", mean);
+		InputAgent.applyArgs(dist, "MinValue", minValue);
+		InputAgent.applyArgs(dist, "RandomSeed", "0");
+		dist.validate();
+		return dist;
+	}
+
 	@Test
 	public void MeanAndStandardDeviation() {
 		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", "-", true);
@@ -44,4 +84,61 @@ public class TestExponentialDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.005 );
 	}
+
+	@Test
+	/**
+	 * Tests a truncated range, for which the memoryless property gives the mean
+	 */
+	public void TruncatedSampling() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		ExponentialDistribution dist = InputAgent.defineEntityWithUniqueName(ExponentialDistribution.class, "Dist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "Mean", "10.0");
+		InputAgent.applyArgs(dist, "MinValue", "50.0");
+		InputAgent.applyArgs(dist, "RandomSeed", "0");
+		dist.validate();
+		dist.earlyInit();
+
+		int numSamples = 1000000;
+		TestContinuousDistribution.sampleDistribution(dist, numSamples);
+
+		assertTrue( dist.getDrawsPerSample(0.0) == 1.0d );
+		assertTrue( dist.getSampleMin(0.0) >= 50.0d );
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / 60.0d - 1.0 ) < 0.001 );
+		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / 10.0d - 1.0 ) < 0.005 );
+	}
+
+	@Test
+	/**
+	 * Tests a range far out in the upper tail, where the CDF cannot resolve
+	 * more than a few hundred distinct values
+	 */
+	public void UpperTailSampling() {
+		ExponentialDistribution dist = defineDist("1.0", "30.0");
+		dist.earlyInit();
+		assertTrue( dist.getDrawsPerSample(0.0) == 0.0d );
+
+		int numSamples = 1000;
+		DistinctSamples target = new DistinctSamples(dist, numSamples);
+		EventManager evt = new EventManager("DistributionUnitTest");
+		evt.clear();
+		evt.scheduleProcessExternal(0, 0, false, target, null);
+		TestFrameworkHelpers.runEventsToTick(evt, Long.MAX_VALUE, 100000000);
+
+		assertTrue( target.values.size() == numSamples );
+		assertTrue( dist.getDrawsPerSample(0.0) == 1.0d );
+		assertTrue( dist.getSampleMin(0.0) >= 30.0d );
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / 31.0d - 1.0 ) < 0.005 );
+	}
+
+	@Test(expected = ErrorException.class)
+	/**
+	 * Tests that a range with zero probability is rejected before sampling
+	 */
+	public void ZeroProbability() {
+		ExponentialDistribution dist = defineDist("1.0", "1000.0");
+		dist.earlyInit();
+	}
 }
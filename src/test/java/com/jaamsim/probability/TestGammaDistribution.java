@@ -21,6 +21,7 @@ import org.junit.Test;
 import com.jaamsim.ProbabilityDistributions.GammaDistribution;
 import com.jaamsim.basicsim.ObjectType;
 import com.jaamsim.input.InputAgent;
+import com.jaamsim.math.Gamma;
 
 public class TestGammaDistribution {
 
@@ -69,4 +70,66 @@ public class TestGammaDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.005 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.005 );
 	}
+
+	@Test
+	/**
+	 * Tests that the truncated range is sampled by the inverse CDF
+	 */
+	public void TruncatedSampling() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		GammaDistribution dist = InputAgent.defineEntityWithUniqueName(GammaDistribution.class, "Dist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "Mean", "10.0");
+		InputAgent.applyArgs(dist, "Shape", "2.0");
+		InputAgent.applyArgs(dist, "MaxValue", "1.0");
+		InputAgent.applyArgs(dist, "RandomSeed", "1");
+		dist.validate();
+		dist.earlyInit();
+
+		int numSamples = 100000;
+		TestContinuousDistribution.sampleDistribution(dist, numSamples);
+
+		// Mean of the truncated distribution:
+		// E[X | X <= c] = mean * P(shape + 1, c*shape/mean) / P(shape, c*shape/mean)
+		double expected = 10.0d * Gamma.regularizedGammaP(3.0d, 0.2d, 1.0e-15, Integer.MAX_VALUE)
+		                        / Gamma.regularizedGammaP(2.0d, 0.2d, 1.0e-15, Integer.MAX_VALUE);
+
+		assertTrue( dist.getDrawsPerSample(0.0) == 1.0d );
+		assertTrue( dist.getSampleMax(0.0) <= 1.0d );
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / expected - 1.0 ) < 0.005 );
+	}
+
+	@Test
+	public void InverseRegularizedGammaP() {
+		double[] shapes = { 0.1, 0.5, 1.0, 2.0, 7.5, 100.0 };
+		double[] probs = { 1.0e-6, 0.01, 0.3, 0.5, 0.9, 0.999 };
+		for (double a : shapes) {
+			for (double p : probs) {
+				double x = Gamma.inverseRegularizedGammaP(a, p);
+				double val = Gamma.regularizedGammaP(a, x, 1.0e-15, Integer.MAX_VALUE);
+				assertTrue( Math.abs( val / p - 1.0 ) < 1.0e-9 );
+			}
+		}
+
+		// P(1, x) is the exponential distribution
+		assertTrue( Math.abs( Gamma.regularizedGammaP(1.0, 2.0, 1.0e-15, Integer.MAX_VALUE) + Math.expm1(-2.0) ) < 1.0e-14 );
+	}
+
+	@Test
+	public void InverseRegularizedGammaQ() {
+		double[] shapes = { 0.1, 0.5, 1.0, 2.0, 7.5, 100.0 };
+		double[] probs = { 1.0e-300, 1.0e-20, 1.0e-6, 0.3, 0.5, 0.9 };
+		for (double a : shapes) {
+			for (double q : probs) {
+				double x = Gamma.inverseRegularizedGammaQ(a, q);
+				double val = Gamma.regularizedGammaQ(a, x, 1.0e-15, Integer.MAX_VALUE);
+				assertTrue( Math.abs( val / q - 1.0 ) < 1.0e-9 );
+			}
+		}
+
+		// Q(1, x) is the exponential distribution
+		assertTrue( Math.abs( Gamma.inverseRegularizedGammaQ(1.0, 1.0e-20) / (20.0 * Math.log(10.0)) - 1.0 ) < 1.0e-12 );
+	}
 }
@@ -45,4 +45,51 @@ public class TestNormalDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.001 );
 	}
+
+	@Test
+	/**
+	 * Tests that a narrow truncated range is sampled with one random number per sample
+	 */
+	public void TruncatedSampling() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		NormalDistribution dist = InputAgent.defineEntityWithUniqueName(NormalDistribution.class, "Dist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "Mean", "10.0");
+		InputAgent.applyArgs(dist, "StandardDeviation", "2.0");
+		InputAgent.applyArgs(dist, "MinValue", "12.0");
+		InputAgent.applyArgs(dist, "MaxValue", "14.0");
+		InputAgent.applyArgs(dist, "RandomSeed", "0");
+		dist.validate();
+		dist.earlyInit();
+
+		int numSamples = 1000000;
+		TestContinuousDistribution.sampleDistribution(dist, numSamples);
+
+		// Mean of the standard normal distribution truncated to [1, 2]
+		double phi1 = Math.exp(-0.5d) / Math.sqrt(2.0d * Math.PI);
+		double phi2 = Math.exp(-2.0d) / Math.sqrt(2.0d * Math.PI);
+		double prob = NormalDistribution.standardNormalCDF(2.0d) - NormalDistribution.standardNormalCDF(1.0d);
+		double expected = 10.0d + 2.0d * (phi1 - phi2) / prob;
+
+		assertTrue( dist.getDrawsPerSample(0.0) == 1.0d );
+		assertTrue( dist.getSampleMin(0.0) >= 12.0d );
+		assertTrue( dist.getSampleMax(0.0) <= 14.0d );
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / expected - 1.0 ) < 0.001 );
+	}
+
+	@Test
+	public void StandardNormalCDF() {
+		assertTrue( NormalDistribution.standardNormalCDF(0.0d) == 0.5d );
+		assertTrue( Math.abs( NormalDistribution.standardNormalCDF(1.0d) - 0.8413447460685429 ) < 1.0e-14 );
+		assertTrue( Math.abs( NormalDistribution.standardNormalCDF(-3.0d) / 0.0013498980316301 - 1.0 ) < 1.0e-12 );
+		assertTrue( Math.abs( NormalDistribution.standardNormalCDF(-10.0d) / 7.619853024160527e-24 - 1.0 ) < 1.0e-12 );
+
+		double[] probs = { 1.0e-12, 1.0e-6, 0.01, 0.02425, 0.1, 0.5, 0.75, 0.99, 1.0 - 1.0e-9 };
+		for (double p : probs) {
+			double x = NormalDistribution.standardNormalInverseCDF(p);
+			assertTrue( Math.abs( NormalDistribution.standardNormalCDF(x) / p - 1.0 ) < 1.0e-12 );
+		}
+	}
 }
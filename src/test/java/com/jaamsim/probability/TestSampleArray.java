@@ -0,0 +1,129 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.probability;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jaamsim.ProbabilityDistributions.BetaDistribution;
+import com.jaamsim.ProbabilityDistributions.DiscreteDistribution;
+import com.jaamsim.ProbabilityDistributions.Distribution;
+import com.jaamsim.ProbabilityDistributions.ExponentialDistribution;
+import com.jaamsim.ProbabilityDistributions.GammaDistribution;
+import com.jaamsim.ProbabilityDistributions.LogLogisticDistribution;
+import com.jaamsim.ProbabilityDistributions.NormalDistribution;
+import com.jaamsim.ProbabilityDistributions.TriangularDistribution;
+import com.jaamsim.ProbabilityDistributions.UniformDistribution;
+import com.jaamsim.ProbabilityDistributions.WeibullDistribution;
+import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.events.TestFrameworkHelpers;
+import com.jaamsim.input.InputAgent;
+
+public class TestSampleArray {
+	static class SampleArray extends ProcessTarget {
+		final Distribution seqDist;
+		final Distribution arrayDist;
+		boolean identical;
+
+		public SampleArray(Distribution seqDist, Distribution arrayDist) {
+			this.seqDist = seqDist;
+			this.arrayDist = arrayDist;
+		}
+		@Override
+		public String getDescription() {
+			return "SampleArrayUnitTest";
+		}
+
+		@Override
+		public void process() {
+			identical = true;
+			int[] lengths = { 0, 1, 5, 1000, 3 };
+			for (int len : lengths) {
+				double[] out = new double[len];
+				arrayDist.sample(out);
+				for (int i = 0; i < len; i++) {
+					double expected = seqDist.getNextSample(0.0d);
+					if (Double.doubleToRawLongBits(out[i]) != Double.doubleToRawLongBits(expected))
+						identical = false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * An exponential distribution whose CDF is shifted to start at 5, so that a
+	 * MinValue of 5 does not truncate it. The values below 5 are then rejected
+	 * after being drawn in a block, rather than avoided by the inverse CDF.
+	 */
+	public static class ShiftedCDFExponential extends ExponentialDistribution {
+		@Override
+		public double getCDF(double x) {
+			return super.getCDF(x - 5.0d);
+		}
+	}
+
+	/**
+	 * Returns true if sampling the distribution into arrays gives the same
+	 * values and statistics as sampling it one value at a time.
+	 */
+	private static boolean testDistribution(Class<? extends Distribution> klass, String... args) {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		Distribution[] dists = new Distribution[2];
+		for (int i = 0; i < dists.length; i++) {
+			dists[i] = InputAgent.defineEntityWithUniqueName(klass, "Dist", "-", true);
+			InputAgent.applyArgs(dists[i], "UnitType", t.getName());
+			InputAgent.applyArgs(dists[i], "RandomSeed", "3");
+			for (int j = 0; j < args.length; j += 2)
+				InputAgent.applyArgs(dists[i], args[j], args[j + 1].split(" "));
+			dists[i].validate();
+			dists[i].earlyInit();
+		}
+
+		SampleArray target = new SampleArray(dists[0], dists[1]);
+		EventManager evt = new EventManager("SampleArrayUnitTest");
+		evt.clear();
+		evt.scheduleProcessExternal(0, 0, false, target, null);
+		TestFrameworkHelpers.runEventsToTick(evt, Long.MAX_VALUE, 100000000);
+
+		return target.identical && dists[1].getNumberOfSamples(0.0d) == 1009
+		    && dists[0].getNumberOfSamples(0.0d) == dists[1].getNumberOfSamples(0.0d)
+		    && dists[0].getSampleMean(0.0d) == dists[1].getSampleMean(0.0d)
+		    && dists[0].getSampleStandardDeviation(0.0d) == dists[1].getSampleStandardDeviation(0.0d)
+		    && dists[0].getSampleMin(0.0d) == dists[1].getSampleMin(0.0d)
+		    && dists[0].getSampleMax(0.0d) == dists[1].getSampleMax(0.0d)
+		    && dists[0].getDrawsPerSample(0.0d) == dists[1].getDrawsPerSample(0.0d);
+	}
+
+	@Test
+	public void SampleArray() {
+		assertTrue(testDistribution(ExponentialDistribution.class, "Mean", "10.0"));
+		assertTrue(testDistribution(ExponentialDistribution.class, "Mean", "10.0", "MinValue", "5.0", "MaxValue", "20.0"));
+		assertTrue(testDistribution(ShiftedCDFExponential.class, "Mean", "10.0", "MinValue", "5.0"));
+		assertTrue(testDistribution(UniformDistribution.class, "MinValue", "2.0", "MaxValue", "3.0"));
+		assertTrue(testDistribution(WeibullDistribution.class, "Shape", "2.0", "Location", "1.0"));
+		assertTrue(testDistribution(LogLogisticDistribution.class, "Shape", "3.0"));
+		assertTrue(testDistribution(BetaDistribution.class, "AlphaParam", "2.0", "BetaParam", "3.0"));
+		assertTrue(testDistribution(NormalDistribution.class, "Mean", "10.0", "StandardDeviation", "2.0"));
+		assertTrue(testDistribution(GammaDistribution.class, "Shape", "0.5", "MaxValue", "3.0"));
+		assertTrue(testDistribution(TriangularDistribution.class, "Mode", "0.2"));
+		assertTrue(testDistribution(DiscreteDistribution.class,
+				"ValueList", "1.0 3.0 10.0", "ProbabilityList", "0.3 0.5 0.2", "MaxValue", "5.0"));
+	}
+}
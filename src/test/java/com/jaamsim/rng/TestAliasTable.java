@@ -0,0 +1,76 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.rng;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestAliasTable {
+
+	/**
+	 * Returns the fraction of an evenly spaced grid of random numbers that
+	 * selects each outcome.
+	 */
+	private static double[] getFractions(AliasTable table, int numPoints) {
+		double[] ret = new double[table.size()];
+		for (int i = 0; i < numPoints; i++) {
+			double u = (i + 0.5d) / numPoints;
+			ret[table.sample(u)] += 1.0d / numPoints;
+		}
+		return ret;
+	}
+
+	@Test
+	public void testProbabilities() {
+		double[] probs = { 0.3, 0.0, 0.05, 0.4, 0.25 };
+		AliasTable table = new AliasTable(probs);
+
+		double[] frac = getFractions(table, 1000000);
+		for (int i = 0; i < probs.length; i++)
+			assertTrue(Math.abs(frac[i] - probs[i]) < 1.0e-5);
+
+		// An outcome with zero probability is never selected
+		assertTrue(frac[1] == 0.0d);
+	}
+
+	@Test
+	public void testUnnormalisedWeights() {
+		double[] weights = new double[1000];
+		double total = 0.0d;
+		MRG1999a rng = new MRG1999a(1, 0);
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = rng.nextUniform() * ((i % 7 == 0) ? 100.0d : 1.0d);
+			total += weights[i];
+		}
+		AliasTable table = new AliasTable(weights);
+
+		double[] frac = getFractions(table, 10000000);
+		for (int i = 0; i < weights.length; i++)
+			assertTrue(Math.abs(frac[i] - weights[i] / total) < 1.0e-6);
+	}
+
+	@Test
+	public void testLimits() {
+		AliasTable table = new AliasTable(new double[] { 2.0 });
+		assertTrue(table.sample(0.0d) == 0);
+		assertTrue(table.sample(0.999999d) == 0);
+
+		table = new AliasTable(new double[] { 0.0, 1.0, 0.0 });
+		for (int i = 0; i < 100; i++)
+			assertTrue(table.sample(i / 100.0d) == 1);
+		assertTrue(table.sample(1.0d) == 1);
+	}
+}
@@ -196,4 +196,36 @@ public class TestMRG1999a {
 
 		assertTrue(test1.toString().equals(test2.toString()));
 	}
+
+	@Test
+	public void testFill() {
+		// Compare blocks of several lengths, including a stream of extreme seeds
+		MRG1999a[] seq = { new MRG1999a(0, 0), new MRG1999a(17, 3), new MRG1999a(4294967086l, 1, 4294967086l, 4294944442l, 1, 4294944442l) };
+		MRG1999a[] blk = { new MRG1999a(0, 0), new MRG1999a(17, 3), new MRG1999a(4294967086l, 1, 4294967086l, 4294944442l, 1, 4294944442l) };
+		int[] lengths = { 0, 1, 2, 3, 7, 1000, 100000 };
+
+		for (int k = 0; k < seq.length; k++) {
+			for (int len : lengths) {
+				double[] vals = new double[len + 5];
+				vals[0] = -1.0d;
+				vals[len + 4] = -1.0d;
+				blk[k].fill(vals, 2, len);
+				for (int i = 0; i < len; i++) {
+					double expected = seq[k].nextUniform();
+					assertTrue(Double.doubleToRawLongBits(vals[2 + i]) == Double.doubleToRawLongBits(expected));
+				}
+
+				// The values outside the block are untouched and the state matches
+				assertTrue(vals[0] == -1.0d && vals[1] == 0.0d);
+				assertTrue(vals[len + 2] == 0.0d && vals[len + 4] == -1.0d);
+				assertTrue(blk[k].toString().equals(seq[k].toString()));
+			}
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testFillBounds() {
+		MRG1999a rng = new MRG1999a(0, 0);
+		rng.fill(new double[10], 5, 6);
+	}
 }